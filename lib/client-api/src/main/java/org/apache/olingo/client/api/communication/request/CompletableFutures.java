@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.api.communication.request;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Adapts the futures of request implementations that do not provide a <code>CompletableFuture</code>.
+ */
+final class CompletableFutures {
+
+  private CompletableFutures() {
+    // Utility class
+  }
+
+  /**
+   * Returns the given future if it is a <code>CompletableFuture</code>;
+   * otherwise a thread of the common pool waits for it.
+   */
+  static <T> CompletableFuture<T> of(final Future<T> future) {
+    if (future instanceof CompletableFuture) {
+      return (CompletableFuture<T>) future;
+    }
+    return CompletableFuture.supplyAsync(new Supplier<T>() {
+      @Override
+      public T get() {
+        try {
+          return future.get();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new CompletionException(e);
+        } catch (final ExecutionException e) {
+          throw new CompletionException(e.getCause());
+        }
+      }
+    });
+  }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.olingo.client.api.communication.request;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
 import org.apache.olingo.client.api.communication.response.ODataResponse;
@@ -41,9 +42,25 @@ public interface ODataBasicRequest<T extends ODataResponse> extends ODataRequest
    * Async request execute.
    *
    * @return <code>Future&lt;ODataResponse&gt;</code> about the executed request.
+   * @see #asyncExecuteCompletable()
    */
   Future<T> asyncExecute();
 
+  /**
+   * Async request execute, returning a future that can be composed with further stages
+   * instead of blocking a thread on <tt>get()</tt>.
+   * <br/>
+   * The request is run on the configured executor. Cancelling the returned future aborts the underlying
+   * HTTP request. The default implementation adapts the future of {@link #asyncExecute()}; if that is not a
+   * <code>CompletableFuture</code>, a thread of the common pool waits for it.
+   *
+   * @return <code>CompletableFuture&lt;ODataResponse&gt;</code> about the executed request.
+   * @see org.apache.olingo.client.api.Configuration#getExecutor()
+   */
+  default CompletableFuture<T> asyncExecuteCompletable() {
+    return CompletableFutures.of(asyncExecute());
+  }
+
   /**
    * Override configured request Content-Type.
    *
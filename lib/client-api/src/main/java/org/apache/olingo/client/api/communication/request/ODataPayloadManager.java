@@ -19,6 +19,7 @@
 package org.apache.olingo.client.api.communication.request;
 
 import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
 import org.apache.olingo.client.api.communication.response.ODataResponse;
@@ -53,6 +54,22 @@ public interface ODataPayloadManager<T extends ODataResponse> extends ODataStrea
    * Closes the payload input stream and ask for an asynchronous response.
    *
    * @return <code>Future&lt;ODataResponse&gt;</code> about the executed request.
+   * @see #getAsyncResponseCompletable()
    */
   Future<T> getAsyncResponse();
+
+  /**
+   * Closes the payload input stream and ask for an asynchronous response.
+   * <br/>
+   * The returned future completes once the response has been received, so that further processing can be
+   * chained without blocking a thread on <tt>get()</tt>.
+   * Cancelling the returned future only stops waiting for the response; it does not abort the HTTP request.
+   * The default implementation adapts the future of {@link #getAsyncResponse()}; if that is not a
+   * <code>CompletableFuture</code>, a thread of the common pool waits for it.
+   *
+   * @return <code>CompletableFuture&lt;ODataResponse&gt;</code> about the executed request.
+   */
+  default CompletableFuture<T> getAsyncResponseCompletable() {
+    return CompletableFutures.of(getAsyncResponse());
+  }
 }
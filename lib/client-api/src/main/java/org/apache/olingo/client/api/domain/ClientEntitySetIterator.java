@@ -18,21 +18,19 @@
  */
 package org.apache.olingo.client.api.domain;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.communication.request.retrieve.ODataEntitySetIteratorRequest;
+import org.apache.olingo.client.api.communication.response.ODataRetrieveResponse;
 import org.apache.olingo.client.api.data.ResWrap;
 import org.apache.olingo.client.api.serialization.ODataDeserializerException;
-import org.apache.olingo.commons.api.Constants;
 import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityIterator;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +38,10 @@ import org.slf4j.LoggerFactory;
 /**
  * OData entity set iterator class.
  * <br/>
+ * Entities are read one at a time from the response stream, so only the entity currently returned is kept
+ * in memory. When {@link #followNextLinks()} is enabled, the pages referenced by <tt>@odata.nextLink</tt>
+ * are requested and iterated transparently once the current one is exhausted.
+ * <br/>
  * <b>Please don't forget to call the <tt>close()>/</tt> method when not needed any more.</b>
  *
  * @param <E> concrete ODataEntity implementation
@@ -57,18 +59,22 @@ public class ClientEntitySetIterator<T extends ClientEntitySet, E extends Client
 
   protected ResWrap<Entity> cached;
 
-  private final InputStream stream;
+  private InputStream stream;
 
   private final ContentType contentType;
 
-  private T entitySet;
+  private EntityIterator entities;
 
-  private final ByteArrayOutputStream osEntitySet;
+  private ODataRetrieveResponse<?> page;
 
-  private final String namespaces;
+  private boolean followNextLinks = false;
 
   private boolean available = true;
 
+  private boolean completed = false;
+
+  private URI next;
+
   /**
    * Constructor.
    *
@@ -80,55 +86,70 @@ public class ClientEntitySetIterator<T extends ClientEntitySet, E extends Client
                                  final ContentType contentType) {
 
     this.odataClient = odataClient;
-    this.stream = stream;
     this.contentType = contentType;
-    this.osEntitySet = new ByteArrayOutputStream();
-    
-    if(contentType.isCompatible(ContentType.APPLICATION_ATOM_SVC)
-        || contentType.isCompatible(ContentType.APPLICATION_ATOM_XML)) {
-      namespaces = getAllElementAttributes(stream, "feed", osEntitySet);
-    } else {
-      namespaces = null;
-      try {
-        if (consume(stream, "\"value\":", osEntitySet, true) >= 0) {
-          int c = 0;
-          while (c != '[' && (c = stream.read()) >= 0) {
-            osEntitySet.write(c);
-          }
-        }
-      } catch (IOException e) {
-        LOG.error("Error parsing entity set", e);
-        throw new IllegalStateException(e);
-      }
+    this.stream = stream;
+    this.entities = read(stream);
+  }
+
+  private EntityIterator read(final InputStream input) {
+    try {
+      return odataClient.getDeserializer(contentType).toEntitySetIterator(input);
+    } catch (final ODataDeserializerException e) {
+      IOUtils.closeQuietly(input);
+      LOG.error("Error parsing entity set", e);
+      throw new IllegalStateException(e);
     }
   }
 
-  @SuppressWarnings("unchecked")
+  /**
+   * Enables automatic continuation: once the current page is exhausted, the page referenced by its next link
+   * is requested with the same format and iterated as part of this iterator.
+   *
+   * @return this iterator.
+   */
+  public ClientEntitySetIterator<T, E> followNextLinks() {
+    this.followNextLinks = true;
+    return this;
+  }
+
   @Override
   public boolean hasNext() {
-    if (available && cached == null) {
-      if (contentType.isCompatible(ContentType.APPLICATION_ATOM_SVC)
-          || contentType.isCompatible(ContentType.APPLICATION_ATOM_XML)) {
-        cached = nextAtomEntityFromEntitySet(stream, osEntitySet, namespaces);
-      } else {
-        cached = nextJSONEntityFromEntitySet(stream, osEntitySet);
-      }
-
-      if (cached == null) {
-        available = false;
-        try {
-          entitySet = (T) odataClient.getReader().
-                  readEntitySet(new ByteArrayInputStream(osEntitySet.toByteArray()), contentType);
-        } catch (final ODataDeserializerException e) {
-          available = false;
+    while (available && cached == null) {
+      try {
+        if (entities.hasNext()) {
+          cached = new ResWrap<>((URI) null, null, entities.next());
+        } else {
+          next = entities.getNext();
+          close();
+          if (followNextLinks && next != null) {
+            nextPage();
+          } else {
+            available = false;
+            completed = true;
+          }
         }
+      } catch (final RuntimeException e) {
+        // A broken page must not look like the end of the entity set.
+        available = false;
         close();
+        throw e;
       }
     }
 
     return available;
   }
 
+  private void nextPage() {
+    final URI base = entities.getBaseURI();
+    final URI uri = next.isAbsolute() || base == null || !base.isAbsolute() ? next : base.resolve(next);
+    final ODataEntitySetIteratorRequest<ClientEntitySet, ClientEntity> request =
+        odataClient.getRetrieveRequestFactory().getEntitySetIteratorRequest(uri);
+    request.setFormat(contentType);
+    page = request.execute();
+    stream = page.getRawResponse();
+    entities = read(stream);
+  }
+
   @Override
   public E next() {
     if (hasNext()) {
@@ -154,168 +175,23 @@ public class ClientEntitySetIterator<T extends ClientEntitySet, E extends Client
    */
   public void close() {
     IOUtils.closeQuietly(stream);
-    IOUtils.closeQuietly(osEntitySet);
+    if (page != null) {
+      page.close();
+      page = null;
+    }
   }
 
   /**
    * Gets the next link if exists.
+   * <br/>
+   * When next links are followed, this is the next link of the last page read, i.e. usually <tt>null</tt>.
    *
    * @return next link if exists; null otherwise.
    */
   public URI getNext() {
-    if (entitySet == null) {
+    if (!completed) {
       throw new IllegalStateException("Iteration must be completed in order to retrieve the link for next page");
     }
-    return entitySet.getNext();
-  }
-
-  private ResWrap<Entity> nextJSONEntityFromEntitySet(final InputStream input, final OutputStream osEntitySet) {
-    final ByteArrayOutputStream entity = new ByteArrayOutputStream();
-
-    ResWrap<Entity> jsonEntity = null;
-    try {
-      int c;
-
-      boolean foundNewOne = false;
-
-      do {
-        c = input.read();
-        if (c == '{') {
-          entity.write(c);
-          c = -1;
-          foundNewOne = true;
-        }
-        if (c == ']') {
-          osEntitySet.write(c);
-          c = -1;
-        }
-      } while (c >= 0);
-
-      if (foundNewOne) {
-        int objectCount = 1;
-        int stringCount = 0;
-        c = 0;
-
-        boolean previousCharIsEscape = false;
-        
-        while (objectCount > 0 && c >= 0) {
-          c = input.read();
-          if (c == '{' && stringCount <= 0) {
-              objectCount++;
-          } else if (c == '}' && stringCount <= 0) {
-            objectCount--;
-            // Detect JSON Strings to be able to correctly detect an Entity
-          } else if (c == '"' && stringCount <= 0  && !previousCharIsEscape) {
-            stringCount++;
-          } else if (c == '"' && stringCount > 0  && !previousCharIsEscape) {
-            stringCount--;
-          }
-          entity.write(c);
-          if (c == '\\' && !previousCharIsEscape) {
-            previousCharIsEscape = true;
-          } else {
-            previousCharIsEscape = false;
-          }
-        }
-
-        if (c >= 0) {
-          jsonEntity = odataClient.getDeserializer(ContentType.JSON).toEntity(
-                  new ByteArrayInputStream(entity.toByteArray()));
-        }
-      } else {
-        while ((c = input.read()) >= 0) {
-          osEntitySet.write(c);
-        }
-      }
-    } catch (Exception e) {
-      LOG.error("Error retrieving entities from EntitySet", e);
-    }
-
-    return jsonEntity;
-  }
-
-  private ResWrap<Entity> nextAtomEntityFromEntitySet(
-          final InputStream input, final OutputStream osEntitySet, final String namespaces) {
-
-    final ByteArrayOutputStream entity = new ByteArrayOutputStream();
-
-    ResWrap<Entity> atomEntity = null;
-
-    try {
-      if (consume(input, "<entry>", osEntitySet, false) >= 0) {
-        entity.write("<entry ".getBytes(Constants.UTF8));
-        entity.write(namespaces.getBytes(Constants.UTF8));
-        entity.write(">".getBytes(Constants.UTF8));
-
-        if (consume(input, "</entry>", entity, true) >= 0) {
-          atomEntity = odataClient.getDeserializer(ContentType.APPLICATION_ATOM_XML).
-                  toEntity(new ByteArrayInputStream(entity.toByteArray()));
-        }
-      }
-    } catch (Exception e) {
-      LOG.error("Error retrieving entities from EntitySet", e);
-    }
-
-    return atomEntity;
-  }
-
-  private String getAllElementAttributes(final InputStream input, final String name, final OutputStream os) {
-    final ByteArrayOutputStream attrs = new ByteArrayOutputStream();
-
-    String res;
-
-    try {
-      byte[] attrsDeclaration = null;
-
-      final String key = "<" + name + " ";
-      if (consume(input, key, os, true) >= 0 && consume(input, ">", attrs, false) >= 0) {
-        attrsDeclaration = attrs.toByteArray();
-        os.write(attrsDeclaration);
-        os.write('>');
-      }
-
-      res = attrsDeclaration == null ? "" : new String(attrsDeclaration, Constants.UTF8).trim();
-    } catch (Exception e) {
-      LOG.error("Error retrieving entities from EntitySet", e);
-      res = "";
-    }
-
-    return res.endsWith("/") ? res.substring(0, res.length() - 1) : res;
-  }
-
-  private int consume(
-          final InputStream input, final String end, final OutputStream os, final boolean includeEndKey)
-          throws IOException {
-
-    final char[] endKey = end.toCharArray();
-    final char[] endLowerKey = end.toLowerCase().toCharArray();
-    final char[] endUpperKey = end.toUpperCase().toCharArray();
-
-    int pos = 0;
-    int c = 0;
-    while (pos < endKey.length && (c = input.read()) >= 0) {
-      if (c == endLowerKey[pos] || c == endUpperKey[pos]) {
-        pos++;
-        if (includeEndKey && os != null) {
-          os.write(c);
-        }
-      } else if (pos > 0) {
-        if (!includeEndKey && os != null) {
-          for (int i = 0; i < pos; i++) {
-            os.write(endKey[i]);
-          }
-        }
-        if (os != null) {
-          os.write(c);
-        }
-        pos = 0;
-      } else {
-        if (os != null) {
-          os.write(c);
-        }
-      }
-    }
-
-    return c;
+    return next;
   }
 }
@@ -23,6 +23,7 @@ import java.io.InputStream;
 import org.apache.olingo.client.api.data.ResWrap;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
 import org.apache.olingo.commons.api.data.Property;
 import org.apache.olingo.commons.api.ex.ODataError;
 
@@ -39,6 +40,18 @@ public interface ODataDeserializer {
    */
   ResWrap<EntityCollection> toEntitySet(InputStream input) throws ODataDeserializerException;
 
+  /**
+   * Gets an iterator reading the entities of an entity set one by one from the given InputStream.
+   * <br/>
+   * The stream is read while iterating; count, next link and delta link are complete once the
+   * iteration has finished. Errors while iterating are thrown as
+   * {@link org.apache.olingo.commons.api.ex.ODataRuntimeException} with the cause attached.
+   *
+   * @param input stream to be de-serialized.
+   * @return {@link EntityIterator} instance.
+   */
+  EntityIterator toEntitySetIterator(InputStream input) throws ODataDeserializerException;
+
   /**
    * Gets an entity object from the given InputStream.
    *
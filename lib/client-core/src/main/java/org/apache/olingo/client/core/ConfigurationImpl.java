@@ -21,8 +21,8 @@ package org.apache.olingo.client.core;
 import org.apache.olingo.client.api.Configuration;
 import org.apache.olingo.client.api.http.HttpClientFactory;
 import org.apache.olingo.client.api.http.HttpUriRequestFactory;
-import org.apache.olingo.client.core.http.DefaultHttpClientFactory;
 import org.apache.olingo.client.core.http.DefaultHttpUriRequestFactory;
+import org.apache.olingo.client.core.http.PoolingHttpClientFactory;
 import org.apache.olingo.commons.api.format.ContentType;
 
 import java.util.HashMap;
@@ -146,12 +146,16 @@ public class ConfigurationImpl implements Configuration {
   }
 
   @Override
-  public HttpClientFactory getHttpClientFactory() {
-    return (HttpClientFactory) getProperty(HTTP_CLIENT_FACTORY, new DefaultHttpClientFactory());
+  public synchronized HttpClientFactory getHttpClientFactory() {
+    if (!CONF.containsKey(HTTP_CLIENT_FACTORY)) {
+      // Kept so that all requests of this client share the connection pool.
+      setProperty(HTTP_CLIENT_FACTORY, new PoolingHttpClientFactory());
+    }
+    return (HttpClientFactory) getProperty(HTTP_CLIENT_FACTORY, null);
   }
 
   @Override
-  public void setHttpClientFactory(final HttpClientFactory factory) {
+  public synchronized void setHttpClientFactory(final HttpClientFactory factory) {
     setProperty(HTTP_CLIENT_FACTORY, factory);
   }
 
@@ -22,8 +22,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.Charset;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -68,12 +70,27 @@ public abstract class AbstractODataBasicRequest<T extends ODataResponse>
 
   @Override
   public final Future<T> asyncExecute() {
-    return odataClient.getConfiguration().getExecutor().submit(new Callable<T>() {
+    return asyncExecuteCompletable();
+  }
+
+  @Override
+  public final CompletableFuture<T> asyncExecuteCompletable() {
+    final CompletableFuture<T> future = CompletableFuture.supplyAsync(new Supplier<T>() {
       @Override
-      public T call() throws Exception { //NOSONAR
+      public T get() {
         return execute();
       }
+    }, odataClient.getConfiguration().getExecutor());
+    // Cancelling a CompletableFuture does not interrupt the thread executing it, so the request is aborted instead.
+    future.whenComplete(new BiConsumer<T, Throwable>() {
+      @Override
+      public void accept(final T response, final Throwable error) {
+        if (future.isCancelled()) {
+          request.abort();
+        }
+      }
     });
+    return future;
   }
 
   /**
@@ -19,10 +19,13 @@
 package org.apache.olingo.client.core.communication.request;
 
 import java.io.InputStream;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpResponse;
@@ -146,38 +149,55 @@ public abstract class AbstractODataStreamManager<T extends ODataResponse> extend
     return getResponse(30, TimeUnit.SECONDS);
   }
 
+  /**
+   * Completes the request payload, so that the server can answer; invoked before waiting for the response.
+   * Implementations must allow being invoked more than once.
+   */
+  protected void finalizeRequest() {
+    finalizeBody();
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   public final Future<T> getAsyncResponse() {
-    return new Future<T>() {
-      @Override
-      public boolean cancel(final boolean mayInterruptIfRunning) {
-        return futureWrap.getWrapped().cancel(mayInterruptIfRunning);
-      }
-
-      @Override
-      public boolean isCancelled() {
-        return futureWrap.getWrapped().isCancelled();
-      }
-
-      @Override
-      public boolean isDone() {
-        return futureWrap.getWrapped().isDone();
-      }
+    return getAsyncResponseCompletable();
+  }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public final CompletableFuture<T> getAsyncResponseCompletable() {
+    finalizeRequest();
+
+    final Future<HttpResponse> httpResponse = futureWrap.getWrapped();
+    if (httpResponse instanceof CompletableFuture) {
+      return ((CompletableFuture<HttpResponse>) httpResponse).thenApply(new Function<HttpResponse, T>() {
+        @Override
+        public T apply(final HttpResponse response) {
+          // the HTTP response is already available: no need to wait
+          return getResponse(0, TimeUnit.SECONDS);
+        }
+      });
+    }
+    return CompletableFuture.supplyAsync(new Supplier<T>() {
       @Override
-      public T get() throws InterruptedException, ExecutionException {
-        return getResponse(0, TimeUnit.SECONDS);
+      public T get() {
+        return getResponse();
       }
+    }, getExecutor());
+  }
 
-      @Override
-      public T get(final long timeout, final TimeUnit unit)
-              throws InterruptedException, ExecutionException, TimeoutException {
-
-        return getResponse(timeout, unit);
-      }
-    };
+  /**
+   * Gets the executor waiting for the response if the HTTP response is not provided as a
+   * <code>CompletableFuture</code>. Implementations should return the executor configured for their client.
+   *
+   * @return executor.
+   */
+  protected Executor getExecutor() {
+    return ForkJoinPool.commonPool();
   }
 }
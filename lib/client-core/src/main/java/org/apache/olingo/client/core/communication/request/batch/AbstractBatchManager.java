@@ -45,6 +45,8 @@ public abstract class AbstractBatchManager extends AbstractODataStreamManager<OD
    */
   protected ODataBatchRequestItem currentItem = null;
 
+  private boolean requestFinalized = false;
+
   /**
    * batch request reference.
    */
@@ -107,11 +109,19 @@ public abstract class AbstractBatchManager extends AbstractODataStreamManager<OD
     }
   }
 
+  @Override
+  protected void finalizeRequest() {
+    if (!requestFinalized) {
+      requestFinalized = true;
+      closeCurrentItem();
+      streamCloseDelimiter();
+      finalizeBody();
+    }
+  }
+
   @Override
   protected ODataBatchResponse getResponse(final long timeout, final TimeUnit unit) {
-    closeCurrentItem();
-    streamCloseDelimiter();
-    finalizeBody();
+    finalizeRequest();
     return getResponseInstance(timeout, unit);
   }
 
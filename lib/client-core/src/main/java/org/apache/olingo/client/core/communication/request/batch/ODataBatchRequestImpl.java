@@ -21,6 +21,7 @@ package org.apache.olingo.client.core.communication.request.batch;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Iterator;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.http.HttpResponse;
@@ -83,6 +84,11 @@ public class ODataBatchRequestImpl
               ODataBatchRequestImpl.this.odataClient.getConfiguration().isContinueOnError());
     }
 
+    @Override
+    protected Executor getExecutor() {
+      return odataClient.getConfiguration().getExecutor();
+    }
+
     @Override
     protected ODataBatchResponse getResponseInstance(final long timeout, final TimeUnit unit) {
       return new ODataBatchResponseImpl(odataClient, httpClient, getHttpResponse(timeout, unit));
@@ -22,8 +22,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.Charset;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -100,9 +101,9 @@ public abstract class AbstractODataStreamedRequest<V extends ODataResponse, T ex
     payloadManager = getPayloadManager();
 
     if (URIUtils.shouldUseRepeatableHttpBodyEntry(odataClient)) {
-      futureWrapper.setWrapped(odataClient.getConfiguration().getExecutor().submit(new Callable<HttpResponse>() {
+      futureWrapper.setWrapped(CompletableFuture.supplyAsync(new Supplier<HttpResponse>() {
         @Override
-        public HttpResponse call() throws Exception { //NOSONAR
+        public HttpResponse get() {
           ((HttpEntityEnclosingRequestBase) request).setEntity(
                   URIUtils.buildInputStreamEntity(odataClient, payloadManager.getBody()));
           try {
@@ -111,21 +112,21 @@ public abstract class AbstractODataStreamedRequest<V extends ODataResponse, T ex
             payloadManager.finalizeBody();
           }
         }
-      }));
+      }, odataClient.getConfiguration().getExecutor()));
     } else {
       ((HttpEntityEnclosingRequestBase) request).setEntity(
               URIUtils.buildInputStreamEntity(odataClient, payloadManager.getBody()));
 
-      futureWrapper.setWrapped(odataClient.getConfiguration().getExecutor().submit(new Callable<HttpResponse>() {
+      futureWrapper.setWrapped(CompletableFuture.supplyAsync(new Supplier<HttpResponse>() {
         @Override
-        public HttpResponse call() throws Exception { //NOSONAR
+        public HttpResponse get() {
           try {
             return doExecute();
           } finally {
             payloadManager.finalizeBody();
           }
         }
-      }));
+      }, odataClient.getConfiguration().getExecutor()));
     }
 
     // returns the stream manager object
@@ -20,6 +20,7 @@ package org.apache.olingo.client.core.communication.request.streamed;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.http.HttpResponse;
@@ -84,6 +85,11 @@ public class ODataMediaEntityCreateRequestImpl<E extends ClientEntity>
       super(ODataMediaEntityCreateRequestImpl.this.futureWrapper, input);
     }
 
+    @Override
+    protected Executor getExecutor() {
+      return odataClient.getConfiguration().getExecutor();
+    }
+
     @Override
     protected ODataMediaEntityCreateResponse<E> getResponse(final long timeout, final TimeUnit unit) {
       finalizeBody();
@@ -20,6 +20,7 @@ package org.apache.olingo.client.core.communication.request.streamed;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.http.HttpResponse;
@@ -85,6 +86,11 @@ public class ODataMediaEntityUpdateRequestImpl<E extends ClientEntity>
       super(ODataMediaEntityUpdateRequestImpl.this.futureWrapper, input);
     }
 
+    @Override
+    protected Executor getExecutor() {
+      return odataClient.getConfiguration().getExecutor();
+    }
+
     @Override
     protected ODataMediaEntityUpdateResponse<E> getResponse(final long timeout, final TimeUnit unit) {
       finalizeBody();
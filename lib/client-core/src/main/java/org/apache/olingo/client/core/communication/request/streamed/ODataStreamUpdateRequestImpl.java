@@ -20,6 +20,7 @@ package org.apache.olingo.client.core.communication.request.streamed;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.http.HttpResponse;
@@ -80,6 +81,11 @@ public class ODataStreamUpdateRequestImpl
       super(ODataStreamUpdateRequestImpl.this.futureWrapper, input);
     }
 
+    @Override
+    protected Executor getExecutor() {
+      return odataClient.getConfiguration().getExecutor();
+    }
+
     /**
      * {@inheritDoc }
      */
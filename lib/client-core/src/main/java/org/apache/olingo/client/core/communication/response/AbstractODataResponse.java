@@ -244,6 +244,8 @@ public abstract class AbstractODataResponse implements ODataResponse {
 
   @Override
   public void close() {
+    // Releases the connection of a response that has not been read completely.
+    HttpClientUtils.closeQuietly(res);
     odataClient.getConfiguration().getHttpClientFactory().close(httpClient);
 
     if (batchInfo != null) {
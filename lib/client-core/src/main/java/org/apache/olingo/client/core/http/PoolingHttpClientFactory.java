@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.http;
+
+import java.lang.ref.WeakReference;
+import java.net.URI;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.CoreProtocolPNames;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.olingo.commons.api.http.HttpMethod;
+
+/**
+ * Implementation returning HttpClients that share one pool of persistent connections.
+ * <p>Connections are kept alive after a response has been consumed and are reused by later requests
+ * to the same route, so connection setup (and the TLS handshake) is not paid for every request.
+ * {@link #close(HttpClient)} therefore does not shut anything down; it only evicts expired and idle
+ * connections. Once the first client has been created, a background task does the same periodically,
+ * so connections of an unused pool are closed as well. The pool itself is closed with {@link #shutdown()}.</p>
+ */
+public class PoolingHttpClientFactory extends DefaultHttpClientFactory {
+
+  public static final int DEFAULT_MAX_TOTAL = 100;
+
+  public static final int DEFAULT_MAX_PER_ROUTE = 20;
+
+  public static final long DEFAULT_KEEP_ALIVE_MILLIS = 30000;
+
+  public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 60000;
+
+  /** Time to wait for a free connection before a request fails, e.g., because responses are not closed. */
+  public static final long DEFAULT_LEASE_TIMEOUT_MILLIS = 60000;
+
+  public static final long DEFAULT_EVICTION_INTERVAL_MILLIS = 5000;
+
+  /** Runs the eviction tasks of all factories; its only thread is a daemon thread. */
+  private static ScheduledExecutorService evictionExecutor;
+
+  private final PoolingClientConnectionManager connectionManager;
+
+  private final long keepAliveMillis;
+
+  private final long idleTimeoutMillis;
+
+  private final long evictionIntervalMillis;
+
+  private volatile long leaseTimeoutMillis = DEFAULT_LEASE_TIMEOUT_MILLIS;
+
+  private ScheduledFuture<?> eviction;
+
+  private boolean shutdown;
+
+  private final ConnectionKeepAliveStrategy keepAliveStrategy = new DefaultConnectionKeepAliveStrategy() {
+    @Override
+    public long getKeepAliveDuration(final HttpResponse response, final HttpContext context) {
+      final long duration = super.getKeepAliveDuration(response, context);
+      return duration > 0 && duration < keepAliveMillis ? duration : keepAliveMillis;
+    }
+  };
+
+  public PoolingHttpClientFactory() {
+    this(DEFAULT_MAX_TOTAL, DEFAULT_MAX_PER_ROUTE, DEFAULT_KEEP_ALIVE_MILLIS, DEFAULT_IDLE_TIMEOUT_MILLIS);
+  }
+
+  /**
+   * @param maxTotal maximum number of connections in the pool
+   * @param maxPerRoute maximum number of connections per route, i.e., per target host
+   * @param keepAliveMillis maximum time an unused connection is kept alive;
+   * shorter durations announced by the server in the Keep-Alive header are honored
+   * @param idleTimeoutMillis time after which idle connections are closed
+   */
+  public PoolingHttpClientFactory(final int maxTotal, final int maxPerRoute,
+      final long keepAliveMillis, final long idleTimeoutMillis) {
+    this(maxTotal, maxPerRoute, keepAliveMillis, idleTimeoutMillis, DEFAULT_EVICTION_INTERVAL_MILLIS);
+  }
+
+  /**
+   * @param maxTotal maximum number of connections in the pool
+   * @param maxPerRoute maximum number of connections per route, i.e., per target host
+   * @param keepAliveMillis maximum time an unused connection is kept alive;
+   * shorter durations announced by the server in the Keep-Alive header are honored
+   * @param idleTimeoutMillis time after which idle connections are closed
+   * @param evictionIntervalMillis interval in which expired and idle connections are closed in the background;
+   * <code>0</code> disables the background eviction
+   */
+  public PoolingHttpClientFactory(final int maxTotal, final int maxPerRoute,
+      final long keepAliveMillis, final long idleTimeoutMillis, final long evictionIntervalMillis) {
+    connectionManager = new PoolingClientConnectionManager();
+    connectionManager.setMaxTotal(maxTotal);
+    connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+    this.keepAliveMillis = keepAliveMillis;
+    this.idleTimeoutMillis = idleTimeoutMillis;
+    this.evictionIntervalMillis = evictionIntervalMillis;
+  }
+
+  @Override
+  public DefaultHttpClient create(final HttpMethod method, final URI uri) {
+    final DefaultHttpClient client = new DefaultHttpClient(connectionManager);
+    client.getParams().setParameter(CoreProtocolPNames.USER_AGENT, USER_AGENT);
+    client.getParams().setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, leaseTimeoutMillis);
+    client.setKeepAliveStrategy(keepAliveStrategy);
+    startEviction();
+    return client;
+  }
+
+  private synchronized void startEviction() {
+    if (eviction == null && !shutdown && evictionIntervalMillis > 0) {
+      final IdleConnectionEvictor evictor = new IdleConnectionEvictor(connectionManager, idleTimeoutMillis);
+      eviction = getEvictionExecutor().scheduleWithFixedDelay(evictor,
+          evictionIntervalMillis, evictionIntervalMillis, TimeUnit.MILLISECONDS);
+      evictor.eviction = eviction;
+    }
+  }
+
+  private static synchronized ScheduledExecutorService getEvictionExecutor() {
+    if (evictionExecutor == null) {
+      final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable runnable) {
+          final Thread thread = new Thread(runnable, "olingo-idle-connection-evictor");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+      executor.setRemoveOnCancelPolicy(true);
+      evictionExecutor = executor;
+    }
+    return evictionExecutor;
+  }
+
+  /**
+   * Sets the time to wait for a free connection of the pool before a request fails.
+   * The timeout applies to the clients created afterwards.
+   * @param leaseTimeoutMillis timeout in milliseconds; <code>0</code> waits without limit
+   */
+  public void setConnectionRequestTimeout(final long leaseTimeoutMillis) {
+    this.leaseTimeoutMillis = leaseTimeoutMillis;
+  }
+
+  /**
+   * Keeps the connections of the client in the pool and closes the ones that have expired
+   * or have been idle for too long.
+   */
+  @Override
+  public void close(final HttpClient httpClient) {
+    connectionManager.closeExpiredConnections();
+    connectionManager.closeIdleConnections(idleTimeoutMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Sets the maximum number of connections for the given route.
+   * @param route route, e.g., <code>new HttpRoute(new HttpHost("example.org", 443, "https"))</code>
+   * @param max maximum number of connections
+   */
+  public void setMaxPerRoute(final HttpRoute route, final int max) {
+    connectionManager.setMaxPerRoute(route, max);
+  }
+
+  /** Returns the statistics of the whole pool. */
+  public PoolStats getTotalStats() {
+    return connectionManager.getTotalStats();
+  }
+
+  /** Returns the statistics of the pool for the given route. */
+  public PoolStats getStats(final HttpRoute route) {
+    return connectionManager.getStats(route);
+  }
+
+  /** Closes all connections and shuts the pool down; clients created afterwards cannot execute requests. */
+  public void shutdown() {
+    synchronized (this) {
+      shutdown = true;
+      if (eviction != null) {
+        eviction.cancel(false);
+      }
+    }
+    connectionManager.shutdown();
+  }
+
+  /**
+   * Closes expired and idle connections of a pool. The pool is only weakly referenced,
+   * so the task ends once the pool is no longer used, even if it has not been shut down.
+   */
+  private static final class IdleConnectionEvictor implements Runnable {
+
+    private final WeakReference<PoolingClientConnectionManager> connectionManager;
+
+    private final long idleTimeoutMillis;
+
+    private volatile ScheduledFuture<?> eviction;
+
+    private IdleConnectionEvictor(final PoolingClientConnectionManager connectionManager,
+        final long idleTimeoutMillis) {
+      this.connectionManager = new WeakReference<>(connectionManager);
+      this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    @Override
+    public void run() {
+      final PoolingClientConnectionManager manager = connectionManager.get();
+      if (manager == null) {
+        if (eviction != null) {
+          eviction.cancel(false);
+        }
+      } else {
+        manager.closeExpiredConnections();
+        manager.closeIdleConnections(idleTimeoutMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+}
@@ -26,6 +26,7 @@ import java.util.Calendar;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
@@ -49,6 +50,7 @@ import org.apache.olingo.commons.api.data.Delta;
 import org.apache.olingo.commons.api.data.DeltaLink;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
 import org.apache.olingo.commons.api.data.Link;
 import org.apache.olingo.commons.api.data.Operation;
 import org.apache.olingo.commons.api.data.Property;
@@ -60,6 +62,7 @@ import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
 import org.apache.olingo.commons.api.edm.geo.Geospatial;
 import org.apache.olingo.commons.api.ex.ODataError;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.core.edm.EdmTypeInfo;
 
@@ -835,6 +838,107 @@ public class AtomDeserializer implements ODataDeserializer {
     }
   }
 
+  @Override
+  public EntityIterator toEntitySetIterator(final InputStream input) throws ODataDeserializerException {
+    try {
+      final XMLEventReader reader = getReader(input);
+      final StartElement start = skipBeforeFirstStartElement(reader);
+      if (!Constants.QNAME_ATOM_ELEM_FEED.equals(start.getName())) {
+        reader.close();
+        throw new ODataDeserializerException("No feed found!");
+      }
+      return new AtomEntitySetIterator(reader, start);
+    } catch (final XMLStreamException e) {
+      throw new ODataDeserializerException(e);
+    }
+  }
+
+  /**
+   * Reads the entries of a feed one at a time from the given reader; links and count found after the
+   * last entry are available once the iteration is over. Annotations of the feed are skipped.
+   */
+  private class AtomEntitySetIterator extends EntityIterator {
+
+    private final XMLEventReader reader;
+
+    private final StartElement start;
+
+    private URI deltaLink;
+
+    private Entity cached;
+
+    private boolean finished;
+
+    AtomEntitySetIterator(final XMLEventReader reader, final StartElement start) {
+      this.reader = reader;
+      this.start = start;
+      final Attribute xmlBase = start.getAttributeByName(Constants.QNAME_ATTR_XML_BASE);
+      if (xmlBase != null) {
+        setBaseURI(URI.create(xmlBase.getValue()));
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      try {
+        while (cached == null && !finished && reader.hasNext()) {
+          final XMLEvent event = reader.nextEvent();
+          if (event.isStartElement()) {
+            final StartElement element = event.asStartElement();
+            if (Constants.QNAME_ATOM_ELEM_ENTRY.equals(element.getName())) {
+              cached = entity(reader, element);
+            } else if (entryRefQName.equals(element.getName())) {
+              cached = entityRef(element);
+            } else if (countQName.equals(element.getName())) {
+              final EntityCollection holder = new EntityCollection();
+              count(reader, element, holder);
+              setCount(holder.getCount());
+            } else if (Constants.QNAME_ATOM_ELEM_LINK.equals(element.getName())) {
+              link(element);
+            }
+          } else if (event.isEndElement() && start.getName().equals(event.asEndElement().getName())) {
+            break;
+          }
+        }
+        if (cached == null && !finished) {
+          finished = true;
+          reader.close();
+        }
+      } catch (final XMLStreamException | EdmPrimitiveTypeException e) {
+        finished = true;
+        throw new ODataRuntimeException(new ODataDeserializerException(e));
+      }
+      return cached != null;
+    }
+
+    private void link(final StartElement element) {
+      final Attribute rel = element.getAttributeByName(QName.valueOf(Constants.ATTR_REL));
+      final Attribute href = element.getAttributeByName(QName.valueOf(Constants.ATTR_HREF));
+      if (rel != null && href != null) {
+        if (Constants.NEXT_LINK_REL.equals(rel.getValue())) {
+          setNext(URI.create(href.getValue()));
+        } else if (Constants.NS_DELTA_LINK_REL.equals(rel.getValue())) {
+          deltaLink = URI.create(href.getValue());
+        }
+      }
+    }
+
+    @Override
+    public Entity next() {
+      if (hasNext()) {
+        final Entity entity = cached;
+        cached = null;
+        return entity;
+      }
+      throw new NoSuchElementException("No entity found");
+    }
+
+    @Override
+    public URI getDeltaLink() {
+      return deltaLink;
+    }
+  }
+
   private ODataError error(final XMLEventReader reader, final StartElement start) throws XMLStreamException {
     final ODataError error = new ODataError();
     error.setDetails(new ArrayList<ODataErrorDetail>(0));
@@ -44,6 +44,7 @@ import org.apache.olingo.client.core.edm.xml.ClientCsdlEdmx;
 import org.apache.olingo.commons.api.data.Delta;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
 import org.apache.olingo.commons.api.data.Property;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
 import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
@@ -90,6 +91,11 @@ public class ClientODataDeserializerImpl implements ClientODataDeserializer {
     return deserializer.toEntitySet(input);
   }
 
+  @Override
+  public EntityIterator toEntitySetIterator(final InputStream input) throws ODataDeserializerException {
+    return deserializer.toEntitySetIterator(input);
+  }
+
   @Override
   public ResWrap<Entity> toEntity(final InputStream input) throws ODataDeserializerException {
     return deserializer.toEntity(input);
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.serialization;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.NoSuchElementException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.olingo.client.api.serialization.ODataDeserializerException;
+import org.apache.olingo.commons.api.Constants;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityIterator;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Reads the entities of a JSON entity set one at a time from a single parser.
+ * <br/>
+ * Only the entity currently returned is kept in memory; control information found after the
+ * <tt>value</tt> array (e.g. a trailing <tt>@odata.nextLink</tt>) is available once the iteration is over.
+ * Instance annotations and operations of the entity set are skipped.
+ */
+class JsonEntitySetIterator extends EntityIterator {
+
+  private final JsonParser parser;
+
+  private final JsonEntityDeserializer entityDeserializer;
+
+  private URI deltaLink;
+
+  private Entity cached;
+
+  private boolean finished;
+
+  JsonEntitySetIterator(final JsonParser parser, final boolean serverMode) throws IOException {
+    this.parser = parser;
+    entityDeserializer = new JsonEntityDeserializer(serverMode);
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      parser.close();
+      throw new JsonParseException(parser, "Expected OData Entity Set");
+    }
+    readControlInformation();
+  }
+
+  /**
+   * Reads fields until the start of the <tt>value</tt> array or the end of the entity set.
+   */
+  private void readControlInformation() throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.getCurrentName();
+      final JsonToken token = parser.nextToken();
+      if (token == JsonToken.VALUE_NULL) {
+        continue;
+      }
+      if (Constants.VALUE.equals(name)) {
+        if (token != JsonToken.START_ARRAY) {
+          throw new JsonParseException(parser, "Expected an array as entity set value");
+        }
+        return;
+      } else if (Constants.JSON_CONTEXT.equals(name) || Constants.JSON_METADATA.equals(name)) {
+        setBaseURI(URI.create(StringUtils.substringBefore(parser.getText(), Constants.METADATA)));
+      } else if (Constants.JSON_COUNT.equals(name)) {
+        setCount(parser.getValueAsInt());
+      } else if (Constants.JSON_NEXT_LINK.equals(name)) {
+        setNext(URI.create(parser.getText()));
+      } else if (Constants.JSON_DELTA_LINK.equals(name)) {
+        deltaLink = URI.create(parser.getText());
+      } else {
+        parser.skipChildren();
+      }
+    }
+    finish();
+  }
+
+  private void finish() {
+    finished = true;
+    try {
+      parser.close();
+    } catch (final IOException e) {
+      // ignore: nothing left to read
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (cached == null && !finished) {
+      try {
+        if (parser.nextToken() == JsonToken.START_OBJECT) {
+          cached = entityDeserializer.doDeserialize(parser).getPayload();
+          if (cached.getBaseURI() == null) {
+            cached.setBaseURI(getBaseURI());
+          }
+        } else {
+          readControlInformation();
+        }
+      } catch (final IOException e) {
+        finish();
+        throw new ODataRuntimeException(new ODataDeserializerException(e));
+      }
+    }
+    return cached != null;
+  }
+
+  @Override
+  public Entity next() {
+    if (hasNext()) {
+      final Entity entity = cached;
+      cached = null;
+      return entity;
+    }
+    throw new NoSuchElementException("No entity found");
+  }
+
+  @Override
+  public URI getDeltaLink() {
+    return deltaLink;
+  }
+}
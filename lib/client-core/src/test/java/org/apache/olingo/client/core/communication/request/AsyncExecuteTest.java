@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.communication.request;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.communication.request.batch.BatchManager;
+import org.apache.olingo.client.api.communication.request.batch.ODataBatchResponseItem;
+import org.apache.olingo.client.api.communication.response.ODataBatchResponse;
+import org.apache.olingo.client.api.communication.response.ODataResponse;
+import org.apache.olingo.client.api.communication.response.ODataRetrieveResponse;
+import org.apache.olingo.client.api.domain.ClientEntitySet;
+import org.apache.olingo.client.core.ODataClientFactory;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class AsyncExecuteTest {
+
+  private static final String BOUNDARY = "batch_response";
+
+  private HttpServer server;
+  private String root;
+  private final ODataClient client = ODataClientFactory.getClient();
+
+  @Before
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(final HttpExchange exchange) throws IOException {
+        // the batch payload is streamed: reading it to the end requires the client to have completed it
+        IOUtils.toByteArray(exchange.getRequestBody());
+        final String contentType;
+        final String body;
+        if (exchange.getRequestURI().getPath().endsWith("$batch")) {
+          contentType = ContentType.MULTIPART_MIXED + ";boundary=" + BOUNDARY;
+          body = "--" + BOUNDARY + "\r\n"
+              + "Content-Type: application/http\r\n"
+              + "Content-Transfer-Encoding: binary\r\n"
+              + "\r\n"
+              + "HTTP/1.1 200 OK\r\n"
+              + "Content-Type: application/json\r\n"
+              + "\r\n"
+              + "{\"value\":[]}\r\n"
+              + "--" + BOUNDARY + "--";
+        } else {
+          contentType = ContentType.JSON.toContentTypeString();
+          body = "{\"value\":[{\"PropertyInt16\":1},{\"PropertyInt16\":2}]}";
+        }
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, bytes.length);
+        final OutputStream out = exchange.getResponseBody();
+        out.write(bytes);
+        out.close();
+      }
+    });
+    server.start();
+    root = "http://localhost:" + server.getAddress().getPort() + "/";
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  public void composeRetrieveRequests() throws Exception {
+    final List<CompletableFuture<Integer>> sizes = new ArrayList<CompletableFuture<Integer>>();
+    for (int i = 0; i < 20; i++) {
+      sizes.add(client.getRetrieveRequestFactory().getEntitySetRequest(URI.create(root + "ESAllPrim"))
+          .asyncExecuteCompletable()
+          .thenApply(new Function<ODataRetrieveResponse<ClientEntitySet>, Integer>() {
+            @Override
+            public Integer apply(final ODataRetrieveResponse<ClientEntitySet> response) {
+              return response.getBody().getEntities().size();
+            }
+          }));
+    }
+
+    CompletableFuture.allOf(sizes.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+    for (CompletableFuture<Integer> size : sizes) {
+      assertEquals(Integer.valueOf(2), size.get());
+    }
+  }
+
+  @Test
+  public void cancelAbortsRequest() throws Exception {
+    final CountDownLatch released = new CountDownLatch(1);
+    server.createContext("/slow", new HttpHandler() {
+      @Override
+      public void handle(final HttpExchange exchange) throws IOException {
+        try {
+          released.await(10, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        exchange.sendResponseHeaders(204, -1);
+        exchange.close();
+      }
+    });
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    client.getConfiguration().setExecutor(executor);
+    try {
+      final CompletableFuture<ODataRetrieveResponse<ClientEntitySet>> response =
+          client.getRetrieveRequestFactory().getEntitySetRequest(URI.create(root + "slow")).asyncExecuteCompletable();
+      Thread.sleep(200);
+      assertTrue(response.cancel(true));
+
+      // the only thread of the executor is released long before the server answers
+      executor.submit(new Runnable() {
+        @Override
+        public void run() {
+          // nothing to do
+        }
+      }).get(5, TimeUnit.SECONDS);
+    } finally {
+      released.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void batchAsyncResponse() throws Exception {
+    final BatchManager payload = client.getBatchRequestFactory().getBatchRequest(root).payloadManager();
+    payload.addRequest(client.getRetrieveRequestFactory().getEntitySetRequest(URI.create(root + "ESAllPrim")));
+
+    final ODataBatchResponse response = payload.getAsyncResponse().get(10, TimeUnit.SECONDS);
+    assertEquals(200, response.getStatusCode());
+    final Iterator<ODataBatchResponseItem> items = response.getBody();
+    assertTrue(items.hasNext());
+    final Iterator<ODataResponse> item = items.next();
+    assertTrue(item.hasNext());
+    assertEquals(200, item.next().getStatusCode());
+  }
+}
@@ -21,7 +21,11 @@ package org.apache.olingo.client.core.domain;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 
 import org.apache.olingo.client.api.ODataClient;
@@ -29,10 +33,15 @@ import org.apache.olingo.client.api.domain.ClientEntity;
 import org.apache.olingo.client.api.domain.ClientEntitySet;
 import org.apache.olingo.client.api.domain.ClientEntitySetIterator;
 import org.apache.olingo.client.core.ODataClientFactory;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
 public class ClientEntitySetIteratorTest {
   
     @Test
@@ -203,4 +212,104 @@ public class ClientEntitySetIteratorTest {
         Assert.assertEquals("http://localhost:8082/odata-server-tecsvc/"
             + "odata.svc/ESServerSidePaging?%24skiptoken=1%2A10", entitySetIterator.getNext().toString());
     }
+
+    @Test
+    public void testEntitySetIteratorTrailingNextLink() throws IOException, URISyntaxException {
+        String str = "{\"@odata.context\":\"$metadata#Cubes(Name)\","
+            + "\"value\":[{\"PropertyInt16\": 0},{\"PropertyInt16\": 1}],"
+            + "\"@odata.count\": 10,"
+            + "\"@odata.nextLink\":\"ESServerSidePaging?%24skiptoken=2\"}";
+
+        ClientEntitySetIterator<ClientEntitySet, ClientEntity> entitySetIterator =
+            new ClientEntitySetIterator<ClientEntitySet, ClientEntity>(ODataClientFactory.getClient(),
+            new ByteArrayInputStream(str.getBytes()), ContentType.parse(ContentType.JSON.toString()));
+
+        Assert.assertEquals("0", entitySetIterator.next().getProperty("PropertyInt16").getPrimitiveValue().toString());
+        Assert.assertEquals("1", entitySetIterator.next().getProperty("PropertyInt16").getPrimitiveValue().toString());
+        Assert.assertFalse(entitySetIterator.hasNext());
+        Assert.assertEquals("ESServerSidePaging?%24skiptoken=2", entitySetIterator.getNext().toString());
+    }
+
+    @Test
+    public void testEntitySetIteratorPropagatesParseErrors() {
+        String str = "{\"@odata.context\":\"$metadata#Cubes(Name)\","
+            + "\"value\":[{\"PropertyInt16\": 0},{\"PropertyInt16\": ]}";
+        final boolean[] closed = new boolean[1];
+        InputStream stream = new ByteArrayInputStream(str.getBytes()) {
+            @Override
+            public void close() throws IOException {
+                closed[0] = true;
+                super.close();
+            }
+        };
+        ClientEntitySetIterator<ClientEntitySet, ClientEntity> entitySetIterator =
+            new ClientEntitySetIterator<ClientEntitySet, ClientEntity>(ODataClientFactory.getClient(),
+            stream, ContentType.parse(ContentType.JSON.toString()));
+
+        Assert.assertEquals("0", entitySetIterator.next().getProperty("PropertyInt16").getPrimitiveValue().toString());
+        try {
+            entitySetIterator.hasNext();
+            Assert.fail("Expected a parsing error.");
+        } catch (final ODataRuntimeException e) {
+            Assert.assertTrue(closed[0]);
+        }
+        Assert.assertFalse(entitySetIterator.hasNext());
+    }
+
+    @Test
+    public void testAtomEntitySetIterator() {
+        InputStream stream = getClass().getResourceAsStream("/org/apache/olingo/client/core/Customers.xml");
+        ClientEntitySetIterator<ClientEntitySet, ClientEntity> entitySetIterator =
+            new ClientEntitySetIterator<ClientEntitySet, ClientEntity>(ODataClientFactory.getClient(),
+            stream, ContentType.APPLICATION_ATOM_XML);
+
+        ArrayList<ClientEntity> entities = new ArrayList<ClientEntity>();
+        while (entitySetIterator.hasNext()) {
+            entities.add(entitySetIterator.next());
+        }
+
+        Assert.assertEquals(2, entities.size());
+        Assert.assertEquals("1", entities.get(0).getProperty("PersonID").getPrimitiveValue().toString());
+        Assert.assertEquals("2", entities.get(1).getProperty("PersonID").getPrimitiveValue().toString());
+        Assert.assertNull(entitySetIterator.getNext());
+    }
+
+    @Test
+    public void testEntitySetIteratorFollowNextLinks() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        final String root = "http://localhost:" + server.getAddress().getPort() + "/";
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                String query = exchange.getRequestURI().getRawQuery();
+                int page = query == null ? 0 : Integer.parseInt(query.substring(query.indexOf('=') + 1));
+                byte[] body = ("{\"@odata.context\":\"" + root + "$metadata#ESAllPrim\","
+                    + "\"value\":[{\"PropertyInt16\":" + (2 * page) + "},{\"PropertyInt16\":" + (2 * page + 1) + "}]"
+                    + (page < 2 ? ",\"@odata.nextLink\":\"ESAllPrim?%24skiptoken=" + (page + 1) + "\"" : "")
+                    + "}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", ContentType.JSON.toContentTypeString());
+                exchange.sendResponseHeaders(200, body.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(body);
+                out.close();
+            }
+        });
+        server.start();
+        try {
+            ODataClient client = ODataClientFactory.getClient();
+            ClientEntitySetIterator<ClientEntitySet, ClientEntity> entitySetIterator = client
+                .getRetrieveRequestFactory().getEntitySetIteratorRequest(URI.create(root + "ESAllPrim"))
+                .execute().getBody().followNextLinks();
+
+            int expected = 0;
+            while (entitySetIterator.hasNext()) {
+                Assert.assertEquals(String.valueOf(expected++),
+                    entitySetIterator.next().getProperty("PropertyInt16").getPrimitiveValue().toString());
+            }
+            Assert.assertEquals(6, expected);
+            Assert.assertNull(entitySetIterator.getNext());
+        } finally {
+            server.stop(0);
+        }
+    }
 }
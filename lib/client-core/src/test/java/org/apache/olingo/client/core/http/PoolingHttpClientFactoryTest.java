@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.util.EntityUtils;
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.core.ODataClientFactory;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class PoolingHttpClientFactoryTest {
+
+  private static final byte[] BODY = "OK".getBytes(StandardCharsets.UTF_8);
+
+  private HttpServer server;
+  private URI uri;
+  private final Set<InetSocketAddress> remoteAddresses =
+      Collections.newSetFromMap(new ConcurrentHashMap<InetSocketAddress, Boolean>());
+  private PoolingHttpClientFactory factory;
+
+  @Before
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(final HttpExchange exchange) throws IOException {
+        remoteAddresses.add(exchange.getRemoteAddress());
+        exchange.sendResponseHeaders(200, BODY.length);
+        OutputStream body = exchange.getResponseBody();
+        body.write(BODY);
+        body.close();
+      }
+    });
+    server.start();
+    uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/service");
+    factory = new PoolingHttpClientFactory();
+  }
+
+  @After
+  public void tearDown() {
+    factory.shutdown();
+    server.stop(0);
+  }
+
+  private void get() throws IOException {
+    final HttpClient client = factory.create(HttpMethod.GET, uri);
+    try {
+      final HttpResponse response = client.execute(new HttpGet(uri));
+      assertEquals(200, response.getStatusLine().getStatusCode());
+      EntityUtils.consume(response.getEntity());
+    } finally {
+      factory.close(client);
+    }
+  }
+
+  @Test
+  public void connectionIsReused() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      get();
+    }
+    assertEquals(1, remoteAddresses.size());
+    assertEquals(0, factory.getTotalStats().getLeased());
+    assertEquals(1, factory.getTotalStats().getAvailable());
+  }
+
+  @Test
+  public void idleConnectionsAreEvicted() throws Exception {
+    final PoolingHttpClientFactory evictingFactory = new PoolingHttpClientFactory(10, 2, 30000, 0);
+    try {
+      final HttpClient client = evictingFactory.create(HttpMethod.GET, uri);
+      EntityUtils.consume(client.execute(new HttpGet(uri)).getEntity());
+      assertEquals(1, evictingFactory.getTotalStats().getAvailable());
+      evictingFactory.close(client);
+      assertEquals(0, evictingFactory.getTotalStats().getAvailable());
+    } finally {
+      evictingFactory.shutdown();
+    }
+  }
+
+  @Test
+  public void idleConnectionsAreEvictedInBackground() throws Exception {
+    final PoolingHttpClientFactory evictingFactory = new PoolingHttpClientFactory(10, 2, 30000, 0, 20);
+    try {
+      final HttpClient client = evictingFactory.create(HttpMethod.GET, uri);
+      EntityUtils.consume(client.execute(new HttpGet(uri)).getEntity());
+      final long end = System.currentTimeMillis() + 5000;
+      while (evictingFactory.getTotalStats().getAvailable() > 0 && System.currentTimeMillis() < end) {
+        Thread.sleep(10);
+      }
+      assertEquals(0, evictingFactory.getTotalStats().getAvailable());
+    } finally {
+      evictingFactory.shutdown();
+    }
+  }
+
+  @Test(expected = ConnectionPoolTimeoutException.class)
+  public void leaseTimeout() throws Exception {
+    final PoolingHttpClientFactory smallFactory = new PoolingHttpClientFactory(1, 1, 30000, 60000);
+    smallFactory.setConnectionRequestTimeout(50);
+    try {
+      // the response is not consumed, so its connection stays leased
+      smallFactory.create(HttpMethod.GET, uri).execute(new HttpGet(uri));
+      smallFactory.create(HttpMethod.GET, uri).execute(new HttpGet(uri));
+    } finally {
+      smallFactory.shutdown();
+    }
+  }
+
+  @Test
+  public void defaultForClient() {
+    final ODataClient client = ODataClientFactory.getClient();
+    assertTrue(client.getConfiguration().getHttpClientFactory() instanceof PoolingHttpClientFactory);
+    assertSame(client.getConfiguration().getHttpClientFactory(), client.getConfiguration().getHttpClientFactory());
+  }
+}
@@ -19,6 +19,7 @@
 package org.apache.olingo.commons.api.data;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -26,7 +27,7 @@ import java.util.List;
  */
 public abstract class Annotatable {
 
-  private final List<Annotation> annotations = new ArrayList<>();
+  private List<Annotation> annotations;
 
   /**
    * Get Annotations.
@@ -34,6 +35,33 @@ public abstract class Annotatable {
    * @return annotations
    */
   public List<Annotation> getAnnotations() {
+    if (annotations == null) {
+      annotations = new ArrayList<>();
+    }
     return annotations;
   }
+
+  /**
+   * Checks for annotations without creating the list of annotations.
+   * Readers should use this instead of {@link #getAnnotations()} to skip elements without annotations.
+   *
+   * @return <code>true</code> if there is at least one annotation
+   */
+  public boolean hasAnnotations() {
+    return annotations != null && !annotations.isEmpty();
+  }
+
+  /** Returns the annotations without creating the list if there are none yet. */
+  List<Annotation> peekAnnotations() {
+    return nullToEmpty(annotations);
+  }
+
+  /**
+   * Lists of rarely used elements such as annotations and operations are created on first access,
+   * so that plain data objects do not each carry empty lists.
+   * This returns such a list or the empty list if it has not been created yet.
+   */
+  static <T> List<T> nullToEmpty(final List<T> list) {
+    return list == null ? Collections.<T> emptyList() : list;
+  }
 }
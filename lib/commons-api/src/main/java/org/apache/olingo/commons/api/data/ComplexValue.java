@@ -30,6 +30,8 @@ public class ComplexValue extends Linked {
   
   private String typeName;
 
+  private PropertyLayout propertyLayout;
+
   /**
    * Get list of all values for this ComplexValue.
    *
@@ -39,6 +41,35 @@ public class ComplexValue extends Linked {
     return value;
   }
 
+  /**
+   * Gets property with given name.
+   *
+   * @param name property name
+   * @return property with given name if found, null otherwise
+   */
+  public Property getProperty(final String name) {
+    return propertyLayout == null ?
+        PropertyLayout.findProperty(value, name, -1) :
+        propertyLayout.findProperty(value, name);
+  }
+
+  /**
+   * Gets the property layout of this value's type, if set.
+   * @return property layout or <code>null</code>
+   */
+  public PropertyLayout getPropertyLayout() {
+    return propertyLayout;
+  }
+
+  /**
+   * Sets the property layout of this value's type.
+   * With a layout, {@link #getProperty(String)} finds properties added in slot order by position.
+   * @param propertyLayout property layout, shared by all values of the type
+   */
+  public void setPropertyLayout(final PropertyLayout propertyLayout) {
+    this.propertyLayout = propertyLayout;
+  }
+
   @Override
   public boolean equals(final Object o) {
     return super.equals(o) && value.equals(((ComplexValue) o).value);
@@ -33,10 +33,11 @@ public class Entity extends Linked {
   private Link readLink;
   private Link editLink;
 
-  private final List<Link> mediaEditLinks = new ArrayList<Link>();
-  private final List<Operation> operations = new ArrayList<Operation>();
+  private List<Link> mediaEditLinks;
+  private List<Operation> operations;
 
   private final List<Property> properties = new ArrayList<Property>();
+  private PropertyLayout propertyLayout;
 
   private URI mediaContentSource;
   private String mediaContentType;
@@ -119,18 +120,34 @@ public class Entity extends Linked {
    * @return links.
    */
   public List<Link> getMediaEditLinks() {
+    if (mediaEditLinks == null) {
+      mediaEditLinks = new ArrayList<Link>();
+    }
     return mediaEditLinks;
   }
 
+  /** Checks for media edit links without creating the list of media edit links. */
+  public boolean hasMediaEditLinks() {
+    return mediaEditLinks != null && !mediaEditLinks.isEmpty();
+  }
+
   /**
    * Gets operations.
    *
    * @return operations.
    */
   public List<Operation> getOperations() {
+    if (operations == null) {
+      operations = new ArrayList<Operation>();
+    }
     return operations;
   }
 
+  /** Checks for operations without creating the list of operations. */
+  public boolean hasOperations() {
+    return operations != null && !operations.isEmpty();
+  }
+
   /**
    * Add property to this Entity.
    *
@@ -158,16 +175,28 @@ public class Entity extends Linked {
    * @return property with given name if found, null otherwise
    */
   public Property getProperty(final String name) {
-    Property result = null;
+    return propertyLayout == null ?
+        PropertyLayout.findProperty(properties, name, -1) :
+        propertyLayout.findProperty(properties, name);
+  }
 
-    for (Property property : properties) {
-      if (name.equals(property.getName())) {
-        result = property;
-        break;
-      }
-    }
+  /**
+   * Gets the property layout of this entity's type, if set.
+   *
+   * @return property layout or <code>null</code>
+   */
+  public PropertyLayout getPropertyLayout() {
+    return propertyLayout;
+  }
 
-    return result;
+  /**
+   * Sets the property layout of this entity's type.
+   * With a layout, {@link #getProperty(String)} finds properties added in slot order by position.
+   *
+   * @param propertyLayout property layout, shared by all entities of the type
+   */
+  public void setPropertyLayout(final PropertyLayout propertyLayout) {
+    this.propertyLayout = propertyLayout;
   }
 
   /**
@@ -240,8 +269,8 @@ public class Entity extends Linked {
         && (type == null ? ((Entity) o).type == null : type.equals(((Entity) o).type))
         && (readLink == null ? ((Entity) o).readLink == null : readLink.equals(((Entity) o).readLink))
         && (editLink == null ? ((Entity) o).editLink == null : editLink.equals(((Entity) o).editLink))
-        && mediaEditLinks.equals(((Entity) o).mediaEditLinks)
-        && operations.equals(((Entity) o).operations)
+        && nullToEmpty(mediaEditLinks).equals(nullToEmpty(((Entity) o).mediaEditLinks))
+        && nullToEmpty(operations).equals(nullToEmpty(((Entity) o).operations))
         && properties.equals(((Entity) o).properties)
         && (mediaContentSource == null ?
             ((Entity) o).mediaContentSource == null :
@@ -259,8 +288,8 @@ public class Entity extends Linked {
     result = 31 * result + (type == null ? 0 : type.hashCode());
     result = 31 * result + (readLink == null ? 0 : readLink.hashCode());
     result = 31 * result + (editLink == null ? 0 : editLink.hashCode());
-    result = 31 * result + mediaEditLinks.hashCode();
-    result = 31 * result + operations.hashCode();
+    result = 31 * result + nullToEmpty(mediaEditLinks).hashCode();
+    result = 31 * result + nullToEmpty(operations).hashCode();
     result = 31 * result + properties.hashCode();
     result = 31 * result + (mediaContentSource == null ? 0 : mediaContentSource.hashCode());
     result = 31 * result + (mediaContentType == null ? 0 : mediaContentType.hashCode());
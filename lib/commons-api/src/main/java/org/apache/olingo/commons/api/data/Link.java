@@ -33,6 +33,7 @@ public class Link extends Annotatable {
   private String mediaETag;
   private Entity entity;
   private EntityCollection entitySet;
+  private EntityIterator entityIterator;
   private String bindingLink;
   private List<String> bindingLinks = new ArrayList<String>();
 
@@ -162,6 +163,26 @@ public class Link extends Annotatable {
     this.entitySet = entitySet;
   }
 
+  /**
+   * Gets in-line entity iterator.
+   * <p>Serializers use the iterator for a "toMany" relationship if no in-line entity set has been set,
+   * so that expanded entities can be streamed instead of being collected in memory first.</p>
+   *
+   * @return in-line entity iterator.
+   */
+  public EntityIterator getInlineEntityIterator() {
+    return entityIterator;
+  }
+
+  /**
+   * Sets in-line entity iterator.
+   *
+   * @param entityIterator entity iterator.
+   */
+  public void setInlineEntityIterator(final EntityIterator entityIterator) {
+    this.entityIterator = entityIterator;
+  }
+
   /**
    * If this is a "toOne" relationship this method delivers the binding link or <tt>null</tt> if not set.
    * @return String the binding link.
@@ -204,7 +225,7 @@ public class Link extends Annotatable {
     }
 
     final Link other = (Link) o;
-    return getAnnotations().equals(other.getAnnotations())
+    return peekAnnotations().equals(other.peekAnnotations())
         && (title == null ? other.title == null : title.equals(other.title))
         && (rel == null ? other.rel == null : rel.equals(other.rel))
         && (href == null ? other.href == null : href.equals(other.href))
@@ -212,13 +233,14 @@ public class Link extends Annotatable {
         && (mediaETag == null ? other.mediaETag == null : mediaETag.equals(other.mediaETag))
         && (entity == null ? other.entity == null : entity.equals(other.entity))
         && (entitySet == null ? other.entitySet == null : entitySet.equals(other.entitySet))
+        && (entityIterator == null ? other.entityIterator == null : entityIterator.equals(other.entityIterator))
         && (bindingLink == null ? other.bindingLink == null : bindingLink.equals(other.bindingLink))
         && bindingLinks.equals(other.bindingLinks);
   }
 
   @Override
   public int hashCode() {
-    int result = getAnnotations().hashCode();
+    int result = peekAnnotations().hashCode();
     result = 31 * result + (title == null ? 0 : title.hashCode());
     result = 31 * result + (rel == null ? 0 : rel.hashCode());
     result = 31 * result + (href == null ? 0 : href.hashCode());
@@ -226,6 +248,7 @@ public class Link extends Annotatable {
     result = 31 * result + (mediaETag == null ? 0 : mediaETag.hashCode());
     result = 31 * result + (entity == null ? 0 : entity.hashCode());
     result = 31 * result + (entitySet == null ? 0 : entitySet.hashCode());
+    result = 31 * result + (entityIterator == null ? 0 : entityIterator.hashCode());
     result = 31 * result + (bindingLink == null ? 0 : bindingLink.hashCode());
     result = 31 * result + bindingLinks.hashCode();
     return result;
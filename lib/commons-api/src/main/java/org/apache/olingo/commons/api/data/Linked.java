@@ -26,9 +26,9 @@ import java.util.List;
  */
 public abstract class Linked extends AbstractODataObject {
 
-  private final List<Link> associationLinks = new ArrayList<Link>();
-  private final List<Link> navigationLinks = new ArrayList<Link>();
-  private final List<Link> bindingLinks = new ArrayList<Link>();
+  private List<Link> associationLinks;
+  private List<Link> navigationLinks;
+  private List<Link> bindingLinks;
 
   protected Link getOneByTitle(final String name, final List<Link> links) {
     Link result = null;
@@ -49,7 +49,7 @@ public abstract class Linked extends AbstractODataObject {
    * @return association link with given name, if available, otherwise <tt>null</tt>
    */
   public Link getAssociationLink(final String name) {
-    return getOneByTitle(name, associationLinks);
+    return getOneByTitle(name, nullToEmpty(associationLinks));
   }
 
   /**
@@ -58,9 +58,17 @@ public abstract class Linked extends AbstractODataObject {
    * @return association links.
    */
   public List<Link> getAssociationLinks() {
+    if (associationLinks == null) {
+      associationLinks = new ArrayList<Link>();
+    }
     return associationLinks;
   }
 
+  /** Checks for association links without creating the list of association links. */
+  public boolean hasAssociationLinks() {
+    return associationLinks != null && !associationLinks.isEmpty();
+  }
+
   /**
    * Gets navigation link with given name, if available, otherwise <tt>null</tt>.
    *
@@ -68,7 +76,7 @@ public abstract class Linked extends AbstractODataObject {
    * @return navigation link with given name, if available, otherwise <tt>null</tt>
    */
   public Link getNavigationLink(final String name) {
-    return getOneByTitle(name, navigationLinks);
+    return getOneByTitle(name, nullToEmpty(navigationLinks));
   }
 
   /**
@@ -77,16 +85,24 @@ public abstract class Linked extends AbstractODataObject {
    * @return links.
    */
   public List<Link> getNavigationLinks() {
+    if (navigationLinks == null) {
+      navigationLinks = new ArrayList<Link>();
+    }
     return navigationLinks;
   }
 
+  /** Checks for navigation links without creating the list of navigation links. */
+  public boolean hasNavigationLinks() {
+    return navigationLinks != null && !navigationLinks.isEmpty();
+  }
+
   /**
    * Gets binding link with given name, if available, otherwise <tt>null</tt>.
    * @param name candidate link name
    * @return binding link with given name, if available, otherwise <tt>null</tt>
    */
   public Link getNavigationBinding(final String name) {
-    return getOneByTitle(name, bindingLinks);
+    return getOneByTitle(name, nullToEmpty(bindingLinks));
   }
 
   /**
@@ -95,23 +111,31 @@ public abstract class Linked extends AbstractODataObject {
    * @return links.
    */
   public List<Link> getNavigationBindings() {
+    if (bindingLinks == null) {
+      bindingLinks = new ArrayList<Link>();
+    }
     return bindingLinks;
   }
 
+  /** Checks for binding links without creating the list of binding links. */
+  public boolean hasNavigationBindings() {
+    return bindingLinks != null && !bindingLinks.isEmpty();
+  }
+
   @Override
   public boolean equals(final Object o) {
     return super.equals(o)
-        && associationLinks.equals(((Linked) o).associationLinks)
-        && navigationLinks.equals(((Linked) o).navigationLinks)
-        && bindingLinks.equals(((Linked) o).bindingLinks);
+        && nullToEmpty(associationLinks).equals(nullToEmpty(((Linked) o).associationLinks))
+        && nullToEmpty(navigationLinks).equals(nullToEmpty(((Linked) o).navigationLinks))
+        && nullToEmpty(bindingLinks).equals(nullToEmpty(((Linked) o).bindingLinks));
   }
 
   @Override
   public int hashCode() {
     int result = super.hashCode();
-    result = 31 * result + associationLinks.hashCode();
-    result = 31 * result + navigationLinks.hashCode();
-    result = 31 * result + bindingLinks.hashCode();
+    result = 31 * result + nullToEmpty(associationLinks).hashCode();
+    result = 31 * result + nullToEmpty(navigationLinks).hashCode();
+    result = 31 * result + nullToEmpty(bindingLinks).hashCode();
     return result;
   }
 }
@@ -27,7 +27,7 @@ import java.util.List;
 public class Property extends Valuable {
 
   private String name;
-  private final List<Operation> operations = new ArrayList<Operation>();
+  private List<Operation> operations;
   
   /**
    * Creates a new property
@@ -90,8 +90,16 @@ public class Property extends Valuable {
    * @return operations.
    */
   public List<Operation> getOperations() {
+    if (operations == null) {
+      operations = new ArrayList<Operation>();
+    }
     return operations;
-  }  
+  }
+
+  /** Checks for operations without creating the list of operations. */
+  public boolean hasOperations() {
+    return operations != null && !operations.isEmpty();
+  }
 
   @Override
   public boolean equals(final Object o) {
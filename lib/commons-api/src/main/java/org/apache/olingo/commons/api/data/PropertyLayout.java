@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+
+/**
+ * Slot layout of the properties of a structured type.
+ * <p>
+ * Each property name is assigned a slot, its position in the declared property order of the type.
+ * A layout is immutable and meant to be shared by all entities or complex values of one type;
+ * if their property lists are filled in slot order, properties can be looked up by position
+ * instead of by comparing names.
+ * Property lists in any other order still work, they just fall back to a scan.
+ */
+public final class PropertyLayout {
+
+  private final List<String> propertyNames;
+  private final Map<String, Integer> slots;
+
+  /**
+   * Creates a layout with the given property names in slot order.
+   * @param propertyNames the property names
+   */
+  public PropertyLayout(final List<String> propertyNames) {
+    this.propertyNames = Collections.unmodifiableList(Arrays.asList(propertyNames.toArray(new String[0])));
+    slots = new HashMap<String, Integer>(propertyNames.size() * 4 / 3 + 1);
+    for (int slot = 0; slot < propertyNames.size(); slot++) {
+      slots.put(propertyNames.get(slot), slot);
+    }
+  }
+
+  /**
+   * Creates the layout of the structural properties of the given type, in the order declared by the type.
+   * @param type the structured type
+   * @return the layout
+   */
+  public static PropertyLayout of(final EdmStructuredType type) {
+    return new PropertyLayout(type.getPropertyNames());
+  }
+
+  /**
+   * Gets the property names in slot order.
+   * @return unmodifiable list of property names
+   */
+  public List<String> getPropertyNames() {
+    return propertyNames;
+  }
+
+  /**
+   * Gets the slot of a property.
+   * @param name property name
+   * @return slot or -1 if the layout does not contain the property
+   */
+  public int getSlot(final String name) {
+    final Integer slot = slots.get(name);
+    return slot == null ? -1 : slot;
+  }
+
+  /**
+   * Finds a property in the given list.
+   * The property at the given slot position is checked first; the list is scanned only if that does not match.
+   * @param properties the list of properties
+   * @param name property name
+   * @param slot expected position of the property in the list; negative if unknown
+   * @return the property or <code>null</code> if there is no property with that name
+   */
+  public static Property findProperty(final List<Property> properties, final String name, final int slot) {
+    if (slot >= 0 && slot < properties.size()) {
+      final Property property = properties.get(slot);
+      if (name.equals(property.getName())) {
+        return property;
+      }
+    }
+    for (final Property property : properties) {
+      if (name.equals(property.getName())) {
+        return property;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Finds a property in the given list using the slot this layout assigns to its name.
+   * @param properties the list of properties
+   * @param name property name
+   * @return the property or <code>null</code> if there is no property with that name
+   */
+  public Property findProperty(final List<Property> properties, final String name) {
+    return findProperty(properties, name, getSlot(name));
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class PropertyLayoutTest {
+
+  private final PropertyLayout layout = new PropertyLayout(Arrays.asList("Id", "Name", "Address"));
+
+  @Test
+  public void slots() {
+    assertEquals(0, layout.getSlot("Id"));
+    assertEquals(2, layout.getSlot("Address"));
+    assertEquals(-1, layout.getSlot("Unknown"));
+    assertEquals(Arrays.asList("Id", "Name", "Address"), layout.getPropertyNames());
+  }
+
+  @Test
+  public void entityInSlotOrder() {
+    final Property id = new Property(null, "Id", ValueType.PRIMITIVE, 1);
+    final Property name = new Property(null, "Name", ValueType.PRIMITIVE, "n");
+    final Entity entity = new Entity().addProperty(id).addProperty(name);
+    entity.setPropertyLayout(layout);
+
+    assertSame(id, entity.getProperty("Id"));
+    assertSame(name, entity.getProperty("Name"));
+    assertNull(entity.getProperty("Address"));
+    assertNull(entity.getProperty("Unknown"));
+  }
+
+  @Test
+  public void entityInOtherOrder() {
+    final Property id = new Property(null, "Id", ValueType.PRIMITIVE, 1);
+    final Property address = new Property(null, "Address", ValueType.PRIMITIVE, "a");
+    final Entity entity = new Entity().addProperty(address).addProperty(id);
+    entity.setPropertyLayout(layout);
+
+    assertSame(id, entity.getProperty("Id"));
+    assertSame(address, entity.getProperty("Address"));
+    assertNull(entity.getProperty("Name"));
+  }
+
+  @Test
+  public void complexValue() {
+    final ComplexValue complexValue = new ComplexValue();
+    final Property name = new Property(null, "Name", ValueType.PRIMITIVE, "n");
+    complexValue.getValue().add(name);
+    assertSame(name, complexValue.getProperty("Name"));
+
+    complexValue.setPropertyLayout(layout);
+    assertSame(name, complexValue.getProperty("Name"));
+    assertNull(complexValue.getProperty("Id"));
+  }
+
+  @Test
+  public void lazyLists() {
+    final Entity first = new Entity();
+    final Entity second = new Entity();
+    assertEquals(first, second);
+    assertEquals(first.hashCode(), second.hashCode());
+
+    assertTrue(second.getOperations().isEmpty());
+    assertTrue(second.getAnnotations().isEmpty());
+    assertTrue(second.getNavigationLinks().isEmpty());
+    assertNull(second.getNavigationLink("Nav"));
+    assertEquals(first, second);
+    assertEquals(first.hashCode(), second.hashCode());
+
+    final Link link = new Link();
+    link.setTitle("Nav");
+    second.getNavigationLinks().add(link);
+    assertSame(link, second.getNavigationLink("Nav"));
+    assertEquals(1, second.getNavigationLinks().size());
+  }
+}
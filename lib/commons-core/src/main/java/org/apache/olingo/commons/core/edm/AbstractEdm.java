@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.EdmAction;
@@ -39,6 +40,12 @@ import org.apache.olingo.commons.api.edm.EdmTypeDefinition;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
 import org.apache.olingo.commons.api.edm.provider.CsdlAnnotation;
 
+/**
+ * Base class of the {@link Edm} implementations.
+ * <p>All elements are created on first access and cached. The caches are concurrent maps,
+ * so lookups of already created elements do not block each other.
+ * Use {@link #preload()} to create all elements eagerly and to freeze the Edm.</p>
+ */
 public abstract class AbstractEdm implements Edm {
 
   protected Map<String, EdmSchema> schemas;
@@ -46,56 +53,63 @@ public abstract class AbstractEdm implements Edm {
   private boolean isEntityDerivedFromES;
   private boolean isComplexDerivedFromES;
   private boolean isPreviousES;
+  /**
+   * Set after preloading: all types, entity containers, unbound operations, and terms are cached then,
+   * so these lookups no longer fall back to creating missing elements.
+   */
+  private volatile boolean frozen;
 
   private final Map<FullQualifiedName, EdmEntityContainer> entityContainers =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmEntityContainer>());
+      new ConcurrentHashMap<FullQualifiedName, EdmEntityContainer>();
+  /** The default entity container; cached separately since the concurrent maps do not support null keys. */
+  private volatile EdmEntityContainer defaultEntityContainer;
 
   private final Map<FullQualifiedName, EdmEnumType> enumTypes =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmEnumType>());
+      new ConcurrentHashMap<FullQualifiedName, EdmEnumType>();
 
   private final Map<FullQualifiedName, EdmTypeDefinition> typeDefinitions =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmTypeDefinition>());
+      new ConcurrentHashMap<FullQualifiedName, EdmTypeDefinition>();
 
   private final Map<FullQualifiedName, EdmEntityType> entityTypes =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmEntityType>());
+      new ConcurrentHashMap<FullQualifiedName, EdmEntityType>();
 
   private final Map<FullQualifiedName, EdmComplexType> complexTypes =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmComplexType>());
+      new ConcurrentHashMap<FullQualifiedName, EdmComplexType>();
 
   private final Map<FullQualifiedName, EdmAction> unboundActions =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmAction>());
+      new ConcurrentHashMap<FullQualifiedName, EdmAction>();
 
   private final Map<FullQualifiedName, List<EdmFunction>> unboundFunctionsByName =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, List<EdmFunction>>());
+      new ConcurrentHashMap<FullQualifiedName, List<EdmFunction>>();
 
   private final Map<FunctionMapKey, EdmFunction> unboundFunctionsByKey =
-      Collections.synchronizedMap(new HashMap<FunctionMapKey, EdmFunction>());
+      new ConcurrentHashMap<FunctionMapKey, EdmFunction>();
 
   private final Map<ActionMapKey, EdmAction> boundActions =
-      Collections.synchronizedMap(new HashMap<ActionMapKey, EdmAction>());
+      new ConcurrentHashMap<ActionMapKey, EdmAction>();
 
   private final Map<FunctionMapKey, EdmFunction> boundFunctions =
-      Collections.synchronizedMap(new HashMap<FunctionMapKey, EdmFunction>());
+      new ConcurrentHashMap<FunctionMapKey, EdmFunction>();
 
   private final Map<FullQualifiedName, EdmTerm> terms =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmTerm>());
+      new ConcurrentHashMap<FullQualifiedName, EdmTerm>();
 
   private final Map<TargetQualifierMapKey, EdmAnnotations> annotationGroups =
-      Collections.synchronizedMap(new HashMap<TargetQualifierMapKey, EdmAnnotations>());
+      new ConcurrentHashMap<TargetQualifierMapKey, EdmAnnotations>();
 
   private Map<String, String> aliasToNamespaceInfo = null;
   
   private final Map<FullQualifiedName, EdmEntityType> entityTypesWithAnnotations =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmEntityType>());
+      new ConcurrentHashMap<FullQualifiedName, EdmEntityType>();
   
   private final Map<FullQualifiedName, EdmEntityType> entityTypesDerivedFromES =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmEntityType>());
+      new ConcurrentHashMap<FullQualifiedName, EdmEntityType>();
   
   private final Map<FullQualifiedName, EdmComplexType> complexTypesWithAnnotations =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmComplexType>());
+      new ConcurrentHashMap<FullQualifiedName, EdmComplexType>();
   
   private final Map<FullQualifiedName, EdmComplexType> complexTypesDerivedFromES =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmComplexType>());
+      new ConcurrentHashMap<FullQualifiedName, EdmComplexType>();
 
   private Map<String, List<CsdlAnnotation>> annotationMap = 
       new HashMap<String, List<CsdlAnnotation>>();
@@ -108,6 +122,35 @@ public abstract class AbstractEdm implements Edm {
     return schemaList;
   }
 
+  /**
+   * Creates all elements of the Edm eagerly instead of on first access.
+   * <p>Loading the schemas creates and caches all of their types, operations, terms, and
+   * annotation groups; afterwards also all elements of the default entity container are loaded.
+   * Calling this at startup takes the metadata source out of the request path.</p>
+   * <p>Afterwards the Edm is frozen: lookups of types, entity containers, unbound actions and functions
+   * by name, and terms are answered from the caches alone, so a name that does not exist returns
+   * <code>null</code> (or no functions) without asking the metadata source. Bound operations, which may
+   * match a derived binding parameter type, and the members of entity containers are still resolved
+   * on a cache miss.</p>
+   */
+  public void preload() {
+    for (final EdmSchema schema : getSchemas()) {
+      final EdmEntityContainer container = schema.getEntityContainer();
+      if (container != null) {
+        container.getEntitySets();
+        container.getSingletons();
+        container.getActionImports();
+        container.getFunctionImports();
+      }
+    }
+    frozen = true;
+  }
+
+  /** Returns whether the Edm has been frozen by {@link #preload()}. */
+  public boolean isFrozen() {
+    return frozen;
+  }
+
   @Override
   public EdmSchema getSchema(final String namespace) {
     if (schemas == null) {
@@ -115,7 +158,7 @@ public abstract class AbstractEdm implements Edm {
     }
 
     EdmSchema schema = schemas.get(namespace);
-    if (schema == null) {
+    if (schema == null && namespace != null) {
       schema = schemas.get(aliasToNamespaceInfo.get(namespace));
     }
     return schema;
@@ -124,14 +167,20 @@ public abstract class AbstractEdm implements Edm {
   private void initSchemas() {
     loadAliasToNamespaceInfo();
     Map<String, EdmSchema> localSchemas = createSchemas();
-    schemas = Collections.synchronizedMap(localSchemas);
+    // The schemas are not changed after loading, so reading them needs no synchronization.
+    schemas = Collections.unmodifiableMap(localSchemas);
 
     schemaList = Collections.unmodifiableList(new ArrayList<EdmSchema>(schemas.values()));
   }
 
   private void loadAliasToNamespaceInfo() {
-    Map<String, String> localAliasToNamespaceInfo = createAliasToNamespaceInfo();
-    aliasToNamespaceInfo = Collections.synchronizedMap(localAliasToNamespaceInfo);
+    Map<String, String> localAliasToNamespaceInfo = new ConcurrentHashMap<String, String>();
+    for (final Map.Entry<String, String> entry : createAliasToNamespaceInfo().entrySet()) {
+      if (entry.getKey() != null && entry.getValue() != null) {
+        localAliasToNamespaceInfo.put(entry.getKey(), entry.getValue());
+      }
+    }
+    aliasToNamespaceInfo = localAliasToNamespaceInfo;
   }
 
   @Override
@@ -142,13 +191,15 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmEntityContainer getEntityContainer(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmEntityContainer container = entityContainers.get(fqn);
-    if (container == null) {
+    EdmEntityContainer container = fqn == null ? defaultEntityContainer : entityContainers.get(fqn);
+    if (container == null && !frozen) {
       container = createEntityContainer(fqn);
       if (container != null) {
-        entityContainers.put(fqn, container);
         if (fqn == null) {
+          defaultEntityContainer = container;
           entityContainers.put(new FullQualifiedName(container.getNamespace(), container.getName()), container);
+        } else {
+          entityContainers.put(fqn, container);
         }
       }
     }
@@ -158,10 +209,10 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmEnumType getEnumType(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmEnumType enumType = enumTypes.get(fqn);
-    if (enumType == null) {
+    EdmEnumType enumType = fqn == null ? null : enumTypes.get(fqn);
+    if (enumType == null && !frozen) {
       enumType = createEnumType(fqn);
-      if (enumType != null) {
+      if (enumType != null && fqn != null) {
         enumTypes.put(fqn, enumType);
       }
     }
@@ -171,10 +222,10 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmTypeDefinition getTypeDefinition(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmTypeDefinition typeDefinition = typeDefinitions.get(fqn);
-    if (typeDefinition == null) {
+    EdmTypeDefinition typeDefinition = fqn == null ? null : typeDefinitions.get(fqn);
+    if (typeDefinition == null && !frozen) {
       typeDefinition = createTypeDefinition(fqn);
-      if (typeDefinition != null) {
+      if (typeDefinition != null && fqn != null) {
         typeDefinitions.put(fqn, typeDefinition);
       }
     }
@@ -184,10 +235,10 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmEntityType getEntityType(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmEntityType entityType = entityTypes.get(fqn);
-    if (entityType == null) {
+    EdmEntityType entityType = fqn == null ? null : entityTypes.get(fqn);
+    if (entityType == null && !frozen) {
       entityType = createEntityType(fqn);
-      if (entityType != null) {
+      if (entityType != null && fqn != null) {
         entityTypes.put(fqn, entityType);
       }
     }
@@ -197,10 +248,10 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmEntityType getEntityTypeWithAnnotations(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmEntityType entityType = entityTypesWithAnnotations.get(fqn);
+    EdmEntityType entityType = fqn == null ? null : entityTypesWithAnnotations.get(fqn);
     if (entityType == null) {
       entityType = createEntityType(fqn);
-      if (entityType != null) {
+      if (entityType != null && fqn != null) {
           entityTypesWithAnnotations.put(fqn, entityType);
       }
     }
@@ -215,10 +266,10 @@ public abstract class AbstractEdm implements Edm {
     if (!isPreviousES() && getEntityContainer() != null) {
        getEntityContainer().getEntitySetsWithAnnotations();
     }
-    EdmEntityType entityType = entityTypesDerivedFromES.get(fqn);
+    EdmEntityType entityType = fqn == null ? null : entityTypesDerivedFromES.get(fqn);
     if (entityType == null) {
       entityType = createEntityType(fqn);
-      if (entityType != null) {
+      if (entityType != null && fqn != null) {
           entityTypesDerivedFromES.put(fqn, entityType);
       }
     }
@@ -233,10 +284,10 @@ public abstract class AbstractEdm implements Edm {
     if (!isPreviousES() && getEntityContainer() != null) {
        getEntityContainer().getEntitySetsWithAnnotations();
     }
-    EdmComplexType complexType = complexTypesDerivedFromES.get(fqn);
+    EdmComplexType complexType = fqn == null ? null : complexTypesDerivedFromES.get(fqn);
     if (complexType == null) {
       complexType = createComplexType(fqn);
-      if (complexType != null) {
+      if (complexType != null && fqn != null) {
           complexTypesDerivedFromES.put(fqn, complexType);
       }
     }
@@ -247,10 +298,10 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmComplexType getComplexType(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmComplexType complexType = complexTypes.get(fqn);
-    if (complexType == null) {
+    EdmComplexType complexType = fqn == null ? null : complexTypes.get(fqn);
+    if (complexType == null && !frozen) {
       complexType = createComplexType(fqn);
-      if (complexType != null) {
+      if (complexType != null && fqn != null) {
         complexTypes.put(fqn, complexType);
       }
     }
@@ -260,10 +311,10 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmComplexType getComplexTypeWithAnnotations(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmComplexType complexType = complexTypesWithAnnotations.get(fqn);
+    EdmComplexType complexType = fqn == null ? null : complexTypesWithAnnotations.get(fqn);
     if (complexType == null) {
       complexType = createComplexType(fqn);
-      if (complexType != null) {
+      if (complexType != null && fqn != null) {
           complexTypesWithAnnotations.put(fqn, complexType);
       }
     }
@@ -274,11 +325,11 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmAction getUnboundAction(final FullQualifiedName actionName) {
     final FullQualifiedName fqn = resolvePossibleAlias(actionName);
-    EdmAction action = unboundActions.get(fqn);
-    if (action == null) {
+    EdmAction action = fqn == null ? null : unboundActions.get(fqn);
+    if (action == null && !frozen) {
       action = createUnboundAction(fqn);
-      if (action != null) {
-        unboundActions.put(actionName, action);
+      if (action != null && fqn != null) {
+        unboundActions.put(fqn, action);
       }
     }
 
@@ -307,10 +358,12 @@ public abstract class AbstractEdm implements Edm {
   public List<EdmFunction> getUnboundFunctions(final FullQualifiedName functionName) {
     final FullQualifiedName functionFqn = resolvePossibleAlias(functionName);
 
-    List<EdmFunction> functions = unboundFunctionsByName.get(functionFqn);
-    if (functions == null) {
+    List<EdmFunction> functions = functionFqn == null ? null : unboundFunctionsByName.get(functionFqn);
+    if (functions == null && frozen) {
+      functions = Collections.emptyList();
+    } else if (functions == null) {
       functions = createUnboundFunctions(functionFqn);
-      if (functions != null) {
+      if (functions != null && functionFqn != null) {
         unboundFunctionsByName.put(functionFqn, functions);
 
         for (EdmFunction unbound : functions) {
@@ -367,10 +420,10 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmTerm getTerm(final FullQualifiedName termName) {
     final FullQualifiedName fqn = resolvePossibleAlias(termName);
-    EdmTerm term = terms.get(fqn);
-    if (term == null) {
+    EdmTerm term = fqn == null ? null : terms.get(fqn);
+    if (term == null && !frozen) {
       term = createTerm(fqn);
-      if (term != null) {
+      if (term != null && fqn != null) {
         terms.put(fqn, term);
       }
     }
@@ -397,7 +450,8 @@ public abstract class AbstractEdm implements Edm {
     }
     FullQualifiedName finalFQN = null;
     if (namespaceOrAliasFQN != null) {
-      final String namespace = aliasToNamespaceInfo.get(namespaceOrAliasFQN.getNamespace());
+      final String namespace = namespaceOrAliasFQN.getNamespace() == null ? null
+          : aliasToNamespaceInfo.get(namespaceOrAliasFQN.getNamespace());
       // If not contained in info it must be a namespace
       if (namespace == null) {
         finalFQN = namespaceOrAliasFQN;
@@ -419,7 +473,11 @@ public abstract class AbstractEdm implements Edm {
   protected abstract EdmEntityContainer createEntityContainer(FullQualifiedName containerName);
 
   public void cacheEntityContainer(final FullQualifiedName containerFQN, final EdmEntityContainer container) {
-    entityContainers.put(containerFQN, container);
+    if (containerFQN == null) {
+      defaultEntityContainer = container;
+    } else {
+      entityContainers.put(containerFQN, container);
+    }
   }
 
   protected abstract EdmEnumType createEnumType(FullQualifiedName enumName);
@@ -468,10 +526,14 @@ public abstract class AbstractEdm implements Edm {
     if (function.isBound()) {
       boundFunctions.put(key, function);
     } else {
-      if (!unboundFunctionsByName.containsKey(functionName)) {
-        unboundFunctionsByName.put(functionName, new ArrayList<EdmFunction>());
+      // Replace the list instead of modifying it, since readers may iterate over it concurrently.
+      synchronized (unboundFunctionsByName) {
+        final List<EdmFunction> functions = unboundFunctionsByName.get(functionName);
+        final List<EdmFunction> newFunctions = functions == null ?
+            new ArrayList<EdmFunction>() : new ArrayList<EdmFunction>(functions);
+        newFunctions.add(function);
+        unboundFunctionsByName.put(functionName, newFunctions);
       }
-      unboundFunctionsByName.get(functionName).add(function);
 
       unboundFunctionsByKey.put(key, function);
     }
@@ -20,9 +20,9 @@ package org.apache.olingo.commons.core.edm;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.EdmActionImport;
@@ -57,22 +57,22 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
   private final FullQualifiedName parentContainerName;
 
   private List<EdmSingleton> singletons;
-  private final Map<String, EdmSingleton> singletonCache = Collections.synchronizedMap(
-      new LinkedHashMap<String, EdmSingleton>());
+  private final Map<String, EdmSingleton> singletonCache =
+      new ConcurrentHashMap<String, EdmSingleton>();
   private List<EdmEntitySet> entitySets;
-  private final Map<String, EdmEntitySet> entitySetCache = Collections.synchronizedMap(
-      new LinkedHashMap<String, EdmEntitySet>());
+  private final Map<String, EdmEntitySet> entitySetCache =
+      new ConcurrentHashMap<String, EdmEntitySet>();
   private List<EdmActionImport> actionImports;
-  private final Map<String, EdmActionImport> actionImportCache = Collections.synchronizedMap(
-      new LinkedHashMap<String, EdmActionImport>());
+  private final Map<String, EdmActionImport> actionImportCache =
+      new ConcurrentHashMap<String, EdmActionImport>();
   private List<EdmFunctionImport> functionImports;
-  private final Map<String, EdmFunctionImport> functionImportCache = Collections.synchronizedMap(
-      new LinkedHashMap<String, EdmFunctionImport>());
+  private final Map<String, EdmFunctionImport> functionImportCache =
+      new ConcurrentHashMap<String, EdmFunctionImport>();
 	  private boolean isAnnotationsIncluded = false;
-  private final Map<String, EdmEntitySet> entitySetWithAnnotationsCache = Collections.synchronizedMap(
-      new LinkedHashMap<String, EdmEntitySet>());
-  private final Map<String, EdmSingleton> singletonWithAnnotationsCache = Collections.synchronizedMap(
-      new LinkedHashMap<String, EdmSingleton>());
+  private final Map<String, EdmEntitySet> entitySetWithAnnotationsCache =
+      new ConcurrentHashMap<String, EdmEntitySet>();
+  private final Map<String, EdmSingleton> singletonWithAnnotationsCache =
+      new ConcurrentHashMap<String, EdmSingleton>();
   private boolean isSingletonAnnotationsIncluded = false;
   private final String SLASH = "/";
   private final String DOT = ".";
@@ -107,6 +107,10 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
 
   @Override
   public EdmSingleton getSingleton(final String singletonName) {
+    if (singletonName == null) {
+      // The caches do not support null keys.
+      return createSingleton(null);
+    }
     EdmSingleton singleton = singletonWithAnnotationsCache.get(singletonName);
     if (singleton == null) {
       singleton = singletonCache.get(singletonName);
@@ -126,16 +130,22 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
 
   @Override
   public EdmEntitySet getEntitySet(final String entitySetName) {
-    EdmEntitySet entitySet = entitySetWithAnnotationsCache.get(entitySetName);
-    if (entitySet == null) {
-      entitySet = entitySetCache.get(entitySetName);
+    EdmEntitySet entitySet = null;
+    if (entitySetName == null) {
+      // The caches do not support null keys.
+      entitySet = createEntitySet(null);
+    } else {
+      entitySet = entitySetWithAnnotationsCache.get(entitySetName);
       if (entitySet == null) {
-        entitySet = createEntitySet(entitySetName);
-        if (entitySet != null) {
-          if (isAnnotationsIncluded) {
-            entitySetWithAnnotationsCache.put(entitySetName, entitySet);
-          } else {
-            entitySetCache.put(entitySetName, entitySet);
+        entitySet = entitySetCache.get(entitySetName);
+        if (entitySet == null) {
+          entitySet = createEntitySet(entitySetName);
+          if (entitySet != null) {
+            if (isAnnotationsIncluded) {
+              entitySetWithAnnotationsCache.put(entitySetName, entitySet);
+            } else {
+              entitySetCache.put(entitySetName, entitySet);
+            }
           }
         }
       }
@@ -146,6 +156,9 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
 
   @Override
   public EdmActionImport getActionImport(final String actionImportName) {
+    if (actionImportName == null) {
+      return createActionImport(null);
+    }
     EdmActionImport actionImport = actionImportCache.get(actionImportName);
     if (actionImport == null) {
       actionImport = createActionImport(actionImportName);
@@ -158,6 +171,9 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
 
   @Override
   public EdmFunctionImport getFunctionImport(final String functionImportName) {
+    if (functionImportName == null) {
+      return createFunctionImport(null);
+    }
     EdmFunctionImport functionImport = functionImportCache.get(functionImportName);
     if (functionImport == null) {
       functionImport = createFunctionImport(functionImportName);
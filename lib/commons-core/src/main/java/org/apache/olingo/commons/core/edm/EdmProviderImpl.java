@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.olingo.commons.api.edm.EdmAction;
 import org.apache.olingo.commons.api.edm.EdmAnnotations;
@@ -63,9 +64,9 @@ public class EdmProviderImpl extends AbstractEdm {
 
   private final CsdlEdmProvider provider;
   private final Map<FullQualifiedName, List<CsdlAction>> actionsMap =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, List<CsdlAction>>());
+      new ConcurrentHashMap<FullQualifiedName, List<CsdlAction>>();
   private final Map<FullQualifiedName, List<CsdlFunction>> functionsMap =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, List<CsdlFunction>>());
+      new ConcurrentHashMap<FullQualifiedName, List<CsdlFunction>>();
   private List<CsdlSchema> termSchemaDefinition = new ArrayList<CsdlSchema>();
 
   private final String SLASH = "/";
@@ -613,6 +614,10 @@ public class EdmProviderImpl extends AbstractEdm {
   @Override
   public EdmAction createBoundAction(final FullQualifiedName actionName,
       final FullQualifiedName bindingParameterTypeName, final Boolean isBindingParameterCollection) {
+    if (actionName == null) {
+      // No action has a null name, and the concurrent cache does not support null keys.
+      return null;
+    }
 
     try {
       List<CsdlAction> actions = actionsMap.get(actionName);
@@ -746,6 +751,10 @@ public class EdmProviderImpl extends AbstractEdm {
   public EdmFunction createBoundFunction(final FullQualifiedName functionName,
       final FullQualifiedName bindingParameterTypeName, final Boolean isBindingParameterCollection,
       final List<String> parameterNames) {
+    if (functionName == null) {
+      // No function has a null name, and the concurrent cache does not support null keys.
+      return null;
+    }
 
     try {
       List<CsdlFunction> functions = functionsMap.get(functionName);
@@ -809,6 +818,10 @@ public class EdmProviderImpl extends AbstractEdm {
 
   @Override
   protected EdmAction createUnboundAction(final FullQualifiedName actionName) {
+    if (actionName == null) {
+      // No action has a null name, and the concurrent cache does not support null keys.
+      return null;
+    }
     try {
       List<CsdlAction> actions = actionsMap.get(actionName);
       if (actions == null) {
@@ -835,6 +848,9 @@ public class EdmProviderImpl extends AbstractEdm {
   @Override
   protected List<EdmFunction> createUnboundFunctions(final FullQualifiedName functionName) {
     List<EdmFunction> result = new ArrayList<>();
+    if (functionName == null) {
+      return result;
+    }
 
     try {
       List<CsdlFunction> functions = functionsMap.get(functionName);
@@ -861,6 +877,10 @@ public class EdmProviderImpl extends AbstractEdm {
 
   @Override
   protected EdmFunction createUnboundFunction(final FullQualifiedName functionName, final List<String> parameterNames) {
+    if (functionName == null) {
+      // No function has a null name, and the concurrent cache does not support null keys.
+      return null;
+    }
     try {
       List<CsdlFunction> functions = functionsMap.get(functionName);
       if (functions == null) {
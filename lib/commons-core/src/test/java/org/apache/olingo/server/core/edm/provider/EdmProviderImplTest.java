@@ -19,15 +19,21 @@
 package org.apache.olingo.server.core.edm.provider;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.olingo.commons.api.ex.ODataException;
@@ -44,10 +50,13 @@ import org.apache.olingo.commons.api.edm.provider.CsdlAliasInfo;
 import org.apache.olingo.commons.api.edm.provider.CsdlAnnotations;
 import org.apache.olingo.commons.api.edm.provider.CsdlComplexType;
 import org.apache.olingo.commons.api.edm.provider.CsdlEdmProvider;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntityContainer;
 import org.apache.olingo.commons.api.edm.provider.CsdlEntityContainerInfo;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntitySet;
 import org.apache.olingo.commons.api.edm.provider.CsdlEntityType;
 import org.apache.olingo.commons.api.edm.provider.CsdlEnumType;
 import org.apache.olingo.commons.api.edm.provider.CsdlPropertyRef;
+import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
 import org.apache.olingo.commons.api.edm.provider.CsdlTypeDefinition;
 import org.apache.olingo.commons.core.edm.EdmProviderImpl;
 import org.junit.Before;
@@ -248,4 +257,70 @@ public class EdmProviderImplTest {
 
     assertNull(edm.getAnnotationGroup(WRONG_FQN, null));
   }
+
+  @Test
+  public void preloadCachesSchemaElements() throws Exception {
+    CsdlEdmProvider localProvider = mock(CsdlEdmProvider.class);
+    CsdlSchema schema = new CsdlSchema().setNamespace(FQN.getNamespace())
+        .setEntityTypes(Collections.singletonList(
+            new CsdlEntityType().setName(FQN.getName()).setKey(new ArrayList<CsdlPropertyRef>())))
+        .setEntityContainer(new CsdlEntityContainer().setName("container")
+            .setEntitySets(Collections.singletonList(new CsdlEntitySet().setName("set").setType(FQN))));
+    when(localProvider.getSchemas()).thenReturn(Collections.singletonList(schema));
+
+    EdmProviderImpl localEdm = new EdmProviderImpl(localProvider);
+    localEdm.preload();
+    reset(localProvider);
+
+    assertEquals(1, localEdm.getSchema(FQN.getNamespace()).getEntityContainer().getEntitySets().size());
+    EdmEntityType entityType = localEdm.getEntityType(FQN);
+    assertNotNull(entityType);
+    assertSame(entityType, localEdm.getSchema(FQN.getNamespace()).getEntityTypes().get(0));
+    assertNotNull(localEdm.getEntityContainer().getEntitySet("set"));
+    verifyZeroInteractions(localProvider);
+  }
+
+  @Test
+  public void preloadFreezesLookups() throws Exception {
+    CsdlEdmProvider localProvider = mock(CsdlEdmProvider.class);
+    CsdlSchema schema = new CsdlSchema().setNamespace(FQN.getNamespace())
+        .setEntityTypes(Collections.singletonList(
+            new CsdlEntityType().setName(FQN.getName()).setKey(new ArrayList<CsdlPropertyRef>())));
+    when(localProvider.getSchemas()).thenReturn(Collections.singletonList(schema));
+
+    EdmProviderImpl localEdm = new EdmProviderImpl(localProvider);
+    assertFalse(localEdm.isFrozen());
+    localEdm.preload();
+    assertTrue(localEdm.isFrozen());
+    reset(localProvider);
+
+    assertNotNull(localEdm.getEntityType(FQN));
+    assertNull(localEdm.getEntityType(WRONG_FQN));
+    assertNull(localEdm.getComplexType(WRONG_FQN));
+    assertNull(localEdm.getEnumType(WRONG_FQN));
+    assertNull(localEdm.getTypeDefinition(WRONG_FQN));
+    assertNull(localEdm.getTerm(WRONG_FQN));
+    assertNull(localEdm.getUnboundAction(WRONG_FQN));
+    assertTrue(localEdm.getUnboundFunctions(WRONG_FQN).isEmpty());
+    assertNull(localEdm.getEntityContainer(WRONG_FQN));
+    verifyZeroInteractions(localProvider);
+  }
+
+  @Test
+  public void nullOperationNames() {
+    assertNull(edm.getUnboundAction(null));
+    assertTrue(edm.getUnboundFunctions(null).isEmpty());
+    assertNull(edm.getUnboundFunction(null, null));
+    assertNull(edm.getBoundFunction(null, FQN, false, null));
+    assertNull(((EdmProviderImpl) edm).createBoundAction(null, FQN, false));
+  }
+
+  @Test
+  public void nullNamesAreNotCached() {
+    assertNull(edm.getEntityType(null));
+    assertNull(edm.getComplexType(null));
+    assertNull(edm.getEnumType(null));
+    assertNull(edm.getTypeDefinition(null));
+    assertNotNull(edm.getEntityContainer(null));
+  }
 }
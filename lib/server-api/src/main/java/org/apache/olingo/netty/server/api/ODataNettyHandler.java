@@ -18,12 +18,23 @@
  */
 package org.apache.olingo.netty.server.api;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.server.api.processor.Processor;
 
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
 
 public interface ODataNettyHandler {
 
@@ -36,6 +47,42 @@ public interface ODataNettyHandler {
    * @param response - HTTP OData response
    */
   void processNettyRequest(HttpRequest request, HttpResponse response, Map<String, String> requestParameters);
+
+  /**
+   * <p>Processes a NettyRequest as an OData request, reading the request body from a stream and
+   * writing the response to the channel as it is produced.</p>
+   * <p>The response head is followed by chunked {@link io.netty.handler.codec.http.HttpContent} and a final
+   * {@link io.netty.handler.codec.http.LastHttpContent}. When called outside the event loop, writing waits
+   * while the channel is not writable, so a slow client throttles response serialization.</p>
+   * <p>The default implementation reads the complete body and delegates to
+   * {@link #processNettyRequest(HttpRequest, HttpResponse, Map)}, writing the buffered response at once.</p>
+   * @param request - HTTP request head; its content, if any, is ignored
+   * @param body - request body, e.g. an {@link ODataNettyRequestBody} fed with the chunks of the request
+   * @param ctx - context the response is written to
+   * @param requestParameters - the same parameters as for the aggregated variant
+   * @return future of the write of the last response content
+   */
+  default ChannelFuture processNettyRequest(final HttpRequest request, final InputStream body,
+      final ChannelHandlerContext ctx, final Map<String, String> requestParameters) {
+    final FullHttpRequest fullRequest = new DefaultFullHttpRequest(request.protocolVersion(), request.method(),
+        request.uri(), ctx.alloc().buffer());
+    final FullHttpResponse response = new DefaultFullHttpResponse(request.protocolVersion(), HttpResponseStatus.OK,
+        ctx.alloc().buffer());
+    try {
+      fullRequest.headers().set(request.headers());
+      while (fullRequest.content().writeBytes(body, 8192) != -1) {
+        // read until the end of the body
+      }
+      processNettyRequest(fullRequest, response, requestParameters);
+    } catch (final IOException e) {
+      response.release();
+      throw new ODataRuntimeException("Error on reading request content", e);
+    } finally {
+      fullRequest.release();
+    }
+    HttpUtil.setContentLength(response, response.content().readableBytes());
+    return ctx.writeAndFlush(response);
+  }
   
   /**
    * <p>Registers additional custom processor implementations for handling OData requests.</p>
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.netty.server.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+
+/**
+ * <p>Request body fed with the {@link HttpContent} chunks of a request as they arrive on the channel.</p>
+ * <p>Chunks are offered on the event loop while the request is processed on another thread, which reads this
+ * stream. If more than the given number of bytes is waiting to be read, reading from the channel is suspended
+ * (auto-read is switched off) until the reader has caught up.</p>
+ */
+public class ODataNettyRequestBody extends InputStream {
+
+  public static final int DEFAULT_MAX_BUFFERED_BYTES = 1024 * 1024;
+
+  private final Channel channel;
+  private final int maxBufferedBytes;
+  private final Deque<ByteBuf> chunks = new ArrayDeque<ByteBuf>();
+  private int buffered = 0;
+  private boolean complete = false;
+  private boolean closed = false;
+  private boolean suspended = false;
+
+  /**
+   * @param channel the channel the request is read from; <code>null</code> disables flow control
+   */
+  public ODataNettyRequestBody(final Channel channel) {
+    this(channel, DEFAULT_MAX_BUFFERED_BYTES);
+  }
+
+  /**
+   * @param channel the channel the request is read from; <code>null</code> disables flow control
+   * @param maxBufferedBytes number of buffered bytes above which reading from the channel is suspended
+   */
+  public ODataNettyRequestBody(final Channel channel, final int maxBufferedBytes) {
+    this.channel = channel;
+    this.maxBufferedBytes = maxBufferedBytes;
+  }
+
+  /**
+   * Adds a chunk of the request body. The content is retained until it has been read.
+   * A {@link LastHttpContent} marks the end of the body.
+   * @param content chunk of the request
+   */
+  public synchronized void offer(final HttpContent content) {
+    if (!closed) {
+      final ByteBuf buffer = content.content();
+      if (buffer.isReadable()) {
+        chunks.add(buffer.retain());
+        buffered += buffer.readableBytes();
+        if (buffered > maxBufferedBytes && channel != null && !suspended) {
+          suspended = true;
+          channel.config().setAutoRead(false);
+        }
+      }
+    }
+    if (content instanceof LastHttpContent) {
+      complete = true;
+    }
+    notifyAll();
+  }
+
+  @Override
+  public int read() throws IOException {
+    final byte[] single = new byte[1];
+    return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+  }
+
+  @Override
+  public synchronized int read(final byte[] b, final int off, final int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    while (chunks.isEmpty() && !complete && !closed) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for request content");
+      }
+    }
+    if (closed) {
+      throw new IOException("Request body has been closed");
+    }
+    final ByteBuf first = chunks.peek();
+    if (first == null) {
+      return -1;
+    }
+    final int count = Math.min(len, first.readableBytes());
+    first.readBytes(b, off, count);
+    if (!first.isReadable()) {
+      chunks.poll().release();
+    }
+    buffered -= count;
+    resume();
+    return count;
+  }
+
+  @Override
+  public synchronized int available() {
+    return buffered;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (!closed) {
+      closed = true;
+      for (ByteBuf chunk : chunks) {
+        chunk.release();
+      }
+      chunks.clear();
+      buffered = 0;
+      resume();
+      notifyAll();
+    }
+  }
+
+  private void resume() {
+    if (suspended && buffered <= maxBufferedBytes / 2) {
+      suspended = false;
+      channel.config().setAutoRead(true);
+      channel.read();
+    }
+  }
+}
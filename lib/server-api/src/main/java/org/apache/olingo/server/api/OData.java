@@ -20,26 +20,42 @@ package org.apache.olingo.server.api;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
+import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
 import org.apache.olingo.commons.api.edm.provider.CsdlEdmProvider;
 import org.apache.olingo.commons.api.edmx.EdmxReference;
 import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.async.AsyncRequestExecutor;
+import org.apache.olingo.server.api.async.AsyncRequestExecutorOptions;
+import org.apache.olingo.server.api.batch.BatchExecutionSupport;
 import org.apache.olingo.server.api.debug.DebugResponseHelper;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.deserializer.FixedFormatDeserializer;
 import org.apache.olingo.server.api.deserializer.ODataDeserializer;
 import org.apache.olingo.server.api.etag.ETagHelper;
 import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
+import org.apache.olingo.server.api.metrics.LatencyStatistics;
+import org.apache.olingo.server.api.paging.KeysetPaging;
+import org.apache.olingo.server.api.paging.SkipTokenCodec;
 import org.apache.olingo.server.api.prefer.Preferences;
+import org.apache.olingo.server.api.query.QueryPlan;
+import org.apache.olingo.server.api.query.QueryTranslator;
+import org.apache.olingo.server.api.query.SqlQuery;
 import org.apache.olingo.server.api.serializer.EdmAssistedSerializer;
 import org.apache.olingo.server.api.serializer.EdmDeltaSerializer;
 import org.apache.olingo.server.api.serializer.FixedFormatSerializer;
 import org.apache.olingo.server.api.serializer.ODataSerializer;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.uri.UriHelper;
+import org.apache.olingo.server.api.uri.UriInfoCache;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionCompiler;
 
 /**
  * Root object for serving factory tasks and support loose coupling of implementation (core) from the API.
@@ -235,4 +251,76 @@ public abstract class OData {
    */
   public abstract EdmDeltaSerializer createEdmDeltaSerializer(final ContentType contentType,
       final List<String> versions) throws SerializerException;
+
+  /**
+   * Creates a new compiler for the expressions of system query options like $filter and $orderby.
+   * @param uriInfo the URI information the expressions belong to; used to resolve parameter aliases,
+   *                can be <code>null</code>
+   */
+  public abstract ExpressionCompiler createExpressionCompiler(UriInfoResource uriInfo);
+
+  /**
+   * Creates a new cache for parsed request URIs which can be registered at the ODataHandler.
+   * When the cache is full, the least recently used entries are evicted.
+   * @param maximumSize the maximum number of cached URIs
+   * @see UriInfoCache
+   */
+  public abstract UriInfoCache createUriInfoCache(int maximumSize);
+
+  /**
+   * Creates a support for the parallel execution of batch requests which can be registered at the ODataHandler.
+   * @param executor the executor for the query operations that are executed in parallel
+   * @see BatchExecutionSupport
+   */
+  public abstract BatchExecutionSupport createBatchExecutionSupport(Executor executor);
+
+  /**
+   * Creates request metrics which aggregate the runtime of the processing stages in latency histograms;
+   * they can be registered at the ODataHandler.
+   * @see LatencyStatistics
+   */
+  public abstract LatencyStatistics createLatencyStatistics();
+
+  /**
+   * Creates a backend-neutral plan of the query options of a request against an entity collection.
+   * @param uriInfo the URI information of the request
+   * @param entityType the type of the queried entities
+   * @see QueryPlan
+   */
+  public abstract QueryPlan createQueryPlan(UriInfoResource uriInfo, EdmEntityType entityType);
+
+  /**
+   * Creates a translator of query plans into SQL statements for a single table.
+   * @param tableName the name of the table the entities are stored in
+   * @param columnNames maps property names to column names; properties without mapping
+   *                    are stored in columns with the name of the property; can be <code>null</code>
+   * @see SqlQuery
+   */
+  public abstract QueryTranslator<SqlQuery> createSqlQueryTranslator(String tableName,
+      Map<String, String> columnNames);
+
+  /**
+   * Creates the default codec for skip tokens; it encodes page cursors as URL-safe Base64 strings.
+   * @see SkipTokenCodec
+   */
+  public abstract SkipTokenCodec createSkipTokenCodec();
+
+  /**
+   * Creates keyset paging for entity collections of the given type.
+   * @param entityType the type of the paged entities
+   * @param orderBy the $orderby system query option; can be <code>null</code>
+   * @param codec the codec for the skip tokens
+   * @throws ODataApplicationException with status code 501 (Not Implemented) if an $orderby expression
+   *                                   is not a path to a single-valued primitive property
+   * @see KeysetPaging
+   */
+  public abstract KeysetPaging createKeysetPaging(EdmEntityType entityType, OrderByOption orderBy,
+      SkipTokenCodec codec) throws ODataApplicationException;
+
+  /**
+   * Creates an executor for requests with the <code>respond-async</code> preference.
+   * @param options the options of the executor
+   * @see AsyncRequestExecutor
+   */
+  public abstract AsyncRequestExecutor createAsyncRequestExecutor(AsyncRequestExecutorOptions options);
 }
@@ -24,6 +24,7 @@ import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.constants.ODataServiceVersion;
 import org.apache.olingo.commons.api.edmx.EdmxReference;
 import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
+import org.apache.olingo.server.api.serializer.SerializedDocumentCache;
 
 /**
  * Metadata of an OData service like the Entity Data Model.
@@ -52,4 +53,13 @@ public interface ServiceMetadata {
    * @return metadata ETag support
    */
   ServiceMetadataETagSupport getServiceMetadataETagSupport();
+
+  /**
+   * Gets the cache for the serialized metadata document and service document (may be NULL).
+   * Documents are only cached while they have an ETag, so that a changed document is never served from the cache.
+   * @return serialized document cache; the default implementation returns <code>null</code>
+   */
+  default SerializedDocumentCache getSerializedDocumentCache() {
+    return null;
+  }
 }
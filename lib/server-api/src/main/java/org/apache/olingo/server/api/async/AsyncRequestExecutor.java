@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.async;
+
+import java.util.Collection;
+
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+
+/**
+ * Executes requests asynchronously and serves their status monitor resources.
+ * <p>The number of queued and running requests is bounded; further requests are rejected
+ * so that the client can retry later. Responses are kept until they are fetched or until their
+ * time to live has expired; large responses are written to temporary files.</p>
+ * @see org.apache.olingo.server.api.OData#createAsyncRequestExecutor(AsyncRequestExecutorOptions)
+ */
+public interface AsyncRequestExecutor {
+
+  /**
+   * Submits a task for asynchronous execution.
+   * @param statusMonitorBaseUri the URI the status monitor resources are served at;
+   *                             the location of the new status monitor is below it
+   * @param task the task
+   * @return the status monitor
+   * @throws ODataApplicationException with status code 503 (Service Unavailable)
+   *                                   if the maximum number of pending requests has been reached
+   */
+  AsyncStatusMonitor submit(String statusMonitorBaseUri, AsyncTask task) throws ODataApplicationException;
+
+  /**
+   * Returns the status monitor with the given location.
+   * @return the status monitor or <code>null</code> if it does not exist (anymore)
+   */
+  AsyncStatusMonitor getStatusMonitor(String location);
+
+  /** Returns the current status monitors. */
+  Collection<AsyncStatusMonitor> getStatusMonitors();
+
+  /**
+   * Handles a request to a status monitor resource, identified by the request URI without query.
+   * <p>GET returns 202 (Accepted) while the request is pending and the response of the request,
+   * as <code>application/http</code> message, when it has been completed; the status monitor is removed
+   * after the response has been returned. DELETE cancels the request and returns 204 (No Content).
+   * Unknown status monitors result in 404 (Not Found).</p>
+   * @param request the request to the status monitor
+   * @param response the response to fill
+   */
+  void handleStatusMonitorRequest(ODataRequest request, ODataResponse response);
+
+  /**
+   * Cancels all requests, removes all status monitors, and shuts down the executor service
+   * if it has been created by this executor.
+   */
+  void shutdown();
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.async;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options of the asynchronous request executor.
+ */
+public final class AsyncRequestExecutorOptions {
+  private ExecutorService executorService;
+  private int threads = 10;
+  private int maximumPendingRequests = 100;
+  private long timeToLive = TimeUnit.MINUTES.toMillis(10);
+  private int spillThreshold = 1024 * 1024;
+  private File spillDirectory;
+
+  /** Gets the executor service; <code>null</code> if the executor creates a fixed thread pool. */
+  public ExecutorService getExecutorService() {
+    return executorService;
+  }
+
+  /** Gets the number of threads of the thread pool created if no executor service is set. */
+  public int getThreads() {
+    return threads;
+  }
+
+  /** Gets the maximum number of queued and running requests. */
+  public int getMaximumPendingRequests() {
+    return maximumPendingRequests;
+  }
+
+  /** Gets the time in milliseconds a completed response is kept if it is not fetched. */
+  public long getTimeToLive() {
+    return timeToLive;
+  }
+
+  /** Gets the size in bytes above which a response is written to a temporary file. */
+  public int getSpillThreshold() {
+    return spillThreshold;
+  }
+
+  /** Gets the directory of the temporary files; <code>null</code> for the default temporary-file directory. */
+  public File getSpillDirectory() {
+    return spillDirectory;
+  }
+
+  private AsyncRequestExecutorOptions() {}
+
+  /** Initializes the options builder. */
+  public static Builder with() {
+    return new Builder();
+  }
+
+  /** Builder of the options of the asynchronous request executor. */
+  public static final class Builder {
+    private AsyncRequestExecutorOptions options;
+
+    public Builder() {
+      options = new AsyncRequestExecutorOptions();
+    }
+
+    /**
+     * Sets the executor service the requests are executed with, e.g., one that starts a virtual thread
+     * per task. It is not shut down by the asynchronous request executor.
+     */
+    public Builder executorService(final ExecutorService executorService) {
+      options.executorService = executorService;
+      return this;
+    }
+
+    /** Sets the number of threads of the thread pool created if no executor service is set. */
+    public Builder threads(final int threads) {
+      options.threads = threads;
+      return this;
+    }
+
+    /** Sets the maximum number of queued and running requests. */
+    public Builder maximumPendingRequests(final int maximumPendingRequests) {
+      options.maximumPendingRequests = maximumPendingRequests;
+      return this;
+    }
+
+    /** Sets the time a completed response is kept if it is not fetched. */
+    public Builder timeToLive(final long duration, final TimeUnit unit) {
+      options.timeToLive = unit.toMillis(duration);
+      return this;
+    }
+
+    /** Sets the size in bytes above which a response is written to a temporary file. */
+    public Builder spillThreshold(final int spillThreshold) {
+      options.spillThreshold = spillThreshold;
+      return this;
+    }
+
+    /** Sets the directory of the temporary files. */
+    public Builder spillDirectory(final File spillDirectory) {
+      options.spillDirectory = spillDirectory;
+      return this;
+    }
+
+    /** Builds the options of the asynchronous request executor. */
+    public AsyncRequestExecutorOptions build() {
+      return options;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.async;
+
+/**
+ * Status monitor of an asynchronously processed request.
+ */
+public interface AsyncStatusMonitor {
+
+  /** Returns the URI of the status monitor resource, to be sent in the Location header. */
+  String getLocation();
+
+  /** Returns the current state of the request. */
+  AsyncState getState();
+
+  /**
+   * Cancels the request and removes the status monitor.
+   * A running request is interrupted; a computed response is discarded.
+   * @return <code>false</code> if the request had already been cancelled
+   */
+  boolean cancel();
+}
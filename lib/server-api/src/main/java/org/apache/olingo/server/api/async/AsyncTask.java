@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.async;
+
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.ODataLibraryException;
+import org.apache.olingo.server.api.ODataResponse;
+
+/**
+ * Processing of a request in the background.
+ * <p>The task must not use the request and response objects of the HTTP request that started it,
+ * because these are gone when the task runs; request data needed later must be copied.</p>
+ */
+public interface AsyncTask {
+
+  /**
+   * Processes the request. A cancelled task is interrupted, so long-running tasks should check the
+   * interrupted status of the current thread.
+   * @return the response; its content is read completely after this method has returned
+   * @throws ODataApplicationException the response of the status monitor is an error response then
+   * @throws ODataLibraryException the response of the status monitor is an error response then
+   */
+  ODataResponse process() throws ODataApplicationException, ODataLibraryException;
+}
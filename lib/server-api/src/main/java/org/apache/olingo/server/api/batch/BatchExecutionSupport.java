@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.batch;
+
+import java.util.concurrent.Executor;
+
+import org.apache.olingo.server.api.OlingoExtension;
+
+/**
+ * <p>Enables the parallel execution of independent parts of batch requests.</p>
+ * <p>If an implementation of this interface is registered at the ODataHandler,
+ * {@link BatchFacade#handleBatchRequests(org.apache.olingo.server.api.deserializer.batch.BatchRequestReader,
+ * boolean) BatchFacade#handleBatchRequests} executes query operations outside of change sets that only
+ * read data with the provided executor. Change sets and all other requests are still executed in order,
+ * after all preceding parts have finished, so their results are the same as for sequential execution.</p>
+ * <p>The registered processors must be thread-safe for read requests.</p>
+ * @see org.apache.olingo.server.api.OData#createBatchExecutionSupport(Executor)
+ */
+public interface BatchExecutionSupport extends OlingoExtension {
+
+  /**
+   * Returns the executor for the query operations that are executed in parallel.
+   * The executor could, e.g., be a fixed thread pool or an executor creating a virtual thread per task.
+   */
+  Executor getExecutor();
+}
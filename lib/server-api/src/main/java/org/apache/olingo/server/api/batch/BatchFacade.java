@@ -17,11 +17,14 @@
  * under the License.
  */package org.apache.olingo.server.api.batch;
 
+ import java.util.List;
+
  import org.apache.olingo.server.api.ODataApplicationException;
  import org.apache.olingo.server.api.ODataLibraryException;
  import org.apache.olingo.server.api.ODataRequest;
  import org.apache.olingo.server.api.ODataResponse;
  import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+ import org.apache.olingo.server.api.deserializer.batch.BatchRequestReader;
  import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 
  /**
@@ -60,6 +63,22 @@
    public ODataResponsePart handleBatchRequest(BatchRequestPart request)
        throws ODataApplicationException, ODataLibraryException;
 
+   /**
+    * Handles all parts of a batch request in the order they are read.
+    * <p>If a {@link BatchExecutionSupport} is registered, query operations outside of change sets that
+    * only read data are executed in parallel with its executor. Change sets, data-modifying requests,
+    * and requests referencing a Content-ID are executed on the calling thread after all preceding
+    * parts have finished.</p>
+    * @param reader reader for the parts of the batch request
+    * @param continueOnError if <code>false</code>, no further parts are executed after the first failed part
+    * and the responses end with the response part of that part
+    * @return the response parts in the order of the request parts
+    * @throws ODataApplicationException
+    * @throws ODataLibraryException
+    */
+   public List<ODataResponsePart> handleBatchRequests(BatchRequestReader reader, boolean continueOnError)
+       throws ODataApplicationException, ODataLibraryException;
+
    /**
     * Extracts the boundary of a multipart/mixed header.
     * See RFC 2046#5.1
@@ -27,6 +27,7 @@ import org.apache.olingo.commons.api.edm.EdmProperty;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestReader;
 
 public interface FixedFormatDeserializer {
 
@@ -60,4 +61,14 @@ public interface FixedFormatDeserializer {
    */
   public List<BatchRequestPart> parseBatchRequest(InputStream content, String boundary, BatchOptions options)
       throws BatchDeserializerException;
+
+  /**
+   * Creates a reader for batch data that parses the parts one after the other while the InputStream is read.
+   * The first parts can be processed before the complete batch request has been received.
+   * @param content the data as multipart input stream
+   * @param boundary the boundary between the parts
+   * @param options options for the deserializer
+   * @return a reader for the batch-request parts
+   */
+  public BatchRequestReader parseBatchRequestStreamed(InputStream content, String boundary, BatchOptions options);
 }
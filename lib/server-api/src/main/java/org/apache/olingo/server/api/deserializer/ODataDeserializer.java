@@ -51,6 +51,23 @@ public interface ODataDeserializer {
    */
   DeserializerResult entityCollection(InputStream stream, EdmEntityType edmEntityType) throws DeserializerException;
 
+  /**
+   * Deserializes an entity collection stream entity by entity.
+   * <p>The returned iterator reads the next entity from the stream only when it is requested,
+   * so large collections can be processed without holding all entities in memory.
+   * The stream is read while iterating and must therefore stay open until the iterator is exhausted;
+   * the iterator closes it then, or when {@link StreamedEntityIterator#close()} is called before.
+   * Errors found while iterating are thrown as {@link org.apache.olingo.commons.api.ex.ODataRuntimeException
+   * ODataRuntimeException} with the {@link DeserializerException} as cause.</p>
+   * <p>Each entity is read completely, including its expanded navigation properties, before it is returned.</p>
+   * @param stream
+   * @param edmEntityType
+   * @return an iterator over the deserialized entities
+   * @throws DeserializerException if the start of the collection cannot be read
+   */
+  StreamedEntityIterator entityCollectionStreamed(InputStream stream, EdmEntityType edmEntityType)
+      throws DeserializerException;
+
   /**
    * Deserializes an action-parameters stream into a map of key/value pairs.
    * Validates: parameter types, no double parameters, correct json types.
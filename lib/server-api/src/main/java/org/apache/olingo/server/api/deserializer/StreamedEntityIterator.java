@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.deserializer;
+
+import java.io.Closeable;
+
+import org.apache.olingo.commons.api.data.EntityIterator;
+
+/**
+ * Iterator over the entities of a collection that is deserialized while iterating.
+ * <p>It holds the request body open until all entities have been read.
+ * A caller that stops early must call {@link #close()} to release the body.</p>
+ */
+public abstract class StreamedEntityIterator extends EntityIterator implements Closeable {
+
+  /**
+   * Stops reading and closes the underlying stream.
+   * Further calls of {@link #hasNext()} return <code>false</code>.
+   */
+  @Override
+  public abstract void close();
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.metrics;
+
+import org.apache.olingo.server.api.uri.UriInfoKind;
+
+/**
+ * <p>Request metrics which aggregate the recorded runtimes in a latency histogram per
+ * {@link ProcessingStage} and {@link UriInfoKind}.</p>
+ * <p>Recording does not allocate objects, so the statistics can be collected permanently.
+ * The histograms have a resolution of four buckets per power of two, so the reported percentiles
+ * are at most 25 percent higher than the exact values.</p>
+ * <p>In all methods, a <code>null</code> kind refers to the requests whose URI could not be parsed.</p>
+ * @see org.apache.olingo.server.api.OData#createLatencyStatistics()
+ */
+public interface LatencyStatistics extends RequestMetrics {
+
+  /** Returns how often the runtime of the stage has been recorded. */
+  long getCount(ProcessingStage stage, UriInfoKind kind);
+
+  /** Returns the sum of all recorded runtimes of the stage in nanoseconds. */
+  long getTotalNanos(ProcessingStage stage, UriInfoKind kind);
+
+  /** Returns the maximum recorded runtime of the stage in nanoseconds. */
+  long getMaxNanos(ProcessingStage stage, UriInfoKind kind);
+
+  /**
+   * Returns the upper bound of the given percentile of the recorded runtimes of the stage.
+   * @param stage       the processing stage
+   * @param kind        the kind of the request URI
+   * @param percentile  the percentile between 0 and 100, e.g., 99 for the 99th percentile
+   * @return the runtime in nanoseconds or 0 if nothing has been recorded
+   */
+  long getPercentileNanos(ProcessingStage stage, UriInfoKind kind, double percentile);
+
+  /** Discards all recorded runtimes. */
+  void reset();
+}
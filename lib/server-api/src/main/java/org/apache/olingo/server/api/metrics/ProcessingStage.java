@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.metrics;
+
+/**
+ * The stages of the request processing for which the runtime is reported to {@link RequestMetrics}.
+ */
+public enum ProcessingStage {
+
+  /** The complete processing of a request by the ODataHandler, including error handling. */
+  REQUEST,
+
+  /** The parsing of the request URI, or its lookup in the URI cache. */
+  URI_PARSING,
+
+  /** The validation of the parsed URI against the HTTP method. */
+  URI_VALIDATION,
+
+  /**
+   * The dispatching of the request to the processor, including the deserialization of the request body.
+   * The stages {@link #CONTENT_NEGOTIATION}, {@link #SERIALIZATION} and {@link #BATCH} are part of it.
+   */
+  DISPATCH,
+
+  /** The negotiation of the response format and the check of the request format in the dispatcher. */
+  CONTENT_NEGOTIATION,
+
+  /**
+   * A call of a serializer created during the dispatching and, for content written later,
+   * the writing of the content.
+   */
+  SERIALIZATION,
+
+  /** The processing of a $batch request by the batch processor, including all its parts. */
+  BATCH,
+
+  /**
+   * The processing of a single request inside a $batch request, reported with the kind of the request.
+   * For requests executed in parallel it includes the time the request waits for the executor.
+   */
+  BATCH_PART,
+
+  /** The handling of an exception, including the serialization of the error response. */
+  ERROR_HANDLING
+}
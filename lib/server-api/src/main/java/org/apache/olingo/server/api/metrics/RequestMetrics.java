@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.metrics;
+
+import org.apache.olingo.server.api.OlingoExtension;
+import org.apache.olingo.server.api.uri.UriInfoKind;
+
+/**
+ * <p>Receives the runtime of the stages of the request processing.</p>
+ * <p>If an implementation of this interface is registered at the ODataHandler, the handler reports the
+ * runtime of each {@link ProcessingStage} of every request, also of the requests inside a batch request.
+ * The runtime is reported independently of the debug mode.</p>
+ * <p>Implementations must be thread-safe. They are called on the request thread and should therefore
+ * return quickly and avoid allocating objects.</p>
+ * @see org.apache.olingo.server.api.OData#createLatencyStatistics()
+ */
+public interface RequestMetrics extends OlingoExtension {
+
+  /**
+   * Records the runtime of a processing stage.
+   * @param stage           the processing stage
+   * @param kind            the kind of the request URI or <code>null</code> if the URI could not be parsed
+   * @param durationNanos   the runtime in nanoseconds
+   */
+  void record(ProcessingStage stage, UriInfoKind kind, long durationNanos);
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.paging;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityIterator;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.server.api.ODataApplicationException;
+
+/**
+ * Keyset paging of an entity collection.
+ * <p>The entities are ordered by the $orderby properties, followed by the key properties as tie-breaker,
+ * so that the order is total. A page is identified by the ordering property values of the last entity
+ * of the previous page (a {@link PageCursor}); the next page consists of the entities behind these values.
+ * A backend can seek there directly, e.g., with a binary search in a sorted list or with a
+ * condition on an index of a database, and the cost of reading a page does not depend on its depth.</p>
+ * <p>Only $orderby expressions that are paths to single-valued primitive properties are supported.</p>
+ * @see org.apache.olingo.server.api.OData#createKeysetPaging(EdmEntityType,
+ *      org.apache.olingo.server.api.uri.queryoption.OrderByOption, SkipTokenCodec)
+ */
+public interface KeysetPaging {
+
+  /** Returns the type of the paged entities. */
+  EdmEntityType getEntityType();
+
+  /**
+   * Returns the paths of the ordering properties, with segments separated by slashes:
+   * the $orderby properties followed by the key properties that are not already ordered by.
+   */
+  List<String> getPropertyPaths();
+
+  /** Returns whether the ordering property at the given position is sorted in descending order. */
+  boolean isDescending(int index);
+
+  /** Returns a comparator of entities in paging order. */
+  Comparator<Entity> getComparator();
+
+  /**
+   * Returns the cursor of the page behind the given entity.
+   * @param lastEntity the last entity of the current page
+   * @param pageSize   the page size
+   * @throws ODataApplicationException if the property values cannot be converted to URI literals
+   */
+  PageCursor getCursor(Entity lastEntity, int pageSize) throws ODataApplicationException;
+
+  /**
+   * Creates the skip token of the page behind the given entity.
+   * @param lastEntity the last entity of the current page
+   * @param pageSize   the page size
+   * @throws ODataApplicationException if the cursor cannot be encoded
+   */
+  String createSkipToken(Entity lastEntity, int pageSize) throws ODataApplicationException;
+
+  /**
+   * Decodes a skip token and checks that it fits the ordering properties.
+   * @param skipToken the value of the $skiptoken system query option
+   * @return the cursor
+   * @throws ODataApplicationException with status code 400 (Bad Request) if the token is invalid
+   */
+  PageCursor readSkipToken(String skipToken) throws ODataApplicationException;
+
+  /**
+   * Returns the cursor values converted to the default Java types of the ordering properties,
+   * e.g., to be passed as parameters of a database query.
+   * @throws ODataApplicationException with status code 400 (Bad Request) if a value is invalid
+   */
+  List<Object> getValues(PageCursor cursor) throws ODataApplicationException;
+
+  /**
+   * Compares an entity with a cursor in paging order.
+   * @return a negative number, zero, or a positive number if the entity is before, at, or behind the cursor
+   * @throws ODataApplicationException with status code 400 (Bad Request) if a cursor value is invalid
+   */
+  int compare(Entity entity, PageCursor cursor) throws ODataApplicationException;
+
+  /**
+   * Finds the first entity behind a cursor in a list sorted with {@link #getComparator()}, by binary search.
+   * @param sortedEntities the entities in paging order
+   * @param cursor         the cursor; <code>null</code> for the first page
+   * @return the index of the first entity of the page; the size of the list if there is none
+   * @throws ODataApplicationException with status code 400 (Bad Request) if a cursor value is invalid
+   */
+  int seek(List<Entity> sortedEntities, PageCursor cursor) throws ODataApplicationException;
+
+  /**
+   * Returns an iterator over one page.
+   * <p>The given iterator must be positioned at the first entity of the page and return the entities
+   * in paging order. The returned iterator stops after <code>pageSize</code> entities; if there are more,
+   * it sets a next link to the following page when the page has been read completely,
+   * so the serializers write it behind the entities.</p>
+   * @param entities      the entities from the start of the page on
+   * @param pageSize      the page size
+   * @param rawRequestUri the request URI the next link is based on
+   */
+  EntityIterator page(Iterator<Entity> entities, int pageSize, String rawRequestUri);
+}
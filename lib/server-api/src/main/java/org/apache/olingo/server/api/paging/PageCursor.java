@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.paging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Position of a page in a keyset-paged entity collection, as transported in a skip token.
+ * <p>The cursor holds the values of the ordering properties of the last entity of the previous page
+ * as URI literals, in the order given by {@link KeysetPaging#getPropertyPaths()},
+ * together with the page size that has been chosen for the first page.</p>
+ * <p>Cursors are immutable.</p>
+ */
+public final class PageCursor {
+
+  private final List<String> values;
+  private final int pageSize;
+
+  /**
+   * Creates a cursor.
+   * @param values   the URI literals of the ordering property values
+   * @param pageSize the page size
+   */
+  public PageCursor(final List<String> values, final int pageSize) {
+    this.values = Collections.unmodifiableList(new ArrayList<String>(values));
+    this.pageSize = pageSize;
+  }
+
+  /** Returns the URI literals of the ordering property values of the last entity of the previous page. */
+  public List<String> getValues() {
+    return values;
+  }
+
+  /** Returns the page size. */
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    return obj instanceof PageCursor
+        && pageSize == ((PageCursor) obj).pageSize
+        && values.equals(((PageCursor) obj).values);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * values.hashCode() + pageSize;
+  }
+
+  @Override
+  public String toString() {
+    return values + "*" + pageSize;
+  }
+}
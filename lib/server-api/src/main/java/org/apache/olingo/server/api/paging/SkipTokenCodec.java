@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.paging;
+
+import org.apache.olingo.server.api.ODataApplicationException;
+
+/**
+ * Encodes page cursors into the opaque values of the $skiptoken system query option and back.
+ * <p>Services can provide their own implementation, e.g., to sign or encrypt the tokens;
+ * {@link org.apache.olingo.server.api.OData#createSkipTokenCodec()} returns the default one.</p>
+ * <p>Implementations must be thread-safe.</p>
+ */
+public interface SkipTokenCodec {
+
+  /**
+   * Encodes a cursor.
+   * @param cursor the cursor
+   * @return the skip token
+   * @throws ODataApplicationException if the cursor cannot be encoded
+   */
+  String encode(PageCursor cursor) throws ODataApplicationException;
+
+  /**
+   * Decodes a skip token created by {@link #encode(PageCursor)}.
+   * <p>Invalid tokens must be reported with an {@link ODataApplicationException}
+   * with status code 400 (Bad Request).</p>
+   * @param skipToken the skip token
+   * @return the cursor
+   * @throws ODataApplicationException if the token is invalid
+   */
+  PageCursor decode(String skipToken) throws ODataApplicationException;
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.paging;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataApplicationException;
+
+/**
+ * Builds next links of server-driven paging.
+ */
+public final class SkipTokenLinks {
+
+  private static final String SKIPTOKEN = "$skiptoken";
+  private static final String ENCODED_SKIPTOKEN = "%24skiptoken";
+  private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+  private SkipTokenLinks() {
+    // Static helper methods only.
+  }
+
+  /**
+   * Creates the next link for the given request URI:
+   * an existing $skiptoken system query option is replaced by the given skip token,
+   * all other parts of the URI are kept.
+   * @param rawRequestUri the raw request URI
+   * @param skipToken     the skip token of the next page; it is percent-encoded
+   * @return the next link
+   * @throws ODataApplicationException if the resulting URI is invalid
+   */
+  public static URI createNextLink(final String rawRequestUri, final String skipToken)
+      throws ODataApplicationException {
+    final int queryStart = rawRequestUri.indexOf('?');
+    final int fragmentStart = rawRequestUri.indexOf('#', queryStart < 0 ? 0 : queryStart);
+    final int queryEnd = fragmentStart < 0 ? rawRequestUri.length() : fragmentStart;
+    final StringBuilder link = new StringBuilder(rawRequestUri.length() + skipToken.length() + 16);
+    link.append(rawRequestUri, 0, queryStart < 0 ? queryEnd : queryStart);
+
+    char separator = '?';
+    if (queryStart >= 0) {
+      int start = queryStart + 1;
+      while (start <= queryEnd) {
+        int end = rawRequestUri.indexOf('&', start);
+        if (end < 0 || end > queryEnd) {
+          end = queryEnd;
+        }
+        if (end > start && !isSkipToken(rawRequestUri, start, end)) {
+          link.append(separator).append(rawRequestUri, start, end);
+          separator = '&';
+        }
+        start = end + 1;
+      }
+    }
+    link.append(separator).append(ENCODED_SKIPTOKEN).append('=');
+    appendEncoded(link, skipToken);
+    link.append(rawRequestUri, queryEnd, rawRequestUri.length());
+
+    try {
+      return new URI(link.toString());
+    } catch (final URISyntaxException e) {
+      throw new ODataApplicationException("Exception while constructing next link",
+          HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode(), Locale.ROOT, e);
+    }
+  }
+
+  private static boolean isSkipToken(final String uri, final int start, final int end) {
+    return startsWithName(uri, start, end, SKIPTOKEN) || startsWithName(uri, start, end, ENCODED_SKIPTOKEN);
+  }
+
+  private static boolean startsWithName(final String uri, final int start, final int end, final String name) {
+    final int nameEnd = start + name.length();
+    return nameEnd <= end && uri.regionMatches(start, name, 0, name.length())
+        && (nameEnd == end || uri.charAt(nameEnd) == '=');
+  }
+
+  /** Appends the value with all characters but the unreserved ones of RFC 3986 percent-encoded. */
+  private static void appendEncoded(final StringBuilder builder, final String value) {
+    for (final byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      if (b >= 'a' && b <= 'z' || b >= 'A' && b <= 'Z' || b >= '0' && b <= '9'
+          || b == '-' || b == '.' || b == '_' || b == '~') {
+        builder.append((char) b);
+      } else {
+        builder.append('%').append(HEX[(b >> 4) & 0x0F]).append(HEX[b & 0x0F]);
+      }
+    }
+  }
+}
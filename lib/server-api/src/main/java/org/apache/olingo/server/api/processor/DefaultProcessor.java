@@ -19,7 +19,12 @@
 package org.apache.olingo.server.api.processor;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Locale;
 
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.api.http.HttpHeader;
@@ -35,6 +40,9 @@ import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.etag.ETagHelper;
 import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
 import org.apache.olingo.server.api.serializer.ODataSerializer;
+import org.apache.olingo.server.api.serializer.RepresentationType;
+import org.apache.olingo.server.api.serializer.SerializedDocumentCache;
+import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.uri.UriInfo;
 
 /**
@@ -77,8 +85,8 @@ public class DefaultProcessor implements MetadataProcessor, ServiceDocumentProce
       if (HttpMethod.HEAD == request.getMethod()) {
         response.setStatusCode(HttpStatusCode.OK.getStatusCode());
       } else {
-        ODataSerializer serializer = odata.createSerializer(requestedContentType);
-        response.setContent(serializer.serviceDocument(serviceMetadata, null).getContent());
+        writeDocument(request, response, RepresentationType.SERVICE,
+            eTagSupport == null ? null : eTagSupport.getServiceDocumentETag(), requestedContentType);
         response.setStatusCode(HttpStatusCode.OK.getStatusCode());
         response.setHeader(HttpHeader.CONTENT_TYPE, requestedContentType.toContentTypeString());
       }
@@ -107,14 +115,91 @@ public class DefaultProcessor implements MetadataProcessor, ServiceDocumentProce
       if (HttpMethod.HEAD == request.getMethod()) {
         response.setStatusCode(HttpStatusCode.OK.getStatusCode());
       } else {
-        ODataSerializer serializer = odata.createSerializer(requestedContentType);
-        response.setContent(serializer.metadataDocument(serviceMetadata).getContent());
+        writeDocument(request, response, RepresentationType.METADATA,
+            eTagSupport == null ? null : eTagSupport.getMetadataETag(), requestedContentType);
         response.setStatusCode(HttpStatusCode.OK.getStatusCode());
         response.setHeader(HttpHeader.CONTENT_TYPE, requestedContentType.toContentTypeString());
       }
     }
   }
 
+  /**
+   * Writes the metadata document or the service document into the response.
+   * If the service metadata provide a {@link SerializedDocumentCache} and the document has an ETag,
+   * the document is serialized only once per ETag and written compressed if the client accepts
+   * a supported content coding.
+   */
+  private void writeDocument(final ODataRequest request, final ODataResponse response,
+      final RepresentationType type, final String eTag, final ContentType requestedContentType)
+      throws SerializerException {
+    final SerializedDocumentCache cache = serviceMetadata.getSerializedDocumentCache();
+    if (cache == null || eTag == null) {
+      response.setContent(serialize(type, requestedContentType));
+      return;
+    }
+
+    final String contentCoding = getContentCoding(request.getHeaders(HttpHeader.ACCEPT_ENCODING));
+    byte[] document = cache.get(type, requestedContentType, eTag, contentCoding);
+    if (document == null) {
+      cache.put(type, requestedContentType, eTag, toByteArray(serialize(type, requestedContentType)));
+      document = cache.get(type, requestedContentType, eTag, contentCoding);
+    }
+    if (contentCoding != null) {
+      response.setHeader(HttpHeader.CONTENT_ENCODING, contentCoding);
+    }
+    response.setHeader(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING);
+    response.setContent(new ByteArrayInputStream(document));
+  }
+
+  private InputStream serialize(final RepresentationType type, final ContentType requestedContentType)
+      throws SerializerException {
+    ODataSerializer serializer = odata.createSerializer(requestedContentType);
+    return type == RepresentationType.METADATA ?
+        serializer.metadataDocument(serviceMetadata).getContent() :
+        serializer.serviceDocument(serviceMetadata, null).getContent();
+  }
+
+  private byte[] toByteArray(final InputStream content) throws SerializerException {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    final byte[] bytes = new byte[8192];
+    try {
+      int count;
+      while ((count = content.read(bytes)) != -1) {
+        buffer.write(bytes, 0, count);
+      }
+      content.close();
+    } catch (final IOException e) {
+      throw new SerializerException("Reading the serialized document failed.", e,
+          SerializerException.MessageKeys.IO_EXCEPTION);
+    }
+    return buffer.toByteArray();
+  }
+
+  /**
+   * Selects the content coding from the values of the Accept-Encoding header;
+   * gzip is preferred over deflate, and <code>null</code> means that the document is sent uncompressed.
+   */
+  private String getContentCoding(final List<String> acceptEncodings) {
+    if (acceptEncodings == null) {
+      return null;
+    }
+    boolean deflate = false;
+    for (final String acceptEncoding : acceptEncodings) {
+      for (final String element : acceptEncoding.split(",")) {
+        final String[] parts = element.split(";");
+        final String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+        if (parts.length > 1 && parts[1].trim().matches("[qQ]\\s*=\\s*0(\\.0*)?")) {
+          continue;
+        }
+        if (SerializedDocumentCache.GZIP.equals(coding) || "*".equals(coding)) {
+          return SerializedDocumentCache.GZIP;
+        }
+        deflate |= SerializedDocumentCache.DEFLATE.equals(coding);
+      }
+    }
+    return deflate ? SerializedDocumentCache.DEFLATE : null;
+  }
+
   @Override
   public void processError(final ODataRequest request, final ODataResponse response,
       final ODataServerError serverError,
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.query;
+
+import java.util.List;
+
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+
+/**
+ * Backend-neutral description of the query options of a request against an entity collection.
+ * <p>The plan collects the parts of the URI that a data store can evaluate itself:
+ * the $filter expression, the $orderby items, paging through $top and $skip,
+ * whether $count has been requested, and the properties selected with $select.
+ * A {@link QueryTranslator} turns the plan into a store-specific query, so that
+ * filtering, sorting, paging, and projection happen in the store and only the
+ * requested entities have to be read.</p>
+ * <p>Plans are immutable.</p>
+ * @see org.apache.olingo.server.api.OData#createQueryPlan(UriInfoResource, EdmEntityType)
+ */
+public interface QueryPlan {
+
+  /** Returns the URI information the plan has been created from. */
+  UriInfoResource getUriInfo();
+
+  /** Returns the type of the queried entities. */
+  EdmEntityType getEntityType();
+
+  /** Returns the Boolean $filter expression or <code>null</code> if there is none. */
+  Expression getFilter();
+
+  /** Returns the $orderby items in order of precedence; empty if there are none. */
+  List<OrderByItem> getOrderBy();
+
+  /** Returns the value of $skip or <code>null</code> if there is none. */
+  Integer getSkip();
+
+  /** Returns the value of $top or <code>null</code> if there is none. */
+  Integer getTop();
+
+  /** Returns whether the total count of matching entities has been requested with <code>$count=true</code>. */
+  boolean isCount();
+
+  /**
+   * Returns the names of the properties that have to be read.
+   * <p>If properties have been selected, the list contains them together with
+   * the key properties of the entity type; an empty list means that all properties have to be read.</p>
+   */
+  List<String> getSelectedProperties();
+}
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.query;
+
+import org.apache.olingo.server.api.ODataApplicationException;
+
+/**
+ * Translates a {@link QueryPlan} into a query of a specific data store.
+ * <p>Implementations should report parts of the plan the store cannot evaluate
+ * with an {@link ODataApplicationException} with status code 501 (Not Implemented).</p>
+ * @param <T> the type of the store-specific query
+ */
+public interface QueryTranslator<T> {
+
+  /**
+   * Translates the given plan.
+   * @param plan the query plan
+   * @return the store-specific query
+   * @throws ODataApplicationException if the plan cannot be translated
+   */
+  T translate(QueryPlan plan) throws ODataApplicationException;
+}
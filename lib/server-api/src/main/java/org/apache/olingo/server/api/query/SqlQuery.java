@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.query;
+
+import java.util.List;
+
+/**
+ * SQL query created by the SQL {@link QueryTranslator}.
+ * <p>All values from the URI are passed as parameters of a prepared statement,
+ * in the order of the <code>?</code> placeholders.</p>
+ * @see org.apache.olingo.server.api.OData#createSqlQueryTranslator(String, java.util.Map)
+ */
+public interface SqlQuery {
+
+  /** Returns the SELECT statement that reads the requested page of entities. */
+  String getStatement();
+
+  /** Returns the parameter values of the SELECT statement. */
+  List<Object> getParameters();
+
+  /**
+   * Returns the statement that counts all entities matching the filter,
+   * or <code>null</code> if no count has been requested.
+   */
+  String getCountStatement();
+
+  /** Returns the parameter values of the count statement; empty if no count has been requested. */
+  List<Object> getCountParameters();
+}
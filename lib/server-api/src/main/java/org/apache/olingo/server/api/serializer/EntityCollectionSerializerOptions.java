@@ -36,6 +36,7 @@ public class EntityCollectionSerializerOptions {
   private ODataContentWriteErrorCallback odataContentWriteErrorCallback;
   private String xml10InvalidCharReplacement;
   private boolean isFullRepresentation = false;
+  private boolean writeDirectly = false;
 
   /** Gets the {@link ContextURL}. */
   public ContextURL getContextURL() {
@@ -88,6 +89,14 @@ public class EntityCollectionSerializerOptions {
     return isFullRepresentation;
   }
 
+  /**
+   * Whether the collection is serialized only when the result is written.
+   * @see Builder#writeDirectly(boolean)
+   */
+  public boolean isWriteDirectly() {
+    return writeDirectly;
+  }
+
   /** Initializes the options builder. */
   public static Builder with() {
     return new Builder();
@@ -162,6 +171,22 @@ public class EntityCollectionSerializerOptions {
       return this;
     }
     
+    /**
+     * Sets whether the collection is serialized only when the result is written.
+     * <p>The {@link SerializerResult#getODataContent() ODataContent} of the result then writes the
+     * collection straight into the response, without buffering it first.
+     * Errors found while writing are passed to the {@link #writeContentErrorCallback(ODataContentWriteErrorCallback)
+     * write-error callback}, since the response status has already been sent at that point.
+     * The entities must not be changed before the result is written.
+     * Serializers that do not support this serialize the collection at once.</p>
+     * @param writeDirectly whether to serialize the collection when the result is written
+     * @return the builder
+     */
+    public Builder writeDirectly(final boolean writeDirectly) {
+      options.writeDirectly = writeDirectly;
+      return this;
+    }
+
     /** Builds the OData serializer options. */
     public EntityCollectionSerializerOptions build() {
       return options;
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.serializer;
+
+import org.apache.olingo.commons.api.format.ContentType;
+
+/**
+ * <p>Cache for the serialized metadata document and service document of a service.</p>
+ * <p>The {@link org.apache.olingo.server.api.processor.DefaultProcessor DefaultProcessor} serializes these
+ * documents that have an ETag only once per content type and serves them from the cache afterwards,
+ * also in compressed form if the client accepts it. Documents without an ETag are never cached.
+ * A cached document is discarded as soon as the ETag of the document changes,
+ * so a service can invalidate the cache by changing the ETags of its
+ * {@link org.apache.olingo.server.api.etag.ServiceMetadataETagSupport ServiceMetadataETagSupport}.</p>
+ * <p>The returned byte arrays are shared between requests and must not be modified.
+ * Implementations must be thread-safe.</p>
+ * @see org.apache.olingo.server.api.ServiceMetadata#getSerializedDocumentCache()
+ */
+public interface SerializedDocumentCache {
+
+  /** Content coding for documents compressed with gzip. */
+  String GZIP = "gzip";
+  /** Content coding for documents compressed with deflate. */
+  String DEFLATE = "deflate";
+
+  /**
+   * Gets a cached document.
+   * @param type            {@link RepresentationType#METADATA} or {@link RepresentationType#SERVICE}
+   * @param contentType     the content type of the document
+   * @param eTag            the current ETag of the document, can be <code>null</code>
+   * @param contentCoding   {@link #GZIP}, {@link #DEFLATE}, or <code>null</code> for the uncompressed document
+   * @return the document in the requested content coding or <code>null</code> if it is not cached
+   * @throws SerializerException if the document could not be compressed
+   */
+  byte[] get(RepresentationType type, ContentType contentType, String eTag, String contentCoding)
+      throws SerializerException;
+
+  /**
+   * Puts the uncompressed document into the cache.
+   * @param type            {@link RepresentationType#METADATA} or {@link RepresentationType#SERVICE}
+   * @param contentType     the content type of the document
+   * @param eTag            the current ETag of the document, can be <code>null</code>
+   * @param document        the serialized document
+   */
+  void put(RepresentationType type, ContentType contentType, String eTag, byte[] document);
+
+  /** Removes all documents from the cache. */
+  void clear();
+}
@@ -18,7 +18,14 @@
  */
 package org.apache.olingo.server.api.serializer;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.apache.olingo.server.api.ODataContent;
 
 /**
  * Result type for {@link ODataSerializer} methods
@@ -29,4 +36,38 @@ public interface SerializerResult {
    * @return serialized content
    */
   InputStream getContent();
+
+  /**
+   * Returns the serialized content as ODataContent instance
+   * which writes the content into a channel or stream.
+   * <p>Results of collections serialized with
+   * {@link EntityCollectionSerializerOptions.Builder#writeDirectly(boolean) writeDirectly} are serialized
+   * straight into the channel or stream; all other results are written from their serialized content.</p>
+   * <p>This is an alternative to {@link #getContent()}; the content can be consumed only once,
+   * either as stream or as ODataContent.</p>
+   * <p>The default implementation copies the content returned by {@link #getContent()}.</p>
+   * @return serialized content or <code>null</code> if there is no content
+   */
+  default ODataContent getODataContent() {
+    final InputStream content = getContent();
+    return content == null ? null : new ODataContent() {
+      @Override
+      public void write(final WritableByteChannel channel) {
+        write(Channels.newOutputStream(channel));
+      }
+
+      @Override
+      public void write(final OutputStream stream) {
+        final byte[] buffer = new byte[8192];
+        try {
+          int count;
+          while ((count = content.read(buffer)) != -1) {
+            stream.write(buffer, 0, count);
+          }
+        } catch (final IOException e) {
+          throw new ODataRuntimeException("Error on writing serialized content", e);
+        }
+      }
+    };
+  }
 }
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.uri;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.server.api.OlingoExtension;
+
+/**
+ * <p>Cache for parsed request URIs.</p>
+ * <p>If an implementation of this interface is registered at the ODataHandler, the handler looks up
+ * the {@link UriInfo} of each request in the cache before parsing the request URI.
+ * Only successfully parsed URIs are put into the cache.
+ * The validation of the URI against the HTTP method is still performed for every request.</p>
+ * <p>Entries are scoped to the {@link Edm} they have been parsed against, so one cache instance
+ * can be shared by several services.
+ * The cached {@link UriInfo} objects are shared between requests and must therefore not be modified
+ * by processors.</p>
+ * <p>Implementations must be thread-safe.</p>
+ * @see org.apache.olingo.server.api.OData#createUriInfoCache(int)
+ */
+public interface UriInfoCache extends OlingoExtension {
+
+  /**
+   * Returns the cached URI information for the given request URI.
+   * @param edm             the entity data model the URI has been parsed against
+   * @param path            the raw OData path of the request
+   * @param query           the raw query part of the request, can be <code>null</code>
+   * @param baseUri         the raw base URI of the request
+   * @return the URI information or <code>null</code> if the URI is not cached
+   */
+  UriInfo get(Edm edm, String path, String query, String baseUri);
+
+  /**
+   * Puts the URI information of a successfully parsed request URI into the cache.
+   * @param edm             the entity data model the URI has been parsed against
+   * @param path            the raw OData path of the request
+   * @param query           the raw query part of the request, can be <code>null</code>
+   * @param baseUri         the raw base URI of the request
+   * @param uriInfo         the URI information
+   */
+  void put(Edm edm, String path, String query, String baseUri, UriInfo uriInfo);
+
+  /** Removes all entries from the cache. */
+  void clear();
+
+  /** Returns the number of entries currently in the cache. */
+  int size();
+
+  /** Returns how many lookups have found an entry since the cache has been created. */
+  long getHitCount();
+
+  /** Returns how many lookups have not found an entry since the cache has been created. */
+  long getMissCount();
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.uri.queryoption.expression;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.server.api.ODataApplicationException;
+
+/**
+ * Compiled form of the transformations of an $apply system query option.
+ * <p>The transformations are executed as a pipeline, each working on the output of the previous one.
+ * The input is never modified. Aggregating transformations create new entities that carry
+ * only the grouping properties and the aggregated values; {@link #getResultType()} describes
+ * the properties of the result so that it can be handed to the serializers.</p>
+ */
+public interface CompiledApply {
+
+  /**
+   * Applies the transformations to the entities of the collection.
+   * @param entityCollection the input entities
+   * @return a new collection with the result
+   * @throws ODataApplicationException if the evaluation fails
+   */
+  EntityCollection apply(EntityCollection entityCollection) throws ODataApplicationException;
+
+  /**
+   * Applies the transformations to the entities of the iterator.
+   * If the first transformation filters, computes, or aggregates, the input entities are
+   * processed one by one without collecting them in memory.
+   * @param entityIterator the input entities
+   * @return a new collection with the result
+   * @throws ODataApplicationException if the evaluation fails
+   */
+  EntityCollection apply(EntityIterator entityIterator) throws ODataApplicationException;
+
+  /**
+   * Applies the transformations to the entities of the collection.
+   * Aggregations of large inputs are split into parts aggregated in parallel in the given pool;
+   * the result is the same as the one of {@link #apply(EntityCollection)}.
+   * @param entityCollection the input entities
+   * @param pool the pool for parallel aggregation
+   * @return a new collection with the result
+   * @throws ODataApplicationException if the evaluation fails
+   */
+  EntityCollection apply(EntityCollection entityCollection, ForkJoinPool pool) throws ODataApplicationException;
+
+  /**
+   * Returns the type of the result entities.
+   * It has exactly the structural properties of the result (including the dynamic properties
+   * introduced by aliases), no navigation properties, and no key.
+   * @return the result type
+   */
+  EdmEntityType getResultType();
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.uri.queryoption.expression;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.server.api.ODataApplicationException;
+
+/**
+ * Expression that has been compiled by an {@link ExpressionCompiler} and can be evaluated
+ * against entities without traversing the expression tree again.
+ */
+public interface CompiledExpression {
+
+  /**
+   * Evaluates the expression for the given entity.
+   * <p>Primitive values are returned in their normalized Java representation: integral and
+   * decimal numbers as {@link Number}, strings as {@link String}, Edm.Date values as
+   * {@link java.time.LocalDate}, Edm.TimeOfDay values as {@link java.time.LocalTime},
+   * Edm.DateTimeOffset values as {@link java.time.ZonedDateTime}, and Edm.Duration values
+   * as {@link java.math.BigDecimal} number of seconds.</p>
+   * @param entity the entity the expression is evaluated for
+   * @return the value of the expression, or <code>null</code>
+   * @throws ODataApplicationException if the evaluation fails
+   */
+  Object evaluate(Entity entity) throws ODataApplicationException;
+
+  /**
+   * Returns the primitive type kind of the expression result if it could be determined during compilation.
+   * @return the type kind or <code>null</code>
+   */
+  EdmPrimitiveTypeKind getTypeKind();
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.uri.queryoption.expression;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.server.api.ODataApplicationException;
+
+/**
+ * Compiled form of a $filter expression.
+ */
+public interface CompiledFilter {
+
+  /**
+   * Checks whether the entity satisfies the filter expression.
+   * As required by the OData specification, a <code>null</code> result does not satisfy the filter.
+   * @param entity the entity to check
+   * @return <code>true</code> if the filter expression evaluates to <code>true</code>
+   * @throws ODataApplicationException if the evaluation fails
+   */
+  boolean matches(Entity entity) throws ODataApplicationException;
+
+  /**
+   * Removes all entities from the collection that do not satisfy the filter expression.
+   * @param entityCollection the entity collection to be filtered
+   * @throws ODataApplicationException if the evaluation fails
+   */
+  void apply(EntityCollection entityCollection) throws ODataApplicationException;
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.uri.queryoption.expression;
+
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.server.api.ODataApplicationException;
+
+/**
+ * Compiled form of all items of an $orderby system query option.
+ * <p><code>null</code> values sort before all other values; items marked as descending invert the order.</p>
+ */
+public interface CompiledOrderBy {
+
+  /**
+   * Compares two entities according to the $orderby items.
+   * @param entity1 the first entity
+   * @param entity2 the second entity
+   * @return a negative integer, zero, or a positive integer as the first entity
+   * sorts before, equal to, or after the second entity
+   * @throws ODataApplicationException if the evaluation fails
+   */
+  int compare(Entity entity1, Entity entity2) throws ODataApplicationException;
+
+  /**
+   * Sorts the list of entities in place.
+   * The sort keys are computed once per entity and not once per comparison.
+   * The sort is stable.
+   * @param entities the entities to be sorted
+   * @throws ODataApplicationException if the evaluation fails
+   */
+  void sort(List<Entity> entities) throws ODataApplicationException;
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.uri.queryoption.expression;
+
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.queryoption.ApplyOption;
+import org.apache.olingo.server.api.uri.queryoption.FilterOption;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+
+/**
+ * Translates expression trees of system query options into reusable evaluators.
+ * <p>The expression tree is walked exactly once; property paths, literals, and method calls
+ * are resolved during compilation, so the resulting objects can be applied to any number of
+ * entities without further visitor or EDM work.</p>
+ * <p>Compiled objects are immutable and may be shared between threads.</p>
+ */
+public interface ExpressionCompiler {
+
+  /**
+   * Compiles a single expression.
+   * @param expression the expression tree
+   * @return the compiled expression
+   * @throws ODataApplicationException if the expression contains unsupported or invalid constructs
+   */
+  CompiledExpression compile(Expression expression) throws ODataApplicationException;
+
+  /**
+   * Compiles the expression of a $filter system query option into a predicate.
+   * @param filterOption the $filter system query option
+   * @return the compiled filter
+   * @throws ODataApplicationException if the expression is not a Boolean expression,
+   * or contains unsupported or invalid constructs
+   */
+  CompiledFilter compileFilter(FilterOption filterOption) throws ODataApplicationException;
+
+  /**
+   * Compiles all items of an $orderby system query option into a single sort specification.
+   * @param orderByOption the $orderby system query option
+   * @return the compiled sort specification
+   * @throws ODataApplicationException if one of the expressions contains unsupported or invalid constructs
+   */
+  CompiledOrderBy compileOrderBy(OrderByOption orderByOption) throws ODataApplicationException;
+
+  /**
+   * Compiles the transformations of an $apply system query option into an executable pipeline.
+   * @param applyOption the $apply system query option
+   * @return the compiled transformations
+   * @throws ODataApplicationException if the transformations contain unsupported or invalid constructs
+   */
+  CompiledApply compileApply(ApplyOption applyOption) throws ODataApplicationException;
+}
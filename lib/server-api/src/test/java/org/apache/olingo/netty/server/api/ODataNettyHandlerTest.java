@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.netty.server.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.olingo.server.api.processor.Processor;
+import org.junit.Test;
+
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+
+public class ODataNettyHandlerTest {
+
+  /** Implements only the aggregated variant; it echoes the request body in upper case. */
+  private static class BufferingHandler implements ODataNettyHandler {
+    @Override
+    public void processNettyRequest(final HttpRequest request, final HttpResponse response,
+        final Map<String, String> requestParameters) {
+      final String body = ((FullHttpRequest) request).content().toString(StandardCharsets.UTF_8);
+      response.setStatus(HttpResponseStatus.CREATED);
+      response.headers().set(HttpHeaderNames.CONTENT_TYPE, request.headers().get(HttpHeaderNames.CONTENT_TYPE));
+      ((FullHttpResponse) response).content().writeBytes(body.toUpperCase().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void register(final Processor processor) {
+      // not needed
+    }
+  }
+
+  @Test
+  public void streamedVariantDelegatesToAggregatedVariant() {
+    final EmbeddedChannel channel = new EmbeddedChannel();
+    channel.pipeline().addLast(new ChannelInboundHandlerAdapter());
+    final HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/odata.svc/ES");
+    request.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/plain");
+
+    assertTrue(new BufferingHandler().processNettyRequest(request,
+        new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8)),
+        channel.pipeline().lastContext(), Collections.<String, String> emptyMap()).isSuccess());
+
+    final FullHttpResponse response = channel.readOutbound();
+    assertEquals(HttpResponseStatus.CREATED, response.status());
+    assertEquals("text/plain", response.headers().get(HttpHeaderNames.CONTENT_TYPE));
+    assertEquals("7", response.headers().get(HttpHeaderNames.CONTENT_LENGTH));
+    assertEquals("CONTENT", response.content().toString(StandardCharsets.UTF_8));
+    response.release();
+  }
+}
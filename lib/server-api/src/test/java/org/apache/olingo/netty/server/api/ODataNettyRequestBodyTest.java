@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.netty.server.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+
+public class ODataNettyRequestBodyTest {
+
+  private static ByteBuf buffer(final String content) {
+    return Unpooled.copiedBuffer(content, StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void readChunks() throws Exception {
+    final ODataNettyRequestBody body = new ODataNettyRequestBody(null);
+    final DefaultHttpContent first = new DefaultHttpContent(buffer("abc"));
+    body.offer(first);
+    first.release();
+    final DefaultLastHttpContent last = new DefaultLastHttpContent(buffer("de"));
+    body.offer(last);
+    last.release();
+
+    final byte[] content = new byte[10];
+    assertEquals(3, body.read(content, 0, 10));
+    assertEquals(2, body.read(content, 3, 7));
+    assertEquals("abcde", new String(content, 0, 5, StandardCharsets.UTF_8));
+    assertEquals(-1, body.read());
+    assertEquals(0, first.refCnt());
+    assertEquals(0, last.refCnt());
+  }
+
+  @Test
+  public void suspendAndResumeReading() throws Exception {
+    final EmbeddedChannel channel = new EmbeddedChannel();
+    final ODataNettyRequestBody body = new ODataNettyRequestBody(channel, 4);
+
+    body.offer(new DefaultHttpContent(buffer("0123")));
+    assertTrue(channel.config().isAutoRead());
+    body.offer(new DefaultHttpContent(buffer("45")));
+    assertFalse(channel.config().isAutoRead());
+
+    assertEquals('0', body.read());
+    assertFalse(channel.config().isAutoRead());
+    final byte[] content = new byte[3];
+    assertEquals(3, body.read(content));
+    assertTrue(channel.config().isAutoRead());
+
+    body.offer(LastHttpContent.EMPTY_LAST_CONTENT);
+    assertEquals('4', body.read());
+    assertEquals('5', body.read());
+    assertEquals(-1, body.read());
+    channel.finish();
+  }
+
+  @Test
+  public void closeReleasesContent() throws Exception {
+    final ODataNettyRequestBody body = new ODataNettyRequestBody(null);
+    final DefaultHttpContent content = new DefaultHttpContent(buffer("abc"));
+    body.offer(content);
+    content.release();
+    assertEquals(3, body.available());
+    body.close();
+    assertEquals(0, content.refCnt());
+    assertEquals(0, body.available());
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.serializer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.EntityMediaObject;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
+import org.junit.Test;
+
+public class FixedFormatSerializerTest {
+
+  /** Implements only the buffered batch serialization. */
+  private static class BufferingSerializer implements FixedFormatSerializer {
+    @Override
+    public InputStream binary(final byte[] binary) {
+      return null;
+    }
+
+    @Override
+    public SerializerStreamResult mediaEntityStreamed(final EntityMediaObject mediaEntity) {
+      return null;
+    }
+
+    @Override
+    public InputStream count(final Integer count) {
+      return null;
+    }
+
+    @Override
+    public InputStream primitiveValue(final EdmPrimitiveType type, final Object value,
+        final PrimitiveValueSerializerOptions options) {
+      return null;
+    }
+
+    @Override
+    public InputStream batchResponse(final List<ODataResponsePart> batchResponses, final String boundary) {
+      return new ByteArrayInputStream(("--" + boundary + "--").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public InputStream asyncResponse(final ODataResponse odataResponse) {
+      return null;
+    }
+  }
+
+  @Test
+  public void streamedBatchResponseDelegatesToBufferedOne() throws Exception {
+    final List<ODataResponsePart> parts = Collections.emptyList();
+    final FixedFormatSerializer serializer = new BufferingSerializer();
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    serializer.batchResponseStreamed(parts, "b1").getODataContent().write(output);
+    assertEquals("--b1--", output.toString("UTF-8"));
+
+    output = new ByteArrayOutputStream();
+    serializer.batchResponseStreamed(parts, "b2").getODataContent().write(Channels.newChannel(output));
+    assertEquals("--b2--", output.toString("UTF-8"));
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parses $batch request bodies with a growing number of parts; every fourth part is a change set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchParserBenchmark {
+
+  private static final String BOUNDARY = "batch_bench";
+  private static final String CHANGE_SET_BOUNDARY = "changeset_bench";
+  private static final String CRLF = "\r\n";
+
+  @Param({ "1", "10", "100" })
+  private int parts;
+
+  private OData odata;
+  private BatchOptions options;
+  private byte[] body;
+
+  @Setup
+  public void setup() {
+    odata = OData.newInstance();
+    options = BatchOptions.with().rawBaseUri(TechnicalService.BASE_URI).rawServiceResolutionUri("").build();
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < parts; i++) {
+      builder.append("--").append(BOUNDARY).append(CRLF);
+      if (i % 4 == 3) {
+        builder.append("Content-Type: multipart/mixed; boundary=").append(CHANGE_SET_BOUNDARY).append(CRLF)
+            .append(CRLF)
+            .append("--").append(CHANGE_SET_BOUNDARY).append(CRLF)
+            .append("Content-Type: application/http").append(CRLF)
+            .append("Content-Transfer-Encoding: binary").append(CRLF)
+            .append("Content-ID: ").append(i).append(CRLF)
+            .append(CRLF)
+            .append("PATCH ESAllPrim(").append(i).append(") HTTP/1.1").append(CRLF)
+            .append("Content-Type: application/json").append(CRLF)
+            .append(CRLF)
+            .append("{\"PropertyString\":\"Changed ").append(i).append("\"}").append(CRLF)
+            .append("--").append(CHANGE_SET_BOUNDARY).append("--").append(CRLF);
+      } else {
+        builder.append("Content-Type: application/http").append(CRLF)
+            .append("Content-Transfer-Encoding: binary").append(CRLF)
+            .append(CRLF)
+            .append("GET ESAllPrim(").append(i).append(")?$select=PropertyString HTTP/1.1").append(CRLF)
+            .append("Accept: application/json").append(CRLF)
+            .append(CRLF)
+            .append(CRLF);
+      }
+    }
+    builder.append("--").append(BOUNDARY).append("--").append(CRLF);
+    body = builder.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public List<BatchRequestPart> parse() throws Exception {
+    return odata.createFixedFormatDeserializer().parseBatchRequest(new ByteArrayInputStream(body), BOUNDARY,
+        options);
+  }
+
+  @Benchmark
+  public int parseStreamed() throws Exception {
+    final BatchRequestReader reader = odata.createFixedFormatDeserializer().parseBatchRequestStreamed(
+        new ByteArrayInputStream(body), BOUNDARY, options);
+    int count = 0;
+    while (reader.next() != null) {
+      count++;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.data.ContextURL;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.deserializer.ODataDeserializer;
+import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Deserializes JSON entity collections, both into a complete collection and entity by entity.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeserializerBenchmark {
+
+  @Param({ "1", "100", "10000" })
+  private int size;
+
+  private TechnicalService service;
+  private EdmEntityType entityType;
+  private byte[] payload;
+
+  @Setup
+  public void setup() throws Exception {
+    service = new TechnicalService();
+    final EdmEntitySet entitySet = service.getEntitySet("ESAllPrim");
+    entityType = entitySet.getEntityType();
+    payload = IOUtils.toByteArray(service.getOData().createSerializer(ContentType.JSON_NO_METADATA)
+        .entityCollection(service.getServiceMetadata(), entityType, service.createAllPrimCollection(size),
+            EntityCollectionSerializerOptions.with()
+                .contextURL(ContextURL.with().entitySet(entitySet).build())
+                .build())
+        .getContent());
+  }
+
+  private ODataDeserializer createDeserializer() throws Exception {
+    return service.getOData().createDeserializer(ContentType.JSON, service.getServiceMetadata());
+  }
+
+  @Benchmark
+  public EntityCollection entityCollection() throws Exception {
+    return createDeserializer().entityCollection(new ByteArrayInputStream(payload), entityType)
+        .getEntityCollection();
+  }
+
+  @Benchmark
+  public void entityCollectionStreamed(final Blackhole blackhole) throws Exception {
+    final EntityIterator iterator =
+        createDeserializer().entityCollectionStreamed(new ByteArrayInputStream(payload), entityType);
+    while (iterator.hasNext()) {
+      blackhole.consume(iterator.next());
+    }
+  }
+}
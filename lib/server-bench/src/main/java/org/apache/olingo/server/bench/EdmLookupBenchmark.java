@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntityContainer;
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.server.tecsvc.provider.SchemaProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Looks up cached metadata elements from one and from all available threads,
+ * showing how the Edm caches scale under concurrent requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EdmLookupBenchmark {
+
+  private static final FullQualifiedName ET_ALL_PRIM = new FullQualifiedName(SchemaProvider.NAMESPACE, "ETAllPrim");
+  private static final FullQualifiedName CT_TWO_PRIM = new FullQualifiedName(SchemaProvider.NAMESPACE, "CTTwoPrim");
+
+  private Edm edm;
+
+  @Setup
+  public void setup() {
+    edm = new TechnicalService().getServiceMetadata().getEdm();
+    // Fill the caches so that only lookups are measured.
+    edm.getEntityContainer().getEntitySet("ESAllPrim");
+    edm.getEntityType(ET_ALL_PRIM);
+    edm.getComplexType(CT_TWO_PRIM);
+  }
+
+  private void lookup(final Blackhole blackhole) {
+    final EdmEntityContainer container = edm.getEntityContainer();
+    blackhole.consume(container.getEntitySet("ESAllPrim"));
+    blackhole.consume(edm.getEntityType(ET_ALL_PRIM));
+    blackhole.consume(edm.getComplexType(CT_TWO_PRIM));
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void lookupSingleThread(final Blackhole blackhole) {
+    lookup(blackhole);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public void lookupAllThreads(final Blackhole blackhole) {
+    lookup(blackhole);
+  }
+}
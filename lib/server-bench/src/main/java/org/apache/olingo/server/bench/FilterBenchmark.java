@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledExpression;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.ExpressionVisitorImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Evaluates a parsed $filter expression against every entity of a collection,
+ * once with the expression visitor of the technical service and once with the compiled expression.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+
+  @Param({ "100", "10000" })
+  private int size;
+
+  @Param({
+      "PropertyInt16%20gt%2010",
+      "PropertyInt16%20gt%2010%20and%20startswith(PropertyString,'First')",
+      "PropertyDecimal%20mul%202%20le%2068%20or%20contains(tolower(PropertyString),'resource')" })
+  private String filter;
+
+  private Edm edm;
+  private UriInfo uriInfo;
+  private Expression expression;
+  private CompiledExpression compiledExpression;
+  private List<Entity> entities;
+
+  @Setup
+  public void setup() throws Exception {
+    final TechnicalService service = new TechnicalService();
+    edm = service.getServiceMetadata().getEdm();
+    uriInfo = new Parser(edm, service.getOData()).parseUri("ESAllPrim", "$filter=" + filter, null,
+        TechnicalService.BASE_URI);
+    expression = uriInfo.getFilterOption().getExpression();
+    compiledExpression = service.getOData().createExpressionCompiler(uriInfo).compile(expression);
+    entities = service.createAllPrimCollection(size).getEntities();
+  }
+
+  @Benchmark
+  public void evaluate(final Blackhole blackhole) throws Exception {
+    for (final Entity entity : entities) {
+      blackhole.consume(expression.accept(new ExpressionVisitorImpl(entity, uriInfo, edm)).getValue());
+    }
+  }
+
+  @Benchmark
+  public void evaluateCompiled(final Blackhole blackhole) throws Exception {
+    for (final Entity entity : entities) {
+      blackhole.consume(compiledExpression.evaluate(entity));
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.server.api.ODataHandler;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Processes GET requests against the technical service through the complete handler:
+ * URI parsing, content negotiation, the processors and serialization of the response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerBenchmark {
+
+  @Param({
+      "$metadata",
+      "ESAllPrim",
+      "ESAllPrim(32767)",
+      "ESAllPrim?$filter=PropertyInt16%20gt%200&$orderby=PropertyString&$count=true",
+      "ESKeyNav?$expand=NavPropertyETKeyNavMany($select=PropertyString)" })
+  private String uri;
+
+  @Param({ "application/json", "application/xml" })
+  private String accept;
+
+  private ODataHandler handler;
+  private String path;
+  private String query;
+
+  @Setup
+  public void setup() {
+    handler = new TechnicalService().createHandler();
+    final List<String> parts = TechnicalService.split(uri);
+    path = "/" + parts.get(0);
+    query = parts.get(1);
+  }
+
+  @Benchmark
+  public long process() throws Exception {
+    ODataRequest request = new ODataRequest();
+    request.setMethod(HttpMethod.GET);
+    request.setRawBaseUri(TechnicalService.BASE_URI);
+    request.setRawODataPath(path);
+    request.setRawQueryPath(query);
+    request.setRawRequestUri(TechnicalService.BASE_URI + path + (query == null ? "" : "?" + query));
+    request.setRawServiceResolutionUri(null);
+    request.setProtocol("HTTP/1.1");
+    request.addHeader(HttpHeader.ACCEPT, Collections.singletonList(accept));
+    final ODataResponse response = handler.process(request);
+    if (response.getStatusCode() >= 400) {
+      throw new IllegalStateException("Request " + uri + " failed with status " + response.getStatusCode());
+    }
+    return TechnicalService.drain(response);
+  }
+}
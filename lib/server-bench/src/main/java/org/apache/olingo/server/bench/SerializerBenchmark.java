@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.commons.api.data.ContextURL;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serializes entity collections of several sizes in JSON with all metadata levels and in XML.
+ * A new serializer is created for every operation, as the handler does for every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+  @Param({ "1", "100", "10000" })
+  private int size;
+
+  @Param({
+      "application/json;odata.metadata=none",
+      "application/json;odata.metadata=minimal",
+      "application/json;odata.metadata=full",
+      "application/xml" })
+  private String format;
+
+  private TechnicalService service;
+  private ContentType contentType;
+  private EdmEntitySet entitySet;
+  private EntityCollection collection;
+  private EntityCollectionSerializerOptions options;
+
+  @Setup
+  public void setup() throws Exception {
+    service = new TechnicalService();
+    contentType = ContentType.create(format);
+    entitySet = service.getEntitySet("ESAllPrim");
+    collection = service.createAllPrimCollection(size);
+    options = EntityCollectionSerializerOptions.with()
+        .contextURL(ContextURL.with().entitySet(entitySet).build())
+        .id("ESAllPrim")
+        .build();
+  }
+
+  @Benchmark
+  public long entityCollection() throws Exception {
+    return TechnicalService.drain(service.getOData().createSerializer(contentType)
+        .entityCollection(service.getServiceMetadata(), entitySet.getEntityType(), collection, options));
+  }
+}
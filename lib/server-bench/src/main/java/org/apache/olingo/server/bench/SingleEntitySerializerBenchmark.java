@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.commons.api.data.ContextURL;
+import org.apache.olingo.commons.api.data.ContextURL.Suffix;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.serializer.EntitySerializerOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Creates a JSON serializer and writes a single entity, as for a small response.
+ * The fixed cost of a serializer and its generator dominates here, so the allocation rate
+ * shows how much is set up per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SingleEntitySerializerBenchmark {
+
+  private TechnicalService service;
+  private EdmEntitySet entitySet;
+  private Entity entity;
+  private EntitySerializerOptions options;
+
+  @Setup
+  public void setup() throws Exception {
+    service = new TechnicalService();
+    entitySet = service.getEntitySet("ESAllPrim");
+    entity = service.createAllPrimCollection(1).getEntities().get(0);
+    options = EntitySerializerOptions.with()
+        .contextURL(ContextURL.with().entitySet(entitySet).suffix(Suffix.ENTITY).build())
+        .build();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public long entity() throws Exception {
+    return TechnicalService.drain(service.getOData().createSerializer(ContentType.JSON)
+        .entity(service.getServiceMetadata(), entitySet.getEntityType(), entity, options));
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public long entityConcurrently() throws Exception {
+    return entity();
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataHandler;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.serializer.SerializerResult;
+import org.apache.olingo.server.tecsvc.MetadataETagSupport;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.processor.TechnicalActionProcessor;
+import org.apache.olingo.server.tecsvc.processor.TechnicalBatchProcessor;
+import org.apache.olingo.server.tecsvc.processor.TechnicalEntityProcessor;
+import org.apache.olingo.server.tecsvc.processor.TechnicalPrimitiveComplexProcessor;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+
+/**
+ * Sets up the technical service the benchmarks run against.
+ */
+final class TechnicalService {
+
+  static final String BASE_URI = "http://localhost/odata.svc";
+
+  private final OData odata;
+  private final ServiceMetadata serviceMetadata;
+  private final DataProvider dataProvider;
+
+  TechnicalService() {
+    odata = OData.newInstance();
+    serviceMetadata = odata.createServiceMetadata(new EdmTechProvider(),
+        Collections.<EdmxReference> emptyList(), new MetadataETagSupport("W/\"metadataETag\""));
+    dataProvider = new DataProvider(odata, serviceMetadata.getEdm());
+  }
+
+  OData getOData() {
+    return odata;
+  }
+
+  ServiceMetadata getServiceMetadata() {
+    return serviceMetadata;
+  }
+
+  EdmEntitySet getEntitySet(final String name) {
+    return serviceMetadata.getEdm().getEntityContainer().getEntitySet(name);
+  }
+
+  /** Creates a handler with the processors of the technical service registered. */
+  ODataHandler createHandler() {
+    final ODataHandler handler = odata.createRawHandler(serviceMetadata);
+    handler.register(new TechnicalEntityProcessor(dataProvider, serviceMetadata));
+    handler.register(new TechnicalPrimitiveComplexProcessor(dataProvider, serviceMetadata));
+    handler.register(new TechnicalActionProcessor(dataProvider, serviceMetadata));
+    handler.register(new TechnicalBatchProcessor(dataProvider));
+    return handler;
+  }
+
+  /**
+   * Creates a collection of the given size for the entity set ESAllPrim.
+   * The entities are copies of the ones of the technical service with distinct keys.
+   */
+  EntityCollection createAllPrimCollection(final int size) throws DataProvider.DataProviderException {
+    final EdmEntitySet entitySet = getEntitySet("ESAllPrim");
+    final List<Entity> templates = dataProvider.readAll(entitySet).getEntities();
+    EntityCollection collection = new EntityCollection();
+    for (int i = 0; i < size; i++) {
+      final Entity template = templates.get(i % templates.size());
+      Entity entity = new Entity();
+      entity.setType(template.getType());
+      entity.setId(URI.create("ESAllPrim(" + i + ")"));
+      for (final Property property : template.getProperties()) {
+        entity.addProperty(new Property(property.getType(), property.getName(), property.getValueType(),
+            "PropertyInt16".equals(property.getName()) ? (short) i : property.getValue()));
+      }
+      collection.getEntities().add(entity);
+    }
+    return collection;
+  }
+
+  /** Writes the serialized content to a null stream and returns its length. */
+  static long drain(final SerializerResult result) {
+    CountingOutputStream stream = new CountingOutputStream(NullOutputStream.NULL_OUTPUT_STREAM);
+    result.getODataContent().write(stream);
+    return stream.getByteCount();
+  }
+
+  /** Writes the response content to a null stream and returns its length. */
+  static long drain(final ODataResponse response) throws IOException {
+    CountingOutputStream stream = new CountingOutputStream(NullOutputStream.NULL_OUTPUT_STREAM);
+    if (response.getODataContent() != null) {
+      response.getODataContent().write(stream);
+    } else if (response.getContent() != null) {
+      IOUtils.copy(response.getContent(), stream);
+    }
+    return stream.getByteCount();
+  }
+
+  /** Splits a relative URI into resource path and query; the query is <code>null</code> if there is none. */
+  static List<String> split(final String uri) {
+    final int index = uri.indexOf('?');
+    List<String> parts = new ArrayList<>(2);
+    parts.add(index < 0 ? uri : uri.substring(0, index));
+    parts.add(index < 0 ? null : uri.substring(index + 1));
+    return parts;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parses request URIs of increasing complexity, covering the tokenizer and the expression parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UriParserBenchmark {
+
+  @Param({
+      "ESAllPrim",
+      "ESAllPrim(32767)",
+      "ESTwoKeyNav(PropertyInt16=1,PropertyString='1')/NavPropertyETKeyNavOne",
+      "ESAllPrim?$filter=PropertyInt16%20gt%2010%20and%20startswith(PropertyString,'First')"
+          + "&$orderby=PropertyString%20desc&$top=10&$count=true",
+      "ESKeyNav?$expand=NavPropertyETTwoKeyNavMany($select=PropertyString;$expand=NavPropertyETKeyNavOne)"
+          + "&$select=PropertyInt16,PropertyString",
+      "ESAllPrim?$filter=PropertyInt16%20gt%2010%20and%20PropertyInt32%20le%201000"
+          + "%20and%20(startswith(PropertyString,'First')%20or%20endswith(PropertyString,'Last'))"
+          + "%20and%20PropertyDouble%20mul%202%20sub%201%20ge%203.5"
+          + "%20and%20not%20contains(tolower(PropertyString),'x')"
+          + "%20and%20PropertyDate%20eq%202012-12-03%20and%20PropertyBoolean%20eq%20true"
+          + "%20and%20PropertyInt64%20mod%207%20ne%200" })
+  private String uri;
+
+  private TechnicalService service;
+  private String path;
+  private String query;
+
+  @Setup
+  public void setup() {
+    service = new TechnicalService();
+    final List<String> parts = TechnicalService.split(uri);
+    path = parts.get(0);
+    query = parts.get(1);
+  }
+
+  @Benchmark
+  public UriInfo parse() throws Exception {
+    return new Parser(service.getServiceMetadata().getEdm(), service.getOData())
+        .parseUri(path, query, null, TechnicalService.BASE_URI);
+  }
+}
@@ -0,0 +1,26 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+/**
+ * JMH benchmarks for the server library, running against the technical service.
+ * <p>Build the module and run <code>java -jar target/benchmarks.jar</code>;
+ * the usual JMH options apply, e.g. a benchmark name pattern or <code>-p size=100</code>.
+ * The GC profiler is always added, so every result includes the allocation rate per operation
+ * (<code>gc.alloc.rate.norm</code>).</p>
+ */
+package org.apache.olingo.server.bench;
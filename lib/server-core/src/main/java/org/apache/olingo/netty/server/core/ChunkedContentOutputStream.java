@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.netty.server.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+
+/**
+ * Output stream writing the response body to the channel as HTTP chunks of a fixed maximum size.
+ * Outside the event loop, each write waits while the channel is not writable.
+ */
+class ChunkedContentOutputStream extends OutputStream {
+
+  private final ChannelHandlerContext ctx;
+  private final int chunkSize;
+  private ByteBuf buffer;
+  private ChannelFuture lastFuture;
+
+  ChunkedContentOutputStream(final ChannelHandlerContext ctx, final int chunkSize) {
+    this.ctx = ctx;
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    ensureOpen();
+    buffer().writeByte(b);
+    if (!buffer.isWritable()) {
+      writeChunk();
+    }
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    ensureOpen();
+    int offset = off;
+    int remaining = len;
+    while (remaining > 0) {
+      final int count = Math.min(remaining, buffer().writableBytes());
+      buffer.writeBytes(b, offset, count);
+      offset += count;
+      remaining -= count;
+      if (!buffer.isWritable()) {
+        writeChunk();
+      }
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    ensureOpen();
+    writeChunk();
+  }
+
+  /**
+   * Writes the remaining content followed by the last HTTP content; further calls have no effect.
+   */
+  @Override
+  public void close() throws IOException {
+    if (lastFuture == null) {
+      writeChunk();
+      lastFuture = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+    }
+  }
+
+  /**
+   * Releases buffered content without writing it, e.g. after a failure.
+   */
+  void discard() {
+    if (buffer != null) {
+      buffer.release();
+      buffer = null;
+    }
+  }
+
+  ChannelFuture getLastFuture() {
+    return lastFuture;
+  }
+
+  private ByteBuf buffer() {
+    if (buffer == null) {
+      buffer = ctx.alloc().buffer(chunkSize, chunkSize);
+    }
+    return buffer;
+  }
+
+  private void ensureOpen() throws IOException {
+    if (lastFuture != null) {
+      throw new IOException("Response content has already been completed");
+    }
+  }
+
+  private void writeChunk() throws IOException {
+    if (buffer == null || !buffer.isReadable()) {
+      return;
+    }
+    final ChannelFuture future = ctx.writeAndFlush(new DefaultHttpContent(buffer));
+    buffer = null;
+    if (!ctx.channel().isWritable() && !ctx.executor().inEventLoop()) {
+      future.awaitUninterruptibly();
+    }
+    if (future.isDone() && !future.isSuccess()) {
+      throw new IOException("Error on writing response content", future.cause());
+    }
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.olingo.netty.server.core;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
@@ -47,15 +48,20 @@ import org.apache.olingo.server.core.ODataExceptionHelper;
 import org.apache.olingo.server.core.ODataHandlerException;
 import org.apache.olingo.server.core.ODataHandlerImpl;
 import org.apache.olingo.server.core.debug.ServerCoreDebugger;
+import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
 
-import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
 import io.netty.buffer.ByteBufOutputStream;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpMessage;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
 
 public class ODataNettyHandlerImpl implements ODataNettyHandler {
 
@@ -116,12 +122,22 @@ public class ODataNettyHandlerImpl implements ODataNettyHandler {
    */
   static void writeContent(final ODataResponse odataResponse, final HttpResponse response) {
     ODataContent res = odataResponse.getODataContent();
-    res.write(Channels.newChannel(new ByteBufOutputStream(((HttpContent)response).content())));
+    res.write(new ByteBufOutputStream(((HttpContent)response).content()));
   }
   
+  /**
+   * Copy OData content to netty content.
+   * Content buffered by the serializers is written directly from its buffers, without an additional copy.
+   * @param inputStream
+   * @param response
+   */
   static void copyContent(final InputStream inputStream, final HttpResponse response) {
-	    copyContent(Channels.newChannel(inputStream), response);
-	  }
+    try (OutputStream output = new ByteBufOutputStream(((HttpContent) response).content())) {
+      CircleStreamBuffer.copy(inputStream, output);
+    } catch (IOException e) {
+      throw new ODataRuntimeException("Error on reading request content", e);
+    }
+  }
 
   /** 
    * Copy OData content to netty content
@@ -158,18 +174,17 @@ public class ODataNettyHandlerImpl implements ODataNettyHandler {
    * Extract the information part of Netty Request and fill OData Request
    * @param odRequest
    * @param httpRequest
+   * @param body
    * @param split
    * @param contextPath
    * @return
    * @throws ODataLibraryException
    */
   private ODataRequest fillODataRequest(final ODataRequest odRequest, final HttpRequest httpRequest,
-	      final int split, final String contextPath) throws ODataLibraryException {
+	      final InputStream body, final int split, final String contextPath) throws ODataLibraryException {
 	    final int requestHandle = debugger.startRuntimeMeasurement("ODataHttpHandlerImpl", "fillODataRequest");
 	    try {
-	    	ByteBuf byteBuf = ((HttpContent)httpRequest).content();
-	    	ByteBufInputStream inputStream = new ByteBufInputStream(byteBuf);
-	      odRequest.setBody(inputStream);
+	      odRequest.setBody(body);
 	      
 	      odRequest.setProtocol(httpRequest.protocolVersion().text());
 	      odRequest.setMethod(extractMethod(httpRequest));
@@ -231,6 +246,7 @@ public class ODataNettyHandlerImpl implements ODataNettyHandler {
    * Fetch the uri information parsing netty request url
    * @param odRequest
    * @param httpRequest
+   * @param body
    * @param split
    * @param contextPath
    */
@@ -306,7 +322,7 @@ public void processNettyRequest(HttpRequest request, HttpResponse response,
     final int processMethodHandle = 
     		debugger.startRuntimeMeasurement("ODataNettyHandlerImpl", "process");
     try {
-      fillODataRequest(odRequest, request, 
+      fillODataRequest(odRequest, request, new ByteBufInputStream(((HttpContent) request).content()),
           requestParameters.get(SPLIT) != null? Integer.parseInt(requestParameters.get(SPLIT)) : split, 
               requestParameters.get(CONTEXT_PATH));
 
@@ -321,6 +337,72 @@ public void processNettyRequest(HttpRequest request, HttpResponse response,
     convertToHttp(response, odResponse);
   }
 
+  @Override
+  public ChannelFuture processNettyRequest(final HttpRequest request, final InputStream body,
+      final ChannelHandlerContext ctx, final Map<String, String> requestParameters) {
+    final ODataRequest odRequest = new ODataRequest();
+    ODataResponse odResponse;
+
+    final int processMethodHandle = debugger.startRuntimeMeasurement("ODataNettyHandlerImpl", "process");
+    try {
+      fillODataRequest(odRequest, request, body,
+          requestParameters.get(SPLIT) != null ? Integer.parseInt(requestParameters.get(SPLIT)) : split,
+          requestParameters.get(CONTEXT_PATH));
+
+      odResponse = process(odRequest);
+      // ALL future methods after process must not throw exceptions!
+    } catch (Exception e) {
+      odResponse = handleException(odRequest, e);
+    }
+    debugger.stopRuntimeMeasurement(processMethodHandle);
+
+    return writeResponse(request, odResponse, ctx);
+  }
+
+  /**
+   * Write the OData response to the channel: the response head followed by the content in chunks
+   * @param request
+   * @param odResponse
+   * @param ctx
+   * @return future of the write of the last content
+   */
+  static ChannelFuture writeResponse(final HttpRequest request, final ODataResponse odResponse,
+      final ChannelHandlerContext ctx) {
+    final HttpResponse response = new DefaultHttpResponse(request.protocolVersion(),
+        HttpResponseStatus.valueOf(odResponse.getStatusCode()));
+    for (Entry<String, List<String>> entry : odResponse.getAllHeaders().entrySet()) {
+      response.headers().add(entry.getKey(), entry.getValue());
+    }
+
+    final boolean hasContent = odResponse.getContent() != null || odResponse.getODataContent() != null;
+    if (!response.headers().contains(HttpHeaderNames.CONTENT_LENGTH)) {
+      if (hasContent) {
+        HttpUtil.setTransferEncodingChunked(response, true);
+      } else if (odResponse.getStatusCode() != HttpResponseStatus.NO_CONTENT.code()
+          && odResponse.getStatusCode() != HttpResponseStatus.NOT_MODIFIED.code()) {
+        HttpUtil.setContentLength(response, 0);
+      }
+    }
+    ctx.write(response);
+
+    final ChunkedContentOutputStream output = new ChunkedContentOutputStream(ctx, COPY_BUFFER_SIZE);
+    try {
+      if (odResponse.getContent() != null) {
+        try (InputStream content = odResponse.getContent()) {
+          CircleStreamBuffer.copy(content, output);
+        }
+      } else if (odResponse.getODataContent() != null) {
+        odResponse.getODataContent().write(output);
+      }
+      output.close();
+      return output.getLastFuture();
+    } catch (IOException | RuntimeException e) {
+      // The response head has already been sent, so the error cannot be reported to the client.
+      output.discard();
+      return ctx.close();
+    }
+  }
+
   public ODataResponse process(ODataRequest request) {
     return handler.process(request);
   }
@@ -20,7 +20,10 @@ package org.apache.olingo.netty.server.core;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
+import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
 import org.apache.olingo.commons.api.edm.provider.CsdlEdmProvider;
@@ -30,22 +33,36 @@ import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.netty.server.api.ODataNetty;
 import org.apache.olingo.netty.server.api.ODataNettyHandler;
 import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.ODataHandler;
 import org.apache.olingo.server.api.ODataHttpHandler;
 import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.async.AsyncRequestExecutor;
+import org.apache.olingo.server.api.async.AsyncRequestExecutorOptions;
+import org.apache.olingo.server.api.batch.BatchExecutionSupport;
 import org.apache.olingo.server.api.debug.DebugResponseHelper;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.deserializer.FixedFormatDeserializer;
 import org.apache.olingo.server.api.deserializer.ODataDeserializer;
 import org.apache.olingo.server.api.etag.ETagHelper;
 import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
+import org.apache.olingo.server.api.metrics.LatencyStatistics;
+import org.apache.olingo.server.api.paging.KeysetPaging;
+import org.apache.olingo.server.api.paging.SkipTokenCodec;
 import org.apache.olingo.server.api.prefer.Preferences;
+import org.apache.olingo.server.api.query.QueryPlan;
+import org.apache.olingo.server.api.query.QueryTranslator;
+import org.apache.olingo.server.api.query.SqlQuery;
 import org.apache.olingo.server.api.serializer.EdmAssistedSerializer;
 import org.apache.olingo.server.api.serializer.EdmDeltaSerializer;
 import org.apache.olingo.server.api.serializer.FixedFormatSerializer;
 import org.apache.olingo.server.api.serializer.ODataSerializer;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.uri.UriHelper;
+import org.apache.olingo.server.api.uri.UriInfoCache;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionCompiler;
 
 public class ODataNettyImpl extends ODataNetty {
   
@@ -140,6 +157,52 @@ public class ODataNettyImpl extends ODataNetty {
     return odata.createETagHelper();
   }
 
+  @Override
+  public ExpressionCompiler createExpressionCompiler(UriInfoResource uriInfo) {
+    return odata.createExpressionCompiler(uriInfo);
+  }
+
+  @Override
+  public UriInfoCache createUriInfoCache(int maximumSize) {
+    return odata.createUriInfoCache(maximumSize);
+  }
+
+  @Override
+  public BatchExecutionSupport createBatchExecutionSupport(Executor executor) {
+    return odata.createBatchExecutionSupport(executor);
+  }
+
+  @Override
+  public LatencyStatistics createLatencyStatistics() {
+    return odata.createLatencyStatistics();
+  }
+
+  @Override
+  public QueryPlan createQueryPlan(UriInfoResource uriInfo, EdmEntityType entityType) {
+    return odata.createQueryPlan(uriInfo, entityType);
+  }
+
+  @Override
+  public QueryTranslator<SqlQuery> createSqlQueryTranslator(String tableName, Map<String, String> columnNames) {
+    return odata.createSqlQueryTranslator(tableName, columnNames);
+  }
+
+  @Override
+  public SkipTokenCodec createSkipTokenCodec() {
+    return odata.createSkipTokenCodec();
+  }
+
+  @Override
+  public KeysetPaging createKeysetPaging(EdmEntityType entityType, OrderByOption orderBy, SkipTokenCodec codec)
+      throws ODataApplicationException {
+    return odata.createKeysetPaging(entityType, orderBy, codec);
+  }
+
+  @Override
+  public AsyncRequestExecutor createAsyncRequestExecutor(AsyncRequestExecutorOptions options) {
+    return odata.createAsyncRequestExecutor(options);
+  }
+
   @Override
   public Preferences createPreferences(Collection<String> preferHeaders) {
     return odata.createPreferences(preferHeaders);
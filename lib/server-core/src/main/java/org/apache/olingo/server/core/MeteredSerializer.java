@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+
+import org.apache.olingo.commons.api.data.AbstractEntityCollection;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityIterator;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.edm.EdmComplexType;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.server.api.ODataContent;
+import org.apache.olingo.server.api.ODataServerError;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.metrics.ProcessingStage;
+import org.apache.olingo.server.api.metrics.RequestMetrics;
+import org.apache.olingo.server.api.serializer.ComplexSerializerOptions;
+import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions;
+import org.apache.olingo.server.api.serializer.EntitySerializerOptions;
+import org.apache.olingo.server.api.serializer.ODataSerializer;
+import org.apache.olingo.server.api.serializer.PrimitiveSerializerOptions;
+import org.apache.olingo.server.api.serializer.ReferenceCollectionSerializerOptions;
+import org.apache.olingo.server.api.serializer.ReferenceSerializerOptions;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.serializer.SerializerResult;
+import org.apache.olingo.server.api.serializer.SerializerStreamResult;
+import org.apache.olingo.server.api.uri.UriInfoKind;
+
+/**
+ * Serializer that reports the runtime of each call of the wrapped serializer as
+ * {@link ProcessingStage#SERIALIZATION} of the request it has been created for.
+ * Content that is written after the call, e.g., streamed entity collections, is measured when it is written.
+ */
+final class MeteredSerializer implements ODataSerializer {
+
+  private final ODataSerializer serializer;
+  private final RequestMetrics metrics;
+  private final UriInfoKind kind;
+
+  private MeteredSerializer(final ODataSerializer serializer, final RequestMetrics metrics,
+      final UriInfoKind kind) {
+    this.serializer = serializer;
+    this.metrics = metrics;
+    this.kind = kind;
+  }
+
+  /**
+   * Wraps the serializer if it is created while a handler with registered request metrics
+   * dispatches a request on the current thread.
+   */
+  static ODataSerializer wrap(final ODataSerializer serializer) {
+    final ODataHandlerImpl handler = ODataHandlerImpl.getDispatchingHandler();
+    if (handler == null || handler.getRequestMetrics() == null) {
+      return serializer;
+    }
+    return new MeteredSerializer(serializer, handler.getRequestMetrics(),
+        handler.getUriInfo() == null ? null : handler.getUriInfo().getKind());
+  }
+
+  private void record(final long startTime) {
+    metrics.record(ProcessingStage.SERIALIZATION, kind, System.nanoTime() - startTime);
+  }
+
+  private SerializerResult metered(final SerializerResult result, final long startTime) {
+    record(startTime);
+    return new SerializerResult() {
+      @Override
+      public InputStream getContent() {
+        return result.getContent();
+      }
+
+      @Override
+      public ODataContent getODataContent() {
+        final ODataContent content = result.getODataContent();
+        return content == null ? null : new MeteredContent(content);
+      }
+    };
+  }
+
+  @Override
+  public SerializerResult serviceDocument(final ServiceMetadata serviceMetadata, final String serviceRoot)
+      throws SerializerException {
+    final long startTime = System.nanoTime();
+    return metered(serializer.serviceDocument(serviceMetadata, serviceRoot), startTime);
+  }
+
+  @Override
+  public SerializerResult metadataDocument(final ServiceMetadata serviceMetadata) throws SerializerException {
+    final long startTime = System.nanoTime();
+    return metered(serializer.metadataDocument(serviceMetadata), startTime);
+  }
+
+  @Override
+  public SerializerResult error(final ODataServerError error) throws SerializerException {
+    final long startTime = System.nanoTime();
+    return metered(serializer.error(error), startTime);
+  }
+
+  @Override
+  public SerializerResult entityCollection(final ServiceMetadata metadata, final EdmEntityType entityType,
+      final AbstractEntityCollection entitySet, final EntityCollectionSerializerOptions options)
+      throws SerializerException {
+    final long startTime = System.nanoTime();
+    return metered(serializer.entityCollection(metadata, entityType, entitySet, options), startTime);
+  }
+
+  @Override
+  public SerializerStreamResult entityCollectionStreamed(final ServiceMetadata metadata,
+      final EdmEntityType entityType, final EntityIterator entities, final EntityCollectionSerializerOptions options)
+      throws SerializerException {
+    final long startTime = System.nanoTime();
+    final SerializerStreamResult result = serializer.entityCollectionStreamed(metadata, entityType, entities,
+        options);
+    record(startTime);
+    return new SerializerStreamResult() {
+      @Override
+      public ODataContent getODataContent() {
+        final ODataContent content = result.getODataContent();
+        return content == null ? null : new MeteredContent(content);
+      }
+    };
+  }
+
+  @Override
+  public SerializerResult entity(final ServiceMetadata metadata, final EdmEntityType entityType,
+      final Entity entity, final EntitySerializerOptions options) throws SerializerException {
+    final long startTime = System.nanoTime();
+    return metered(serializer.entity(metadata, entityType, entity, options), startTime);
+  }
+
+  @Override
+  public SerializerResult primitive(final ServiceMetadata metadata, final EdmPrimitiveType type,
+      final Property property, final PrimitiveSerializerOptions options) throws SerializerException {
+    final long startTime = System.nanoTime();
+    return metered(serializer.primitive(metadata, type, property, options), startTime);
+  }
+
+  @Override
+  public SerializerResult complex(final ServiceMetadata metadata, final EdmComplexType type,
+      final Property property, final ComplexSerializerOptions options) throws SerializerException {
+    final long startTime = System.nanoTime();
+    return metered(serializer.complex(metadata, type, property, options), startTime);
+  }
+
+  @Override
+  public SerializerResult primitiveCollection(final ServiceMetadata metadata, final EdmPrimitiveType type,
+      final Property property, final PrimitiveSerializerOptions options) throws SerializerException {
+    final long startTime = System.nanoTime();
+    return metered(serializer.primitiveCollection(metadata, type, property, options), startTime);
+  }
+
+  @Override
+  public SerializerResult complexCollection(final ServiceMetadata metadata, final EdmComplexType type,
+      final Property property, final ComplexSerializerOptions options) throws SerializerException {
+    final long startTime = System.nanoTime();
+    return metered(serializer.complexCollection(metadata, type, property, options), startTime);
+  }
+
+  @Override
+  public SerializerResult reference(final ServiceMetadata metadata, final EdmEntitySet edmEntitySet,
+      final Entity entity, final ReferenceSerializerOptions options) throws SerializerException {
+    final long startTime = System.nanoTime();
+    return metered(serializer.reference(metadata, edmEntitySet, entity, options), startTime);
+  }
+
+  @Override
+  public SerializerResult referenceCollection(final ServiceMetadata metadata, final EdmEntitySet edmEntitySet,
+      final AbstractEntityCollection entityCollection, final ReferenceCollectionSerializerOptions options)
+      throws SerializerException {
+    final long startTime = System.nanoTime();
+    return metered(serializer.referenceCollection(metadata, edmEntitySet, entityCollection, options), startTime);
+  }
+
+  /** Content that reports the runtime of writing it. */
+  private final class MeteredContent implements ODataContent {
+    private final ODataContent content;
+
+    private MeteredContent(final ODataContent content) {
+      this.content = content;
+    }
+
+    @Override
+    public void write(final WritableByteChannel channel) {
+      final long startTime = System.nanoTime();
+      try {
+        content.write(channel);
+      } finally {
+        record(startTime);
+      }
+    }
+
+    @Override
+    public void write(final OutputStream stream) {
+      final long startTime = System.nanoTime();
+      try {
+        content.write(stream);
+      } finally {
+        record(startTime);
+      }
+    }
+  }
+}
@@ -39,6 +39,7 @@ import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.etag.CustomETagSupport;
 import org.apache.olingo.server.api.etag.PreconditionException;
+import org.apache.olingo.server.api.metrics.ProcessingStage;
 import org.apache.olingo.server.api.processor.ActionComplexCollectionProcessor;
 import org.apache.olingo.server.api.processor.ActionComplexProcessor;
 import org.apache.olingo.server.api.processor.ActionEntityCollectionProcessor;
@@ -95,8 +96,7 @@ public class ODataDispatcher {
     switch (uriInfo.getKind()) {
     case metadata:
       checkMethods(request.getMethod(), HttpMethod.GET, HttpMethod.HEAD);
-      final ContentType requestedContentType = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
-          request, handler.getCustomContentTypeSupport(), RepresentationType.METADATA);
+      final ContentType requestedContentType = negotiateContentType(request, RepresentationType.METADATA);
       handler.selectProcessor(MetadataProcessor.class)
           .readMetadata(request, response, uriInfo, requestedContentType);
       break;
@@ -107,8 +107,7 @@ public class ODataDispatcher {
         handler.selectProcessor(RedirectProcessor.class)
             .redirect(request, response);
       } else {
-        final ContentType serviceContentType = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
-            request, handler.getCustomContentTypeSupport(), RepresentationType.SERVICE);
+        final ContentType serviceContentType = negotiateContentType(request, RepresentationType.SERVICE);
         handler.selectProcessor(ServiceDocumentProcessor.class)
             .readServiceDocument(request, response, uriInfo, serviceContentType);
       }
@@ -230,8 +229,7 @@ public class ODataDispatcher {
       ContentType responseFormat;
       switch (returnType.getType().getKind()) {
       case ENTITY:
-        responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
-            request, handler.getCustomContentTypeSupport(),
+        responseFormat = negotiateContentType(request,
             isCollection ? RepresentationType.COLLECTION_ENTITY : RepresentationType.ENTITY);
         if (isCollection) {
           handler.selectProcessor(ActionEntityCollectionProcessor.class)
@@ -243,8 +241,7 @@ public class ODataDispatcher {
         break;
 
       case PRIMITIVE:
-        responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
-            request, handler.getCustomContentTypeSupport(),
+        responseFormat = negotiateContentType(request,
             isCollection ? RepresentationType.COLLECTION_PRIMITIVE : RepresentationType.PRIMITIVE);
         if (isCollection) {
           handler.selectProcessor(ActionPrimitiveCollectionProcessor.class)
@@ -256,8 +253,7 @@ public class ODataDispatcher {
         break;
 
       case COMPLEX:
-        responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
-            request, handler.getCustomContentTypeSupport(),
+        responseFormat = negotiateContentType(request,
             isCollection ? RepresentationType.COLLECTION_COMPLEX : RepresentationType.COMPLEX);
         if (isCollection) {
           handler.selectProcessor(ActionComplexCollectionProcessor.class)
@@ -284,8 +280,7 @@ public class ODataDispatcher {
 
     if (isCollection && httpMethod == HttpMethod.GET) {
       validatePreferHeader(request);
-      final ContentType responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
-          request, handler.getCustomContentTypeSupport(), RepresentationType.COLLECTION_REFERENCE);
+      final ContentType responseFormat = negotiateContentType(request, RepresentationType.COLLECTION_REFERENCE);
       handler.selectProcessor(ReferenceCollectionProcessor.class)
           .readReferenceCollection(request, response, uriInfo, responseFormat);
 
@@ -297,8 +292,7 @@ public class ODataDispatcher {
 
     } else if (!isCollection && httpMethod == HttpMethod.GET) {
       validatePreferHeader(request);
-      final ContentType responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
-          request, handler.getCustomContentTypeSupport(), RepresentationType.REFERENCE);
+      final ContentType responseFormat = negotiateContentType(request, RepresentationType.REFERENCE);
       handler.selectProcessor(ReferenceProcessor.class).readReference(request, response, uriInfo, responseFormat);
 
     } else if (!isCollection && (httpMethod == HttpMethod.PUT || httpMethod == HttpMethod.PATCH)) {
@@ -338,9 +332,7 @@ public class ODataDispatcher {
     validatePreferHeader(request);
     if (method == HttpMethod.GET) {
       // This can be a GET on an EntitySet, Navigation or Function
-      final ContentType requestedContentType = ContentNegotiator.
-          doContentNegotiation(uriInfo.getFormatOption(),
-          request, handler.getCustomContentTypeSupport(), RepresentationType.MEDIA);
+      final ContentType requestedContentType = negotiateContentType(request, RepresentationType.MEDIA);
       handler.selectProcessor(MediaEntityProcessor.class)
           .readMediaEntity(request, response, uriInfo, requestedContentType);
       // PUT and DELETE can only be called on EntitySets or Navigation properties which are media resources
@@ -348,8 +340,7 @@ public class ODataDispatcher {
         || isSingletonMedia(resource))) {
       validatePreconditions(request, true);
       final ContentType requestFormat = ContentType.parse(request.getHeader(HttpHeader.CONTENT_TYPE));
-      final ContentType responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
-          request, handler.getCustomContentTypeSupport(), RepresentationType.ENTITY);
+      final ContentType responseFormat = negotiateContentType(request, RepresentationType.ENTITY);
       handler.selectProcessor(MediaEntityProcessor.class)
           .updateMediaEntity(request, response, uriInfo, requestFormat, responseFormat);
     } else if (method == HttpMethod.DELETE && isEntityOrNavigationMedia(resource)) {
@@ -373,9 +364,7 @@ public class ODataDispatcher {
             RepresentationType.BINARY : RepresentationType.VALUE;
     if (method == HttpMethod.GET) {
       validatePreferHeader(request);
-      final ContentType requestedContentType = ContentNegotiator.
-          doContentNegotiation(uriInfo.getFormatOption(),
-          request, handler.getCustomContentTypeSupport(), valueRepresentationType);
+      final ContentType requestedContentType = negotiateContentType(request, valueRepresentationType);
 
       handler.selectProcessor(PrimitiveValueProcessor.class)
           .readPrimitiveValue(request, response, uriInfo, requestedContentType);
@@ -383,8 +372,7 @@ public class ODataDispatcher {
       validatePreconditions(request, false);
       final ContentType requestFormat = getSupportedContentType(request.getHeader(HttpHeader.CONTENT_TYPE),
           valueRepresentationType, true);
-      final ContentType responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
-          request, handler.getCustomContentTypeSupport(), valueRepresentationType);
+      final ContentType responseFormat = negotiateContentType(request, valueRepresentationType);
       handler.selectProcessor(PrimitiveValueProcessor.class)
           .updatePrimitiveValue(request, response, uriInfo, requestFormat, responseFormat);
     } else if (method == HttpMethod.DELETE && resource instanceof UriResourceProperty) {
@@ -404,8 +392,7 @@ public class ODataDispatcher {
         : RepresentationType.COMPLEX;
     if (method == HttpMethod.GET) {
       validatePreferHeader(request);
-      final ContentType requestedContentType = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
-          request, handler.getCustomContentTypeSupport(), complexRepresentationType);
+      final ContentType requestedContentType = negotiateContentType(request, complexRepresentationType);
       if (isCollection) {
         handler.selectProcessor(ComplexCollectionProcessor.class)
             .readComplexCollection(request, response, uriInfo, requestedContentType);
@@ -417,8 +404,7 @@ public class ODataDispatcher {
       validatePreconditions(request, false);
       final ContentType requestFormat = getSupportedContentType(request.getHeader(HttpHeader.CONTENT_TYPE),
           complexRepresentationType, true);
-      final ContentType responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
-          request, handler.getCustomContentTypeSupport(), complexRepresentationType);
+      final ContentType responseFormat = negotiateContentType(request, complexRepresentationType);
       if (isCollection) {
         handler.selectProcessor(ComplexCollectionProcessor.class)
             .updateComplexCollection(request, response, uriInfo, requestFormat, responseFormat);
@@ -448,8 +434,7 @@ public class ODataDispatcher {
         : RepresentationType.PRIMITIVE;
     if (method == HttpMethod.GET) {
       validatePreferHeader(request);
-      final ContentType requestedContentType = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
-          request, handler.getCustomContentTypeSupport(), representationType);
+      final ContentType requestedContentType = negotiateContentType(request, representationType);
       if (isCollection) {
         handler.selectProcessor(PrimitiveCollectionProcessor.class)
             .readPrimitiveCollection(request, response, uriInfo, requestedContentType);
@@ -470,8 +455,7 @@ public class ODataDispatcher {
     	  requestFormat = getSupportedContentType(request.getHeader(HttpHeader.CONTENT_TYPE),
     	          representationType, true);
       }
-      final ContentType responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
-          request, handler.getCustomContentTypeSupport(), representationType);
+      final ContentType responseFormat = negotiateContentType(request, representationType);
       if (isCollection) {
         handler.selectProcessor(PrimitiveCollectionProcessor.class)
             .updatePrimitiveCollection(request, response, uriInfo, requestFormat, responseFormat);
@@ -532,15 +516,11 @@ public class ODataDispatcher {
     final HttpMethod method = request.getMethod();
     if (method == HttpMethod.GET) {
       validatePreferHeader(request);
-      final ContentType requestedContentType = ContentNegotiator.
-          doContentNegotiation(uriInfo.getFormatOption(),
-          request, handler.getCustomContentTypeSupport(), RepresentationType.COLLECTION_ENTITY);
+      final ContentType requestedContentType = negotiateContentType(request, RepresentationType.COLLECTION_ENTITY);
       handler.selectProcessor(EntityCollectionProcessor.class)
           .readEntityCollection(request, response, uriInfo, requestedContentType);
     } else if (method == HttpMethod.POST) {
-      final ContentType responseFormat = ContentNegotiator.
-          doContentNegotiation(uriInfo.getFormatOption(),
-          request, handler.getCustomContentTypeSupport(), RepresentationType.ENTITY);
+      final ContentType responseFormat = negotiateContentType(request, RepresentationType.ENTITY);
       if (isMedia) {
         validatePreferHeader(request);
         final ContentType requestFormat = ContentType.parse(
@@ -571,9 +551,7 @@ public class ODataDispatcher {
           final ContentType requestFormat = getSupportedContentType(
               request.getHeader(HttpHeader.CONTENT_TYPE),
               RepresentationType.ENTITY, true);
-          final ContentType responseFormat = ContentNegotiator.
-              doContentNegotiation(uriInfo.getFormatOption(),
-              request, handler.getCustomContentTypeSupport(), RepresentationType.ENTITY);
+          final ContentType responseFormat = negotiateContentType(request, RepresentationType.ENTITY);
           handler.selectProcessor(EntityProcessor.class)
               .updateEntity(request, response, uriInfo, requestFormat, responseFormat);
         } else {
@@ -612,9 +590,7 @@ public class ODataDispatcher {
       final HttpMethod method = request.getMethod();
       if (method == HttpMethod.GET) {
         validatePreferHeader(request);
-        final ContentType requestedContentType = ContentNegotiator.
-            doContentNegotiation(uriInfo.getFormatOption(),
-            request, handler.getCustomContentTypeSupport(), RepresentationType.ENTITY);
+        final ContentType requestedContentType = negotiateContentType(request, RepresentationType.ENTITY);
         handler.selectProcessor(EntityProcessor.class)
             .readEntity(request, response, uriInfo, requestedContentType);
       } else if (method == HttpMethod.PUT || method == HttpMethod.PATCH) {
@@ -625,9 +601,7 @@ public class ODataDispatcher {
         final ContentType requestFormat = getSupportedContentType(
             request.getHeader(HttpHeader.CONTENT_TYPE),
             RepresentationType.ENTITY, true);
-        final ContentType responseFormat = ContentNegotiator.
-            doContentNegotiation(uriInfo.getFormatOption(),
-            request, handler.getCustomContentTypeSupport(), RepresentationType.ENTITY);
+        final ContentType responseFormat = negotiateContentType(request, RepresentationType.ENTITY);
         handler.selectProcessor(EntityProcessor.class)
             .updateEntity(request, response, uriInfo, requestFormat, responseFormat);
       } else if (method == HttpMethod.DELETE && !isSingleton) {
@@ -714,10 +688,26 @@ public class ODataDispatcher {
       throw new ODataHandlerException("Illegal content type.", e,
           ODataHandlerException.MessageKeys.INVALID_CONTENT_TYPE, contentTypeHeader);
     }
-    ContentNegotiator.checkSupport(contentType, handler.getCustomContentTypeSupport(), representationType);
+    final long startTime = System.nanoTime();
+    try {
+      ContentNegotiator.checkSupport(contentType, handler.getCustomContentTypeSupport(), representationType);
+    } finally {
+      handler.recordRuntime(ProcessingStage.CONTENT_NEGOTIATION, startTime);
+    }
     return contentType;
   }
 
+  private ContentType negotiateContentType(final ODataRequest request, final RepresentationType representationType)
+      throws ContentNegotiatorException {
+    final long startTime = System.nanoTime();
+    try {
+      return ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(), request,
+          handler.getCustomContentTypeSupport(), representationType);
+    } finally {
+      handler.recordRuntime(ProcessingStage.CONTENT_NEGOTIATION, startTime);
+    }
+  }
+
   private boolean isEntityOrNavigationMedia(final UriResource pathSegment) {
     // This method MUST NOT check if the resource is of type function since these are handled differently
     return pathSegment instanceof UriResourceEntitySet
@@ -21,6 +21,7 @@ package org.apache.olingo.server.core;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.constants.ODataServiceVersion;
 import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.format.ContentType;
@@ -35,9 +36,12 @@ import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.OlingoExtension;
 import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.batch.BatchExecutionSupport;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.etag.CustomETagSupport;
 import org.apache.olingo.server.api.etag.PreconditionException;
+import org.apache.olingo.server.api.metrics.ProcessingStage;
+import org.apache.olingo.server.api.metrics.RequestMetrics;
 import org.apache.olingo.server.api.processor.DefaultProcessor;
 import org.apache.olingo.server.api.processor.ErrorProcessor;
 import org.apache.olingo.server.api.processor.Processor;
@@ -45,6 +49,7 @@ import org.apache.olingo.server.api.serializer.CustomContentTypeSupport;
 import org.apache.olingo.server.api.serializer.RepresentationType;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriInfoCache;
 import org.apache.olingo.server.api.uri.queryoption.FormatOption;
 import org.apache.olingo.server.api.uri.queryoption.SystemQueryOptionKind;
 import org.apache.olingo.server.core.debug.ServerCoreDebugger;
@@ -58,6 +63,9 @@ import org.apache.olingo.server.core.uri.validator.UriValidator;
 
 public class ODataHandlerImpl implements ODataHandler {
 
+  /** The handler that dispatches a request on the current thread; serializers report their runtime to it. */
+  private static final ThreadLocal<ODataHandlerImpl> DISPATCHING_HANDLER = new ThreadLocal<>();
+
   private final OData odata;
   private final ServiceMetadata serviceMetadata;
   private final List<Processor> processors = new LinkedList<>();
@@ -65,6 +73,9 @@ public class ODataHandlerImpl implements ODataHandler {
 
   private CustomContentTypeSupport customContentTypeSupport;
   private CustomETagSupport customETagSupport;
+  private UriInfoCache uriInfoCache;
+  private BatchExecutionSupport batchExecutionSupport;
+  private RequestMetrics requestMetrics;
 
   private UriInfo uriInfo;
   private Exception lastThrownException;
@@ -81,6 +92,8 @@ public class ODataHandlerImpl implements ODataHandler {
   public ODataResponse process(final ODataRequest request) {
     ODataResponse response = new ODataResponse();
     final int responseHandle = debugger.startRuntimeMeasurement("ODataHandler", "process");
+    final long startTime = System.nanoTime();
+    uriInfo = null;
     try {
       processInternal(request, response);
     } catch (final UriValidationException e) {
@@ -120,6 +133,7 @@ public class ODataHandlerImpl implements ODataHandler {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e);
       handleException(request, response, serverError, e);
     }
+    recordRuntime(ProcessingStage.REQUEST, startTime);
     debugger.stopRuntimeMeasurement(responseHandle);
     return response;
   }
@@ -138,39 +152,73 @@ public class ODataHandlerImpl implements ODataHandler {
     }
 
     final int measurementUriParser = debugger.startRuntimeMeasurement("Parser", "parseUri");
+    long startTime = System.nanoTime();
     try {
-      uriInfo = new Parser(serviceMetadata.getEdm(), odata)
-          .parseUri(request.getRawODataPath(), request.getRawQueryPath(), null, request.getRawBaseUri());
+      uriInfo = parseUri(request);
     } catch (final ODataLibraryException e) {
       debugger.stopRuntimeMeasurement(measurementUriParser);
       debugger.stopRuntimeMeasurement(measurementHandle);
       throw e;
+    } finally {
+      recordRuntime(ProcessingStage.URI_PARSING, startTime);
     }
     debugger.stopRuntimeMeasurement(measurementUriParser);
 
     final int measurementUriValidator = debugger.startRuntimeMeasurement("UriValidator", "validate");
     final HttpMethod method = request.getMethod();
+    startTime = System.nanoTime();
     try {
       new UriValidator().validate(uriInfo, method);
     } catch (final UriValidationException e) {
       debugger.stopRuntimeMeasurement(measurementUriValidator);
       debugger.stopRuntimeMeasurement(measurementHandle);
       throw e;
+    } finally {
+      recordRuntime(ProcessingStage.URI_VALIDATION, startTime);
     }
     debugger.stopRuntimeMeasurement(measurementUriValidator);
 
     final int measurementDispatcher = debugger.startRuntimeMeasurement("ODataDispatcher", "dispatch");
+    startTime = System.nanoTime();
+    final UriInfo requestUriInfo = uriInfo;
+    final ODataHandlerImpl previousHandler = DISPATCHING_HANDLER.get();
+    DISPATCHING_HANDLER.set(this);
     try {
       new ODataDispatcher(uriInfo, this).dispatch(request, response);
     } finally {
+      // The parts of a batch request are processed by this handler, too.
+      uriInfo = requestUriInfo;
+      if (previousHandler == null) {
+        DISPATCHING_HANDLER.remove();
+      } else {
+        DISPATCHING_HANDLER.set(previousHandler);
+      }
+      recordRuntime(ProcessingStage.DISPATCH, startTime);
       debugger.stopRuntimeMeasurement(measurementDispatcher);
       debugger.stopRuntimeMeasurement(measurementHandle);
     }
   }
 
+  private UriInfo parseUri(final ODataRequest request) throws ODataLibraryException {
+    final Edm edm = serviceMetadata.getEdm();
+    final String path = request.getRawODataPath();
+    final String query = request.getRawQueryPath();
+    final String baseUri = request.getRawBaseUri();
+    if (uriInfoCache == null) {
+      return new Parser(edm, odata).parseUri(path, query, null, baseUri);
+    }
+    UriInfo result = uriInfoCache.get(edm, path, query, baseUri);
+    if (result == null) {
+      result = new Parser(edm, odata).parseUri(path, query, null, baseUri);
+      uriInfoCache.put(edm, path, query, baseUri, result);
+    }
+    return result;
+  }
+
   public void handleException(final ODataRequest request, final ODataResponse response,
       final ODataServerError serverError, final Exception exception) {
     final int measurementHandle = debugger.startRuntimeMeasurement("ODataHandler", "handleException");
+    final long startTime = System.nanoTime();
     lastThrownException = exception;
     ErrorProcessor exceptionProcessor;
     try {
@@ -192,9 +240,22 @@ public class ODataHandlerImpl implements ODataHandler {
     final int measurementError = debugger.startRuntimeMeasurement("ErrorProcessor", "processError");
     exceptionProcessor.processError(request, response, serverError, requestedContentType);
     debugger.stopRuntimeMeasurement(measurementError);
+    recordRuntime(ProcessingStage.ERROR_HANDLING, startTime);
     debugger.stopRuntimeMeasurement(measurementHandle);
   }
 
+  /**
+   * Reports the runtime of a processing stage to the registered request metrics, if any,
+   * with the kind of the URI this handler has parsed last.
+   * @param stage     the processing stage
+   * @param startTime the start time of the stage as returned by {@link System#nanoTime()}
+   */
+  public void recordRuntime(final ProcessingStage stage, final long startTime) {
+    if (requestMetrics != null) {
+      requestMetrics.record(stage, uriInfo == null ? null : uriInfo.getKind(), System.nanoTime() - startTime);
+    }
+  }
+
   /**
    * Extract format option from either <code>uriInfo</code> (if not <code>NULL</code>)
    * or query from <code>request</code> (if not <code>NULL</code>).
@@ -261,6 +322,12 @@ public class ODataHandlerImpl implements ODataHandler {
       this.customContentTypeSupport = (CustomContentTypeSupport) extension;
     } else if(extension instanceof CustomETagSupport) {
       this.customETagSupport = (CustomETagSupport) extension;
+    } else if(extension instanceof UriInfoCache) {
+      this.uriInfoCache = (UriInfoCache) extension;
+    } else if(extension instanceof BatchExecutionSupport) {
+      this.batchExecutionSupport = (BatchExecutionSupport) extension;
+    } else if(extension instanceof RequestMetrics) {
+      this.requestMetrics = (RequestMetrics) extension;
     } else {
       throw new ODataRuntimeException("Got not supported exception with class name " +
           extension.getClass().getSimpleName());
@@ -275,6 +342,43 @@ public class ODataHandlerImpl implements ODataHandler {
     return customETagSupport;
   }
 
+  public UriInfoCache getUriInfoCache() {
+    return uriInfoCache;
+  }
+
+  public BatchExecutionSupport getBatchExecutionSupport() {
+    return batchExecutionSupport;
+  }
+
+  public RequestMetrics getRequestMetrics() {
+    return requestMetrics;
+  }
+
+  /**
+   * Creates a handler with the same processors and extensions as this handler.
+   * It has its own request state and can therefore process requests concurrently to this handler.
+   * Runtime measurements of the new handler are not part of the debug output.
+   */
+  public ODataHandlerImpl createConcurrentHandler() {
+    final ODataHandlerImpl handler = new ODataHandlerImpl(odata, serviceMetadata, new ServerCoreDebugger(odata));
+    handler.processors.clear();
+    handler.processors.addAll(processors);
+    handler.customContentTypeSupport = customContentTypeSupport;
+    handler.customETagSupport = customETagSupport;
+    handler.uriInfoCache = uriInfoCache;
+    handler.batchExecutionSupport = batchExecutionSupport;
+    handler.requestMetrics = requestMetrics;
+    return handler;
+  }
+
+  /**
+   * Returns the handler that currently dispatches a request on this thread.
+   * @return the handler or <code>null</code> outside of the dispatching
+   */
+  static ODataHandlerImpl getDispatchingHandler() {
+    return DISPATCHING_HANDLER.get();
+  }
+
   public Exception getLastThrownException() {
     return lastThrownException;
   }
@@ -20,6 +20,7 @@ package org.apache.olingo.server.core;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
@@ -53,6 +54,7 @@ import org.apache.olingo.server.api.etag.CustomETagSupport;
 import org.apache.olingo.server.api.processor.Processor;
 import org.apache.olingo.server.api.serializer.CustomContentTypeSupport;
 import org.apache.olingo.server.core.debug.ServerCoreDebugger;
+import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
 
 public class ODataHttpHandlerImpl implements ODataHttpHandler {
 
@@ -168,14 +170,19 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
   static void writeContent(final ODataResponse odataResponse, final HttpServletResponse servletResponse) {
     try {
       ODataContent res = odataResponse.getODataContent();
-      res.write(Channels.newChannel(servletResponse.getOutputStream()));
+      res.write(servletResponse.getOutputStream());
     } catch (IOException e) {
       throw new ODataRuntimeException("Error on reading request content", e);
     }
   }
 
   static void copyContent(final InputStream inputStream, final HttpServletResponse servletResponse) {
-    copyContent(Channels.newChannel(inputStream), servletResponse);
+    // Content buffered by the serializers is written directly from its buffers, without an additional copy.
+    try (OutputStream output = servletResponse.getOutputStream()) {
+      CircleStreamBuffer.copy(inputStream, output);
+    } catch (IOException e) {
+      throw new ODataRuntimeException("Error on reading request content", e);
+    }
   }
 
   static void copyContent(final ReadableByteChannel input, final HttpServletResponse servletResponse) {
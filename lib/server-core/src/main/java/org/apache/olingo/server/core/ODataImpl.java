@@ -20,10 +20,13 @@ package org.apache.olingo.server.core;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.apache.olingo.commons.api.constants.Constantsv00;
 import org.apache.olingo.commons.api.constants.Constantsv01;
 import org.apache.olingo.commons.api.IConstants;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
 import org.apache.olingo.commons.api.edm.provider.CsdlEdmProvider;
@@ -31,29 +34,50 @@ import org.apache.olingo.commons.api.edmx.EdmxReference;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
 import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.ODataHandler;
 import org.apache.olingo.server.api.ODataHttpHandler;
 import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.async.AsyncRequestExecutor;
+import org.apache.olingo.server.api.async.AsyncRequestExecutorOptions;
+import org.apache.olingo.server.api.batch.BatchExecutionSupport;
 import org.apache.olingo.server.api.debug.DebugResponseHelper;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.deserializer.FixedFormatDeserializer;
 import org.apache.olingo.server.api.deserializer.ODataDeserializer;
 import org.apache.olingo.server.api.etag.ETagHelper;
 import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
+import org.apache.olingo.server.api.metrics.LatencyStatistics;
+import org.apache.olingo.server.api.paging.KeysetPaging;
+import org.apache.olingo.server.api.paging.SkipTokenCodec;
 import org.apache.olingo.server.api.prefer.Preferences;
+import org.apache.olingo.server.api.query.QueryPlan;
+import org.apache.olingo.server.api.query.QueryTranslator;
+import org.apache.olingo.server.api.query.SqlQuery;
 import org.apache.olingo.server.api.serializer.EdmAssistedSerializer;
 import org.apache.olingo.server.api.serializer.EdmDeltaSerializer;
 import org.apache.olingo.server.api.serializer.FixedFormatSerializer;
 import org.apache.olingo.server.api.serializer.ODataSerializer;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.uri.UriHelper;
+import org.apache.olingo.server.api.uri.UriInfoCache;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionCompiler;
+import org.apache.olingo.server.core.async.AsyncRequestExecutorImpl;
+import org.apache.olingo.server.core.batchhandler.BatchExecutionSupportImpl;
 import org.apache.olingo.server.core.debug.DebugResponseHelperImpl;
 import org.apache.olingo.server.core.debug.ServerCoreDebugger;
 import org.apache.olingo.server.core.deserializer.FixedFormatDeserializerImpl;
 import org.apache.olingo.server.core.deserializer.json.ODataJsonDeserializer;
 import org.apache.olingo.server.core.deserializer.xml.ODataXmlDeserializer;
 import org.apache.olingo.server.core.etag.ETagHelperImpl;
+import org.apache.olingo.server.core.metrics.LatencyStatisticsImpl;
+import org.apache.olingo.server.core.paging.DefaultSkipTokenCodec;
+import org.apache.olingo.server.core.paging.KeysetPagingImpl;
 import org.apache.olingo.server.core.prefer.PreferencesImpl;
+import org.apache.olingo.server.core.query.QueryPlanImpl;
+import org.apache.olingo.server.core.query.SqlQueryTranslatorImpl;
 import org.apache.olingo.server.core.serializer.FixedFormatSerializerImpl;
 import org.apache.olingo.server.core.serializer.json.EdmAssistedJsonSerializer;
 import org.apache.olingo.server.core.serializer.json.ODataJsonSerializer;
@@ -61,6 +85,8 @@ import org.apache.olingo.server.core.serializer.json.JsonDeltaSerializer;
 import org.apache.olingo.server.core.serializer.json.JsonDeltaSerializerWithNavigations;
 import org.apache.olingo.server.core.serializer.xml.ODataXmlSerializer;
 import org.apache.olingo.server.core.uri.UriHelperImpl;
+import org.apache.olingo.server.core.uri.UriInfoCacheImpl;
+import org.apache.olingo.server.core.uri.queryoption.expression.compiler.ExpressionCompilerImpl;
 
 public class ODataImpl extends OData {
 
@@ -87,7 +113,7 @@ public class ODataImpl extends OData {
           SerializerException.MessageKeys.UNSUPPORTED_FORMAT, 
           ((contentType != null) ? contentType.toContentTypeString() : null));
     } else {
-      return serializer;
+      return MeteredSerializer.wrap(serializer);
     }
   }
   
@@ -118,7 +144,7 @@ public class ODataImpl extends OData {
           SerializerException.MessageKeys.UNSUPPORTED_FORMAT, 
           ((contentType != null) ? contentType.toContentTypeString() : null));
     } else {
-      return serializer;
+      return MeteredSerializer.wrap(serializer);
     }
   }
 
@@ -250,6 +276,53 @@ public class ODataImpl extends OData {
     return EdmPrimitiveTypeFactory.getInstance(kind);
   }
 
+  @Override
+  public ExpressionCompiler createExpressionCompiler(final UriInfoResource uriInfo) {
+    return new ExpressionCompilerImpl(uriInfo);
+  }
+
+  @Override
+  public UriInfoCache createUriInfoCache(final int maximumSize) {
+    return new UriInfoCacheImpl(maximumSize);
+  }
+
+  @Override
+  public BatchExecutionSupport createBatchExecutionSupport(final Executor executor) {
+    return new BatchExecutionSupportImpl(executor);
+  }
+
+  @Override
+  public LatencyStatistics createLatencyStatistics() {
+    return new LatencyStatisticsImpl();
+  }
+
+  @Override
+  public QueryPlan createQueryPlan(final UriInfoResource uriInfo, final EdmEntityType entityType) {
+    return new QueryPlanImpl(uriInfo, entityType);
+  }
+
+  @Override
+  public QueryTranslator<SqlQuery> createSqlQueryTranslator(final String tableName,
+      final Map<String, String> columnNames) {
+    return new SqlQueryTranslatorImpl(tableName, columnNames);
+  }
+
+  @Override
+  public SkipTokenCodec createSkipTokenCodec() {
+    return new DefaultSkipTokenCodec();
+  }
+
+  @Override
+  public KeysetPaging createKeysetPaging(final EdmEntityType entityType, final OrderByOption orderBy,
+      final SkipTokenCodec codec) throws ODataApplicationException {
+    return new KeysetPagingImpl(entityType, orderBy, codec);
+  }
+
+  @Override
+  public AsyncRequestExecutor createAsyncRequestExecutor(final AsyncRequestExecutorOptions options) {
+    return new AsyncRequestExecutorImpl(this, options);
+  }
+
   @Override
   public ETagHelper createETagHelper() {
     return new ETagHelperImpl();
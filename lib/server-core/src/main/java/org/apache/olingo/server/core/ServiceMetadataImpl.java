@@ -29,6 +29,8 @@ import org.apache.olingo.commons.api.edmx.EdmxReference;
 import org.apache.olingo.commons.core.edm.EdmProviderImpl;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
+import org.apache.olingo.server.api.serializer.SerializedDocumentCache;
+import org.apache.olingo.server.core.serializer.SerializedDocumentCacheImpl;
 
 /**
  */
@@ -37,6 +39,7 @@ public class ServiceMetadataImpl implements ServiceMetadata {
   private final Edm edm;
   private final List<EdmxReference> references;
   private final ServiceMetadataETagSupport serviceMetadataETagSupport;
+  private final SerializedDocumentCache serializedDocumentCache;
 
   public ServiceMetadataImpl(final CsdlEdmProvider edmProvider, final List<EdmxReference> references,
       final ServiceMetadataETagSupport serviceMetadataETagSupport) {
@@ -44,6 +47,8 @@ public class ServiceMetadataImpl implements ServiceMetadata {
     this.references = new ArrayList<>();
     this.references.addAll(references);
     this.serviceMetadataETagSupport = serviceMetadataETagSupport;
+    // Without ETags there is no way to tell that a document has changed, so nothing is cached.
+    serializedDocumentCache = serviceMetadataETagSupport == null ? null : new SerializedDocumentCacheImpl();
   }
 
   @Override
@@ -65,4 +70,9 @@ public class ServiceMetadataImpl implements ServiceMetadata {
   public ServiceMetadataETagSupport getServiceMetadataETagSupport() {
     return serviceMetadataETagSupport;
   }
+
+  @Override
+  public SerializedDocumentCache getSerializedDocumentCache() {
+    return serializedDocumentCache;
+  }
 }
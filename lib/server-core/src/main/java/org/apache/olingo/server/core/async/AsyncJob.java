@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.async;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.ODataLibraryException;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.ODataServerError;
+import org.apache.olingo.server.api.async.AsyncState;
+import org.apache.olingo.server.api.async.AsyncStatusMonitor;
+import org.apache.olingo.server.api.async.AsyncTask;
+import org.apache.olingo.server.api.processor.DefaultProcessor;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.core.ODataExceptionHelper;
+import org.apache.olingo.server.core.serializer.AsyncResponseSerializer;
+
+/**
+ * An asynchronously processed request together with its status monitor.
+ * <p>The state moves from QUEUED over RUNNING to COMPLETED; it can change to CANCELLED at any time.
+ * The response of a completed request is kept as <code>application/http</code> message.</p>
+ */
+final class AsyncJob implements AsyncStatusMonitor, Runnable {
+
+  private final AsyncRequestExecutorImpl executor;
+  private final String location;
+  private final AsyncTask task;
+  private final AtomicReference<AsyncState> state = new AtomicReference<AsyncState>(AsyncState.QUEUED);
+  private final AtomicBoolean taken = new AtomicBoolean();
+  private volatile Future<?> future;
+  private volatile SpillingOutputStream result;
+  private volatile long expiration = Long.MAX_VALUE;
+
+  AsyncJob(final AsyncRequestExecutorImpl executor, final String location, final AsyncTask task) {
+    this.executor = executor;
+    this.location = location;
+    this.task = task;
+  }
+
+  @Override
+  public String getLocation() {
+    return location;
+  }
+
+  @Override
+  public AsyncState getState() {
+    return state.get();
+  }
+
+  @Override
+  public boolean cancel() {
+    while (true) {
+      final AsyncState current = state.get();
+      if (current == AsyncState.CANCELLED) {
+        return false;
+      }
+      if (state.compareAndSet(current, AsyncState.CANCELLED)) {
+        if (future != null) {
+          future.cancel(true);
+        }
+        if (current == AsyncState.QUEUED) {
+          // The job will not run, so it is not pending anymore.
+          executor.finished();
+        } else if (current == AsyncState.COMPLETED && taken.compareAndSet(false, true)) {
+          // Claims the result first so that it cannot be handed out while it is deleted.
+          result.delete();
+        }
+        executor.remove(this);
+        return true;
+      }
+    }
+  }
+
+  @Override
+  public void run() {
+    if (!state.compareAndSet(AsyncState.QUEUED, AsyncState.RUNNING)) {
+      return;
+    }
+    SpillingOutputStream output = null;
+    try {
+      output = write(execute());
+      if (output == null) {
+        output = write(createErrorResponse(ODataExceptionHelper.createServerErrorObject(
+            new ODataRuntimeException("The response of the asynchronous request cannot be written."))));
+      }
+    } finally {
+      // Clears the interrupt of a cancellation so that a pooled thread can be reused.
+      Thread.interrupted();
+      if (output != null) {
+        result = output;
+        expiration = System.currentTimeMillis() + executor.getTimeToLive();
+      }
+      if (output == null || !state.compareAndSet(AsyncState.RUNNING, AsyncState.COMPLETED)) {
+        if (output != null) {
+          output.delete();
+        }
+        if (state.getAndSet(AsyncState.CANCELLED) != AsyncState.CANCELLED) {
+          executor.remove(this);
+        }
+      }
+      executor.finished();
+    }
+  }
+
+  private ODataResponse execute() {
+    try {
+      return task.process();
+    } catch (final ODataApplicationException e) {
+      return createErrorResponse(ODataExceptionHelper.createServerErrorObject(e));
+    } catch (final ODataLibraryException e) {
+      return createErrorResponse(ODataExceptionHelper.createServerErrorObject(e, Locale.ROOT));
+    } catch (final RuntimeException e) {
+      return createErrorResponse(ODataExceptionHelper.createServerErrorObject(e));
+    }
+  }
+
+  private ODataResponse createErrorResponse(final ODataServerError serverError) {
+    final OData odata = executor.getOData();
+    DefaultProcessor processor = new DefaultProcessor();
+    processor.init(odata, null);
+    ODataResponse response = new ODataResponse();
+    processor.processError(null, response, serverError, ContentType.JSON);
+    return response;
+  }
+
+  /** Writes the response as HTTP message; returns <code>null</code> if that fails. */
+  private SpillingOutputStream write(final ODataResponse response) {
+    SpillingOutputStream output = new SpillingOutputStream(executor.getSpillThreshold(), executor.getSpillDirectory());
+    try {
+      new AsyncResponseSerializer().serialize(response == null ? new ODataResponse() : response, output);
+      output.close();
+      return output;
+    } catch (final SerializerException e) {
+      output.delete();
+      return null;
+    } catch (final IOException e) {
+      output.delete();
+      return null;
+    } catch (final RuntimeException e) {
+      output.delete();
+      return null;
+    }
+  }
+
+  void setFuture(final Future<?> future) {
+    this.future = future;
+  }
+
+  boolean isExpired(final long now) {
+    return now >= expiration;
+  }
+
+  /**
+   * Takes the response of a completed request; it can be taken only once.
+   * @return the HTTP message or <code>null</code> if the request has not been completed or the response is taken
+   */
+  InputStream takeResult() throws IOException {
+    if (state.get() == AsyncState.COMPLETED && taken.compareAndSet(false, true)) {
+      // A concurrent cancellation that could not claim the result any more leaves its deletion to this method.
+      if (state.get() != AsyncState.COMPLETED) {
+        result.delete();
+        return null;
+      }
+      try {
+        return result.openStream();
+      } catch (final IOException e) {
+        result.delete();
+        throw e;
+      }
+    }
+    return null;
+  }
+}
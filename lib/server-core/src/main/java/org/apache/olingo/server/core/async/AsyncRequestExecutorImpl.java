@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.async;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.async.AsyncRequestExecutor;
+import org.apache.olingo.server.api.async.AsyncRequestExecutorOptions;
+import org.apache.olingo.server.api.async.AsyncState;
+import org.apache.olingo.server.api.async.AsyncStatusMonitor;
+import org.apache.olingo.server.api.async.AsyncTask;
+
+/**
+ * Executes requests on an executor service and keeps their status monitors in memory.
+ * <p>Status monitors are identified by random numbers, so their locations cannot be guessed.
+ * Completed responses whose time to live has expired are evicted whenever the executor is used.</p>
+ */
+public class AsyncRequestExecutorImpl implements AsyncRequestExecutor {
+
+  private static final String CONTENT_TRANSFER_ENCODING = "Content-Transfer-Encoding";
+  private static final long EVICTION_INTERVAL = 1000;
+
+  private final OData odata;
+  private final ExecutorService executorService;
+  private final boolean ownExecutorService;
+  private final int maximumPendingRequests;
+  private final long timeToLive;
+  private final int spillThreshold;
+  private final File spillDirectory;
+  private final ConcurrentMap<String, AsyncJob> jobs = new ConcurrentHashMap<String, AsyncJob>();
+  private final AtomicInteger pending = new AtomicInteger();
+  private final AtomicLong nextEviction = new AtomicLong();
+  private final Random random = new SecureRandom();
+
+  public AsyncRequestExecutorImpl(final OData odata, final AsyncRequestExecutorOptions options) {
+    this.odata = odata;
+    ownExecutorService = options.getExecutorService() == null;
+    executorService = ownExecutorService ?
+        Executors.newFixedThreadPool(options.getThreads()) :
+        options.getExecutorService();
+    maximumPendingRequests = options.getMaximumPendingRequests();
+    timeToLive = options.getTimeToLive();
+    spillThreshold = options.getSpillThreshold();
+    spillDirectory = options.getSpillDirectory();
+  }
+
+  @Override
+  public AsyncStatusMonitor submit(final String statusMonitorBaseUri, final AsyncTask task)
+      throws ODataApplicationException {
+    evictExpired();
+    if (pending.incrementAndGet() > maximumPendingRequests) {
+      pending.decrementAndGet();
+      throw serviceUnavailable(null);
+    }
+    final String base = statusMonitorBaseUri.endsWith("/") ? statusMonitorBaseUri : statusMonitorBaseUri + '/';
+    AsyncJob job;
+    do {
+      job = new AsyncJob(this, base + (random.nextLong() & Long.MAX_VALUE), task);
+    } while (jobs.putIfAbsent(job.getLocation(), job) != null);
+
+    try {
+      job.setFuture(executorService.submit(job));
+    } catch (final RejectedExecutionException e) {
+      job.cancel();
+      throw serviceUnavailable(e);
+    }
+    return job;
+  }
+
+  @Override
+  public AsyncStatusMonitor getStatusMonitor(final String location) {
+    evictExpired();
+    return jobs.get(location);
+  }
+
+  @Override
+  public Collection<AsyncStatusMonitor> getStatusMonitors() {
+    evictExpired();
+    return Collections.<AsyncStatusMonitor> unmodifiableCollection(new ArrayList<AsyncJob>(jobs.values()));
+  }
+
+  @Override
+  public void handleStatusMonitorRequest(final ODataRequest request, final ODataResponse response) {
+    evictExpired();
+    final String requestUri = request.getRawRequestUri();
+    final int queryStart = requestUri.indexOf('?');
+    final AsyncJob job = jobs.get(queryStart < 0 ? requestUri : requestUri.substring(0, queryStart));
+    if (job == null) {
+      response.setStatusCode(HttpStatusCode.NOT_FOUND.getStatusCode());
+    } else if (request.getMethod() == HttpMethod.DELETE) {
+      job.cancel();
+      response.setStatusCode(HttpStatusCode.NO_CONTENT.getStatusCode());
+    } else if (request.getMethod() == HttpMethod.GET) {
+      if (job.getState() == AsyncState.QUEUED || job.getState() == AsyncState.RUNNING) {
+        response.setStatusCode(HttpStatusCode.ACCEPTED.getStatusCode());
+        response.setHeader(HttpHeader.LOCATION, job.getLocation());
+      } else {
+        respondWithResult(job, response);
+      }
+    } else {
+      response.setStatusCode(HttpStatusCode.METHOD_NOT_ALLOWED.getStatusCode());
+      response.setHeader(HttpHeader.ALLOW, HttpMethod.GET + ", " + HttpMethod.DELETE);
+    }
+  }
+
+  private void respondWithResult(final AsyncJob job, final ODataResponse response) {
+    InputStream result;
+    try {
+      result = job.takeResult();
+    } catch (final IOException e) {
+      job.cancel();
+      response.setStatusCode(HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+      return;
+    }
+    if (result == null) {
+      // The response has been fetched or discarded concurrently.
+      response.setStatusCode(HttpStatusCode.NOT_FOUND.getStatusCode());
+    } else {
+      remove(job);
+      response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+      response.setHeader(HttpHeader.CONTENT_TYPE, ContentType.APPLICATION_HTTP.toContentTypeString());
+      response.setHeader(CONTENT_TRANSFER_ENCODING, "binary");
+      response.setContent(result);
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    if (ownExecutorService) {
+      executorService.shutdownNow();
+    }
+    for (final AsyncJob job : new ArrayList<AsyncJob>(jobs.values())) {
+      job.cancel();
+    }
+  }
+
+  /** Cancels completed requests whose time to live has expired, at most once per eviction interval. */
+  private void evictExpired() {
+    final long now = System.currentTimeMillis();
+    final long next = nextEviction.get();
+    if (now < next || !nextEviction.compareAndSet(next, now + Math.min(EVICTION_INTERVAL, timeToLive))) {
+      return;
+    }
+    for (final AsyncJob job : jobs.values()) {
+      if (job.isExpired(now)) {
+        job.cancel();
+      }
+    }
+  }
+
+  private ODataApplicationException serviceUnavailable(final Exception cause) {
+    return new ODataApplicationException("Too many asynchronous requests are pending.",
+        HttpStatusCode.SERVICE_UNAVAILABLE.getStatusCode(), Locale.ROOT, cause);
+  }
+
+  void finished() {
+    pending.decrementAndGet();
+  }
+
+  void remove(final AsyncJob job) {
+    jobs.remove(job.getLocation(), job);
+  }
+
+  OData getOData() {
+    return odata;
+  }
+
+  long getTimeToLive() {
+    return timeToLive;
+  }
+
+  int getSpillThreshold() {
+    return spillThreshold;
+  }
+
+  File getSpillDirectory() {
+    return spillDirectory;
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.async;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Output stream that keeps its content in memory up to a threshold and moves it to a temporary file beyond.
+ */
+final class SpillingOutputStream extends OutputStream {
+
+  private final int threshold;
+  private final File directory;
+  private Buffer memory = new Buffer();
+  private File file;
+  private OutputStream fileOutput;
+
+  SpillingOutputStream(final int threshold, final File directory) {
+    this.threshold = threshold;
+    this.directory = directory;
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    write(new byte[] { (byte) b }, 0, 1);
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    if (fileOutput == null && memory.size() + len > threshold) {
+      spill();
+    }
+    if (fileOutput == null) {
+      memory.write(b, off, len);
+    } else {
+      fileOutput.write(b, off, len);
+    }
+  }
+
+  private void spill() throws IOException {
+    file = File.createTempFile("olingo-async-", ".http", directory);
+    fileOutput = new BufferedOutputStream(new FileOutputStream(file));
+    memory.writeTo(fileOutput);
+    memory = null;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (fileOutput != null) {
+      fileOutput.flush();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (fileOutput != null) {
+      fileOutput.close();
+    }
+  }
+
+  /** Returns the temporary file; <code>null</code> if the content is kept in memory. */
+  File getFile() {
+    return file;
+  }
+
+  /**
+   * Opens the written content; it is read only once, so a temporary file is deleted
+   * when the returned stream is closed.
+   */
+  InputStream openStream() throws IOException {
+    if (file == null) {
+      return memory.toInputStream();
+    }
+    return new FilterInputStream(new FileInputStream(file)) {
+      @Override
+      public void close() throws IOException {
+        try {
+          super.close();
+        } finally {
+          delete();
+        }
+      }
+    };
+  }
+
+  /** Discards the content. */
+  void delete() {
+    memory = null;
+    if (fileOutput != null) {
+      try {
+        fileOutput.close();
+      } catch (final IOException e) {
+        // The file is deleted anyway.
+      }
+    }
+    if (file != null && file.exists() && !file.delete()) {
+      file.deleteOnExit();
+    }
+  }
+
+  /** In-memory buffer that can be read without copying its content. */
+  private static class Buffer extends ByteArrayOutputStream {
+    InputStream toInputStream() {
+      return new ByteArrayInputStream(buf, 0, count);
+    }
+  }
+}
@@ -18,6 +18,8 @@
  */
 package org.apache.olingo.server.core.batchhandler;
 
+import java.util.List;
+
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.ODataHandler;
 import org.apache.olingo.server.api.ODataLibraryException;
@@ -26,6 +28,7 @@ import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.batch.BatchFacade;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestReader;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 import org.apache.olingo.server.api.processor.BatchProcessor;
 import org.apache.olingo.server.core.deserializer.batch.BatchParserCommon;
@@ -56,6 +59,12 @@ public class BatchFacadeImpl implements BatchFacade {
     return partHandler.handleBatchRequest(request);
   }
 
+  @Override
+  public List<ODataResponsePart> handleBatchRequests(final BatchRequestReader reader, final boolean continueOnError)
+      throws ODataApplicationException, ODataLibraryException {
+    return partHandler.handleBatchRequests(reader, continueOnError);
+  }
+
   @Override
   public String extractBoundaryFromContentType(final String contentType) throws BatchDeserializerException {
     return BatchParserCommon.getBoundary(contentType, 0);
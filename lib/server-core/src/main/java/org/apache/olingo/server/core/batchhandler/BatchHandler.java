@@ -30,7 +30,10 @@ import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.batch.BatchFacade;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException.MessageKeys;
+import org.apache.olingo.server.api.metrics.ProcessingStage;
+import org.apache.olingo.server.api.metrics.RequestMetrics;
 import org.apache.olingo.server.api.processor.BatchProcessor;
+import org.apache.olingo.server.api.uri.UriInfoKind;
 import org.apache.olingo.server.core.ODataHandlerException;
 import org.apache.olingo.server.core.ODataHandlerImpl;
 import org.apache.olingo.server.core.deserializer.batch.BatchParserCommon;
@@ -53,7 +56,16 @@ public class BatchHandler {
     validatePreferHeader(request);
 
     final BatchFacade operation = new BatchFacadeImpl(oDataHandler, batchProcessor, isStrict);
-    batchProcessor.processBatch(operation, request, response);
+    final long startTime = System.nanoTime();
+    try {
+      batchProcessor.processBatch(operation, request, response);
+    } finally {
+      // The parts have replaced the URI info of the handler, so the kind is given explicitly.
+      final RequestMetrics metrics = oDataHandler.getRequestMetrics();
+      if (metrics != null) {
+        metrics.record(ProcessingStage.BATCH, UriInfoKind.batch, System.nanoTime() - startTime);
+      }
+    }
   }
   
   /** Checks if Prefer header is set with return=minimal or 
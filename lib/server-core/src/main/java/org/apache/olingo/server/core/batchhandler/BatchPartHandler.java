@@ -18,17 +18,29 @@
  */
 package org.apache.olingo.server.core.batchhandler;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
 import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.ODataHandler;
 import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.batch.BatchExecutionSupport;
 import org.apache.olingo.server.api.batch.BatchFacade;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestReader;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
+import org.apache.olingo.server.api.metrics.ProcessingStage;
 import org.apache.olingo.server.api.processor.BatchProcessor;
+import org.apache.olingo.server.core.ODataHandlerImpl;
 import org.apache.olingo.server.core.batchhandler.referenceRewriting.BatchReferenceRewriter;
 
 public class BatchPartHandler {
@@ -63,6 +75,7 @@ public class BatchPartHandler {
   public ODataResponse handle(final ODataRequest request, final boolean isChangeSet)
       throws BatchDeserializerException {
     ODataResponse response;
+    final long startTime = System.nanoTime();
 
     if (isChangeSet) {
       rewriter.replaceReference(request);
@@ -74,13 +87,120 @@ public class BatchPartHandler {
       response = oDataHandler.process(request);
     }
 
+    setContentId(request, response);
+    recordRuntime(oDataHandler, startTime);
+
+    return response;
+  }
+
+  /** Reports the runtime of a part processed by the given handler with the kind of the part's URI. */
+  private void recordRuntime(final ODataHandler handler, final long startTime) {
+    if (handler instanceof ODataHandlerImpl) {
+      ((ODataHandlerImpl) handler).recordRuntime(ProcessingStage.BATCH_PART, startTime);
+    }
+  }
+
+  private void setContentId(final ODataRequest request, final ODataResponse response) {
     // Add content id to response
     final String contentId = request.getHeader(HttpHeader.CONTENT_ID);
     if (contentId != null) {
       response.setHeader(HttpHeader.CONTENT_ID, contentId);
     }
+  }
 
-    return response;
+  /**
+   * Handles all parts read by the given reader. Query operations that only read data and do not reference a
+   * Content-ID are executed in parallel if a {@link BatchExecutionSupport} is registered; all other parts are
+   * executed on the calling thread after the preceding parts have finished.
+   */
+  public List<ODataResponsePart> handleBatchRequests(final BatchRequestReader reader, final boolean continueOnError)
+      throws ODataApplicationException, ODataLibraryException {
+    final Executor executor = getExecutor();
+    final List<CompletableFuture<ODataResponsePart>> results = new ArrayList<>();
+
+    BatchRequestPart part;
+    while ((part = reader.next()) != null) {
+      if (executor != null && isIndependentQuery(part)) {
+        results.add(submit(createQueryTask(part.getRequests().get(0)), executor));
+      } else {
+        if (!awaitAll(results, continueOnError)) {
+          break;
+        }
+        final ODataResponsePart responsePart = handleBatchRequest(part);
+        results.add(CompletableFuture.completedFuture(responsePart));
+        if (!continueOnError && isFailed(responsePart)) {
+          break;
+        }
+      }
+    }
+
+    final List<ODataResponsePart> responseParts = new ArrayList<>(results.size());
+    for (final CompletableFuture<ODataResponsePart> result : results) {
+      final ODataResponsePart responsePart = result.join();
+      responseParts.add(responsePart);
+      if (!continueOnError && isFailed(responsePart)) {
+        break;
+      }
+    }
+    return responseParts;
+  }
+
+  private Executor getExecutor() {
+    if (oDataHandler instanceof ODataHandlerImpl) {
+      final BatchExecutionSupport support = ((ODataHandlerImpl) oDataHandler).getBatchExecutionSupport();
+      return support == null ? null : support.getExecutor();
+    }
+    return null;
+  }
+
+  private boolean isIndependentQuery(final BatchRequestPart part) {
+    final ODataRequest request = part.getRequests().get(0);
+    return !part.isChangeSet()
+        && request.getMethod() == HttpMethod.GET
+        && rewriter.getReferenceInURI(request) == null;
+  }
+
+  private Supplier<ODataResponsePart> createQueryTask(final ODataRequest request) {
+    // The handler keeps request state, so each concurrently executed request gets its own handler.
+    final ODataHandler handler = ((ODataHandlerImpl) oDataHandler).createConcurrentHandler();
+    final long startTime = System.nanoTime();
+    return new Supplier<ODataResponsePart>() {
+      @Override
+      public ODataResponsePart get() {
+        final ODataResponse response = handler.process(request);
+        setContentId(request, response);
+        recordRuntime(handler, startTime);
+        return new ODataResponsePart(response, false);
+      }
+    };
+  }
+
+  /** Runs the task on the executor or, if the executor does not accept it, on the calling thread. */
+  private CompletableFuture<ODataResponsePart> submit(final Supplier<ODataResponsePart> task,
+      final Executor executor) {
+    try {
+      return CompletableFuture.supplyAsync(task, executor);
+    } catch (final RejectedExecutionException e) {
+      return CompletableFuture.completedFuture(task.get());
+    }
+  }
+
+  /**
+   * Waits for all given results.
+   * @return <code>false</code> if execution must stop because a part has failed
+   */
+  private boolean awaitAll(final List<CompletableFuture<ODataResponsePart>> results, final boolean continueOnError) {
+    for (final CompletableFuture<ODataResponsePart> result : results) {
+      if (!continueOnError && isFailed(result.join())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isFailed(final ODataResponsePart responsePart) {
+    final int statusCode = responsePart.getResponses().get(0).getStatusCode();
+    return statusCode >= 400 && statusCode <= 600;
   }
 
   private ODataResponsePart handleChangeSet(final BatchRequestPart request) throws ODataApplicationException,
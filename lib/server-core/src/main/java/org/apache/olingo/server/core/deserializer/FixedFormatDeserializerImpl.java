@@ -39,7 +39,9 @@ import org.apache.olingo.server.api.deserializer.FixedFormatDeserializer;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestReader;
 import org.apache.olingo.server.core.deserializer.batch.BatchParser;
+import org.apache.olingo.server.core.deserializer.batch.BatchRequestReaderImpl;
 import org.apache.olingo.server.core.deserializer.json.ODataJsonDeserializer;
 
 public class FixedFormatDeserializerImpl implements FixedFormatDeserializer {
@@ -133,4 +135,10 @@ public class FixedFormatDeserializerImpl implements FixedFormatDeserializer {
 
     return parser.parseBatchRequest(content, boundary, options);
   }
+
+  @Override
+  public BatchRequestReader parseBatchRequestStreamed(final InputStream content, final String boundary,
+      final BatchOptions options) {
+    return new BatchRequestReaderImpl(content, boundary, options);
+  }
 }
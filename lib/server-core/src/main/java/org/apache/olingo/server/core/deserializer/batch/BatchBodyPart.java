@@ -40,6 +40,15 @@ public class BatchBodyPart implements BatchPart {
     remainingMessage.addAll(message);
   }
 
+  BatchBodyPart(final Header headers, final boolean isChangeSet, final List<BatchQueryOperation> requests,
+      final String boundary, final boolean isStrict) {
+    this.headers = headers;
+    this.isChangeSet = isChangeSet;
+    this.requests = requests;
+    this.boundary = boundary;
+    this.isStrict = isStrict;
+  }
+
   public BatchBodyPart parse() throws BatchDeserializerException {
     headers = BatchParserCommon.consumeHeaders(remainingMessage);
     BatchParserCommon.consumeBlankLine(remainingMessage, isStrict);
@@ -49,7 +58,7 @@ public class BatchBodyPart implements BatchPart {
     return this;
   }
 
-  private boolean isChangeSet(final Header headers) throws BatchDeserializerException {
+  static boolean isChangeSet(final Header headers) throws BatchDeserializerException {
     final List<String> contentTypes = headers.getHeaders(HttpHeader.CONTENT_TYPE);
 
     if (contentTypes.isEmpty()) {
@@ -85,22 +94,21 @@ public class BatchBodyPart implements BatchPart {
   }
 
   private List<List<Line>> splitChangeSet(final List<Line> remainingMessage) throws BatchDeserializerException {
-
-    final HeaderField contentTypeField = headers.getHeaderField(HttpHeader.CONTENT_TYPE);
-    final String changeSetBoundary = BatchParserCommon.getBoundary(contentTypeField.getValue(),
-        contentTypeField.getLineNumber());
-    validateChangeSetBoundary(changeSetBoundary, headers);
-
+    final String changeSetBoundary = getChangeSetBoundary(headers, boundary);
     return BatchParserCommon.splitMessageByBoundary(remainingMessage, changeSetBoundary);
   }
 
-  private void validateChangeSetBoundary(final String changeSetBoundary, final Header header)
+  static String getChangeSetBoundary(final Header headers, final String boundary)
       throws BatchDeserializerException {
+    final HeaderField contentTypeField = headers.getHeaderField(HttpHeader.CONTENT_TYPE);
+    final String changeSetBoundary = BatchParserCommon.getBoundary(contentTypeField.getValue(),
+        contentTypeField.getLineNumber());
     if (changeSetBoundary.equals(boundary)) {
       throw new BatchDeserializerException("Change set boundary is equals to batch request boundary",
           BatchDeserializerException.MessageKeys.INVALID_BOUNDARY,
-          Integer.toString(header.getHeaderField(HttpHeader.CONTENT_TYPE).getLineNumber()));
+          Integer.toString(contentTypeField.getLineNumber()));
     }
+    return changeSetBoundary;
   }
 
   private List<BatchQueryOperation> consumeQueryOperation(final List<Line> remainingMessage)
@@ -111,7 +119,7 @@ public class BatchBodyPart implements BatchPart {
     return requestList;
   }
 
-  private boolean isContentTypeMultiPartMixed(final String contentType) {
+  private static boolean isContentTypeMultiPartMixed(final String contentType) {
     try {
       BatchParserCommon.parseContentType(contentType, ContentType.MULTIPART_MIXED, 0);
       return true;
@@ -18,6 +18,7 @@
  */
 package org.apache.olingo.server.core.deserializer.batch;
 
+import java.io.InputStream;
 import java.util.List;
 
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
@@ -48,6 +49,16 @@ public class BatchChangeSetPart extends BatchQueryOperation {
     return request.getBody();
   }
 
+  @Override
+  public InputStream getRawBody() {
+    return request.getRawBody();
+  }
+
+  @Override
+  public void setRawBody(final InputStream rawBody) {
+    request.setRawBody(rawBody);
+  }
+
   @Override
   public Line getHttpStatusLine() {
     return request.getHttpStatusLine();
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.batch;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Buffered input stream over the raw bytes of a batch request that can also be read line by line.
+ * Lines are terminated by a line feed and keep their line terminator.
+ * The number of the line read next is tracked for error messages.
+ */
+class BatchLineInputStream extends InputStream {
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+  private static final int BUFFER_SIZE = 8192;
+
+  private final InputStream in;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int offset = 0;
+  private int limit = 0;
+  private int lineNumber;
+
+  BatchLineInputStream(final InputStream in, final int lineNumber) {
+    this.in = in;
+    this.lineNumber = lineNumber;
+  }
+
+  /**
+   * Returns the number of the line that is read next.
+   */
+  int getLineNumber() {
+    return lineNumber;
+  }
+
+  /**
+   * Reads the next line including its line terminator.
+   * The bytes are mapped one to one to characters (ISO-8859-1), so the original bytes can be restored.
+   * @return the line or <code>null</code> at the end of the stream
+   */
+  Line readLine() throws IOException {
+    final int number = lineNumber;
+    final StringBuilder builder = new StringBuilder();
+    while (offset < limit || fillBuffer()) {
+      final byte current = buffer[offset++];
+      builder.append((char) (current & 0xFF));
+      if (current == LF) {
+        lineNumber++;
+        break;
+      }
+    }
+    return builder.length() == 0 ? null : new Line(builder.toString(), number);
+  }
+
+  /**
+   * Reads the bytes up to and including the next line feed, but not more than <code>len</code> bytes.
+   * A carriage return is never returned as the last of <code>len</code> bytes so that a line terminator
+   * is not split.
+   * @return the number of bytes read or -1 at the end of the stream
+   */
+  int readLineSegment(final byte[] b, final int off, final int len) throws IOException {
+    if (offset == limit && !fillBuffer()) {
+      return -1;
+    }
+    int count = 0;
+    while (count < len && (offset < limit || fillBuffer())) {
+      final byte current = buffer[offset];
+      if (current == CR && count == len - 1 && count > 0) {
+        break;
+      }
+      offset++;
+      b[off + count++] = current;
+      if (current == LF) {
+        lineNumber++;
+        break;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (offset == limit && !fillBuffer()) {
+      return -1;
+    }
+    final byte current = buffer[offset++];
+    if (current == LF) {
+      lineNumber++;
+    }
+    return current & 0xFF;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (offset == limit && !fillBuffer()) {
+      return -1;
+    }
+    final int count = Math.min(len, limit - offset);
+    System.arraycopy(buffer, offset, b, off, count);
+    for (int i = offset; i < offset + count; i++) {
+      if (buffer[i] == LF) {
+        lineNumber++;
+      }
+    }
+    offset += count;
+    return count;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return limit - offset;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+  private boolean fillBuffer() throws IOException {
+    int count;
+    do {
+      count = in.read(buffer, 0, buffer.length);
+    } while (count == 0);
+    offset = 0;
+    limit = Math.max(count, 0);
+    return count > 0;
+  }
+}
@@ -18,59 +18,47 @@
  */
 package org.apache.olingo.server.core.deserializer.batch;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestReader;
 
 public class BatchParser {
 
-  private BatchOptions options;
-
   public List<BatchRequestPart> parseBatchRequest(final InputStream content, final String boundary,
       final BatchOptions options)
       throws BatchDeserializerException {
-    this.options = options;
-
-    BatchRequestTransformator transformator = new BatchRequestTransformator(options.getRawBaseUri(),
-        options.getRawServiceResolutionUri());
-    return parse(content, boundary, transformator);
-  }
-
-  private List<BatchRequestPart> parse(final InputStream in, final String boundary,
-      final BatchRequestTransformator transformator)
-      throws BatchDeserializerException {
-    try {
-      return parseBatch(in, boundary, transformator);
-    } catch (IOException e) {
-      throw new ODataRuntimeException(e);
-    }
-  }
-
-  private List<BatchRequestPart> parseBatch(final InputStream in, final String boundary,
-      final BatchRequestTransformator transformator) throws IOException, BatchDeserializerException {
+    final BatchRequestReader reader = new BatchRequestReaderImpl(content, boundary, options);
     final List<BatchRequestPart> resultList = new LinkedList<>();
-    final List<List<Line>> bodyPartStrings = splitBodyParts(in, boundary);
 
-    for (List<Line> bodyPartString : bodyPartStrings) {
-      BatchBodyPart bodyPart = new BatchBodyPart(bodyPartString, boundary, options.isStrict()).parse();
-      resultList.addAll(transformator.transform(bodyPart));
+    BatchRequestPart part;
+    while ((part = reader.next()) != null) {
+      if (!part.isChangeSet()) {
+        // The body is streamed from the batch request and would not be readable after the next part.
+        bufferBody(part.getRequests().get(0));
+      }
+      resultList.add(part);
     }
 
     return resultList;
   }
 
-  private List<List<Line>> splitBodyParts(final InputStream in, final String boundary) throws IOException,
-      BatchDeserializerException {
-    final BatchLineReader reader = new BatchLineReader(in);
-    final List<Line> message = reader.toLineList();
-    reader.close();
-
-    return BatchParserCommon.splitMessageByBoundary(message, boundary);
+  private void bufferBody(final ODataRequest request) {
+    if (!(request.getBody() instanceof ByteArrayInputStream)) {
+      try {
+        request.setBody(new ByteArrayInputStream(IOUtils.toByteArray(request.getBody())));
+      } catch (final IOException e) {
+        throw new ODataRuntimeException(e);
+      }
+    }
   }
 }
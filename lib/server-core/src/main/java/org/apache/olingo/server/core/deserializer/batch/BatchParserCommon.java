@@ -169,6 +169,10 @@ public class BatchParserCommon {
     }
   }
 
+  static boolean isHeaderLine(final Line line) {
+    return PATTERN_HEADER_LINE.matcher(line.toString()).matches();
+  }
+
   public static Header consumeHeaders(final List<Line> remainingMessage) {
     final int headerLineNumber = !remainingMessage.isEmpty() ? remainingMessage.get(0).getLineNumber() : 0;
     final Header headers = new Header(headerLineNumber);
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.batch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.regex.Pattern;
+
+/**
+ * Input stream over the content of one part of a multipart message.
+ * <p>
+ * The content is read from the underlying stream up to the next line with the boundary delimiter,
+ * which is consumed but not returned; the line break in front of the delimiter is not returned either.
+ * Closing this stream does not close the underlying stream.
+ */
+class BatchPartInputStream extends InputStream {
+  private static final Charset CHARSET_ISO_8859_1 = Charset.forName("ISO-8859-1");
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+  /** Longer lines cannot be delimiter lines; boundaries have at most 70 characters. */
+  private static final int MAX_DELIMITER_LINE_LENGTH = 256;
+
+  private final BatchLineInputStream source;
+  private final Pattern delimiterPattern;
+  private final Pattern closeDelimiterPattern;
+  private final byte[] segment = new byte[MAX_DELIMITER_LINE_LENGTH];
+  private final byte[] output = new byte[MAX_DELIMITER_LINE_LENGTH + 2];
+  private int position = 0;
+  private int count = 0;
+  private int pendingLineBreak = 0;
+  private boolean lineStart = true;
+  private boolean finished = false;
+  private boolean delimiterFound = false;
+  private boolean closeDelimiterFound = false;
+
+  BatchPartInputStream(final BatchLineInputStream source, final String boundary) {
+    this.source = source;
+    final String quotedBoundary = Pattern.quote(boundary);
+    delimiterPattern = Pattern.compile("--" + quotedBoundary + "\\s*");
+    closeDelimiterPattern = Pattern.compile("--" + quotedBoundary + "--\\s*");
+  }
+
+  /**
+   * Returns whether the end of the underlying stream has been reached without finding a delimiter line.
+   */
+  boolean isEndOfStreamReached() {
+    return finished && !delimiterFound;
+  }
+
+  /**
+   * Returns whether the content has been terminated by the close delimiter, i.e., the last part has been read.
+   */
+  boolean isCloseDelimiterFound() {
+    return closeDelimiterFound;
+  }
+
+  /**
+   * Reads and discards the remaining content of this part.
+   */
+  void skipRemaining() throws IOException {
+    while (!finished) {
+      fill();
+    }
+    position = count;
+  }
+
+  @Override
+  public int read() throws IOException {
+    while (position == count) {
+      if (finished) {
+        return -1;
+      }
+      fill();
+    }
+    return output[position++] & 0xFF;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    while (position == count) {
+      if (finished) {
+        return -1;
+      }
+      fill();
+    }
+    final int length = Math.min(len, count - position);
+    System.arraycopy(output, position, b, off, length);
+    position += length;
+    return length;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return count - position;
+  }
+
+  @Override
+  public void close() throws IOException {
+    // The underlying stream contains further parts.
+  }
+
+  /**
+   * Reads the next line segment from the underlying stream.
+   * The line break at the end of a line is held back until it is clear that no delimiter line follows.
+   */
+  private void fill() throws IOException {
+    position = 0;
+    count = 0;
+    final int length = source.readLineSegment(segment, 0, segment.length);
+    if (length == -1) {
+      writePendingLineBreak();
+      finished = true;
+      return;
+    }
+
+    final boolean lineEnd = segment[length - 1] == LF;
+    if (lineStart && (lineEnd || length < segment.length - 1) && isDelimiter(length)) {
+      pendingLineBreak = 0;
+      finished = true;
+      return;
+    }
+
+    writePendingLineBreak();
+    if (lineEnd) {
+      pendingLineBreak = length > 1 && segment[length - 2] == CR ? 2 : 1;
+    }
+    System.arraycopy(segment, 0, output, count, length - pendingLineBreak);
+    count += length - pendingLineBreak;
+    lineStart = lineEnd;
+  }
+
+  private void writePendingLineBreak() {
+    if (pendingLineBreak == 2) {
+      output[count++] = CR;
+    }
+    if (pendingLineBreak > 0) {
+      output[count++] = LF;
+    }
+    pendingLineBreak = 0;
+  }
+
+  private boolean isDelimiter(final int length) {
+    if (length < 2 || segment[0] != '-' || segment[1] != '-') {
+      return false;
+    }
+    final String line = new String(segment, 0, length, CHARSET_ISO_8859_1);
+    if (closeDelimiterPattern.matcher(line).matches()) {
+      delimiterFound = true;
+      closeDelimiterFound = true;
+    } else if (delimiterPattern.matcher(line).matches()) {
+      delimiterFound = true;
+    }
+    return delimiterFound;
+  }
+}
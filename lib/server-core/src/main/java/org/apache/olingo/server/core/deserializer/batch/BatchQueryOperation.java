@@ -18,6 +18,7 @@
  */
 package org.apache.olingo.server.core.deserializer.batch;
 
+import java.io.InputStream;
 import java.util.List;
 
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
@@ -30,6 +31,7 @@ public class BatchQueryOperation implements BatchPart {
   protected List<Line> body;
   protected int bodySize;
   protected List<Line> message;
+  protected InputStream rawBody;
 
   public BatchQueryOperation(final List<Line> message, final boolean isStrict) {
     this.isStrict = isStrict;
@@ -66,6 +68,17 @@ public class BatchQueryOperation implements BatchPart {
     return body;
   }
 
+  /**
+   * Returns the body as read from the batch request if it has not been split into lines.
+   */
+  public InputStream getRawBody() {
+    return rawBody;
+  }
+
+  public void setRawBody(final InputStream rawBody) {
+    this.rawBody = rawBody;
+  }
+
   public int getBodySize() {
     return bodySize;
   }
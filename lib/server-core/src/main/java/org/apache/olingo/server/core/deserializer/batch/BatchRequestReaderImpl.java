@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.batch;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
+import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException.MessageKeys;
+import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestReader;
+
+/**
+ * Parses a batch request part by part while the request body is read.
+ * <p>
+ * Only the header lines of the parts are read as {@link Line}s; the bodies are read as bytes.
+ * The body of a request outside of a change set is a stream over the batch request body up to
+ * the next boundary delimiter. The bodies of the requests in a change set are buffered because
+ * all requests of a change set are returned together.
+ */
+public class BatchRequestReaderImpl implements BatchRequestReader {
+  private static final Charset CHARSET_ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+  private final BatchLineInputStream input;
+  private final String boundary;
+  private final boolean isStrict;
+  private final BatchRequestTransformator transformator;
+  private BatchPartInputStream currentPart;
+
+  public BatchRequestReaderImpl(final InputStream content, final String boundary, final BatchOptions options) {
+    input = new BatchLineInputStream(content, 1);
+    this.boundary = boundary;
+    isStrict = options.isStrict();
+    transformator = new BatchRequestTransformator(options.getRawBaseUri(), options.getRawServiceResolutionUri());
+    // The content in front of the first boundary delimiter is the preamble, which is ignored.
+    currentPart = new BatchPartInputStream(input, boundary);
+  }
+
+  @Override
+  public BatchRequestPart next() throws BatchDeserializerException {
+    if (currentPart == null) {
+      return null;
+    }
+    try {
+      if (!skipToNextPart(currentPart, input)) {
+        currentPart = null;
+        return null;
+      }
+      currentPart = new BatchPartInputStream(input, boundary);
+      try {
+        return readPart(new BatchLineInputStream(currentPart, input.getLineNumber()));
+      } catch (final BatchDeserializerException e) {
+        // A request that ends within a part is reported as such, not with the resulting error in the part.
+        if (currentPart.isEndOfStreamReached()) {
+          throw createMissingCloseDelimiterException(input);
+        }
+        throw e;
+      }
+    } catch (final IOException e) {
+      throw new ODataRuntimeException(e);
+    }
+  }
+
+  private BatchRequestPart readPart(final BatchLineInputStream in) throws IOException, BatchDeserializerException {
+    final List<Line> lines = readHeaders(in);
+    final Header headers = BatchParserCommon.consumeHeaders(lines);
+    BatchParserCommon.consumeBlankLine(lines, isStrict);
+    final boolean isChangeSet = BatchBodyPart.isChangeSet(headers);
+
+    final List<BatchQueryOperation> operations;
+    if (isChangeSet) {
+      operations = readChangeSet(headers, lines, in);
+    } else {
+      final BatchQueryOperation operation = new BatchQueryOperation(readRequestHead(lines, in), isStrict).parse();
+      operation.setRawBody(getBody(operation.getBody(), in));
+      operations = Collections.singletonList(operation);
+    }
+
+    return transformator.transform(new BatchBodyPart(headers, isChangeSet, operations, boundary, isStrict)).get(0);
+  }
+
+  private List<BatchQueryOperation> readChangeSet(final Header headers, final List<Line> lines,
+      final BatchLineInputStream in) throws IOException, BatchDeserializerException {
+    final String changeSetBoundary = BatchBodyPart.getChangeSetBoundary(headers, boundary);
+    final BatchLineInputStream changeSet = new BatchLineInputStream(getBody(lines, in),
+        lines.isEmpty() ? in.getLineNumber() : lines.get(0).getLineNumber());
+    final List<BatchQueryOperation> operations = new LinkedList<>();
+
+    BatchPartInputStream part = new BatchPartInputStream(changeSet, changeSetBoundary);
+    while (skipToNextPart(part, changeSet)) {
+      part = new BatchPartInputStream(changeSet, changeSetBoundary);
+      final BatchLineInputStream partInput = new BatchLineInputStream(part, changeSet.getLineNumber());
+      final BatchChangeSetPart operation =
+          new BatchChangeSetPart(readRequestHead(readHeaders(partInput), partInput), isStrict).parse();
+      operation.setRawBody(new ByteArrayInputStream(IOUtils.toByteArray(getBody(operation.getBody(), partInput))));
+      operations.add(operation);
+    }
+
+    return operations;
+  }
+
+  /**
+   * Skips the rest of the given part.
+   * @return <code>true</code> if another part follows, <code>false</code> if the close delimiter has been read
+   */
+  private boolean skipToNextPart(final BatchPartInputStream part, final BatchLineInputStream in)
+      throws IOException, BatchDeserializerException {
+    part.skipRemaining();
+    if (part.isEndOfStreamReached()) {
+      throw createMissingCloseDelimiterException(in);
+    }
+    return !part.isCloseDelimiterFound();
+  }
+
+  private BatchDeserializerException createMissingCloseDelimiterException(final BatchLineInputStream in) {
+    return new BatchDeserializerException("Missing close boundary delimiter",
+        MessageKeys.MISSING_CLOSE_DELIMITER, Integer.toString(in.getLineNumber()));
+  }
+
+  /**
+   * Reads the header lines and the line following them, normally the blank line.
+   */
+  private List<Line> readHeaders(final BatchLineInputStream in) throws IOException {
+    final List<Line> lines = new LinkedList<>();
+    Line line = in.readLine();
+    while (line != null && BatchParserCommon.isHeaderLine(line)) {
+      lines.add(line);
+      line = in.readLine();
+    }
+    if (line != null) {
+      lines.add(line);
+    }
+    return lines;
+  }
+
+  /**
+   * Completes the given lines with the request line (if not yet read), the request headers,
+   * and the line following them.
+   */
+  private List<Line> readRequestHead(final List<Line> lines, final BatchLineInputStream in) throws IOException {
+    if (lines.isEmpty() || lines.get(lines.size() - 1).toString().trim().isEmpty()) {
+      final Line requestLine = in.readLine();
+      if (requestLine != null) {
+        lines.add(requestLine);
+      }
+    }
+    lines.addAll(readHeaders(in));
+    return lines;
+  }
+
+  /**
+   * Returns the rest of the stream, prefixed with lines that have already been read from it.
+   */
+  private InputStream getBody(final List<Line> lines, final InputStream in) {
+    if (lines.isEmpty()) {
+      return in;
+    }
+    final StringBuilder builder = new StringBuilder();
+    for (final Line line : lines) {
+      builder.append(line.toString());
+    }
+    return new SequenceInputStream(new ByteArrayInputStream(builder.toString().getBytes(CHARSET_ISO_8859_1)), in);
+  }
+}
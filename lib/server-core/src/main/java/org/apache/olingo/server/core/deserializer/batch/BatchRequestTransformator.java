@@ -19,12 +19,16 @@
 package org.apache.olingo.server.core.deserializer.batch;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpMethod;
@@ -159,7 +163,10 @@ public class BatchRequestTransformator {
     } else {
       int contentLength = BatchTransformatorCommon.getContentLength(operation.getHeaders());
 
-      if (contentLength == -1) {
+      if (operation.getRawBody() != null) {
+        return contentLength == -1 ? operation.getRawBody() :
+            new BoundedInputStream(operation.getRawBody(), contentLength);
+      } else if (contentLength == -1) {
         return BatchParserCommon.convertLineListToInputStream(operation.getBody(), charset);
       } else {
         return BatchParserCommon.convertLineListToInputStream(operation.getBody(), charset, contentLength);
@@ -176,6 +183,15 @@ public class BatchRequestTransformator {
   }
 
   private boolean isInvalidGetRequestBody(final BatchQueryOperation operation) {
+    if (operation.getRawBody() != null) {
+      // Same rule as for the lines below: at most one line, containing only whitespace.
+      try {
+        final String body = IOUtils.toString(operation.getRawBody(), "ISO-8859-1");
+        return body.indexOf('\n') >= 0 || !body.trim().isEmpty();
+      } catch (final IOException e) {
+        throw new ODataRuntimeException(e);
+      }
+    }
     return operation.getBody().size() > 1
         || operation.getBody().size() == 1 && !operation.getBody().get(0).toString().trim().isEmpty();
   }
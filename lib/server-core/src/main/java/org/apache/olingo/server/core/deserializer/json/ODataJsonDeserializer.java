@@ -18,8 +18,6 @@
  */
 package org.apache.olingo.server.core.deserializer.json;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
@@ -33,6 +31,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.Constants;
@@ -75,26 +74,29 @@ import org.apache.olingo.commons.api.edm.geo.MultiPolygon;
 import org.apache.olingo.commons.api.edm.geo.Point;
 import org.apache.olingo.commons.api.edm.geo.Polygon;
 import org.apache.olingo.commons.api.edm.geo.SRID;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.deserializer.DeserializerException.MessageKeys;
 import org.apache.olingo.server.api.deserializer.DeserializerResult;
 import org.apache.olingo.server.api.deserializer.ODataDeserializer;
+import org.apache.olingo.server.api.deserializer.StreamedEntityIterator;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.core.deserializer.DeserializerResultImpl;
 import org.apache.olingo.server.core.deserializer.helper.ExpandTreeBuilder;
 import org.apache.olingo.server.core.deserializer.helper.ExpandTreeBuilderImpl;
 import org.apache.olingo.server.core.serializer.utils.ContentTypeHelper;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 public class ODataJsonDeserializer implements ODataDeserializer {
@@ -116,6 +118,14 @@ public class ODataJsonDeserializer implements ODataDeserializer {
   private static final String ODATA_CONTROL_INFORMATION_PREFIX = "@odata.";
   private static final String REASON = "reason";
 
+  /** Reads request bodies; configured once since mappers are thread-safe but expensive to create. */
+  private static final ObjectMapper BODY_MAPPER = new ObjectMapper()
+      .configure(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY, true)
+      .configure(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS, true);
+  /** Reads parameter values given as strings. */
+  private static final ObjectMapper PARAMETER_MAPPER = new ObjectMapper()
+      .configure(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY, true);
+
   private final boolean isIEEE754Compatible;
   private ServiceMetadata serviceMetadata;
   private IConstants constants;
@@ -150,35 +160,252 @@ public class ODataJsonDeserializer implements ODataDeserializer {
       throws DeserializerException {
     try {
       return DeserializerResultImpl.with().entityCollection(
-          consumeEntityCollectionNode(edmEntityType, parseJsonTree(stream), null))
+          readEntityCollection(startObject(stream), edmEntityType))
           .build();
     } catch (final IOException e) {
       throw wrapParseException(e);
     }
   }
 
-  private EntityCollection consumeEntityCollectionNode(final EdmEntityType edmEntityType, final ObjectNode tree,
-      final ExpandTreeBuilder expandBuilder) throws DeserializerException {
-    EntityCollection entitySet = new EntityCollection();
-
-    // Consume entities
-    JsonNode jsonNode = tree.get(Constants.VALUE);
-    if (jsonNode != null) {
-      entitySet.getEntities().addAll(consumeEntitySetArray(edmEntityType, jsonNode, expandBuilder));
-      tree.remove(Constants.VALUE);
-    } else {
+  /**
+   * Reads an entity collection object; the parser must be positioned on its start.
+   * The entities of the value array are read one by one, so the JSON tree of only one entity
+   * is held in memory at a time.
+   */
+  private EntityCollection readEntityCollection(final JsonParser parser, final EdmEntityType edmEntityType)
+      throws IOException, DeserializerException {
+    final ObjectNode tree = BODY_MAPPER.createObjectNode();
+    EntityCollection entitySet = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.getCurrentName();
+      final JsonToken token = parser.nextToken();
+      if (tree.has(name) || Constants.VALUE.equals(name) && entitySet != null) {
+        throw new DeserializerException("Duplicate json property detected.",
+            DeserializerException.MessageKeys.DUPLICATE_PROPERTY);
+      }
+      if (Constants.VALUE.equals(name)) {
+        if (token != JsonToken.START_ARRAY) {
+          throw new DeserializerException("The content of the value tag must be an Array but is not.",
+              DeserializerException.MessageKeys.VALUE_TAG_MUST_BE_AN_ARRAY);
+        }
+        entitySet = readEntitySetArray(parser, edmEntityType, null);
+      } else {
+        tree.set(name, readTree(parser));
+      }
+    }
+    if (entitySet == null) {
       throw new DeserializerException("Could not find value array.",
           DeserializerException.MessageKeys.VALUE_ARRAY_NOT_PRESENT);
     }
-
-    if (tree.isObject()) {
-      removeAnnotations(tree);
-    }
+    removeAnnotations(tree);
     assertJsonNodeIsEmpty(tree);
+    return entitySet;
+  }
 
+  /**
+   * Reads the entities of an array one by one; the parser must be positioned on the start of the array.
+   */
+  private EntityCollection readEntitySetArray(final JsonParser parser, final EdmEntityType edmEntityType,
+      final ExpandTreeBuilder expandBuilder) throws IOException, DeserializerException {
+    final EntityCollection entitySet = new EntityCollection();
+    JsonToken token;
+    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+      if (token != JsonToken.START_OBJECT) {
+        throw new DeserializerException("Nested Arrays and primitive values are not allowed for an entity value.",
+            DeserializerException.MessageKeys.INVALID_ENTITY);
+      }
+      entitySet.getEntities().add(readEntity(parser, edmEntityType, expandBuilder));
+    }
     return entitySet;
   }
 
+  /**
+   * Reads an entity object; the parser must be positioned on its start.
+   * Expanded collection-valued navigation properties are read entity by entity and are not kept as JSON tree,
+   * so a deep insert holds in memory the JSON tree of only one entity at a time next to the entities read so far.
+   */
+  private Entity readEntity(final JsonParser parser, final EdmEntityType edmEntityType,
+      final ExpandTreeBuilder expandBuilder) throws IOException, DeserializerException {
+    final ObjectNode tree = BODY_MAPPER.createObjectNode();
+    final Map<String, EntityCollection> inlineEntitySets = new HashMap<>();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.getCurrentName();
+      final JsonToken token = parser.nextToken();
+      if (tree.has(name) || inlineEntitySets.containsKey(name)) {
+        throw new DeserializerException("Duplicate json property detected.",
+            DeserializerException.MessageKeys.DUPLICATE_PROPERTY);
+      }
+      final EdmNavigationProperty edmNavigationProperty = token == JsonToken.START_ARRAY ?
+          edmEntityType.getNavigationProperty(name) : null;
+      if (edmNavigationProperty != null && edmNavigationProperty.isCollection()) {
+        inlineEntitySets.put(name, readEntitySetArray(parser, edmNavigationProperty.getType(),
+            expandBuilder == null ? null : expandBuilder.expand(edmNavigationProperty)));
+      } else {
+        tree.set(name, readTree(parser));
+      }
+    }
+    final EdmEntityType derivedEdmEntityType = (EdmEntityType) getDerivedType(edmEntityType, tree);
+    return consumeEntityNode(derivedEdmEntityType, tree, expandBuilder, inlineEntitySets);
+  }
+
+  /** Creates a parser for the stream and moves it onto the start of the top-level JSON object. */
+  private JsonParser startObject(final InputStream stream) throws IOException, DeserializerException {
+    final JsonParser parser = BODY_MAPPER.getFactory().createParser(stream);
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new DeserializerException("Invalid JSON syntax.",
+          DeserializerException.MessageKeys.JSON_SYNTAX_EXCEPTION);
+    }
+    return parser;
+  }
+
+  /** Reads the value the parser is positioned on as JSON tree. */
+  private JsonNode readTree(final JsonParser parser) throws IOException {
+    final JsonNode node = parser.getCodec().readTree(parser);
+    return node == null ? NullNode.getInstance() : node;
+  }
+
+  @Override
+  public StreamedEntityIterator entityCollectionStreamed(final InputStream stream, final EdmEntityType edmEntityType)
+      throws DeserializerException {
+    JsonParser parser = null;
+    try {
+      parser = BODY_MAPPER.getFactory().createParser(stream);
+      return new ParserEntityIterator(parser, stream, edmEntityType);
+    } catch (final IOException e) {
+      closeQuietly(parser, stream);
+      throw wrapParseException(e);
+    } catch (final DeserializerException e) {
+      closeQuietly(parser, stream);
+      throw e;
+    }
+  }
+
+  private static void closeQuietly(final JsonParser parser, final InputStream stream) {
+    if (parser != null) {
+      try {
+        parser.close();
+      } catch (final IOException e) {
+        // The stream is closed below.
+      }
+    }
+    IOUtils.closeQuietly(stream);
+  }
+
+  /**
+   * Reads the entities of a collection one by one from the underlying parser.
+   * Only the JSON tree of the current entity is held in memory.
+   */
+  private class ParserEntityIterator extends StreamedEntityIterator {
+
+    private final JsonParser parser;
+    private final InputStream stream;
+    private final EdmEntityType edmEntityType;
+    private Entity nextEntity;
+    private boolean finished;
+
+    private ParserEntityIterator(final JsonParser parser, final InputStream stream,
+        final EdmEntityType edmEntityType) throws IOException, DeserializerException {
+      this.parser = parser;
+      this.stream = stream;
+      this.edmEntityType = edmEntityType;
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new DeserializerException("Invalid JSON syntax.",
+            DeserializerException.MessageKeys.JSON_SYNTAX_EXCEPTION);
+      }
+      if (!skipToValueArray()) {
+        throw new DeserializerException("Could not find value array.",
+            DeserializerException.MessageKeys.VALUE_ARRAY_NOT_PRESENT);
+      }
+    }
+
+    /** Moves the parser onto the start of the value array; returns false if the object ends before. */
+    private boolean skipToValueArray() throws IOException, DeserializerException {
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String name = parser.getCurrentName();
+        final JsonToken token = parser.nextToken();
+        if (Constants.VALUE.equals(name)) {
+          if (token != JsonToken.START_ARRAY) {
+            throw new DeserializerException("The content of the value tag must be an Array but is not.",
+                DeserializerException.MessageKeys.VALUE_TAG_MUST_BE_AN_ARRAY);
+          }
+          return true;
+        }
+        skipAnnotation(name);
+      }
+      return false;
+    }
+
+    private void skipAnnotation(final String name) throws IOException, DeserializerException {
+      if (name.contains(ODATA_CONTROL_INFORMATION_PREFIX)
+          || name.contains(ODATA_ANNOTATION_MARKER) && constants instanceof Constantsv01) {
+        // Control Information is ignored for requests as per specification chapter "4.5 Control Information"
+        parser.skipChildren();
+      } else if (name.contains(ODATA_ANNOTATION_MARKER)) {
+        throw new DeserializerException("Custom annotation with field name: " + name + " not supported",
+            DeserializerException.MessageKeys.NOT_IMPLEMENTED);
+      } else {
+        throw new DeserializerException("Tree should be empty but still has content left: " + name,
+            DeserializerException.MessageKeys.UNKNOWN_CONTENT, name);
+      }
+    }
+
+    private Entity readEntity() throws IOException, DeserializerException {
+      final JsonToken token = parser.nextToken();
+      if (token == JsonToken.END_ARRAY) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          final String name = parser.getCurrentName();
+          parser.nextToken();
+          if (Constants.VALUE.equals(name)) {
+            throw new DeserializerException("Duplicate json property detected.",
+                DeserializerException.MessageKeys.DUPLICATE_PROPERTY);
+          }
+          skipAnnotation(name);
+        }
+        close();
+        return null;
+      } else if (token != JsonToken.START_OBJECT) {
+        throw new DeserializerException("Nested Arrays and primitive values are not allowed for an entity value.",
+            DeserializerException.MessageKeys.INVALID_ENTITY);
+      }
+      return ODataJsonDeserializer.this.readEntity(parser, edmEntityType, null);
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (nextEntity == null && !finished) {
+        try {
+          nextEntity = readEntity();
+        } catch (final IOException e) {
+          close();
+          throw new ODataRuntimeException(wrapParseException(e));
+        } catch (final DeserializerException e) {
+          close();
+          throw new ODataRuntimeException(e);
+        }
+      }
+      return nextEntity != null;
+    }
+
+    @Override
+    public Entity next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final Entity entity = nextEntity;
+      nextEntity = null;
+      return entity;
+    }
+
+    @Override
+    public void close() {
+      if (!finished) {
+        finished = true;
+        nextEntity = null;
+        closeQuietly(parser, stream);
+      }
+    }
+  }
+
   private List<Entity> consumeEntitySetArray(final EdmEntityType edmEntityType, final JsonNode jsonNode,
       final ExpandTreeBuilder expandBuilder) throws DeserializerException {
     if (jsonNode.isArray()) {
@@ -202,12 +429,10 @@ public class ODataJsonDeserializer implements ODataDeserializer {
   public DeserializerResult entity(final InputStream stream, final EdmEntityType edmEntityType)
       throws DeserializerException {
     try {
-      final ObjectNode tree = parseJsonTree(stream);
+      final JsonParser parser = startObject(stream);
       final ExpandTreeBuilder expandBuilder = ExpandTreeBuilderImpl.create();
 
-      EdmEntityType derivedEdmEntityType = (EdmEntityType) getDerivedType(edmEntityType, tree);
-
-      return DeserializerResultImpl.with().entity(consumeEntityNode(derivedEdmEntityType, tree, expandBuilder))
+      return DeserializerResultImpl.with().entity(readEntity(parser, edmEntityType, expandBuilder))
           .expandOption(expandBuilder.build())
           .build();
     } catch (final IOException e) {
@@ -217,6 +442,12 @@ public class ODataJsonDeserializer implements ODataDeserializer {
 
   private Entity consumeEntityNode(final EdmEntityType edmEntityType, final ObjectNode tree,
       final ExpandTreeBuilder expandBuilder) throws DeserializerException {
+    return consumeEntityNode(edmEntityType, tree, expandBuilder, Collections.<String, EntityCollection> emptyMap());
+  }
+
+  private Entity consumeEntityNode(final EdmEntityType edmEntityType, final ObjectNode tree,
+      final ExpandTreeBuilder expandBuilder, final Map<String, EntityCollection> inlineEntitySets)
+      throws DeserializerException {
     Entity entity = new Entity();
     entity.setType(edmEntityType.getFullQualifiedName().getFullQualifiedNameAsString());
     
@@ -227,7 +458,7 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     consumeEntityProperties(edmEntityType, tree, entity);
 
     // Check and consume all expanded Navigation Properties
-    consumeExpandedNavigationProperties(edmEntityType, tree, entity, expandBuilder);
+    consumeExpandedNavigationProperties(edmEntityType, tree, entity, expandBuilder, inlineEntitySets);
 
     // consume delta json node fields for v4.01
     consumeDeltaJsonNodeFields(edmEntityType, tree, entity, expandBuilder);
@@ -312,23 +543,23 @@ public class ODataJsonDeserializer implements ODataDeserializer {
   @Override
   public DeserializerResult actionParameters(final InputStream stream, final EdmAction edmAction)
       throws DeserializerException {
-	  Map<String, Parameter> parameters = new HashMap<>();
-	  ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-	  byte[] inputContent = null;
+    Map<String, Parameter> parameters = new HashMap<>();
     try {
-    	IOUtils.copy(stream, byteArrayOutputStream);
-    	// copy the content of input stream to reuse it
-      	  inputContent = byteArrayOutputStream.toByteArray();
-      	  if (inputContent.length > 0) {
-      		InputStream inputStream1 = new ByteArrayInputStream(inputContent);
-    	      ObjectNode tree = parseJsonTree(inputStream1);
-    	      parameters = consumeParameters(edmAction, tree);
-    	
-    	      if (tree.isObject()) {
-    	        removeAnnotations(tree);
-    	      }
-    	      assertJsonNodeIsEmpty(tree);
-      	  }
+      final JsonParser parser = BODY_MAPPER.getFactory().createParser(stream);
+      final JsonToken start = parser.nextToken();
+      // An empty body has no parameters.
+      if (start != null || parser.getCurrentLocation().getByteOffset() > 0) {
+        if (start != JsonToken.START_OBJECT) {
+          throw new DeserializerException("Invalid JSON syntax.",
+              DeserializerException.MessageKeys.JSON_SYNTAX_EXCEPTION);
+        }
+        final ObjectNode tree = BODY_MAPPER.createObjectNode();
+        final Map<String, Parameter> entityParameters = readEntityParameters(parser, edmAction, tree);
+        parameters = consumeParameters(edmAction, tree, entityParameters);
+
+        removeAnnotations(tree);
+        assertJsonNodeIsEmpty(tree);
+      }
       return DeserializerResultImpl.with().actionParameters(parameters).build();
 
     } catch (final IOException e) {
@@ -336,11 +567,44 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     }
   }
 
+  /**
+   * Reads the fields of the action-parameter object; the parser must be positioned on its start.
+   * Entity-typed parameters are read entity by entity and returned;
+   * all other fields are added to the given tree.
+   */
+  private Map<String, Parameter> readEntityParameters(final JsonParser parser, final EdmAction edmAction,
+      final ObjectNode tree) throws IOException, DeserializerException {
+    final Map<String, Parameter> entityParameters = new HashMap<>();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.getCurrentName();
+      final JsonToken token = parser.nextToken();
+      if (tree.has(name) || entityParameters.containsKey(name)) {
+        throw new DeserializerException("Duplicate json property detected.",
+            DeserializerException.MessageKeys.DUPLICATE_PROPERTY);
+      }
+      // The binding parameter must not occur in the payload.
+      final EdmParameter edmParameter = edmAction.isBound() && name.equals(edmAction.getParameterNames().get(0)) ?
+          null : edmAction.getParameter(name);
+      if (edmParameter != null && edmParameter.getType().getKind() == EdmTypeKind.ENTITY
+          && token == (edmParameter.isCollection() ? JsonToken.START_ARRAY : JsonToken.START_OBJECT)) {
+        final EdmEntityType edmEntityType = (EdmEntityType) edmParameter.getType();
+        final Parameter parameter = new Parameter();
+        parameter.setName(name);
+        if (edmParameter.isCollection()) {
+          parameter.setValue(ValueType.COLLECTION_ENTITY, readEntitySetArray(parser, edmEntityType, null));
+        } else {
+          parameter.setValue(ValueType.ENTITY, readEntity(parser, edmEntityType, null));
+        }
+        entityParameters.put(name, parameter);
+      } else {
+        tree.set(name, readTree(parser));
+      }
+    }
+    return entityParameters;
+  }
+
   private ObjectNode parseJsonTree(final InputStream stream) throws IOException, DeserializerException {
-    ObjectMapper objectMapper = new ObjectMapper();
-    objectMapper.configure(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY, true);
-    objectMapper.configure(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS, true);
-    JsonParser parser = new JsonFactory(objectMapper).createParser(stream);
+    JsonParser parser = BODY_MAPPER.getFactory().createParser(stream);
     final JsonNode tree = parser.getCodec().readTree(parser);
     if (tree == null || !tree.isObject()) {
       throw new DeserializerException("Invalid JSON syntax.",
@@ -349,8 +613,8 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     return (ObjectNode) tree;
   }
 
-  private Map<String, Parameter> consumeParameters(final EdmAction edmAction, final ObjectNode node)
-      throws DeserializerException {
+  private Map<String, Parameter> consumeParameters(final EdmAction edmAction, final ObjectNode node,
+      final Map<String, Parameter> entityParameters) throws DeserializerException {
     List<String> parameterNames = edmAction.getParameterNames();
     if (edmAction.isBound()) {
       // The binding parameter must not occur in the payload.
@@ -366,7 +630,8 @@ public class ODataJsonDeserializer implements ODataDeserializer {
       case ENUM:
       case COMPLEX:
       case ENTITY:
-        Parameter parameter = createParameter(node.get(paramName), paramName, edmParameter);
+        Parameter parameter = entityParameters.containsKey(paramName) ? entityParameters.get(paramName) :
+            createParameter(node.get(paramName), paramName, edmParameter);
         parameters.put(paramName, parameter);
         node.remove(paramName);
         break;
@@ -417,9 +682,7 @@ public class ODataJsonDeserializer implements ODataDeserializer {
   /** Reads a parameter value from a String. */
   public Parameter parameter(final String content, final EdmParameter parameter) throws DeserializerException {
     try {
-      JsonParser parser = new JsonFactory(new ObjectMapper()
-          .configure(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY, true))
-              .createParser(content);
+      JsonParser parser = PARAMETER_MAPPER.getFactory().createParser(content);
       JsonNode node = parser.getCodec().readTree(parser);
       if (node == null) {
         throw new DeserializerException("Invalid JSON syntax.",
@@ -509,9 +772,20 @@ public class ODataJsonDeserializer implements ODataDeserializer {
   }
 
   private void consumeExpandedNavigationProperties(final EdmEntityType edmEntityType, final ObjectNode node,
-      final Entity entity, final ExpandTreeBuilder expandBuilder) throws DeserializerException {
+      final Entity entity, final ExpandTreeBuilder expandBuilder, final Map<String, EntityCollection> inlineEntitySets)
+      throws DeserializerException {
     List<String> navigationPropertyNames = edmEntityType.getNavigationPropertyNames();
     for (String navigationPropertyName : navigationPropertyNames) {
+      // expanded collections already read from the parser
+      final EntityCollection inlineEntitySet = inlineEntitySets.get(navigationPropertyName);
+      if (inlineEntitySet != null) {
+        Link link = new Link();
+        link.setTitle(navigationPropertyName);
+        link.setType(Constants.ENTITY_SET_NAVIGATION_LINK_TYPE);
+        link.setInlineEntitySet(inlineEntitySet);
+        entity.getNavigationLinks().add(link);
+        continue;
+      }
       // read expanded navigation property
       JsonNode jsonNode = node.get(navigationPropertyName);
       if (jsonNode != null) {
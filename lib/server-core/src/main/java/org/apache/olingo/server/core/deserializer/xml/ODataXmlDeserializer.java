@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
@@ -33,6 +34,7 @@ import javax.xml.stream.events.Attribute;
 import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.Constants;
 import org.apache.olingo.commons.api.data.AbstractODataObject;
 import org.apache.olingo.commons.api.data.ComplexValue;
@@ -55,6 +57,7 @@ import org.apache.olingo.commons.api.edm.EdmProperty;
 import org.apache.olingo.commons.api.edm.EdmStructuredType;
 import org.apache.olingo.commons.api.edm.EdmType;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.core.edm.EdmTypeInfo;
 import org.apache.olingo.commons.core.edm.primitivetype.AbstractGeospatialType;
@@ -63,6 +66,7 @@ import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.deserializer.DeserializerException.MessageKeys;
 import org.apache.olingo.server.api.deserializer.DeserializerResult;
 import org.apache.olingo.server.api.deserializer.ODataDeserializer;
+import org.apache.olingo.server.api.deserializer.StreamedEntityIterator;
 import org.apache.olingo.server.core.deserializer.DeserializerResultImpl;
 
 public class ODataXmlDeserializer implements ODataDeserializer {
@@ -698,6 +702,112 @@ public class ODataXmlDeserializer implements ODataDeserializer {
     }
   }
 
+  @Override
+  public StreamedEntityIterator entityCollectionStreamed(final InputStream input, final EdmEntityType edmEntityType)
+      throws DeserializerException {
+    try {
+      final XMLEventReader reader = getReader(input);
+      return new ReaderEntityIterator(reader, skipBeforeFirstStartElement(reader), input, edmEntityType);
+    } catch (final XMLStreamException e) {
+      IOUtils.closeQuietly(input);
+      throw new DeserializerException(e.getMessage(), e, DeserializerException.MessageKeys.IO_EXCEPTION);
+    }
+  }
+
+  /**
+   * Reads the entries of a feed one by one from the underlying event reader.
+   * Only the current entry is held in memory.
+   */
+  private class ReaderEntityIterator extends StreamedEntityIterator {
+
+    private final XMLEventReader reader;
+    private final StartElement start;
+    private final InputStream input;
+    private final EdmEntityType edmEntityType;
+    private Entity nextEntity;
+    private boolean finished;
+
+    private ReaderEntityIterator(final XMLEventReader reader, final StartElement start, final InputStream input,
+        final EdmEntityType edmEntityType) {
+      this.reader = reader;
+      this.start = start;
+      this.input = input;
+      this.edmEntityType = edmEntityType;
+      // A document without feed has no entities.
+      finished = !Constants.QNAME_ATOM_ELEM_FEED.equals(start.getName());
+      if (finished) {
+        IOUtils.closeQuietly(input);
+      }
+    }
+
+    private Entity readEntity() throws XMLStreamException, EdmPrimitiveTypeException, DeserializerException {
+      while (reader.hasNext()) {
+        final XMLEvent event = reader.nextEvent();
+        Entity entity = null;
+        if (event.isStartElement()) {
+          if (Constants.QNAME_ATOM_ELEM_ENTRY.equals(event.asStartElement().getName())) {
+            entity = entity(reader, event.asStartElement(), edmEntityType);
+          } else if (entryRefQName.equals(event.asStartElement().getName())) {
+            entity = entityRef(event.asStartElement());
+          }
+        } else if (event.isEndElement() && start.getName().equals(event.asEndElement().getName())) {
+          break;
+        }
+        if (entity != null) {
+          entity.setType(edmEntityType.getFullQualifiedName().getFullQualifiedNameAsString());
+          return entity;
+        }
+      }
+      close();
+      return null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (nextEntity == null && !finished) {
+        try {
+          nextEntity = readEntity();
+        } catch (final XMLStreamException e) {
+          close();
+          throw new ODataRuntimeException(
+              new DeserializerException(e.getMessage(), e, DeserializerException.MessageKeys.IO_EXCEPTION));
+        } catch (final EdmPrimitiveTypeException e) {
+          close();
+          throw new ODataRuntimeException(new DeserializerException(e.getMessage(), e,
+              DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY));
+        } catch (final DeserializerException e) {
+          close();
+          throw new ODataRuntimeException(e);
+        }
+      }
+      return nextEntity != null;
+    }
+
+    @Override
+    public Entity next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final Entity entity = nextEntity;
+      nextEntity = null;
+      return entity;
+    }
+
+    @Override
+    public void close() {
+      if (!finished) {
+        finished = true;
+        nextEntity = null;
+        try {
+          reader.close();
+        } catch (final XMLStreamException e) {
+          // The stream is closed below.
+        }
+        IOUtils.closeQuietly(input);
+      }
+    }
+  }
+
   @Override
   public DeserializerResult entityReferences(final InputStream stream) throws DeserializerException {
     try {
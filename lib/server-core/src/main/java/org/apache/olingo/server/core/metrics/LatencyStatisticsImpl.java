@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.olingo.server.api.metrics.LatencyStatistics;
+import org.apache.olingo.server.api.metrics.ProcessingStage;
+import org.apache.olingo.server.api.uri.UriInfoKind;
+
+/**
+ * Latency histograms per processing stage and URI kind, stored in preallocated atomic arrays.
+ * <p>Runtimes below four nanoseconds have their own bucket. Larger runtimes are assigned to one of four
+ * buckets per power of two, determined by the highest bit and the two following bits of the runtime.</p>
+ */
+public class LatencyStatisticsImpl implements LatencyStatistics {
+
+  private static final int SUB_BUCKET_BITS = 2;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  /** Enough buckets for all non-negative long values. */
+  private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+  private static final int KINDS = UriInfoKind.values().length + 1;
+  private static final int HISTOGRAMS = ProcessingStage.values().length * KINDS;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(HISTOGRAMS * BUCKETS);
+  private final AtomicLongArray counts = new AtomicLongArray(HISTOGRAMS);
+  private final AtomicLongArray totals = new AtomicLongArray(HISTOGRAMS);
+  private final AtomicLongArray maxima = new AtomicLongArray(HISTOGRAMS);
+
+  @Override
+  public void record(final ProcessingStage stage, final UriInfoKind kind, final long durationNanos) {
+    final long duration = Math.max(durationNanos, 0);
+    final int histogram = getHistogram(stage, kind);
+    buckets.incrementAndGet(histogram * BUCKETS + getBucket(duration));
+    counts.incrementAndGet(histogram);
+    totals.addAndGet(histogram, duration);
+    long max = maxima.get(histogram);
+    while (duration > max && !maxima.compareAndSet(histogram, max, duration)) {
+      max = maxima.get(histogram);
+    }
+  }
+
+  @Override
+  public long getCount(final ProcessingStage stage, final UriInfoKind kind) {
+    return counts.get(getHistogram(stage, kind));
+  }
+
+  @Override
+  public long getTotalNanos(final ProcessingStage stage, final UriInfoKind kind) {
+    return totals.get(getHistogram(stage, kind));
+  }
+
+  @Override
+  public long getMaxNanos(final ProcessingStage stage, final UriInfoKind kind) {
+    return maxima.get(getHistogram(stage, kind));
+  }
+
+  @Override
+  public long getPercentileNanos(final ProcessingStage stage, final UriInfoKind kind, final double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("The percentile must be between 0 and 100.");
+    }
+    final int offset = getHistogram(stage, kind) * BUCKETS;
+    long count = 0;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      count += buckets.get(offset + bucket);
+    }
+    if (count == 0) {
+      return 0;
+    }
+    final long rank = Math.max((long) Math.ceil(count * percentile / 100), 1);
+    long seen = 0;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      seen += buckets.get(offset + bucket);
+      if (seen >= rank) {
+        return Math.min(getUpperBound(bucket), getMaxNanos(stage, kind));
+      }
+    }
+    return getMaxNanos(stage, kind);
+  }
+
+  @Override
+  public void reset() {
+    for (int index = 0; index < buckets.length(); index++) {
+      buckets.set(index, 0);
+    }
+    for (int histogram = 0; histogram < HISTOGRAMS; histogram++) {
+      counts.set(histogram, 0);
+      totals.set(histogram, 0);
+      maxima.set(histogram, 0);
+    }
+  }
+
+  private static int getHistogram(final ProcessingStage stage, final UriInfoKind kind) {
+    return stage.ordinal() * KINDS + (kind == null ? 0 : kind.ordinal() + 1);
+  }
+
+  static int getBucket(final long duration) {
+    if (duration < SUB_BUCKETS) {
+      return (int) duration;
+    }
+    final int highestBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(duration);
+    final int shift = highestBit - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) ((duration >>> shift) & (SUB_BUCKETS - 1));
+  }
+
+  static long getUpperBound(final int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    final int shift = bucket / SUB_BUCKETS - 1;
+    final long subBucket = bucket % SUB_BUCKETS;
+    return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.paging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.paging.PageCursor;
+import org.apache.olingo.server.api.paging.SkipTokenCodec;
+
+/**
+ * Default skip-token codec.
+ * <p>The page size and the length-prefixed cursor values are written as
+ * <code>pageSize:length:value:length:value...</code> and encoded with URL-safe Base64,
+ * so the token is opaque for clients and needs no further escaping in a URI.</p>
+ */
+public class DefaultSkipTokenCodec implements SkipTokenCodec {
+
+  @Override
+  public String encode(final PageCursor cursor) {
+    StringBuilder text = new StringBuilder().append(cursor.getPageSize());
+    for (final String value : cursor.getValues()) {
+      text.append(':').append(value.length()).append(':').append(value);
+    }
+    return Base64.encodeBase64URLSafeString(text.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public PageCursor decode(final String skipToken) throws ODataApplicationException {
+    if (skipToken == null || skipToken.isEmpty() || !Base64.isBase64(skipToken)) {
+      throw invalid(null);
+    }
+    final String text = new String(Base64.decodeBase64(skipToken), StandardCharsets.UTF_8);
+    try {
+      int end = text.indexOf(':');
+      if (end < 0) {
+        end = text.length();
+      }
+      final int pageSize = Integer.parseInt(text.substring(0, end));
+      List<String> values = new ArrayList<String>();
+      int position = end;
+      while (position < text.length()) {
+        if (text.charAt(position) != ':') {
+          throw invalid(null);
+        }
+        end = text.indexOf(':', position + 1);
+        final int length = Integer.parseInt(text.substring(position + 1, end));
+        values.add(text.substring(end + 1, end + 1 + length));
+        position = end + 1 + length;
+      }
+      if (pageSize <= 0) {
+        throw invalid(null);
+      }
+      return new PageCursor(values, pageSize);
+    } catch (final IndexOutOfBoundsException e) {
+      throw invalid(e);
+    } catch (final IllegalArgumentException e) {
+      throw invalid(e);
+    }
+  }
+
+  private static ODataApplicationException invalid(final Exception cause) {
+    return new ODataApplicationException("Invalid skip token.",
+        HttpStatusCode.BAD_REQUEST.getStatusCode(), Locale.ROOT, cause);
+  }
+}
@@ -0,0 +1,374 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.paging;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+import org.apache.olingo.commons.api.data.ComplexValue;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityIterator;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmKeyPropertyRef;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.paging.KeysetPaging;
+import org.apache.olingo.server.api.paging.PageCursor;
+import org.apache.olingo.server.api.paging.SkipTokenCodec;
+import org.apache.olingo.server.api.paging.SkipTokenLinks;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceComplexProperty;
+import org.apache.olingo.server.api.uri.UriResourcePrimitiveProperty;
+import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.api.uri.queryoption.expression.Member;
+
+/**
+ * Keyset paging over the $orderby properties and the key properties of an entity type.
+ * <p>Instances are immutable and can be shared between requests with the same $orderby option.</p>
+ */
+public class KeysetPagingImpl implements KeysetPaging {
+
+  private static final String NULL_LITERAL = "null";
+
+  private final EdmEntityType entityType;
+  private final SkipTokenCodec codec;
+  private final List<String> paths = new ArrayList<String>();
+  private final List<String[]> segments = new ArrayList<String[]>();
+  private final List<EdmProperty> properties = new ArrayList<EdmProperty>();
+  private final List<Boolean> descending = new ArrayList<Boolean>();
+
+  public KeysetPagingImpl(final EdmEntityType entityType, final OrderByOption orderBy, final SkipTokenCodec codec)
+      throws ODataApplicationException {
+    this.entityType = entityType;
+    this.codec = codec;
+    if (orderBy != null) {
+      for (final OrderByItem item : orderBy.getOrders()) {
+        addOrderByItem(item);
+      }
+    }
+    for (final EdmKeyPropertyRef ref : entityType.getKeyPropertyRefs()) {
+      final String path = ref.getName();
+      if (!paths.contains(path)) {
+        add(path, path.split("/"), ref.getProperty(), false);
+      }
+    }
+  }
+
+  private void addOrderByItem(final OrderByItem item) throws ODataApplicationException {
+    final Expression expression = item.getExpression();
+    if (!(expression instanceof Member)) {
+      throw notImplemented();
+    }
+    final List<UriResource> parts = ((Member) expression).getResourcePath().getUriResourceParts();
+    if (parts.isEmpty()) {
+      throw notImplemented();
+    }
+    final String[] names = new String[parts.size()];
+    StringBuilder path = new StringBuilder();
+    for (int index = 0; index < parts.size(); index++) {
+      final UriResource part = parts.get(index);
+      final boolean last = index == parts.size() - 1;
+      final EdmProperty property;
+      if (!last && part instanceof UriResourceComplexProperty) {
+        property = ((UriResourceComplexProperty) part).getProperty();
+      } else if (last && part instanceof UriResourcePrimitiveProperty) {
+        property = ((UriResourcePrimitiveProperty) part).getProperty();
+      } else {
+        throw notImplemented();
+      }
+      if (property.isCollection()) {
+        throw notImplemented();
+      }
+      names[index] = property.getName();
+      path.append(index == 0 ? "" : "/").append(property.getName());
+      if (last && !paths.contains(path.toString())) {
+        add(path.toString(), names, property, item.isDescending());
+      }
+    }
+  }
+
+  private void add(final String path, final String[] names, final EdmProperty property, final boolean desc) {
+    paths.add(path);
+    segments.add(names);
+    properties.add(property);
+    descending.add(desc);
+  }
+
+  @Override
+  public EdmEntityType getEntityType() {
+    return entityType;
+  }
+
+  @Override
+  public List<String> getPropertyPaths() {
+    return Collections.unmodifiableList(paths);
+  }
+
+  @Override
+  public boolean isDescending(final int index) {
+    return descending.get(index);
+  }
+
+  @Override
+  public Comparator<Entity> getComparator() {
+    return new Comparator<Entity>() {
+      @Override
+      public int compare(final Entity entity1, final Entity entity2) {
+        for (int index = 0; index < paths.size(); index++) {
+          final int result = compareValues(getValue(entity1, index), getValue(entity2, index));
+          if (result != 0) {
+            return descending.get(index) ? -result : result;
+          }
+        }
+        return 0;
+      }
+    };
+  }
+
+  @Override
+  public PageCursor getCursor(final Entity lastEntity, final int pageSize) throws ODataApplicationException {
+    List<String> values = new ArrayList<String>(paths.size());
+    for (int index = 0; index < paths.size(); index++) {
+      values.add(toLiteral(index, getValue(lastEntity, index)));
+    }
+    return new PageCursor(values, pageSize);
+  }
+
+  @Override
+  public String createSkipToken(final Entity lastEntity, final int pageSize) throws ODataApplicationException {
+    return codec.encode(getCursor(lastEntity, pageSize));
+  }
+
+  @Override
+  public PageCursor readSkipToken(final String skipToken) throws ODataApplicationException {
+    final PageCursor cursor = codec.decode(skipToken);
+    if (cursor == null || cursor.getPageSize() <= 0 || cursor.getValues().size() != paths.size()) {
+      throw invalidSkipToken(null);
+    }
+    getValues(cursor);
+    return cursor;
+  }
+
+  @Override
+  public List<Object> getValues(final PageCursor cursor) throws ODataApplicationException {
+    List<Object> values = new ArrayList<Object>(paths.size());
+    for (int index = 0; index < paths.size(); index++) {
+      values.add(parse(index, cursor.getValues().get(index), null));
+    }
+    return values;
+  }
+
+  @Override
+  public int compare(final Entity entity, final PageCursor cursor) throws ODataApplicationException {
+    return new Bound(cursor).compareTo(entity);
+  }
+
+  @Override
+  public int seek(final List<Entity> sortedEntities, final PageCursor cursor) throws ODataApplicationException {
+    if (cursor == null) {
+      return 0;
+    }
+    final Bound bound = new Bound(cursor);
+    int low = 0;
+    int high = sortedEntities.size();
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (bound.compareTo(sortedEntities.get(middle)) <= 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  @Override
+  public EntityIterator page(final Iterator<Entity> entities, final int pageSize, final String rawRequestUri) {
+    return new PageIterator(entities, pageSize, rawRequestUri);
+  }
+
+  private Object getValue(final Entity entity, final int index) {
+    final String[] names = segments.get(index);
+    Property property = entity.getProperty(names[0]);
+    for (int segment = 1; segment < names.length && property != null; segment++) {
+      final ComplexValue complexValue = property.isNull() ? null : property.asComplex();
+      property = complexValue == null ? null : complexValue.getProperty(names[segment]);
+    }
+    return property == null ? null : property.getValue();
+  }
+
+  private String toLiteral(final int index, final Object value) throws ODataApplicationException {
+    if (value == null) {
+      return NULL_LITERAL;
+    }
+    final EdmProperty property = properties.get(index);
+    final EdmPrimitiveType type = (EdmPrimitiveType) property.getType();
+    try {
+      return type.toUriLiteral(type.valueToString(value, property.isNullable(), property.getMaxLength(),
+          property.getPrecision(), property.getScale(), property.isUnicode()));
+    } catch (final EdmPrimitiveTypeException e) {
+      throw new ODataApplicationException("Value of property " + paths.get(index) + " cannot be paged.",
+          HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode(), Locale.ROOT, e);
+    }
+  }
+
+  /**
+   * Parses a cursor value.
+   * @param valueClass the Java class of the entity values to compare with;
+   *                   <code>null</code> for the default type of the property
+   */
+  private Object parse(final int index, final String literal, final Class<?> valueClass)
+      throws ODataApplicationException {
+    if (NULL_LITERAL.equals(literal)) {
+      return null;
+    }
+    final EdmProperty property = properties.get(index);
+    final EdmPrimitiveType type = (EdmPrimitiveType) property.getType();
+    final Class<?> returnType = valueClass == null ? type.getDefaultType() : valueClass;
+    try {
+      return type.valueOfString(type.fromUriLiteral(literal), property.isNullable(), property.getMaxLength(),
+          property.getPrecision(), property.getScale(), property.isUnicode(), returnType);
+    } catch (final EdmPrimitiveTypeException e) {
+      throw invalidSkipToken(e);
+    }
+  }
+
+  /** Orders <code>null</code> first and otherwise uses the natural order of the values. */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private static int compareValues(final Object value1, final Object value2) {
+    if (value1 == null || value2 == null) {
+      return value1 == null ? value2 == null ? 0 : -1 : 1;
+    } else if (value1 instanceof Comparable && value1.getClass().isInstance(value2)) {
+      return ((Comparable) value1).compareTo(value2);
+    } else if (value1 instanceof Calendar && value2 instanceof Calendar) {
+      return ((Calendar) value1).compareTo((Calendar) value2);
+    } else {
+      return value1.toString().compareTo(value2.toString());
+    }
+  }
+
+  private static ODataApplicationException invalidSkipToken(final Exception cause) {
+    return new ODataApplicationException("Invalid skip token.",
+        HttpStatusCode.BAD_REQUEST.getStatusCode(), Locale.ROOT, cause);
+  }
+
+  private static ODataApplicationException notImplemented() {
+    return new ODataApplicationException("Only paths to single-valued primitive properties are supported "
+        + "in $orderby for keyset paging.", HttpStatusCode.NOT_IMPLEMENTED.getStatusCode(), Locale.ROOT);
+  }
+
+  /**
+   * Cursor values parsed once into the Java classes of the compared entity values,
+   * so that a binary search does not parse them for every comparison.
+   */
+  private class Bound {
+    private final PageCursor cursor;
+    private final Object[] values;
+    private final Class<?>[] valueClasses;
+
+    Bound(final PageCursor cursor) throws ODataApplicationException {
+      if (cursor.getValues().size() != paths.size()) {
+        throw invalidSkipToken(null);
+      }
+      this.cursor = cursor;
+      values = new Object[paths.size()];
+      valueClasses = new Class<?>[paths.size()];
+    }
+
+    /** Compares the entity with the cursor in paging order. */
+    int compareTo(final Entity entity) throws ODataApplicationException {
+      for (int index = 0; index < values.length; index++) {
+        final Object value = getValue(entity, index);
+        final int result = compareValues(value, getBoundValue(index, value));
+        if (result != 0) {
+          return descending.get(index) ? -result : result;
+        }
+      }
+      return 0;
+    }
+
+    private Object getBoundValue(final int index, final Object entityValue) throws ODataApplicationException {
+      final Class<?> valueClass = entityValue == null ? null
+          : entityValue instanceof Calendar ? Calendar.class : entityValue.getClass();
+      if (valueClasses[index] == null || valueClass != null && valueClass != valueClasses[index]) {
+        values[index] = parse(index, cursor.getValues().get(index), valueClass);
+        valueClasses[index] = valueClass == null ? Object.class : valueClass;
+      }
+      return values[index];
+    }
+  }
+
+  /** Iterator over one page that sets the next link when the page is complete and more entities follow. */
+  private class PageIterator extends EntityIterator {
+    private final Iterator<Entity> entities;
+    private final int pageSize;
+    private final String rawRequestUri;
+    private int returned;
+    private Entity last;
+
+    PageIterator(final Iterator<Entity> entities, final int pageSize, final String rawRequestUri) {
+      this.entities = entities;
+      this.pageSize = pageSize;
+      this.rawRequestUri = rawRequestUri;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (returned < pageSize) {
+        return entities.hasNext();
+      }
+      if (getNext() == null && last != null && entities.hasNext()) {
+        setNext(createNextLink());
+      }
+      return false;
+    }
+
+    @Override
+    public Entity next() {
+      if (returned >= pageSize) {
+        throw new NoSuchElementException();
+      }
+      last = entities.next();
+      returned++;
+      return last;
+    }
+
+    private URI createNextLink() {
+      try {
+        return SkipTokenLinks.createNextLink(rawRequestUri, createSkipToken(last, pageSize));
+      } catch (final ODataApplicationException e) {
+        throw new ODataRuntimeException("Next link cannot be created.", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.server.api.query.QueryPlan;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceProperty;
+import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
+import org.apache.olingo.server.api.uri.queryoption.SelectItem;
+import org.apache.olingo.server.api.uri.queryoption.SelectOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+
+public class QueryPlanImpl implements QueryPlan {
+
+  private final UriInfoResource uriInfo;
+  private final EdmEntityType entityType;
+  private final Expression filter;
+  private final List<OrderByItem> orderBy;
+  private final Integer skip;
+  private final Integer top;
+  private final boolean count;
+  private final List<String> selectedProperties;
+
+  public QueryPlanImpl(final UriInfoResource uriInfo, final EdmEntityType entityType) {
+    this.uriInfo = uriInfo;
+    this.entityType = entityType;
+    filter = uriInfo.getFilterOption() == null ? null : uriInfo.getFilterOption().getExpression();
+    orderBy = uriInfo.getOrderByOption() == null ?
+        Collections.<OrderByItem> emptyList() :
+        Collections.unmodifiableList(new ArrayList<OrderByItem>(uriInfo.getOrderByOption().getOrders()));
+    skip = uriInfo.getSkipOption() == null ? null : uriInfo.getSkipOption().getValue();
+    top = uriInfo.getTopOption() == null ? null : uriInfo.getTopOption().getValue();
+    count = uriInfo.getCountOption() != null && uriInfo.getCountOption().getValue();
+    selectedProperties = getSelectedProperties(uriInfo.getSelectOption(), entityType);
+  }
+
+  private static List<String> getSelectedProperties(final SelectOption selectOption, final EdmEntityType entityType) {
+    if (selectOption == null) {
+      return Collections.emptyList();
+    }
+    Set<String> names = new LinkedHashSet<>();
+    for (final SelectItem item : selectOption.getSelectItems()) {
+      if (item.isStar()) {
+        return Collections.emptyList();
+      }
+      if (item.getResourcePath() != null) {
+        // Only the first segment is relevant for the store; paths into complex properties read the whole property.
+        final UriResource first = item.getResourcePath().getUriResourceParts().get(0);
+        if (first instanceof UriResourceProperty) {
+          names.add(((UriResourceProperty) first).getProperty().getName());
+        }
+      }
+    }
+    if (names.isEmpty()) {
+      return Collections.emptyList();
+    }
+    Set<String> result = new LinkedHashSet<>(entityType.getKeyPredicateNames());
+    result.addAll(names);
+    return Collections.unmodifiableList(new ArrayList<String>(result));
+  }
+
+  @Override
+  public UriInfoResource getUriInfo() {
+    return uriInfo;
+  }
+
+  @Override
+  public EdmEntityType getEntityType() {
+    return entityType;
+  }
+
+  @Override
+  public Expression getFilter() {
+    return filter;
+  }
+
+  @Override
+  public List<OrderByItem> getOrderBy() {
+    return orderBy;
+  }
+
+  @Override
+  public Integer getSkip() {
+    return skip;
+  }
+
+  @Override
+  public Integer getTop() {
+    return top;
+  }
+
+  @Override
+  public boolean isCount() {
+    return count;
+  }
+
+  @Override
+  public List<String> getSelectedProperties() {
+    return selectedProperties;
+  }
+}
@@ -0,0 +1,383 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.query;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.olingo.commons.api.Constants;
+import org.apache.olingo.commons.api.edm.EdmEnumType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmType;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourcePrimitiveProperty;
+import org.apache.olingo.server.api.uri.queryoption.AliasQueryOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.BinaryOperatorKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitor;
+import org.apache.olingo.server.api.uri.queryoption.expression.Literal;
+import org.apache.olingo.server.api.uri.queryoption.expression.Member;
+import org.apache.olingo.server.api.uri.queryoption.expression.MethodKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.UnaryOperatorKind;
+
+/**
+ * Translates an expression tree into an SQL expression.
+ * Literal values are not written into the SQL text but collected as statement parameters.
+ * <p>Comparisons use the plain SQL operators so that indexes on the compared columns can be used.
+ * OData compares null values without three-valued logic, however: null equals null and nothing else,
+ * and an ordering comparison with null is false. SQL yields UNKNOWN in these cases, which behaves like
+ * false in a WHERE clause, except below NOT and in the negated comparison <code>ne</code>.
+ * For these, explicit null tests are added for operands that can be null.</p>
+ */
+class SqlExpressionVisitor implements ExpressionVisitor<SqlExpressionVisitor.Fragment> {
+
+  private static final String NULL = "NULL";
+  private static final String PARAMETER = "?";
+  private static final char LIKE_ESCAPE = '\\';
+
+  private final UriInfoResource uriInfo;
+  private final SqlQueryTranslatorImpl translator;
+  private final List<Object> parameters;
+
+  SqlExpressionVisitor(final UriInfoResource uriInfo, final SqlQueryTranslatorImpl translator,
+      final List<Object> parameters) {
+    this.uriInfo = uriInfo;
+    this.translator = translator;
+    this.parameters = parameters;
+  }
+
+  String translate(final Expression expression) throws ODataApplicationException {
+    return visit(expression).text;
+  }
+
+  private Fragment visit(final Expression expression) throws ODataApplicationException {
+    try {
+      return expression.accept(this);
+    } catch (final ExpressionVisitException e) {
+      throw new ODataApplicationException(e.getMessage(), HttpStatusCode.BAD_REQUEST.getStatusCode(), Locale.ROOT,
+          e);
+    }
+  }
+
+  @Override
+  public Fragment visitBinaryOperator(final BinaryOperatorKind operator, final Fragment left, final Fragment right)
+      throws ODataApplicationException {
+    switch (operator) {
+    case AND:
+      return Fragment.predicate('(' + left.text + " AND " + right.text + ')',
+          '(' + left.negation() + " OR " + right.negation() + ')');
+    case OR:
+      return Fragment.predicate('(' + left.text + " OR " + right.text + ')',
+          '(' + left.negation() + " AND " + right.negation() + ')');
+    case EQ:
+      return equal(left, right);
+    case NE:
+      return equal(left, right).negated();
+    case GT:
+      return compare(left, " > ", right, " <= ");
+    case GE:
+      return compare(left, " >= ", right, " < ");
+    case LT:
+      return compare(left, " < ", right, " >= ");
+    case LE:
+      return compare(left, " <= ", right, " > ");
+    case ADD:
+      return Fragment.value('(' + left.text + " + " + right.text + ')', left.nullable || right.nullable);
+    case SUB:
+      return Fragment.value('(' + left.text + " - " + right.text + ')', left.nullable || right.nullable);
+    case MUL:
+      return Fragment.value('(' + left.text + " * " + right.text + ')', left.nullable || right.nullable);
+    case DIV:
+      return Fragment.value('(' + left.text + " / " + right.text + ')', left.nullable || right.nullable);
+    case MOD:
+      return Fragment.value("MOD(" + left.text + ", " + right.text + ')', left.nullable || right.nullable);
+    default:
+      throw notImplemented("The operator '" + operator + "' is not supported.");
+    }
+  }
+
+  /** Creates an equality predicate whose negation is true if exactly one of the operands is null. */
+  private static Fragment equal(final Fragment left, final Fragment right) {
+    if (NULL.equals(right.text) || NULL.equals(left.text)) {
+      final Fragment operand = NULL.equals(right.text) ? left : right;
+      return Fragment.predicate(operand.text + " IS NULL", operand.text + " IS NOT NULL");
+    }
+    final String equal = left.text + " = " + right.text;
+    final String unequal = left.text + " <> " + right.text;
+    if (left.nullable && right.nullable) {
+      return Fragment.predicate(
+          '(' + equal + " OR (" + left.text + " IS NULL AND " + right.text + " IS NULL))",
+          '(' + unequal + " OR (" + left.text + " IS NULL AND " + right.text + " IS NOT NULL)"
+              + " OR (" + left.text + " IS NOT NULL AND " + right.text + " IS NULL))");
+    } else if (left.nullable || right.nullable) {
+      return Fragment.predicate(equal,
+          '(' + unequal + " OR " + (left.nullable ? left.text : right.text) + " IS NULL)");
+    } else {
+      return Fragment.predicate(equal, unequal);
+    }
+  }
+
+  /** Creates an ordering comparison; its negation is also true if an operand is null. */
+  private static Fragment compare(final Fragment left, final String operator, final Fragment right,
+      final String inverseOperator) {
+    final String inverse = left.text + inverseOperator + right.text;
+    return Fragment.predicate(left.text + operator + right.text,
+        left.nullable || right.nullable ?
+            '(' + inverse
+                + (left.nullable ? " OR " + left.text + " IS NULL" : "")
+                + (right.nullable ? " OR " + right.text + " IS NULL" : "") + ')' :
+            inverse);
+  }
+
+  @Override
+  public Fragment visitBinaryOperator(final BinaryOperatorKind operator, final Fragment left,
+      final List<Fragment> right) throws ODataApplicationException {
+    if (operator != BinaryOperatorKind.IN) {
+      throw notImplemented("The operator '" + operator + "' is not supported.");
+    }
+    StringBuilder items = new StringBuilder();
+    boolean nullItem = false;
+    for (final Fragment item : right) {
+      items.append(items.length() == 0 ? "" : ", ").append(item.text);
+      nullItem |= item.nullable;
+    }
+    final String in = left.text + " IN (" + items + ')';
+    // Like a series of equality comparisons, the negation is true for a null value.
+    return nullItem ? Fragment.predicate(in, null) :
+        Fragment.predicate(in, left.nullable ?
+            "(" + left.text + " NOT IN (" + items + ") OR " + left.text + " IS NULL)" :
+            left.text + " NOT IN (" + items + ')');
+  }
+
+  @Override
+  public Fragment visitUnaryOperator(final UnaryOperatorKind operator, final Fragment operand)
+      throws ODataApplicationException {
+    switch (operator) {
+    case NOT:
+      return operand.negated();
+    case MINUS:
+      return Fragment.value("(-" + operand.text + ')', operand.nullable);
+    default:
+      throw notImplemented("The operator '" + operator + "' is not supported.");
+    }
+  }
+
+  @Override
+  public Fragment visitMethodCall(final MethodKind methodCall, final List<Fragment> parameters)
+      throws ODataApplicationException {
+    boolean nullable = false;
+    for (final Fragment parameter : parameters) {
+      nullable |= parameter.nullable;
+    }
+    switch (methodCall) {
+    case CONTAINS:
+      return like(parameters.get(0), parameters.get(1), "%", "%");
+    case STARTSWITH:
+      return like(parameters.get(0), parameters.get(1), "", "%");
+    case ENDSWITH:
+      return like(parameters.get(0), parameters.get(1), "%", "");
+    case TOLOWER:
+      return Fragment.value("LOWER(" + parameters.get(0).text + ')', nullable);
+    case TOUPPER:
+      return Fragment.value("UPPER(" + parameters.get(0).text + ')', nullable);
+    case TRIM:
+      return Fragment.value("TRIM(" + parameters.get(0).text + ')', nullable);
+    case LENGTH:
+      return Fragment.value("CHAR_LENGTH(" + parameters.get(0).text + ')', nullable);
+    case CONCAT:
+      return Fragment.value('(' + parameters.get(0).text + " || " + parameters.get(1).text + ')', nullable);
+    case YEAR:
+    case MONTH:
+    case DAY:
+    case HOUR:
+    case MINUTE:
+    case SECOND:
+      return Fragment.value("EXTRACT(" + methodCall.name() + " FROM " + parameters.get(0).text + ')', nullable);
+    case ROUND:
+      return Fragment.value("ROUND(" + parameters.get(0).text + ')', nullable);
+    case FLOOR:
+      return Fragment.value("FLOOR(" + parameters.get(0).text + ')', nullable);
+    case CEILING:
+      return Fragment.value("CEILING(" + parameters.get(0).text + ')', nullable);
+    default:
+      throw notImplemented("The method '" + methodCall + "' is not supported.");
+    }
+  }
+
+  /**
+   * Creates a LIKE predicate. The pattern must be a literal so that its wildcard characters can be escaped;
+   * the pattern parameter is replaced with the escaped pattern.
+   * A null value gives null in OData, too, so the plain negation fits.
+   */
+  private Fragment like(final Fragment value, final Fragment pattern, final String prefix, final String suffix)
+      throws ODataApplicationException {
+    if (!PARAMETER.equals(pattern.text) || !(parameters.get(parameters.size() - 1) instanceof String)) {
+      throw notImplemented("Only string literals are supported as search patterns.");
+    }
+    final String text = (String) parameters.get(parameters.size() - 1);
+    StringBuilder escaped = new StringBuilder(prefix);
+    for (int i = 0; i < text.length(); i++) {
+      final char c = text.charAt(i);
+      if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+        escaped.append(LIKE_ESCAPE);
+      }
+      escaped.append(c);
+    }
+    parameters.set(parameters.size() - 1, escaped.append(suffix).toString());
+    return Fragment.predicate(value.text + " LIKE ? ESCAPE '" + LIKE_ESCAPE + '\'', null);
+  }
+
+  @Override
+  public Fragment visitLambdaExpression(final String lambdaFunction, final String lambdaVariable,
+      final Expression expression) throws ODataApplicationException {
+    throw notImplemented("Lambda expressions are not supported.");
+  }
+
+  @Override
+  public Fragment visitLiteral(final Literal literal) throws ODataApplicationException {
+    final EdmType type = literal.getType();
+    if (type == null) {
+      if ("null".equals(literal.getText())) {
+        return Fragment.value(NULL, true);
+      }
+      throw notImplemented("Literals without type are not supported.");
+    }
+    if (!(type instanceof EdmPrimitiveType)) {
+      throw notImplemented("Literals of type " + type.getFullQualifiedName() + " are not supported.");
+    }
+    final EdmPrimitiveType primitiveType = (EdmPrimitiveType) type;
+    final EdmPrimitiveTypeKind kind = getKind(primitiveType);
+    if (kind == EdmPrimitiveTypeKind.Duration) {
+      throw notImplemented("Duration literals are not supported.");
+    }
+    try {
+      parameters.add(primitiveType.valueOfString(primitiveType.fromUriLiteral(literal.getText()),
+          null, null, null, kind == EdmPrimitiveTypeKind.Decimal ? Constants.DEFAULT_SCALE : null, null,
+          getParameterClass(kind, primitiveType.getDefaultType())));
+    } catch (final EdmPrimitiveTypeException e) {
+      throw new ODataApplicationException("Invalid literal '" + literal.getText() + "'.",
+          HttpStatusCode.BAD_REQUEST.getStatusCode(), Locale.ROOT, e);
+    }
+    return Fragment.value(PARAMETER, false);
+  }
+
+  /** Temporal values are passed as their JDBC types so that they can be bound directly. */
+  private static Class<?> getParameterClass(final EdmPrimitiveTypeKind kind, final Class<?> defaultType) {
+    if (kind == EdmPrimitiveTypeKind.Date) {
+      return java.sql.Date.class;
+    } else if (kind == EdmPrimitiveTypeKind.DateTimeOffset) {
+      return java.sql.Timestamp.class;
+    } else if (kind == EdmPrimitiveTypeKind.TimeOfDay) {
+      return java.sql.Time.class;
+    } else {
+      return defaultType;
+    }
+  }
+
+  private static EdmPrimitiveTypeKind getKind(final EdmPrimitiveType type) {
+    try {
+      return EdmPrimitiveTypeKind.valueOfFQN(type.getFullQualifiedName());
+    } catch (final IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  @Override
+  public Fragment visitMember(final Member member) throws ODataApplicationException {
+    final List<UriResource> parts = member.getResourcePath().getUriResourceParts();
+    if (parts.size() != 1 || !(parts.get(0) instanceof UriResourcePrimitiveProperty)
+        || ((UriResourcePrimitiveProperty) parts.get(0)).isCollection()) {
+      throw notImplemented("Only single-valued primitive properties of the queried entities are supported.");
+    }
+    final EdmProperty property = ((UriResourcePrimitiveProperty) parts.get(0)).getProperty();
+    return Fragment.value(translator.getColumn(property.getName()), !Boolean.FALSE.equals(property.isNullable()));
+  }
+
+  @Override
+  public Fragment visitAlias(final String aliasName) throws ODataApplicationException {
+    if (uriInfo instanceof UriInfo) {
+      for (final AliasQueryOption alias : ((UriInfo) uriInfo).getAliases()) {
+        if (aliasName.equals(alias.getName()) && alias.getValue() != null) {
+          return visit(alias.getValue());
+        }
+      }
+    }
+    throw new ODataApplicationException("Missing value for alias '" + aliasName + "'.",
+        HttpStatusCode.BAD_REQUEST.getStatusCode(), Locale.ROOT);
+  }
+
+  @Override
+  public Fragment visitTypeLiteral(final EdmType type) throws ODataApplicationException {
+    throw notImplemented("Type literals are not supported.");
+  }
+
+  @Override
+  public Fragment visitLambdaReference(final String variableName) throws ODataApplicationException {
+    throw notImplemented("Lambda expressions are not supported.");
+  }
+
+  @Override
+  public Fragment visitEnum(final EdmEnumType type, final List<String> enumValues)
+      throws ODataApplicationException {
+    throw notImplemented("Enumeration literals are not supported.");
+  }
+
+  private static ODataApplicationException notImplemented(final String message) {
+    return new ODataApplicationException(message, HttpStatusCode.NOT_IMPLEMENTED.getStatusCode(), Locale.ROOT);
+  }
+
+  /** Translated SQL expression. */
+  static final class Fragment {
+    private final String text;
+    /** Whether the value can be null; predicates are nullable since SQL evaluates them to UNKNOWN. */
+    private final boolean nullable;
+    /** Negation of a predicate with OData semantics for null values; <code>null</code> if NOT is sufficient. */
+    private final String negation;
+
+    private Fragment(final String text, final boolean nullable, final String negation) {
+      this.text = text;
+      this.nullable = nullable;
+      this.negation = negation;
+    }
+
+    static Fragment value(final String text, final boolean nullable) {
+      return new Fragment(text, nullable, null);
+    }
+
+    static Fragment predicate(final String text, final String negation) {
+      return new Fragment(text, true, negation);
+    }
+
+    String negation() {
+      return negation == null ? "(NOT " + text + ')' : negation;
+    }
+
+    Fragment negated() {
+      return predicate(negation(), text);
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.query;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.server.api.query.SqlQuery;
+
+public class SqlQueryImpl implements SqlQuery {
+
+  private final String statement;
+  private final List<Object> parameters;
+  private final String countStatement;
+  private final List<Object> countParameters;
+
+  public SqlQueryImpl(final String statement, final List<Object> parameters,
+      final String countStatement, final List<Object> countParameters) {
+    this.statement = statement;
+    this.parameters = Collections.unmodifiableList(parameters);
+    this.countStatement = countStatement;
+    this.countParameters = countParameters == null ?
+        Collections.emptyList() :
+        Collections.unmodifiableList(countParameters);
+  }
+
+  @Override
+  public String getStatement() {
+    return statement;
+  }
+
+  @Override
+  public List<Object> getParameters() {
+    return parameters;
+  }
+
+  @Override
+  public String getCountStatement() {
+    return countStatement;
+  }
+
+  @Override
+  public List<Object> getCountParameters() {
+    return countParameters;
+  }
+
+  @Override
+  public String toString() {
+    return statement + " " + parameters;
+  }
+}
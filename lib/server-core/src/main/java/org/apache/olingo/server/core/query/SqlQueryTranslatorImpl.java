@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.query.QueryPlan;
+import org.apache.olingo.server.api.query.QueryTranslator;
+import org.apache.olingo.server.api.query.SqlQuery;
+import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
+
+/**
+ * Translates query plans into SQL statements for a single table.
+ * <p>The statements use ANSI SQL: column names are quoted with double quotes,
+ * and paging uses <code>OFFSET ... ROWS</code> and <code>FETCH ... ROWS ONLY</code>.
+ * Comparisons use the plain operators; null tests are added only where OData and SQL treat null values
+ * differently.
+ * Paged statements are always ordered by the key properties, after any requested order,
+ * so that consecutive pages neither overlap nor skip rows.
+ * The table name is used as given.</p>
+ */
+public class SqlQueryTranslatorImpl implements QueryTranslator<SqlQuery> {
+
+  private final String tableName;
+  private final Map<String, String> columnNames;
+
+  public SqlQueryTranslatorImpl(final String tableName, final Map<String, String> columnNames) {
+    this.tableName = tableName;
+    this.columnNames = columnNames == null ?
+        Collections.<String, String> emptyMap() :
+        new HashMap<String, String>(columnNames);
+  }
+
+  @Override
+  public SqlQuery translate(final QueryPlan plan) throws ODataApplicationException {
+    List<Object> parameters = new ArrayList<>();
+    final String where = plan.getFilter() == null ? "" :
+        " WHERE " + new SqlExpressionVisitor(plan.getUriInfo(), this, parameters).translate(plan.getFilter());
+    final List<Object> countParameters = plan.isCount() ? new ArrayList<Object>(parameters) : null;
+
+    StringBuilder statement = new StringBuilder("SELECT ");
+    if (plan.getSelectedProperties().isEmpty()) {
+      statement.append('*');
+    } else {
+      boolean first = true;
+      for (final String property : plan.getSelectedProperties()) {
+        statement.append(first ? "" : ", ").append(getColumn(property));
+        first = false;
+      }
+    }
+    statement.append(" FROM ").append(tableName).append(where);
+
+    List<String> orderBy = new ArrayList<>();
+    Set<String> orderedExpressions = new HashSet<>();
+    if (!plan.getOrderBy().isEmpty()) {
+      final SqlExpressionVisitor visitor = new SqlExpressionVisitor(plan.getUriInfo(), this, parameters);
+      for (final OrderByItem item : plan.getOrderBy()) {
+        final String expression = visitor.translate(item.getExpression());
+        orderedExpressions.add(expression);
+        orderBy.add(expression + (item.isDescending() ? " DESC" : " ASC"));
+      }
+    }
+    if ((plan.getSkip() != null || plan.getTop() != null) && plan.getEntityType() != null) {
+      for (final String keyName : plan.getEntityType().getKeyPredicateNames()) {
+        final String column = getColumn(keyName);
+        if (orderedExpressions.add(column)) {
+          orderBy.add(column + " ASC");
+        }
+      }
+    }
+    if (!orderBy.isEmpty()) {
+      statement.append(" ORDER BY ");
+      boolean first = true;
+      for (final String item : orderBy) {
+        statement.append(first ? "" : ", ").append(item);
+        first = false;
+      }
+    }
+
+    if (plan.getSkip() != null) {
+      statement.append(" OFFSET ? ROWS");
+      parameters.add(plan.getSkip());
+    }
+    if (plan.getTop() != null) {
+      statement.append(plan.getSkip() == null ? " FETCH FIRST ? ROWS ONLY" : " FETCH NEXT ? ROWS ONLY");
+      parameters.add(plan.getTop());
+    }
+
+    return new SqlQueryImpl(statement.toString(), parameters,
+        plan.isCount() ? "SELECT COUNT(*) FROM " + tableName + where : null,
+        countParameters);
+  }
+
+  /** Returns the quoted name of the column the given property is stored in. */
+  String getColumn(final String propertyName) {
+    final String columnName = columnNames.containsKey(propertyName) ? columnNames.get(propertyName) : propertyName;
+    return '"' + columnName.replace("\"", "\"\"") + '"';
+  }
+}
@@ -22,11 +22,8 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
-import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
-import java.nio.channels.WritableByteChannel;
 import java.util.List;
 import java.util.Map;
 
@@ -43,15 +40,24 @@ public class AsyncResponseSerializer {
   private static final String HTTP_VERSION = "HTTP/1.1";
 
   public InputStream serialize(final ODataResponse response) throws SerializerException {
-    try {
-      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-      appendStatusLine(response, buffer);
-      appendResponseHeader(response, buffer);
-      append(CRLF, buffer);
-      appendBody(response, buffer);
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    serialize(response, buffer);
+    return new ByteArrayInputStream(buffer.toByteArray(), 0, buffer.size());
+  }
 
-      buffer.flush();
-      return new ByteArrayInputStream(buffer.toByteArray(), 0, buffer.size());
+  /**
+   * Writes the response as HTTP message to the given output stream, which is not closed.
+   * @param response the response
+   * @param output the output stream
+   * @throws SerializerException if the response cannot be written
+   */
+  public void serialize(final ODataResponse response, final OutputStream output) throws SerializerException {
+    try {
+      appendStatusLine(response, output);
+      appendResponseHeader(response, output);
+      append(CRLF, output);
+      appendBody(response, output);
+      output.flush();
     } catch (IOException e) {
       throw new SerializerException("Exception occurred during serialization of asynchronous response.",
           e, SerializerException.MessageKeys.IO_EXCEPTION);
@@ -59,7 +65,7 @@ public class AsyncResponseSerializer {
   }
 
   private void appendResponseHeader(final ODataResponse response,
-      final ByteArrayOutputStream buffer) throws IOException {
+      final OutputStream buffer) throws IOException {
     final Map<String, List<String>> header = response.getAllHeaders();
 
     for (final Map.Entry<String, List<String>> entry : header.entrySet()) {
@@ -67,36 +73,37 @@ public class AsyncResponseSerializer {
     }
   }
 
-  private void appendHeader(final String name, final List<String> values, final ByteArrayOutputStream buffer)
+  private void appendHeader(final String name, final List<String> values, final OutputStream buffer)
       throws IOException {
     for (String value : values) {
       append(name + COLON + SP + value + CRLF, buffer);
     }
   }
 
-  private void appendStatusLine(final ODataResponse response, final ByteArrayOutputStream buffer)
+  private void appendStatusLine(final ODataResponse response, final OutputStream buffer)
       throws IOException {
     HttpStatusCode status = HttpStatusCode.fromStatusCode(response.getStatusCode());
     append(HTTP_VERSION + SP + response.getStatusCode() + SP + status + CRLF, buffer);
   }
 
-  private void appendBody(final ODataResponse response, final ByteArrayOutputStream buffer) throws IOException {
+  private void appendBody(final ODataResponse response, final OutputStream buffer) throws IOException {
     InputStream input = response.getContent();
     if (input != null) {
-      ByteBuffer inBuffer = ByteBuffer.allocate(BUFFER_SIZE);
-      try (ReadableByteChannel ic = Channels.newChannel(input)) {
-        try (WritableByteChannel oc = Channels.newChannel(buffer)) {
-          while (ic.read(inBuffer) > 0) {
-            inBuffer.flip();
-            oc.write(inBuffer);
-            inBuffer.rewind();
-          }
+      try {
+        final byte[] bytes = new byte[BUFFER_SIZE];
+        int count;
+        while ((count = input.read(bytes)) > 0) {
+          buffer.write(bytes, 0, count);
         }
+      } finally {
+        input.close();
       }
+    } else if (response.getODataContent() != null) {
+      response.getODataContent().write(buffer);
     }
   }
 
-  private void append(final String value, final ByteArrayOutputStream buffer) throws IOException {
+  private void append(final String value, final OutputStream buffer) throws IOException {
     try {
       buffer.write(value.getBytes(HEADER_CHARSET_NAME));
     } catch (UnsupportedEncodingException e) {
@@ -19,12 +19,11 @@
 package org.apache.olingo.server.core.serializer;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.ByteBuffer;
+import java.io.OutputStream;
 import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.util.List;
@@ -41,89 +40,179 @@ import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 import org.apache.olingo.server.api.serializer.BatchSerializerException;
 import org.apache.olingo.server.api.serializer.BatchSerializerException.MessageKeys;
 import org.apache.olingo.server.core.deserializer.batch.BatchParserCommon;
-
+import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
+
+/**
+ * Writes the multipart/mixed response of a batch request.
+ * <p>
+ * Boundaries, part headers and part bodies are written directly to the output, part by part.
+ * The body of a part is only buffered if its length is not known and a Content-Length header
+ * is required for it.
+ */
 public class BatchResponseSerializer {
-  private static final int BUFFER_SIZE = 4096;
+  private static final Charset CHARSET_ISO_8859_1 = Charset.forName("iso-8859-1");
   private static final String DOUBLE_DASH = "--";
   private static final String COLON = ":";
   private static final String SP = " ";
   private static final String CRLF = "\r\n";
 
+  /**
+   * Serializes the batch response, with a Content-Length header for every part.
+   * @param responses the response parts
+   * @param boundary the boundary between the parts
+   * @return the serialized response
+   */
   public InputStream serialize(final List<ODataResponsePart> responses, final String boundary)
       throws BatchSerializerException {
-    BodyBuilder builder = createBody(responses, boundary);
+    validate(responses);
+    final CircleStreamBuffer buffer = new CircleStreamBuffer();
+    try {
+      final OutputStream output = buffer.getOutputStream();
+      write(responses, boundary, output, true);
+      output.close();
+    } catch (final IOException e) {
+      throw new ODataRuntimeException("Error on writing batch response", e);
+    }
+    return buffer.getInputStream();
+  }
 
-    return new ByteArrayInputStream(builder.getContent());
+  /**
+   * Writes the batch response to the given output stream.
+   * Parts without a known length are streamed without a Content-Length header; they are
+   * delimited by the boundary only.
+   * @param responses the response parts
+   * @param boundary the boundary between the parts
+   * @param output the stream the response is written to; it is not closed
+   */
+  public void serialize(final List<ODataResponsePart> responses, final String boundary, final OutputStream output)
+      throws BatchSerializerException, IOException {
+    validate(responses);
+    write(responses, boundary, output, false);
   }
 
-  private BodyBuilder createBody(final List<ODataResponsePart> batchResponses, final String boundary)
+  /**
+   * Creates content writing the batch response when it is written itself.
+   * The parts are validated immediately.
+   * @param responses the response parts
+   * @param boundary the boundary between the parts
+   * @return the content
+   */
+  public ODataContent serializeStreamed(final List<ODataResponsePart> responses, final String boundary)
       throws BatchSerializerException {
-    final BodyBuilder builder = new BodyBuilder();
+    validate(responses);
+    return new BatchResponseContent(responses, boundary);
+  }
+
+  private void validate(final List<ODataResponsePart> responses) throws BatchSerializerException {
+    for (final ODataResponsePart part : responses) {
+      if (part.isChangeSet()) {
+        for (final ODataResponse response : part.getResponses()) {
+          if (response.getHeader(HttpHeader.CONTENT_ID) == null) {
+            throw new BatchSerializerException("Missing content id", MessageKeys.MISSING_CONTENT_ID);
+          }
+        }
+      }
+    }
+  }
 
+  private void write(final List<ODataResponsePart> batchResponses, final String boundary,
+      final OutputStream output, final boolean contentLengthRequired) throws IOException {
     for (final ODataResponsePart part : batchResponses) {
-      builder.append(getDashBoundary(boundary));
+      append(output, getDashBoundary(boundary));
 
       if (part.isChangeSet()) {
-        appendChangeSet(part, builder);
+        writeChangeSet(part, output, contentLengthRequired);
       } else {
-        appendBodyPart(part.getResponses().get(0), builder, false);
+        writeBodyPart(part.getResponses().get(0), output, false, contentLengthRequired);
       }
     }
-    builder.append(getCloseDelimiter(boundary));
-
-    return builder;
+    append(output, getCloseDelimiter(boundary));
+    output.flush();
   }
 
-  private void appendChangeSet(final ODataResponsePart part, final BodyBuilder builder)
-      throws BatchSerializerException {
+  private void writeChangeSet(final ODataResponsePart part, final OutputStream output,
+      final boolean contentLengthRequired) throws IOException {
     final String changeSetBoundary = generateBoundary("changeset");
 
-    appendChangeSetHeader(builder, changeSetBoundary);
-    builder.append(CRLF);
+    appendHeader(HttpHeader.CONTENT_TYPE, ContentType.MULTIPART_MIXED + "; boundary=" + changeSetBoundary, output);
+    append(output, CRLF);
 
     for (final ODataResponse response : part.getResponses()) {
-      builder.append(getDashBoundary(changeSetBoundary));
-      appendBodyPart(response, builder, true);
+      append(output, getDashBoundary(changeSetBoundary));
+      writeBodyPart(response, output, true, contentLengthRequired);
     }
 
-    builder.append(getCloseDelimiter(changeSetBoundary));
+    append(output, getCloseDelimiter(changeSetBoundary));
   }
 
-  private void appendBodyPart(final ODataResponse response, final BodyBuilder builder, final boolean isChangeSet)
-      throws BatchSerializerException {
-
-    appendBodyPartHeader(response, builder, isChangeSet);
-    builder.append(CRLF);
+  private void writeBodyPart(final ODataResponse response, final OutputStream output, final boolean isChangeSet,
+      final boolean contentLengthRequired) throws IOException {
+    appendHeader(HttpHeader.CONTENT_TYPE, ContentType.APPLICATION_HTTP.toContentTypeString(), output);
+    appendHeader(BatchParserCommon.CONTENT_TRANSFER_ENCODING, BatchParserCommon.BINARY_ENCODING, output);
+    if (isChangeSet) {
+      appendHeader(HttpHeader.CONTENT_ID, response.getHeader(HttpHeader.CONTENT_ID), output);
+    }
+    append(output, CRLF);
+
+    appendStatusLine(response, output);
+    appendResponseHeader(response, output);
+
+    InputStream content = response.getContent();
+    long length = getContentLength(content);
+    if (length < 0 && (content != null || response.getODataContent() != null) && contentLengthRequired) {
+      final CircleStreamBuffer buffer = new CircleStreamBuffer();
+      writeContent(response, buffer.getOutputStream());
+      content = buffer.getInputStream();
+      length = CircleStreamBuffer.getContentLength(content);
+    }
+    if (length >= 0) {
+      appendHeader(HttpHeader.CONTENT_LENGTH, Long.toString(length), output);
+    } else if (content == null && response.getODataContent() == null) {
+      appendHeader(HttpHeader.CONTENT_LENGTH, "0", output);
+    }
+    append(output, CRLF);
 
-    appendStatusLine(response, builder);
-    Body body = new Body(response);
-    appendResponseHeader(response, body.getLength(), builder);
-    builder.append(CRLF);
+    if (content != null) {
+      CircleStreamBuffer.copy(content, output);
+    } else if (response.getODataContent() != null) {
+      writeContent(response, output);
+    }
+    append(output, CRLF);
+  }
 
-    builder.append(body);
-    builder.append(CRLF);
+  private long getContentLength(final InputStream content) {
+    if (content instanceof ByteArrayInputStream) {
+      return ((ByteArrayInputStream) content).available();
+    }
+    return CircleStreamBuffer.getContentLength(content);
   }
 
-  private void appendChangeSetHeader(final BodyBuilder builder, final String changeSetBoundary) {
-    appendHeader(HttpHeader.CONTENT_TYPE, ContentType.MULTIPART_MIXED
-        + "; boundary=" + changeSetBoundary, builder);
+  private void writeContent(final ODataResponse response, final OutputStream output) throws IOException {
+    if (response.getContent() != null) {
+      CircleStreamBuffer.copy(response.getContent(), output);
+    } else {
+      // the serializers close the stream they have written to, which must not end the batch response
+      response.getODataContent().write(new FilterOutputStream(output) {
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+          out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+          flush();
+        }
+      });
+    }
   }
 
-  private void appendHeader(final String name, final String value, final BodyBuilder builder) {
-    builder.append(name)
-        .append(COLON)
-        .append(SP)
-        .append(value)
-        .append(CRLF);
+  private void appendHeader(final String name, final String value, final OutputStream output)
+      throws IOException {
+    append(output, name + COLON + SP + value + CRLF);
   }
 
-  private void appendStatusLine(final ODataResponse response, final BodyBuilder builder) {
-    builder.append("HTTP/1.1")
-        .append(SP)
-        .append(response.getStatusCode())
-        .append(SP)
-        .append(getStatusCodeInfo(response))
-        .append(CRLF);
+  private void appendStatusLine(final ODataResponse response, final OutputStream output) throws IOException {
+    append(output, "HTTP/1.1" + SP + response.getStatusCode() + SP + getStatusCodeInfo(response) + CRLF);
   }
 
   private String getStatusCodeInfo(final ODataResponse response) {
@@ -134,32 +223,20 @@ public class BatchResponseSerializer {
     return status.getInfo();
   }
 
-  private void appendResponseHeader(final ODataResponse response, final int contentLength,
-      final BodyBuilder builder) {
+  private void appendResponseHeader(final ODataResponse response, final OutputStream output) throws IOException {
     final Map<String, List<String>> header = response.getAllHeaders();
 
     for (final Map.Entry<String, List<String>> entry : header.entrySet()) {
-      // Requests never have a content id header.
-      if (!entry.getKey().equalsIgnoreCase(HttpHeader.CONTENT_ID)) {
-        appendHeader(entry.getKey(), entry.getValue().get(0), builder);
+      // Requests never have a content id header; the content length is determined when writing the body.
+      if (!entry.getKey().equalsIgnoreCase(HttpHeader.CONTENT_ID)
+          && !entry.getKey().equalsIgnoreCase(HttpHeader.CONTENT_LENGTH)) {
+        appendHeader(entry.getKey(), entry.getValue().get(0), output);
       }
     }
-
-    appendHeader(HttpHeader.CONTENT_LENGTH, Integer.toString(contentLength), builder);
   }
 
-  private void appendBodyPartHeader(final ODataResponse response, final BodyBuilder builder,
-      final boolean isChangeSet) throws BatchSerializerException {
-    appendHeader(HttpHeader.CONTENT_TYPE, ContentType.APPLICATION_HTTP.toContentTypeString(), builder);
-    appendHeader(BatchParserCommon.CONTENT_TRANSFER_ENCODING, BatchParserCommon.BINARY_ENCODING, builder);
-
-    if (isChangeSet) {
-      if (response.getHeader(HttpHeader.CONTENT_ID) != null) {
-        appendHeader(HttpHeader.CONTENT_ID, response.getHeader(HttpHeader.CONTENT_ID), builder);
-      } else {
-        throw new BatchSerializerException("Missing content id", MessageKeys.MISSING_CONTENT_ID);
-      }
-    }
+  private static void append(final OutputStream output, final String value) throws IOException {
+    output.write(value.getBytes(CHARSET_ISO_8859_1));
   }
 
   private String getDashBoundary(final String boundary) {
@@ -175,103 +252,29 @@ public class BatchResponseSerializer {
   }
 
   /**
-   * Builder class to create the body and the header.
+   * Batch response written part by part when the content is written.
    */
-  private static class BodyBuilder {
-    private static final Charset CHARSET_ISO_8859_1 = Charset.forName("iso-8859-1");
-    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
-    private boolean isClosed = false;
-
-    public byte[] getContent() {
-      isClosed = true;
-      byte[] tmp = new byte[buffer.position()];
-      buffer.flip();
-      buffer.get(tmp, 0, buffer.limit());
-      return tmp;
-    }
-
-    public BodyBuilder append(final String string) {
-      byte[] b = string.getBytes(CHARSET_ISO_8859_1);
-      put(b);
-      return this;
-    }
-
-    private void put(final byte[] b) {
-      if (isClosed) {
-        throw new ODataRuntimeException("BodyBuilder is closed.");
-      }
-      if (buffer.remaining() < b.length) {
-        buffer.flip();
-        int newSize = (buffer.limit() * 2) + b.length;
-        ByteBuffer tmp = ByteBuffer.allocate(newSize);
-        tmp.put(buffer);
-        buffer = tmp;
-      }
-      buffer.put(b);
-    }
-
-    public BodyBuilder append(final int statusCode) {
-      return append(String.valueOf(statusCode));
-    }
+  private class BatchResponseContent implements ODataContent {
+    private final List<ODataResponsePart> responses;
+    private final String boundary;
 
-    public BodyBuilder append(final Body body) {
-      put(body.getContent());
-      return this;
+    BatchResponseContent(final List<ODataResponsePart> responses, final String boundary) {
+      this.responses = responses;
+      this.boundary = boundary;
     }
 
     @Override
-    public String toString() {
-      return new String(buffer.array(), 0, buffer.position(), CHARSET_ISO_8859_1);
-    }
-  }
-
-  /**
-   * Body part which is read and stored as bytes (no charset conversion).
-   */
-  private static class Body {
-    private final byte[] content;
-
-    Body(final ODataResponse response) {
-      content = getBody(response);
-    }
-
-    private int getLength() {
-      return content.length;
+    public void write(final WritableByteChannel channel) {
+      write(Channels.newOutputStream(channel));
     }
 
-    private byte[] getContent() {
-      return content; //NOSONAR
-    }
-
-    private byte[] getBody(final ODataResponse response) {
-      if (response == null || (response.getContent() == null && 
-          response.getODataContent() == null)) {
-        return new byte[0];
-      }
-
+    @Override
+    public void write(final OutputStream stream) {
       try {
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
-        ByteBuffer inBuffer = ByteBuffer.allocate(BUFFER_SIZE);
-        if (response.getContent() == null) {
-          if (response.getODataContent() != null) {
-            ODataContent res = response.getODataContent();
-            res.write(Channels.newChannel(output));
-            }
-        } else {
-          try (WritableByteChannel oc = Channels.newChannel(output)) {
-            try (ReadableByteChannel ic = Channels.newChannel(response.getContent())) {
-              while (ic.read(inBuffer) > 0) {
-                inBuffer.flip();
-                oc.write(inBuffer);
-                inBuffer.rewind();
-              }
-            }
-          }
-        }
-        return output.toByteArray();
-      } catch (IOException e) {
-        throw new ODataRuntimeException("Error on reading request content", e);
+        BatchResponseSerializer.this.write(responses, boundary, stream, false);
+      } catch (final IOException e) {
+        throw new ODataRuntimeException("Error on writing batch response", e);
       }
     }
   }
-}
\ No newline at end of file
+}
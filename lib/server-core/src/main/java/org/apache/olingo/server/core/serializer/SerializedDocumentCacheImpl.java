@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.serializer.RepresentationType;
+import org.apache.olingo.server.api.serializer.SerializedDocumentCache;
+import org.apache.olingo.server.api.serializer.SerializerException;
+
+/**
+ * Cache for serialized documents which compresses each document at most once per content coding.
+ */
+public class SerializedDocumentCacheImpl implements SerializedDocumentCache {
+
+  private final ConcurrentMap<String, Document> documents = new ConcurrentHashMap<>();
+
+  @Override
+  public byte[] get(final RepresentationType type, final ContentType contentType, final String eTag,
+      final String contentCoding) throws SerializerException {
+    final String key = getKey(type, contentType);
+    final Document document = documents.get(key);
+    if (document == null) {
+      return null;
+    }
+    if (eTag == null ? document.eTag != null : !eTag.equals(document.eTag)) {
+      documents.remove(key, document);
+      return null;
+    }
+    if (contentCoding == null) {
+      return document.content;
+    } else if (GZIP.equals(contentCoding)) {
+      if (document.gzipContent == null) {
+        document.gzipContent = compress(document.content, true);
+      }
+      return document.gzipContent;
+    } else if (DEFLATE.equals(contentCoding)) {
+      if (document.deflateContent == null) {
+        document.deflateContent = compress(document.content, false);
+      }
+      return document.deflateContent;
+    } else {
+      throw new IllegalArgumentException("Unsupported content coding: " + contentCoding);
+    }
+  }
+
+  @Override
+  public void put(final RepresentationType type, final ContentType contentType, final String eTag,
+      final byte[] document) {
+    documents.put(getKey(type, contentType), new Document(eTag, document));
+  }
+
+  @Override
+  public void clear() {
+    documents.clear();
+  }
+
+  private String getKey(final RepresentationType type, final ContentType contentType) {
+    return type.name() + ' ' + contentType.toContentTypeString();
+  }
+
+  private byte[] compress(final byte[] content, final boolean gzip) throws SerializerException {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 4 + 64);
+    try {
+      final OutputStream output = gzip ? new GZIPOutputStream(buffer) : new DeflaterOutputStream(buffer);
+      output.write(content);
+      output.close();
+    } catch (final IOException e) {
+      throw new SerializerException("Compression failed.", e, SerializerException.MessageKeys.IO_EXCEPTION);
+    }
+    return buffer.toByteArray();
+  }
+
+  /**
+   * A serialized document; the compressed variants are created on first use.
+   * Concurrent requests may compress the document more than once, but they all get the same content.
+   */
+  private static final class Document {
+    private final String eTag;
+    private final byte[] content;
+    private volatile byte[] gzipContent;
+    private volatile byte[] deflateContent;
+
+    private Document(final String eTag, final byte[] content) {
+      this.eTag = eTag;
+      this.content = content;
+    }
+  }
+}
@@ -18,18 +18,57 @@
  */
 package org.apache.olingo.server.core.serializer;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.apache.olingo.server.api.ODataContent;
+import org.apache.olingo.server.api.ODataContentWriteErrorCallback;
+import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.serializer.SerializerResult;
+import org.apache.olingo.server.core.ODataWritableContent;
+import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
 
 public class SerializerResultImpl implements SerializerResult {
   private InputStream content;
+  private ContentWriter writer;
+  private ODataContentWriteErrorCallback errorCallback;
 
+  /**
+   * Returns the serialized content.
+   * Content that is serialized on write is serialized into a buffer first;
+   * errors during that serialization are thrown as {@link ODataRuntimeException}.
+   */
   @Override
   public InputStream getContent() {
+    if (content == null && writer != null) {
+      final CircleStreamBuffer buffer = new CircleStreamBuffer();
+      final OutputStream outputStream = buffer.getOutputStream();
+      try {
+        writer.write(outputStream);
+      } catch (final SerializerException e) {
+        throw new ODataRuntimeException(e);
+      } finally {
+        IOUtils.closeQuietly(outputStream);
+      }
+      writer = null;
+      content = buffer.getInputStream();
+    }
     return content;
   }
 
+  @Override
+  public ODataContent getODataContent() {
+    if (writer != null) {
+      return new WriterContent(writer, errorCallback);
+    }
+    return content == null ? null : new BufferedContent(content);
+  }
+
   public static SerializerResultBuilder with() {
     return new SerializerResultBuilder();
   }
@@ -42,8 +81,87 @@ public class SerializerResultImpl implements SerializerResult {
       return this;
     }
 
+    /**
+     * Sets a writer that serializes the content only when it is written or requested.
+     * @param writer the writer
+     * @param errorCallback callback for errors while the content is written; can be <code>null</code>
+     */
+    public SerializerResultBuilder content(final ContentWriter writer,
+        final ODataContentWriteErrorCallback errorCallback) {
+      result.writer = writer;
+      result.errorCallback = errorCallback;
+      return this;
+    }
+
     public SerializerResult build() {
       return result;
     }
   }
+
+  /** Serializes content into an output stream. */
+  public interface ContentWriter {
+    /**
+     * Writes the serialized content into the stream; the stream is flushed but not closed.
+     * @param outputStream the stream
+     * @throws SerializerException if the content cannot be serialized
+     */
+    void write(OutputStream outputStream) throws SerializerException;
+  }
+
+  /**
+   * ODataContent that serializes the content straight into the channel or stream it is written to.
+   * Errors found while writing are passed to the error callback, if there is one.
+   */
+  private static class WriterContent implements ODataContent {
+    private final ContentWriter writer;
+    private final ODataContentWriteErrorCallback errorCallback;
+
+    WriterContent(final ContentWriter writer, final ODataContentWriteErrorCallback errorCallback) {
+      this.writer = writer;
+      this.errorCallback = errorCallback;
+    }
+
+    @Override
+    public void write(final WritableByteChannel channel) {
+      try {
+        writer.write(Channels.newOutputStream(channel));
+      } catch (final SerializerException e) {
+        if (errorCallback == null) {
+          throw new ODataRuntimeException("Error on writing serialized content", e);
+        }
+        errorCallback.handleError(new ODataWritableContent.WriteErrorContext(e), channel);
+      }
+    }
+
+    @Override
+    public void write(final OutputStream stream) {
+      write(Channels.newChannel(stream));
+    }
+  }
+
+  /**
+   * ODataContent for an already serialized result.
+   * Content buffered in a {@link CircleStreamBuffer} is written without an additional copy.
+   */
+  private static class BufferedContent implements ODataContent {
+    private final InputStream content;
+
+    BufferedContent(final InputStream content) {
+      this.content = content;
+    }
+
+    @Override
+    public void write(final WritableByteChannel channel) {
+      write(Channels.newOutputStream(channel));
+    }
+
+    @Override
+    public void write(final OutputStream stream) {
+      try {
+        CircleStreamBuffer.copy(content, stream);
+      } catch (final IOException e) {
+        throw new ODataRuntimeException("Error on writing serialized content", e);
+      }
+    }
+  }
 }
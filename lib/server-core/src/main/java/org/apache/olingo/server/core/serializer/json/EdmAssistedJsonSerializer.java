@@ -60,7 +60,6 @@ import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
 import org.apache.olingo.server.core.serializer.utils.ContentTypeHelper;
 import org.apache.olingo.server.core.serializer.utils.ContextURLBuilder;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 
 public class EdmAssistedJsonSerializer implements EdmAssistedSerializer {
@@ -110,7 +109,7 @@ public class EdmAssistedJsonSerializer implements EdmAssistedSerializer {
     
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (JsonGenerator json = JsonFactoryProvider.getDefaultFactory().createGenerator(outputStream)) {
       if (obj instanceof AbstractEntityCollection) {
         doSerialize(entityType, (AbstractEntityCollection) obj, contextURLString, metadataETag, json);
       } else if (obj instanceof Entity) {
@@ -155,8 +154,10 @@ public class EdmAssistedJsonSerializer implements EdmAssistedSerializer {
       json.writeStringField(constants.getDeltaLink(), entityCollection.getDeltaLink().toASCIIString());
     }
 
-    for (final Annotation annotation : entityCollection.getAnnotations()) {
-      valuable(json, annotation, '@' + annotation.getTerm(), null, null);
+    if (entityCollection.hasAnnotations()) {
+      for (final Annotation annotation : entityCollection.getAnnotations()) {
+        valuable(json, annotation, '@' + annotation.getTerm(), null, null);
+      }
     }
 
     json.writeArrayFieldStart(Constants.VALUE);
@@ -182,8 +183,10 @@ public class EdmAssistedJsonSerializer implements EdmAssistedSerializer {
         .getType()).build().external();
     metadata(contextURLString, metadataETag, entity.getETag(), typeName, entity.getId(), true, json);
 
-    for (final Annotation annotation : entity.getAnnotations()) {
-      valuable(json, annotation, '@' + annotation.getTerm(), null, null);
+    if (entity.hasAnnotations()) {
+      for (final Annotation annotation : entity.getAnnotations()) {
+        valuable(json, annotation, '@' + annotation.getTerm(), null, null);
+      }
     }
 
     for (final Property property : entity.getProperties()) {
@@ -238,10 +241,15 @@ public class EdmAssistedJsonSerializer implements EdmAssistedSerializer {
   private void links(final Linked linked, final EdmEntityType entityType, JsonGenerator json)
       throws IOException, SerializerException {
 
+    if (!linked.hasNavigationLinks()) {
+      return;
+    }
     for (final Link link : linked.getNavigationLinks()) {
       final String name = link.getTitle();
-      for (final Annotation annotation : link.getAnnotations()) {
-        valuable(json, annotation, name + '@' + annotation.getTerm(), null, null);
+      if (link.hasAnnotations()) {
+        for (final Annotation annotation : link.getAnnotations()) {
+          valuable(json, annotation, name + '@' + annotation.getTerm(), null, null);
+        }
       }
 
       final EdmEntityType targetType =
@@ -408,8 +416,10 @@ public class EdmAssistedJsonSerializer implements EdmAssistedSerializer {
       }
     }
 
-    for (final Annotation annotation : ((Annotatable) valuable).getAnnotations()) {
-      valuable(json, annotation, name + '@' + annotation.getTerm(), null, null);
+    if (((Annotatable) valuable).hasAnnotations()) {
+      for (final Annotation annotation : ((Annotatable) valuable).getAnnotations()) {
+        valuable(json, annotation, name + '@' + annotation.getTerm(), null, null);
+      }
     }
 
     json.writeFieldName(name);
@@ -62,7 +62,6 @@ import org.apache.olingo.server.core.serializer.utils.ContextURLBuilder;
 import org.apache.olingo.server.core.serializer.utils.ExpandSelectHelper;
 import org.apache.olingo.server.core.uri.UriHelperImpl;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 
 public class JsonDeltaSerializer implements EdmDeltaSerializer {
@@ -93,7 +92,7 @@ public class JsonDeltaSerializer implements EdmDeltaSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      JsonGenerator json = new JsonFactory().createGenerator(outputStream);
+      JsonGenerator json = JsonFactoryProvider.getDefaultFactory().createGenerator(outputStream);
       boolean pagination = false;
       json.writeStartObject();
 
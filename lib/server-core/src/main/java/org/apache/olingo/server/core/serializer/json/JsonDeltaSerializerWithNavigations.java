@@ -68,7 +68,6 @@ import org.apache.olingo.server.core.serializer.utils.ContextURLBuilder;
 import org.apache.olingo.server.core.serializer.utils.ExpandSelectHelper;
 import org.apache.olingo.server.core.uri.UriHelperImpl;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 
 public class JsonDeltaSerializerWithNavigations implements EdmDeltaSerializer {
@@ -92,7 +91,7 @@ public class JsonDeltaSerializerWithNavigations implements EdmDeltaSerializer {
     
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+      try (JsonGenerator json = JsonFactoryProvider.getDefaultFactory().createGenerator(outputStream)) {
         json.writeStartObject();
 
         final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
@@ -213,9 +212,8 @@ public class JsonDeltaSerializerWithNavigations implements EdmDeltaSerializer {
     json.writeStartObject();
     json.writeStringField(Constants.ELEM_REASON,
         ((DeletedEntity) deletedEntity).getReason().name());
-    List<Annotation> annotations = deletedEntity.getAnnotations();
-    if (annotations != null && !annotations.isEmpty()) {
-      for (Annotation annotation : annotations) {
+    if (deletedEntity.hasAnnotations()) {
+      for (Annotation annotation : deletedEntity.getAnnotations()) {
         json.writeStringField(Constants.AT + annotation.getTerm(), annotation.getValue().toString());
       }
     }
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+
+/**
+ * Provides the Jackson {@link JsonFactory} shared by the JSON serializers.
+ * <p>A configured factory is thread-safe, so a single instance serves all requests
+ * instead of a new factory being created for every serializer call.
+ * The factory uses Jackson's default configuration.</p>
+ */
+public final class JsonFactoryProvider {
+
+  private static final JsonFactory DEFAULT_FACTORY = createFactory();
+
+  private JsonFactoryProvider() {
+    // Private constructor for utility classes
+  }
+
+  /**
+   * Returns the factory shared by all JSON serializers that have not been given their own one.
+   * The returned factory must not be reconfigured.
+   */
+  public static JsonFactory getDefaultFactory() {
+    return DEFAULT_FACTORY;
+  }
+
+  /**
+   * Creates a new factory with the default configuration.
+   * Applications that need a differently configured factory should start from the builder
+   * returned by {@link #builder()} and pass the result to the serializer.
+   */
+  public static JsonFactory createFactory() {
+    return builder().build();
+  }
+
+  /** Returns a builder for a factory the JSON serializers can work with. */
+  public static JsonFactoryBuilder builder() {
+    return new JsonFactoryBuilder();
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.json;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
+import org.apache.olingo.server.api.uri.queryoption.SelectOption;
+
+import com.fasterxml.jackson.core.SerializableString;
+
+/**
+ * Holds what the JSON serializer resolves from the metadata before it writes the properties of
+ * a structured type: the selected properties in order, their pre-encoded names, the type annotations
+ * and the select and expand paths.
+ * <p>A plan only depends on the type, the select and expand options, and the serializer's format
+ * and metadata level, so it is built once and reused for every entity of a collection.</p>
+ */
+final class JsonSerializationPlan {
+
+  /** Identifies a plan; the type and the options are compared by identity. */
+  static final class Key {
+    private final EdmStructuredType type;
+    private final SelectOption select;
+    private final ExpandOption expand;
+
+    Key(final EdmStructuredType type, final SelectOption select, final ExpandOption expand) {
+      this.type = type;
+      this.select = select;
+      this.expand = expand;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return type == other.type && select == other.select && expand == other.expand;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = System.identityHashCode(type);
+      result = 31 * result + System.identityHashCode(select);
+      result = 31 * result + System.identityHashCode(expand);
+      return result;
+    }
+  }
+
+  /**
+   * Bounded cache of plans.
+   * Entries are evicted with the second-chance algorithm, as in the cache for parsed request URIs:
+   * a lookup only marks the entry as referenced, and eviction walks the entries in insertion order,
+   * skipping (and unmarking) the referenced ones once.
+   */
+  static final class Cache {
+    private final int maximumSize;
+    private final ConcurrentMap<Key, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final Queue<Key> evictionQueue = new ConcurrentLinkedQueue<>();
+
+    Cache(final int maximumSize) {
+      this.maximumSize = maximumSize;
+    }
+
+    /** Returns the cached plan or <code>null</code>. */
+    JsonSerializationPlan get(final Key key) {
+      final CacheEntry entry = entries.get(key);
+      if (entry == null) {
+        return null;
+      }
+      entry.referenced = true;
+      return entry.plan;
+    }
+
+    void put(final Key key, final JsonSerializationPlan plan) {
+      if (entries.putIfAbsent(key, new CacheEntry(plan)) == null) {
+        evictionQueue.offer(key);
+        evict();
+      }
+    }
+
+    private void evict() {
+      while (entries.size() > maximumSize) {
+        final Key key = evictionQueue.poll();
+        if (key == null) {
+          return;
+        }
+        final CacheEntry entry = entries.get(key);
+        if (entry != null) {
+          if (entry.referenced) {
+            entry.referenced = false;
+            evictionQueue.offer(key);
+          } else {
+            entries.remove(key, entry);
+          }
+        }
+      }
+    }
+
+    int size() {
+      return entries.size();
+    }
+  }
+
+  private static final class CacheEntry {
+    private final JsonSerializationPlan plan;
+    private volatile boolean referenced;
+
+    private CacheEntry(final JsonSerializationPlan plan) {
+      this.plan = plan;
+    }
+  }
+
+  /** The resolved information for one property. */
+  static final class PropertyPlan {
+    private final EdmProperty edmProperty;
+    private final int slot;
+    private final SerializableString name;
+    private final boolean stream;
+    private final Set<List<String>> selectedPaths;
+    private final SerializableString typeAnnotationName;
+    private final String typeAnnotation;
+
+    PropertyPlan(final EdmProperty edmProperty, final int slot, final SerializableString name, final boolean stream,
+        final Set<List<String>> selectedPaths,
+        final SerializableString typeAnnotationName, final String typeAnnotation) {
+      this.edmProperty = edmProperty;
+      this.slot = slot;
+      this.name = name;
+      this.stream = stream;
+      this.selectedPaths = selectedPaths;
+      this.typeAnnotationName = typeAnnotationName;
+      this.typeAnnotation = typeAnnotation;
+    }
+
+    EdmProperty getEdmProperty() {
+      return edmProperty;
+    }
+
+    /** Returns the position of the property in the declared property order of its type. */
+    int getSlot() {
+      return slot;
+    }
+
+    /** Returns the encoded property name. */
+    SerializableString getName() {
+      return name;
+    }
+
+    boolean isStream() {
+      return stream;
+    }
+
+    /** Returns the select paths below a complex property or <code>null</code> if all are selected. */
+    Set<List<String>> getSelectedPaths() {
+      return selectedPaths;
+    }
+
+    /** Returns the encoded name of the type annotation or <code>null</code> if none is written. */
+    SerializableString getTypeAnnotationName() {
+      return typeAnnotationName;
+    }
+
+    String getTypeAnnotation() {
+      return typeAnnotation;
+    }
+  }
+
+  private final List<PropertyPlan> properties;
+  private final Set<List<String>> expandedPaths;
+  private final boolean keysSelected;
+
+  JsonSerializationPlan(final List<PropertyPlan> properties, final Set<List<String>> expandedPaths,
+      final boolean keysSelected) {
+    this.properties = Collections.unmodifiableList(properties);
+    this.expandedPaths = expandedPaths;
+    this.keysSelected = keysSelected;
+  }
+
+  /** Returns the properties to write, in the order of the type definition. */
+  List<PropertyPlan> getProperties() {
+    return properties;
+  }
+
+  Set<List<String>> getExpandedPaths() {
+    return expandedPaths;
+  }
+
+  /** Returns whether all key properties of an entity type are selected. */
+  boolean areKeysSelected() {
+    return keysSelected;
+  }
+}
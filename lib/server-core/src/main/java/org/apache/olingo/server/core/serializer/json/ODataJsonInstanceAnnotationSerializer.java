@@ -84,7 +84,7 @@ public class ODataJsonInstanceAnnotationSerializer {
 	 */
 	public void writeInstanceAnnotationsOnProperties(final EdmProperty edmProperty, final Property property,
 			final JsonGenerator json) throws IOException, SerializerException, DecoderException {
-		if (property != null) {
+		if (property != null && property.hasAnnotations()) {
 			for (Annotation annotation : property.getAnnotations()) {
 				json.writeFieldName(edmProperty.getName() + "@" + annotation.getTerm());
 				writeInstanceAnnotation(json, annotation, "");
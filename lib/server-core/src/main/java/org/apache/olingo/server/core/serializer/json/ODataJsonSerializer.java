@@ -21,6 +21,7 @@ package org.apache.olingo.server.core.serializer.json;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashSet;
@@ -42,6 +43,7 @@ import org.apache.olingo.commons.api.data.Link;
 import org.apache.olingo.commons.api.data.Linked;
 import org.apache.olingo.commons.api.data.Operation;
 import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.PropertyLayout;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
 import org.apache.olingo.commons.api.edm.EdmEntitySet;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
@@ -95,9 +97,29 @@ import org.apache.olingo.server.core.uri.queryoption.ExpandOptionImpl;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
 
 public class ODataJsonSerializer extends AbstractODataSerializer {
 
+  private static final int MAX_CACHED_PLANS = 64;
+
+  /** Whether a serializer class overrides the method that writes a single property. */
+  private static final ClassValue<Boolean> OVERRIDES_WRITE_PROPERTY = new ClassValue<Boolean>() {
+    @Override
+    protected Boolean computeValue(final Class<?> type) {
+      for (Class<?> current = type; current != ODataJsonSerializer.class; current = current.getSuperclass()) {
+        try {
+          current.getDeclaredMethod("writeProperty", ServiceMetadata.class, EdmProperty.class, Property.class,
+              Set.class, JsonGenerator.class, Set.class, Linked.class, ExpandOption.class);
+          return true;
+        } catch (final NoSuchMethodException e) {
+          // Continue with the superclass.
+        }
+      }
+      return false;
+    }
+  };
+
   private static final Map<Geospatial.Type, String> geoValueTypeToJsonName;
   static {
     Map<Geospatial.Type, String> temp = new EnumMap<>(Geospatial.Type.class);
@@ -115,21 +137,31 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
   private final boolean isODataMetadataNone;
   private final boolean isODataMetadataFull;
   private IConstants constants;
+  private final JsonFactory jsonFactory;
   private ODataJsonInstanceAnnotationSerializer instanceAnnotSerializer;
+  /** Plans already built by this serializer; bounded since the options differ between requests. */
+  private final JsonSerializationPlan.Cache plans = new JsonSerializationPlan.Cache(MAX_CACHED_PLANS);
 
   public ODataJsonSerializer(final ContentType contentType, final IConstants constants) {
-    isIEEE754Compatible = ContentTypeHelper.isODataIEEE754Compatible(contentType);
-    isODataMetadataNone = ContentTypeHelper.isODataMetadataNone(contentType);
-    isODataMetadataFull = ContentTypeHelper.isODataMetadataFull(contentType);
-    this.constants = constants;
-    instanceAnnotSerializer = new ODataJsonInstanceAnnotationSerializer(contentType, constants);
+    this(contentType, constants, JsonFactoryProvider.getDefaultFactory());
   }
 
   public ODataJsonSerializer(final ContentType contentType) {
+    this(contentType, new Constantsv00());
+  }
+
+  /**
+   * Creates a serializer that writes its output with generators of the given factory.
+   * The factory is shared with other threads and must not be reconfigured afterwards.
+   * @see JsonFactoryProvider#builder()
+   */
+  public ODataJsonSerializer(final ContentType contentType, final IConstants constants,
+      final JsonFactory jsonFactory) {
     isIEEE754Compatible = ContentTypeHelper.isODataIEEE754Compatible(contentType);
     isODataMetadataNone = ContentTypeHelper.isODataMetadataNone(contentType);
     isODataMetadataFull = ContentTypeHelper.isODataMetadataFull(contentType);
-    this.constants = new Constantsv00();
+    this.constants = constants;
+    this.jsonFactory = jsonFactory;
     instanceAnnotSerializer = new ODataJsonInstanceAnnotationSerializer(contentType, constants);
   }
 
@@ -141,7 +173,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
 
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
       new ServiceDocumentJsonSerializer(metadata, serviceRoot, isODataMetadataNone).writeServiceDocument(json);
 
       json.close();
@@ -163,7 +195,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
       new MetadataDocumentJsonSerializer(serviceMetadata).writeMetadataDocument(json);
       json.close();
       return SerializerResultImpl.with().content(buffer.getInputStream()).build();
@@ -183,7 +215,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
       new ODataErrorSerializer().writeErrorDocument(json, error);
 
       json.close();
@@ -201,13 +233,42 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
   public SerializerResult entityCollection(final ServiceMetadata metadata,
       final EdmEntityType entityType, final AbstractEntityCollection entitySet,
       final EntityCollectionSerializerOptions options) throws SerializerException {
+    if (options != null && options.isWriteDirectly()) {
+      checkContextURL(options.getContextURL());
+      return SerializerResultImpl.with().content(new SerializerResultImpl.ContentWriter() {
+        @Override
+        public void write(final OutputStream outputStream) throws SerializerException {
+          writeEntityCollection(metadata, entityType, entitySet, options, outputStream);
+        }
+      }, options.getODataContentWriteErrorCallback()).build();
+    }
     OutputStream outputStream = null;
     SerializerException cachedException = null;
-    boolean pagination = false;
-    
+
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try {
+      writeEntityCollection(metadata, entityType, entitySet, options, outputStream);
+      return SerializerResultImpl.with().content(buffer.getInputStream()).build();
+    } catch (final SerializerException e) {
+      cachedException = e;
+      throw cachedException;
+    } finally {
+      closeCircleStreamBufferOutput(outputStream, cachedException);
+    }
+  }
+
+  /**
+   * Writes the collection into the stream, which is flushed but not closed.
+   * Nothing more is written after an error, so that a partial document is not completed.
+   */
+  private void writeEntityCollection(final ServiceMetadata metadata, final EdmEntityType entityType,
+      final AbstractEntityCollection entitySet, final EntityCollectionSerializerOptions options,
+      final OutputStream outputStream) throws SerializerException {
+    boolean pagination = false;
+    try {
+      JsonGenerator json = jsonFactory.createGenerator(outputStream)
+          .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
       json.writeStartObject();
 
       final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
@@ -231,13 +292,8 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       writeDeltaLink(entitySet, json, pagination);
 
       json.close();
-      return SerializerResultImpl.with().content(buffer.getInputStream()).build();
     } catch (final IOException | DecoderException e) {
-      cachedException =
-          new SerializerException(IO_EXCEPTION_TEXT, e, SerializerException.MessageKeys.IO_EXCEPTION);
-      throw cachedException;
-    } finally {
-      closeCircleStreamBufferOutput(outputStream, cachedException);
+      throw new SerializerException(IO_EXCEPTION_TEXT, e, SerializerException.MessageKeys.IO_EXCEPTION);
     }
   }
 
@@ -256,7 +312,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     SerializerException cachedException;
     boolean pagination = false;
     try {
-      JsonGenerator json = new JsonFactory().createGenerator(outputStream);
+      JsonGenerator json = jsonFactory.createGenerator(outputStream);
       json.writeStartObject();
 
       final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
@@ -264,6 +320,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
 
       writeMetadataETag(metadata, json);
 
+      // The count is always written before the value, so an iterator must know it before the first entity is read.
       if (options != null && options.getCount() != null && options.getCount().getValue()) {
         writeInlineCount("", entitySet.getCount(), json);
       }
@@ -295,7 +352,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
       String name =  contextURL == null ? null:contextURL.getEntitySetOrSingletonOrType();
       writeEntity(metadata, entityType, entity, contextURL,
           options == null ? null : options.getExpand(),
@@ -410,7 +467,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
           if (entity.getMediaContentSource() != null) {
             json.writeStringField(constants.getMediaReadLink(), entity.getMediaContentSource().toString());
           }
-          if (entity.getMediaEditLinks() != null && !entity.getMediaEditLinks().isEmpty()) {
+          if (entity.hasMediaEditLinks()) {
             json.writeStringField(constants.getMediaEditLink(), entity.getMediaEditLinks().get(0).getHref());
           }
         }
@@ -422,7 +479,8 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
         if ((!isODataMetadataNone && !resolvedType.equals(entityType)) || isODataMetadataFull) {
           json.writeStringField(constants.getType(), "#" + entity.getType());
         }
-        if ((!isODataMetadataNone && !areKeyPredicateNamesSelected(select, resolvedType)) || isODataMetadataFull) {
+        if ((!isODataMetadataNone && !getPlan(resolvedType, select, expand).areKeysSelected())
+            || isODataMetadataFull) {
           json.writeStringField(constants.getId(), getEntityId(entity, resolvedType, name));
         }
         
@@ -434,10 +492,14 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
             json.writeStringField(constants.getEditLink(), entity.getEditLink().getHref());
           }
         }
-        instanceAnnotSerializer.writeInstanceAnnotationsOnEntity(entity.getAnnotations(), json);        
+        if (entity.hasAnnotations()) {
+          instanceAnnotSerializer.writeInstanceAnnotationsOnEntity(entity.getAnnotations(), json);
+        }
         writeProperties(metadata, resolvedType, entity.getProperties(), select, json, entity, expand);
         writeNavigationProperties(metadata, resolvedType, entity, expand, toDepth, ancestors, name, json);
-        writeOperations(entity.getOperations(), json);      
+        if (entity.hasOperations()) {
+          writeOperations(entity.getOperations(), json);
+        }
       }
       json.writeEndObject();
     } finally {
@@ -511,20 +573,69 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       final List<Property> properties,
       final SelectOption select, final JsonGenerator json, Linked linked, ExpandOption expand)
       throws IOException, SerializerException, DecoderException {
+    final JsonSerializationPlan plan = getPlan(type, select, expand);
+    final boolean usePlanNames = isPropertyWritingFromPlan();
+    for (final JsonSerializationPlan.PropertyPlan propertyPlan : plan.getProperties()) {
+      final Property property =
+          PropertyLayout.findProperty(properties, propertyPlan.getEdmProperty().getName(), propertyPlan.getSlot());
+      if (usePlanNames) {
+        writeProperty(metadata, propertyPlan, property, json, plan.getExpandedPaths(), linked, expand);
+      } else {
+        writeProperty(metadata, propertyPlan.getEdmProperty(), property, propertyPlan.getSelectedPaths(), json,
+            plan.getExpandedPaths(), linked, expand);
+      }
+    }
+  }
+
+  /**
+   * Returns the plan for writing the properties of the given type,
+   * building it on first use for this combination of type and options.
+   */
+  private JsonSerializationPlan getPlan(final EdmStructuredType type, final SelectOption select,
+      final ExpandOption expand) throws SerializerException {
+    final JsonSerializationPlan.Key key = new JsonSerializationPlan.Key(type, select, expand);
+    JsonSerializationPlan plan = plans.get(key);
+    if (plan == null) {
+      plan = createPlan(type, select, expand);
+      plans.put(key, plan);
+    }
+    return plan;
+  }
+
+  /**
+   * Returns whether the properties are written with the names and type annotations pre-encoded in the
+   * serialization plan. Otherwise they are written through
+   * {@link #writeProperty(ServiceMetadata, EdmProperty, Property, Set, JsonGenerator, Set, Linked, ExpandOption)}.
+   * <p>The default implementation returns <code>true</code> unless a subclass overrides that method.
+   * Subclasses can override this method to decide explicitly.</p>
+   */
+  protected boolean isPropertyWritingFromPlan() {
+    return !OVERRIDES_WRITE_PROPERTY.get(getClass());
+  }
+
+  private JsonSerializationPlan createPlan(final EdmStructuredType type, final SelectOption select,
+      final ExpandOption expand) throws SerializerException {
     final boolean all = ExpandSelectHelper.isAll(select);
     final Set<String> selected = all ? new HashSet<>() :
         ExpandSelectHelper.getSelectedPropertyNames(select.getSelectItems());
     addKeyPropertiesToSelected(selected, type);
-    Set<List<String>> expandedPaths = ExpandSelectHelper.getExpandedItemsPath(expand);
-    for (final String propertyName : type.getPropertyNames()) {
+    List<JsonSerializationPlan.PropertyPlan> properties = new ArrayList<>();
+    final List<String> propertyNames = type.getPropertyNames();
+    for (int slot = 0; slot < propertyNames.size(); slot++) {
+      final String propertyName = propertyNames.get(slot);
       if (all || selected.contains(propertyName)) {
         final EdmProperty edmProperty = type.getStructuralProperty(propertyName);
-        final Property property = findProperty(propertyName, properties);
         final Set<List<String>> selectedPaths = all || edmProperty.isPrimitive() ? null :
             ExpandSelectHelper.getSelectedPaths(select.getSelectItems(), propertyName);
-        writeProperty(metadata, edmProperty, property, selectedPaths, json, expandedPaths, linked, expand);
+        final String typeAnnotation = isODataMetadataFull ? getPropertyTypeAnnotation(edmProperty) : null;
+        properties.add(new JsonSerializationPlan.PropertyPlan(edmProperty, slot,
+            new SerializedString(edmProperty.getName()), isStreamProperty(edmProperty), selectedPaths,
+            typeAnnotation == null ? null : new SerializedString(edmProperty.getName() + constants.getType()),
+            typeAnnotation));
       }
     }
+    return new JsonSerializationPlan(properties, ExpandSelectHelper.getExpandedItemsPath(expand),
+        !(type instanceof EdmEntityType) || areKeyPredicateNamesSelected(select, (EdmEntityType) type));
   }
   
   private void addKeyPropertiesToSelected(Set<String> selected, EdmStructuredType type) {
@@ -631,6 +742,19 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     }
   }
 
+  /**
+   * Returns the in-line entity collection of a navigation link; an in-line entity iterator
+   * is used if no in-line entity set has been set.
+   */
+  private static AbstractEntityCollection getInlineEntityCollection(final Link navigationLink) {
+    if (navigationLink == null) {
+      return null;
+    }
+    return navigationLink.getInlineEntitySet() == null ?
+        navigationLink.getInlineEntityIterator() :
+        navigationLink.getInlineEntitySet();
+  }
+
   protected void writeExpandedNavigationProperty(
       final ServiceMetadata metadata, final EdmNavigationProperty property,
       final Link navigationLink, final ExpandOption innerExpand,
@@ -639,14 +763,15 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       String name, final JsonGenerator json) throws IOException, SerializerException, DecoderException {
 
     if (property.isCollection()) {
+      final AbstractEntityCollection inlineEntitySet = getInlineEntityCollection(navigationLink);
       if (writeOnlyCount) {
-        if (navigationLink == null || navigationLink.getInlineEntitySet() == null) {
+        if (inlineEntitySet == null) {
           writeInlineCount(property.getName(), 0, json);
         } else {
-          writeInlineCount(property.getName(), navigationLink.getInlineEntitySet().getCount(), json);
+          writeInlineCount(property.getName(), inlineEntitySet.getCount(), json);
         }
       } else {
-        if (navigationLink == null || navigationLink.getInlineEntitySet() == null) {
+        if (inlineEntitySet == null) {
           if (innerCount != null && innerCount.getValue()) {
             writeInlineCount(property.getName(), 0, json);
           }
@@ -655,10 +780,10 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
           json.writeEndArray();
         } else {
           if (innerCount != null && innerCount.getValue()) {
-            writeInlineCount(property.getName(), navigationLink.getInlineEntitySet().getCount(), json);
+            writeInlineCount(property.getName(), inlineEntitySet.getCount(), json);
           }
           json.writeFieldName(property.getName());
-          writeEntitySet(metadata, property.getType(), navigationLink.getInlineEntitySet(), innerExpand, toDepth,
+          writeEntitySet(metadata, property.getType(), inlineEntitySet, innerExpand, toDepth,
               innerSelect, writeOnlyRef, ancestors, name, json);
         }
       }
@@ -690,6 +815,31 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     if (!isStreamProperty) {
       json.writeFieldName(edmProperty.getName());
     }
+    writePropertyContent(metadata, edmProperty, isStreamProperty, property, selectedPaths, json,
+        expandedPaths, linked, expand);
+  }
+
+  private void writeProperty(final ServiceMetadata metadata, final JsonSerializationPlan.PropertyPlan plan,
+      final Property property, final JsonGenerator json,
+      Set<List<String>> expandedPaths, Linked linked, ExpandOption expand)
+      throws IOException, SerializerException, DecoderException {
+    instanceAnnotSerializer.writeInstanceAnnotationsOnProperties(plan.getEdmProperty(), property, json);
+    if (plan.getTypeAnnotationName() != null) {
+      json.writeFieldName(plan.getTypeAnnotationName());
+      json.writeString(plan.getTypeAnnotation());
+    }
+    if (!plan.isStream()) {
+      json.writeFieldName(plan.getName());
+    }
+    writePropertyContent(metadata, plan.getEdmProperty(), plan.isStream(), property, plan.getSelectedPaths(), json,
+        expandedPaths, linked, expand);
+  }
+
+  private void writePropertyContent(final ServiceMetadata metadata,
+      final EdmProperty edmProperty, final boolean isStreamProperty, final Property property,
+      final Set<List<String>> selectedPaths, final JsonGenerator json,
+      Set<List<String>> expandedPaths, Linked linked, ExpandOption expand)
+      throws IOException, SerializerException, DecoderException {
     if (property == null || property.isNull()) {
       if (edmProperty.isNullable() == Boolean.FALSE && !isStreamProperty) {
         throw new SerializerException("Non-nullable property not present!",
@@ -715,36 +865,43 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     if (!isODataMetadataFull) {
       return;
     }
-    String typeName = edmProperty.getName() + constants.getType();
+    final String typeAnnotation = getPropertyTypeAnnotation(edmProperty);
+    if (typeAnnotation != null) {
+      json.writeStringField(edmProperty.getName() + constants.getType(), typeAnnotation);
+    }
+  }
+
+  /** Returns the value of the type annotation for the property or <code>null</code> if none is needed. */
+  private String getPropertyTypeAnnotation(final EdmProperty edmProperty) throws SerializerException {
     final EdmType type = edmProperty.getType();
     if (type.getKind() == EdmTypeKind.ENUM || type.getKind() == EdmTypeKind.DEFINITION) {
       if (edmProperty.isCollection()) {
-        json.writeStringField(typeName, 
-            "#Collection(" + type.getFullQualifiedName().getFullQualifiedNameAsString() + ")");
+        return "#Collection(" + type.getFullQualifiedName().getFullQualifiedNameAsString() + ")";
       } else {
-        json.writeStringField(typeName, "#" + type.getFullQualifiedName().getFullQualifiedNameAsString());
+        return "#" + type.getFullQualifiedName().getFullQualifiedNameAsString();
       }
     } else if (edmProperty.isPrimitive()) {
       if (edmProperty.isCollection()) {
-        json.writeStringField(typeName, "#Collection(" + type.getFullQualifiedName().getName() + ")");
+        return "#Collection(" + type.getFullQualifiedName().getName() + ")";
       } else {
         // exclude the properties that can be heuristically determined
         if (type != EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Boolean) &&
             type != EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Double) &&
             type != EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.String)) {
-          json.writeStringField(typeName, "#" + type.getFullQualifiedName().getName());                  
+          return "#" + type.getFullQualifiedName().getName();
         }
+        return null;
       }
     } else if (type.getKind() == EdmTypeKind.COMPLEX) {
       // non-collection case written in writeComplex method directly.
       if (edmProperty.isCollection()) {
-        json.writeStringField(typeName, 
-            "#Collection(" + type.getFullQualifiedName().getFullQualifiedNameAsString() + ")");
+        return "#Collection(" + type.getFullQualifiedName().getFullQualifiedNameAsString() + ")";
       }
+      return null;
     } else {
       throw new SerializerException("Property type not yet supported!",
           SerializerException.MessageKeys.UNSUPPORTED_PROPERTY_TYPE, edmProperty.getName());
-    }    
+    }
   }
 
   private void writePropertyValue(final ServiceMetadata metadata, final EdmProperty edmProperty,
@@ -1078,8 +1235,10 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       }
     }
     
-    for (final String propertyName : type.getPropertyNames()) {
-      final Property property = findProperty(propertyName, properties);
+    final List<String> propertyNames = type.getPropertyNames();
+    for (int slot = 0; slot < propertyNames.size(); slot++) {
+      final String propertyName = propertyNames.get(slot);
+      final Property property = PropertyLayout.findProperty(properties, propertyName, slot);
       if (selectedPaths == null || ExpandSelectHelper.isSelected(selectedPaths, propertyName)) {
         writeProperty(metadata, (EdmProperty) type.getProperty(propertyName), property,
             selectedPaths == null ? null : ExpandSelectHelper.getReducedSelectedPaths(selectedPaths, propertyName),
@@ -1094,15 +1253,6 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
   }
     
 
-  private Property findProperty(final String propertyName, final List<Property> properties) {
-    for (final Property property : properties) {
-      if (propertyName.equals(property.getName())) {
-        return property;
-      }
-    }
-    return null;
-  }
-
   @Override
   public SerializerResult primitive(final ServiceMetadata metadata, final EdmPrimitiveType type,
       final Property property, final PrimitiveSerializerOptions options) throws SerializerException {
@@ -1112,11 +1262,13 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
       json.writeStartObject();
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);
-      writeOperations(property.getOperations(), json);
+      if (property.hasOperations()) {
+        writeOperations(property.getOperations(), json);
+      }
       if (property.isNull() && options!=null && options.isNullable() != null && !options.isNullable()) {
         throw new SerializerException("Property value can not be null.", SerializerException.MessageKeys.NULL_INPUT);
       } else {
@@ -1157,7 +1309,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
         contextURL.getEntitySetOrSingletonOrType();
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      JsonGenerator json = new JsonFactory().createGenerator(outputStream);
+      JsonGenerator json = jsonFactory.createGenerator(outputStream);
       json.writeStartObject();
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);      
@@ -1179,7 +1331,9 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
         json.writeStringField(constants.getType(), "#" + 
       resolvedType.getFullQualifiedName().getFullQualifiedNameAsString());
       }
-      writeOperations(property.getOperations(), json);      
+      if (property.hasOperations()) {
+        writeOperations(property.getOperations(), json);
+      }
       final List<Property> values =
           property.isNull() ? Collections.<Property> emptyList() : property.asComplex().getValue();
       writeProperties(metadata, type, values, options == null ? null : options == null ? null : options.getSelect(), 
@@ -1212,14 +1366,16 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
       json.writeStartObject();
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);
       if (isODataMetadataFull) {
         json.writeStringField(constants.getType(),  "#Collection("+type.getFullQualifiedName().getName()+")");
       }
-      writeOperations(property.getOperations(), json);
+      if (property.hasOperations()) {
+        writeOperations(property.getOperations(), json);
+      }
       json.writeFieldName(Constants.VALUE);
       writePrimitiveCollection(type, property,
           options == null ? null : options.isNullable(),
@@ -1250,7 +1406,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
       json.writeStartObject();
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);
@@ -1258,7 +1414,9 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
         json.writeStringField(constants.getType(), 
             "#Collection(" + type.getFullQualifiedName().getFullQualifiedNameAsString() + ")");                
       }
-      writeOperations(property.getOperations(), json);
+      if (property.hasOperations()) {
+        writeOperations(property.getOperations(), json);
+      }
       json.writeFieldName(Constants.VALUE);
       Set<List<String>> selectedPaths = null;
       if (null != options && null != options.getSelect()) {
@@ -1296,7 +1454,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     final UriHelper uriHelper = new UriHelperImpl();
     outputStream = buffer.getOutputStream();
-    try (final JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (final JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
 
       json.writeStartObject();
       writeContextURL(contextURL, json);
@@ -1326,7 +1484,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     final UriHelper uriHelper = new UriHelperImpl();
     outputStream = buffer.getOutputStream();
-    try (final JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (final JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
       json.writeStartObject();
 
       writeContextURL(contextURL, json);
@@ -37,12 +37,14 @@ public class CircleStreamBuffer {
   private static final int READ_EOF = -1;
   private static final int DEFAULT_CAPACITY = 8192;
   private static final int MAX_CAPACITY = DEFAULT_CAPACITY * 32;
+  private static final int COPY_BUFFER_SIZE = 8192;
 
   private int currentAllocateCapacity = DEFAULT_CAPACITY;
 
   private boolean writeMode = true;
   private boolean writeClosed = false;
   private boolean readClosed = false;
+  private boolean readStarted = false;
 
   private Queue<ByteBuffer> bufferQueue = new LinkedBlockingQueue<>();
   private ByteBuffer currentWriteBuffer;
@@ -145,6 +147,7 @@ public class CircleStreamBuffer {
     if (readClosed) {
       throw new IOException("Tried to read from closed stream.");
     }
+    readStarted = true;
 
     boolean next = false;
     ByteBuffer tmp = null;
@@ -193,11 +196,77 @@ public class CircleStreamBuffer {
     return readBuffer.get();
   }
 
+  /**
+   * Writes all readable data into the given stream.
+   * The content of the internal buffers is handed to the stream as it is, so no additional copy
+   * is made, and every buffer is released as soon as it has been written completely.
+   *
+   * @param stream the stream to write into
+   * @throws IOException if the buffer has been closed for reading or the stream cannot be written
+   */
+  public void writeTo(final OutputStream stream) throws IOException {
+    ByteBuffer readBuffer = getReadBuffer();
+    while (readBuffer != null) {
+      stream.write(readBuffer.array(), readBuffer.arrayOffset() + readBuffer.position(), readBuffer.remaining());
+      readBuffer.position(readBuffer.limit());
+      readBuffer = getReadBuffer();
+    }
+  }
+
+  /**
+   * Copies the content of the given input stream into the given output stream and closes the input stream.
+   * If the input stream is the input stream of a {@link CircleStreamBuffer}, the buffered data are
+   * written directly (see {@link #writeTo(OutputStream)}); otherwise they are copied
+   * through an intermediate buffer.
+   *
+   * @param input the stream to read from
+   * @param output the stream to write into
+   * @throws IOException if reading or writing fails
+   */
+  public static void copy(final InputStream input, final OutputStream output) throws IOException {
+    try {
+      if (input instanceof InternalInputStream) {
+        ((InternalInputStream) input).inBuffer.writeTo(output);
+      } else {
+        final byte[] copyBuffer = new byte[COPY_BUFFER_SIZE];
+        int count = input.read(copyBuffer);
+        while (count != READ_EOF) {
+          output.write(copyBuffer, 0, count);
+          count = input.read(copyBuffer);
+        }
+      }
+    } finally {
+      input.close();
+    }
+  }
+
+  /**
+   * Gets the number of bytes the given stream provides, if it is the input stream of a
+   * CircleStreamBuffer from which nothing has been read yet.
+   * @param input the stream
+   * @return number of bytes, or -1 if the number is not known
+   */
+  public static long getContentLength(final InputStream input) {
+    return input instanceof InternalInputStream ? ((InternalInputStream) input).inBuffer.getContentLength() : -1;
+  }
+
+  private long getContentLength() {
+    if (readStarted || readClosed) {
+      return -1;
+    }
+    long length = 0;
+    for (ByteBuffer buffer : bufferQueue) {
+      length += buffer.position();
+    }
+    return length;
+  }
+
   public ByteBuffer getBuffer() throws IOException {
     if (readClosed) {
       throw new IOException("Tried to read from closed stream.");
     }
     writeMode = false;
+    readStarted = true;
 
     // FIXME: mibo_160108: This is not efficient and only for test/poc reasons
     int reqSize = 0;
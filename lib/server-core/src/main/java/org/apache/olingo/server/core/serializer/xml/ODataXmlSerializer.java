@@ -42,6 +42,7 @@ import org.apache.olingo.commons.api.data.Link;
 import org.apache.olingo.commons.api.data.Linked;
 import org.apache.olingo.commons.api.data.Operation;
 import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.PropertyLayout;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
 import org.apache.olingo.commons.api.edm.EdmEntitySet;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
@@ -311,11 +312,15 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
         writer.writeEndElement();
       }
 
+      // The count is always written before the entries, so an iterator must know it before the first entity
+      // is read. The next link may only be known after all entities have been read; it is written behind the
+      // entries in that case.
       if (options != null && options.getCount() != null && options.getCount().getValue()
           && entitySet.getCount() != null) {
         writeCount(entitySet, writer);
       }
-      if (entitySet!=null && entitySet.getNext() != null) {
+      final boolean nextLinkWritten = entitySet.getNext() != null;
+      if (nextLinkWritten) {
         writeNextLink(entitySet, writer);
       }
       boolean writeOnlyRef = (options != null && options.getWriteOnlyReferences());
@@ -326,6 +331,9 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
             options.getExpand(), null, 
             options.getSelect(), options.xml10InvalidCharReplacement(), writer, writeOnlyRef, name, null);
       }
+      if (!nextLinkWritten && entitySet.getNext() != null) {
+        writeNextLink(entitySet, writer);
+      }
 
       writer.writeEndElement();
       writer.writeEndDocument();
@@ -502,8 +510,10 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
       }
   
       // write media links
-      for (Link link : entity.getMediaEditLinks()) {
-        writeLink(writer, link);
+      if (entity.hasMediaEditLinks()) {
+        for (Link link : entity.getMediaEditLinks()) {
+          writeLink(writer, link);
+        }
       }
   
       EdmEntityType resolvedType = resolveEntityType(metadata, entityType, entity.getType());
@@ -531,7 +541,9 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
         writer.writeEndElement();
       }
       
-      writeOperations(entity.getOperations(), writer);
+      if (entity.hasOperations()) {
+        writeOperations(entity.getOperations(), writer);
+      }
       
       writer.writeEndElement(); // entry
     } finally {
@@ -630,10 +642,12 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
         ExpandSelectHelper.getSelectedPropertyNames(select.getSelectItems());
     addKeyPropertiesToSelected(selected, type);
     Set<List<String>> expandedPaths = ExpandSelectHelper.getExpandedItemsPath(expand);
-    for (final String propertyName : type.getPropertyNames()) {
+    final List<String> propertyNames = type.getPropertyNames();
+    for (int slot = 0; slot < propertyNames.size(); slot++) {
+      final String propertyName = propertyNames.get(slot);
       if (all || selected.contains(propertyName)) {
         final EdmProperty edmProperty = type.getStructuralProperty(propertyName);
-        final Property property = findProperty(propertyName, properties);
+        final Property property = PropertyLayout.findProperty(properties, propertyName, slot);
         final Set<List<String>> selectedPaths = all || edmProperty.isPrimitive() ? null :
             ExpandSelectHelper.getSelectedPaths(select.getSelectItems(), propertyName);
         writeProperty(metadata, edmProperty, property, selectedPaths, 
@@ -706,8 +720,10 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
         writeLink(writer, getOrCreateLink(linked, propertyName));
       }
     }
-    for (Link link : linked.getAssociationLinks()) {
-      writeLink(writer, link);
+    if (linked.hasAssociationLinks()) {
+      for (Link link : linked.getAssociationLinks()) {
+        writeLink(writer, link);
+      }
     }
   }
 
@@ -758,15 +774,16 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
       final Set<String> ancestors, String name,
       final XMLStreamWriter writer) throws XMLStreamException, SerializerException {
     if (property.isCollection()) {
-      if (navigationLink != null && navigationLink.getInlineEntitySet() != null) {
+      final AbstractEntityCollection inlineEntitySet = getInlineEntityCollection(navigationLink);
+      if (inlineEntitySet != null) {
         writer.writeStartElement(ATOM, Constants.ATOM_ELEM_FEED, NS_ATOM);
         if (writeNavigationCount) {
-          writeCount(navigationLink.getInlineEntitySet(), writer);
+          writeCount(inlineEntitySet, writer);
         } else {
           if (coutOption != null && coutOption.getValue()) {
-            writeCount(navigationLink.getInlineEntitySet(), writer);
+            writeCount(inlineEntitySet, writer);
           }
-          writeEntitySet(metadata, property.getType(), navigationLink.getInlineEntitySet(), innerExpand, toDepth,
+          writeEntitySet(metadata, property.getType(), inlineEntitySet, innerExpand, toDepth,
               innerSelect, xml10InvalidCharReplacement, writer, writeOnlyRef, name, ancestors);
         }
         writer.writeEndElement();
@@ -780,6 +797,19 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     }
   }
 
+  /**
+   * Returns the in-line entity collection of a navigation link; an in-line entity iterator
+   * is used if no in-line entity set has been set.
+   */
+  private static AbstractEntityCollection getInlineEntityCollection(final Link navigationLink) {
+    if (navigationLink == null) {
+      return null;
+    }
+    return navigationLink.getInlineEntitySet() == null ?
+        navigationLink.getInlineEntityIterator() :
+        navigationLink.getInlineEntitySet();
+  }
+
   protected void writeProperty(final ServiceMetadata metadata,
       final EdmProperty edmProperty, final Property property,
       final Set<List<String>> selectedPaths,
@@ -1014,8 +1044,10 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
       }
     }
     
-    for (final String propertyName : type.getPropertyNames()) {
-      final Property property = findProperty(propertyName, properties);
+    final List<String> propertyNames = type.getPropertyNames();
+    for (int slot = 0; slot < propertyNames.size(); slot++) {
+      final String propertyName = propertyNames.get(slot);
+      final Property property = PropertyLayout.findProperty(properties, propertyName, slot);
       if (selectedPaths == null || ExpandSelectHelper.isSelected(selectedPaths, propertyName)) {
         writeProperty(metadata, (EdmProperty) type.getProperty(propertyName), property,
             selectedPaths == null ? null : ExpandSelectHelper.getReducedSelectedPaths(selectedPaths, propertyName),
@@ -1026,15 +1058,6 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
         expand, null, xml10InvalidCharReplacement, null, complexPropName, writer);
   }
 
-  private Property findProperty(final String propertyName, final List<Property> properties) {
-    for (final Property property : properties) {
-      if (propertyName.equals(property.getName())) {
-        return property;
-      }
-    }
-    return null;
-  }
-
   @Override
   public SerializerResult primitive(final ServiceMetadata metadata, final EdmPrimitiveType type,
       final Property property, final PrimitiveSerializerOptions options) throws SerializerException {
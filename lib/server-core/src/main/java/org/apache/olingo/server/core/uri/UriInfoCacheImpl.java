@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriInfoCache;
+
+/**
+ * Bounded cache for parsed request URIs.
+ * Entries are evicted with the second-chance algorithm, an approximation of least-recently-used eviction
+ * that lets lookups run without any lock: a lookup only marks the entry as referenced, and eviction
+ * walks the entries in insertion order, skipping (and unmarking) the referenced ones once.
+ */
+public class UriInfoCacheImpl implements UriInfoCache {
+
+  private final int maximumSize;
+  private final ConcurrentMap<Key, CacheEntry> entries = new ConcurrentHashMap<Key, CacheEntry>();
+  private final Queue<Key> evictionQueue = new ConcurrentLinkedQueue<Key>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  public UriInfoCacheImpl(final int maximumSize) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("The maximum size of the cache must be positive.");
+    }
+    this.maximumSize = maximumSize;
+  }
+
+  @Override
+  public UriInfo get(final Edm edm, final String path, final String query, final String baseUri) {
+    final CacheEntry entry = entries.get(new Key(edm, path, query, baseUri));
+    if (entry == null) {
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    entry.referenced = true;
+    return entry.uriInfo;
+  }
+
+  @Override
+  public void put(final Edm edm, final String path, final String query, final String baseUri,
+      final UriInfo uriInfo) {
+    if (uriInfo != null) {
+      final Key key = new Key(edm, path, query, baseUri);
+      final CacheEntry existing = entries.putIfAbsent(key, new CacheEntry(uriInfo));
+      if (existing == null) {
+        evictionQueue.offer(key);
+        evict();
+      } else {
+        existing.uriInfo = uriInfo;
+        existing.referenced = true;
+      }
+    }
+  }
+
+  private void evict() {
+    while (entries.size() > maximumSize) {
+      final Key key = evictionQueue.poll();
+      if (key == null) {
+        return;
+      }
+      final CacheEntry entry = entries.get(key);
+      if (entry != null) {
+        if (entry.referenced) {
+          entry.referenced = false;
+          evictionQueue.offer(key);
+        } else {
+          entries.remove(key, entry);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void clear() {
+    // The queue is cleared first so that no entry added concurrently can remain without its queue element.
+    evictionQueue.clear();
+    entries.clear();
+  }
+
+  @Override
+  public int size() {
+    return entries.size();
+  }
+
+  @Override
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  @Override
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  private static final class CacheEntry {
+    private volatile UriInfo uriInfo;
+    private volatile boolean referenced;
+
+    private CacheEntry(final UriInfo uriInfo) {
+      this.uriInfo = uriInfo;
+    }
+  }
+
+  /** Cache key; the EDM is compared by identity so that each EDM instance has its own entries. */
+  private static final class Key {
+    private final Edm edm;
+    private final String path;
+    private final String query;
+    private final String baseUri;
+    private final int hashCode;
+
+    private Key(final Edm edm, final String path, final String query, final String baseUri) {
+      this.edm = edm;
+      this.path = path;
+      this.query = query;
+      this.baseUri = baseUri;
+      int result = System.identityHashCode(edm);
+      result = 31 * result + (path == null ? 0 : path.hashCode());
+      result = 31 * result + (query == null ? 0 : query.hashCode());
+      result = 31 * result + (baseUri == null ? 0 : baseUri.hashCode());
+      hashCode = result;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return edm == other.edm
+          && hashCode == other.hashCode
+          && equal(path, other.path)
+          && equal(query, other.query)
+          && equal(baseUri, other.baseUri);
+    }
+
+    private static boolean equal(final String first, final String second) {
+      return first == null ? second == null : first.equals(second);
+    }
+  }
+}
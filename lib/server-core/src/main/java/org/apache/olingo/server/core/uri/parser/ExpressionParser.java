@@ -158,6 +158,17 @@ public class ExpressionParser {
     tokenToMethod = Collections.unmodifiableMap(temp);
   }
 
+  // The token kinds to look for are kept in constants so that no arrays are created while parsing.
+  private static final TokenKind[] METHODS = tokenToMethod.keySet().toArray(new TokenKind[tokenToMethod.size()]);
+  private static final TokenKind[] EQUALITY_OPERATORS = { TokenKind.EqualsOperator, TokenKind.NotEqualsOperator };
+  private static final TokenKind[] RELATIONAL_OPERATORS = {
+      TokenKind.GreaterThanOperator, TokenKind.GreaterThanOrEqualsOperator,
+      TokenKind.LessThanOperator, TokenKind.LessThanOrEqualsOperator };
+  private static final TokenKind[] ADDITIVE_OPERATORS = { TokenKind.AddOperator, TokenKind.SubOperator };
+  private static final TokenKind[] MULTIPLICATIVE_OPERATORS = {
+      TokenKind.MulOperator, TokenKind.DivOperator, TokenKind.ModOperator };
+  private static final TokenKind[] MEMBER_NAMES = { TokenKind.QualifiedName, TokenKind.ODataIdentifier };
+
   private final Edm edm;
   private final OData odata;
 
@@ -216,14 +227,14 @@ public class ExpressionParser {
 
   private Expression parseExprEquality() throws UriParserException, UriValidationException {
     Expression left = parseExprRel();
-    TokenKind operatorTokenKind = ParserHelper.next(tokenizer, TokenKind.EqualsOperator, TokenKind.NotEqualsOperator);
+    TokenKind operatorTokenKind = ParserHelper.next(tokenizer, EQUALITY_OPERATORS);
     // Null for everything other than EQ or NE
     while (operatorTokenKind != null) {
       final Expression right = parseExprEquality();
       checkEqualityTypes(left, right);
       left = new BinaryImpl(left, tokenToBinaryOperator.get(operatorTokenKind), right,
           odata.createPrimitiveTypeInstance(EdmPrimitiveTypeKind.Boolean));
-      operatorTokenKind = ParserHelper.next(tokenizer, TokenKind.EqualsOperator, TokenKind.NotEqualsOperator);
+      operatorTokenKind = ParserHelper.next(tokenizer, EQUALITY_OPERATORS);
     }
     return left;
   }
@@ -234,18 +245,14 @@ public class ExpressionParser {
       return parseIsOfOrCastMethod(MethodKind.ISOF);
     } else {
       Expression left = parseExprAdd();
-      TokenKind operatorTokenKind = ParserHelper.next(tokenizer,
-          TokenKind.GreaterThanOperator, TokenKind.GreaterThanOrEqualsOperator,
-          TokenKind.LessThanOperator, TokenKind.LessThanOrEqualsOperator);
+      TokenKind operatorTokenKind = ParserHelper.next(tokenizer, RELATIONAL_OPERATORS);
       // Null for everything other than GT or GE or LT or LE
       while (operatorTokenKind != null) {
         final Expression right = parseExprAdd();
         checkRelationTypes(left, right);
         left = new BinaryImpl(left, tokenToBinaryOperator.get(operatorTokenKind), right,
             odata.createPrimitiveTypeInstance(EdmPrimitiveTypeKind.Boolean));
-        operatorTokenKind = ParserHelper.next(tokenizer,
-            TokenKind.GreaterThanOperator, TokenKind.GreaterThanOrEqualsOperator,
-            TokenKind.LessThanOperator, TokenKind.LessThanOrEqualsOperator);
+        operatorTokenKind = ParserHelper.next(tokenizer, RELATIONAL_OPERATORS);
       }
       return left;
     }
@@ -277,22 +284,21 @@ public class ExpressionParser {
 
   private Expression parseExprAdd() throws UriParserException, UriValidationException {
     Expression left = parseExprMul();
-    TokenKind operatorTokenKind = ParserHelper.next(tokenizer, TokenKind.AddOperator, TokenKind.SubOperator);
+    TokenKind operatorTokenKind = ParserHelper.next(tokenizer, ADDITIVE_OPERATORS);
     // Null for everything other than ADD or SUB
     while (operatorTokenKind != null) {
       final Expression right = parseExprMul();
       final EdmType resultType = getAddSubTypeAndCheckLeftAndRight(left, right,
           operatorTokenKind == TokenKind.SubOperator);
       left = new BinaryImpl(left, tokenToBinaryOperator.get(operatorTokenKind), right, resultType);
-      operatorTokenKind = ParserHelper.next(tokenizer, TokenKind.AddOperator, TokenKind.SubOperator);
+      operatorTokenKind = ParserHelper.next(tokenizer, ADDITIVE_OPERATORS);
     }
     return left;
   }
 
   private Expression parseExprMul() throws UriParserException, UriValidationException {
     Expression left = parseExprUnary();
-    TokenKind operatorTokenKind = ParserHelper.next(tokenizer,
-        TokenKind.MulOperator, TokenKind.DivOperator, TokenKind.ModOperator);
+    TokenKind operatorTokenKind = ParserHelper.next(tokenizer, MULTIPLICATIVE_OPERATORS);
     // Null for everything other than MUL or DIV or MOD
     while (operatorTokenKind != null) {
       checkNumericType(left);
@@ -300,8 +306,7 @@ public class ExpressionParser {
       checkNumericType(right);
       left = new BinaryImpl(left, tokenToBinaryOperator.get(operatorTokenKind), right,
           odata.createPrimitiveTypeInstance(EdmPrimitiveTypeKind.Double));
-      operatorTokenKind = ParserHelper.next(tokenizer,
-          TokenKind.MulOperator, TokenKind.DivOperator, TokenKind.ModOperator);
+      operatorTokenKind = ParserHelper.next(tokenizer, MULTIPLICATIVE_OPERATORS);
     }
     return left;
   }
@@ -430,8 +435,7 @@ public class ExpressionParser {
       return parsePrimitive(nextPrimitive);
     }
 
-    final TokenKind nextMethod =
-        ParserHelper.next(tokenizer, tokenToMethod.keySet().toArray(new TokenKind[tokenToMethod.size()]));
+    final TokenKind nextMethod = ParserHelper.next(tokenizer, METHODS);
     if (nextMethod != null) {
       return parseMethod(nextMethod);
     }
@@ -701,7 +705,7 @@ public class ExpressionParser {
           checkStructuredTypeFilter(referringType, filterType);
           startTypeFilter = filterType;
 
-          final TokenKind tokenKind = ParserHelper.next(tokenizer, TokenKind.QualifiedName, TokenKind.ODataIdentifier);
+          final TokenKind tokenKind = ParserHelper.next(tokenizer, MEMBER_NAMES);
           parseMemberExpression(tokenKind, uriInfo, new UriResourceStartingTypeFilterImpl(filterType, false), false);
         } else {
           // Type literal
@@ -758,7 +762,7 @@ public class ExpressionParser {
     UriResourceItImpl itResource = new UriResourceItImpl(referringType, false);
     uriInfo.addResourcePart(itResource);
     if (tokenizer.next(TokenKind.SLASH)) {
-      final TokenKind tokenKind = ParserHelper.next(tokenizer, TokenKind.QualifiedName, TokenKind.ODataIdentifier);
+      final TokenKind tokenKind = ParserHelper.next(tokenizer, MEMBER_NAMES);
       parseMemberExpression(tokenKind, uriInfo, itResource, true);
     }
   }
@@ -773,7 +777,7 @@ public class ExpressionParser {
             new UriResourceEntitySetImpl(edm.getEntityContainer().getEntitySet(name));
         uriInfo.addResourcePart(resource);
         if (tokenizer.next(TokenKind.SLASH)) {
-          final TokenKind tokenKind = ParserHelper.next(tokenizer, TokenKind.QualifiedName, TokenKind.ODataIdentifier);
+          final TokenKind tokenKind = ParserHelper.next(tokenizer, MEMBER_NAMES);
           parseMemberExpression(tokenKind, uriInfo, resource, true);
         }
         return;
@@ -797,7 +801,7 @@ public class ExpressionParser {
           new UriResourceLambdaVarImpl(lambdaVariable.getVariableName(), lambdaVariable.getType());
       uriInfo.addResourcePart(lambdaResource);
       if (tokenizer.next(TokenKind.SLASH)) {
-        final TokenKind tokenKind = ParserHelper.next(tokenizer, TokenKind.QualifiedName, TokenKind.ODataIdentifier);
+        final TokenKind tokenKind = ParserHelper.next(tokenizer, MEMBER_NAMES);
         parseMemberExpression(tokenKind, uriInfo, lambdaResource, true);
       }
     } else {
@@ -941,7 +945,7 @@ public class ExpressionParser {
   private void parseSingleNavigationExpr(UriInfoImpl uriInfo, final UriResourcePartTyped lastResource)
       throws UriParserException, UriValidationException {
     if (tokenizer.next(TokenKind.SLASH)) {
-      final TokenKind tokenKind = ParserHelper.next(tokenizer, TokenKind.QualifiedName, TokenKind.ODataIdentifier);
+      final TokenKind tokenKind = ParserHelper.next(tokenizer, MEMBER_NAMES);
       parseMemberExpression(tokenKind, uriInfo, lastResource, true);
     }
   }
@@ -121,42 +121,44 @@ public class ParserHelper {
     return null;
   }
 
+  private static final TokenKind[] PRIMITIVE_VALUES = {
+      TokenKind.NULL,
+      TokenKind.BooleanValue,
+      TokenKind.StringValue,
+
+      // The order of the next seven expressions is important in order to avoid
+      // finding partly parsed tokens (counter-intuitive as it may be, even a GUID may start with digits ...).
+      TokenKind.GuidValue,
+      TokenKind.DoubleValue,
+      TokenKind.DecimalValue,
+      TokenKind.DateTimeOffsetValue,
+      TokenKind.DateValue,
+      TokenKind.TimeOfDayValue,
+      TokenKind.IntegerValue,
+
+      TokenKind.DurationValue,
+      TokenKind.BinaryValue,
+      TokenKind.EnumValue,
+
+      // Geography and geometry literals are defined to be primitive,
+      // although they contain several parts with their own meaning.
+      TokenKind.GeographyPoint,
+      TokenKind.GeometryPoint,
+      TokenKind.GeographyLineString,
+      TokenKind.GeometryLineString,
+      TokenKind.GeographyPolygon,
+      TokenKind.GeometryPolygon,
+      TokenKind.GeographyMultiPoint,
+      TokenKind.GeometryMultiPoint,
+      TokenKind.GeographyMultiLineString,
+      TokenKind.GeometryMultiLineString,
+      TokenKind.GeographyMultiPolygon,
+      TokenKind.GeometryMultiPolygon,
+      TokenKind.GeographyCollection,
+      TokenKind.GeometryCollection };
+
   protected static TokenKind nextPrimitiveValue(UriTokenizer tokenizer) {
-    return next(tokenizer,
-        TokenKind.NULL,
-        TokenKind.BooleanValue,
-        TokenKind.StringValue,
-
-        // The order of the next seven expressions is important in order to avoid
-        // finding partly parsed tokens (counter-intuitive as it may be, even a GUID may start with digits ...).
-        TokenKind.GuidValue,
-        TokenKind.DoubleValue,
-        TokenKind.DecimalValue,
-        TokenKind.DateTimeOffsetValue,
-        TokenKind.DateValue,
-        TokenKind.TimeOfDayValue,
-        TokenKind.IntegerValue,
-
-        TokenKind.DurationValue,
-        TokenKind.BinaryValue,
-        TokenKind.EnumValue,
-
-        // Geography and geometry literals are defined to be primitive,
-        // although they contain several parts with their own meaning.
-        TokenKind.GeographyPoint,
-        TokenKind.GeometryPoint,
-        TokenKind.GeographyLineString,
-        TokenKind.GeometryLineString,
-        TokenKind.GeographyPolygon,
-        TokenKind.GeometryPolygon,
-        TokenKind.GeographyMultiPoint,
-        TokenKind.GeometryMultiPoint,
-        TokenKind.GeographyMultiLineString,
-        TokenKind.GeometryMultiLineString,
-        TokenKind.GeographyMultiPolygon,
-        TokenKind.GeometryMultiPolygon,
-        TokenKind.GeographyCollection,
-        TokenKind.GeometryCollection);
+    return next(tokenizer, PRIMITIVE_VALUES);
   }
 
   protected static List<UriParameter> parseFunctionParameters(UriTokenizer tokenizer,
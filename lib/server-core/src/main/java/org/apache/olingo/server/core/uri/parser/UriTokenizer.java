@@ -197,11 +197,29 @@ public class UriTokenizer {
     DescSuffix
   }
 
+  /** Character classes of the ASCII characters in OData identifiers; avoids the Unicode lookup. */
+  private static final boolean[] ASCII_IDENTIFIER_START = new boolean[128];
+  private static final boolean[] ASCII_IDENTIFIER_PART = new boolean[128];
+  static {
+    for (int code = 0; code < 128; code++) {
+      ASCII_IDENTIFIER_START[code] = Character.isUnicodeIdentifierStart(code) || code == '_';
+      ASCII_IDENTIFIER_PART[code] = Character.isUnicodeIdentifierPart(code) && !Character.isISOControl(code);
+    }
+  }
+
   private final String parseString;
 
   private int startIndex = 0;
   private int index = 0;
 
+  /*
+   * Start and end index of the last OData identifier scan. The parsers try several token kinds starting
+   * with an identifier at the same index (e.g., enumeration value, qualified name, and identifier),
+   * so the result of the scan is remembered; the end index equals the start index if none has been found.
+   */
+  private int identifierStartIndex = -1;
+  private int identifierEndIndex;
+
   private int savedStartIndex;
   private int savedIndex;
 
@@ -743,8 +761,7 @@ public class UriTokenizer {
    */
   private boolean nextConstantIgnoreCase(final String constant) {
     final int length = constant.length();
-    if (index + length <= parseString.length()
-        && constant.equalsIgnoreCase(parseString.substring(index, index + length))) {
+    if (parseString.regionMatches(true, index, constant, 0, length)) {
       index += length;
       return true;
     } else {
@@ -833,28 +850,49 @@ public class UriTokenizer {
    * @return whether an OData identifier has been found at the current index
    */
   private boolean nextODataIdentifier() {
+    if (index == identifierStartIndex) {
+      index = identifierEndIndex;
+      return identifierEndIndex > identifierStartIndex;
+    }
+    identifierStartIndex = index;
     int count = 0;
     if (index < parseString.length()) {
       int code = parseString.codePointAt(index);
-      if (Character.isUnicodeIdentifierStart(code) || code == '_') {
+      if (isIdentifierStart(code)) {
         count++;
         // Unicode characters outside of the Basic Multilingual Plane are represented as two Java characters.
         index += Character.isSupplementaryCodePoint(code) ? 2 : 1;
         while (index < parseString.length() && count < 128) {
-          code = parseString.codePointAt(index);
-          if (Character.isUnicodeIdentifierPart(code) && !Character.isISOControl(code)) {
+          final char character = parseString.charAt(index);
+          if (character < ASCII_IDENTIFIER_PART.length) {
+            if (!ASCII_IDENTIFIER_PART[character]) {
+              break;
+            }
             count++;
-            // Unicode characters outside of the Basic Multilingual Plane are represented as two Java characters.
-            index += Character.isSupplementaryCodePoint(code) ? 2 : 1;
+            index++;
           } else {
-            break;
+            code = parseString.codePointAt(index);
+            if (Character.isUnicodeIdentifierPart(code) && !Character.isISOControl(code)) {
+              count++;
+              // Unicode characters outside of the Basic Multilingual Plane are represented as two Java characters.
+              index += Character.isSupplementaryCodePoint(code) ? 2 : 1;
+            } else {
+              break;
+            }
           }
         }
       }
     }
+    identifierEndIndex = index;
     return count > 0;
   }
 
+  private static boolean isIdentifierStart(final int code) {
+    return code < ASCII_IDENTIFIER_START.length ?
+        ASCII_IDENTIFIER_START[code] :
+        Character.isUnicodeIdentifierStart(code);
+  }
+
   /**
    * Moves past a qualified name if found; otherwise leaves the index unchanged.
    * @return whether a qualified name has been found at the current index
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.queryoption.expression.compiler;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.queryoption.apply.AggregateExpression.StandardMethod;
+
+/**
+ * Accumulator of the values of one aggregate within one group.
+ * <p>Accumulators are not thread-safe; parallel aggregation uses separate accumulators
+ * for each part of the input and merges them afterwards.
+ * <code>null</code> values are ignored by all aggregation methods.</p>
+ */
+abstract class Accumulator {
+
+  abstract void add(Object value) throws ODataApplicationException;
+
+  /** Adds the values accumulated by another accumulator of the same kind. */
+  abstract void merge(Accumulator other) throws ODataApplicationException;
+
+  abstract Object getResult();
+
+  /**
+   * Creates an accumulator for the given standard aggregation method,
+   * or one counting all added values (including <code>null</code>) for $count.
+   */
+  static Accumulator create(final StandardMethod method) {
+    if (method == null) {
+      return new Count();
+    }
+    switch (method) {
+    case SUM:
+      return new Sum();
+    case AVERAGE:
+      return new Average();
+    case MIN:
+      return new Extremum(false);
+    case MAX:
+      return new Extremum(true);
+    case COUNT_DISTINCT:
+      return new CountDistinct();
+    default:
+      throw new IllegalArgumentException(method.toString());
+    }
+  }
+
+  /** Counts the added instances; used for <code>$count</code>. */
+  static final class Count extends Accumulator {
+    private long count;
+
+    @Override
+    void add(final Object value) {
+      count++;
+    }
+
+    @Override
+    void merge(final Accumulator other) {
+      count += ((Count) other).count;
+    }
+
+    @Override
+    Object getResult() {
+      return count;
+    }
+  }
+
+  /**
+   * Sums up numeric values.
+   * Integral values are added as <code>long</code> and floating-point values as <code>double</code>
+   * without boxing the intermediate results; only decimal values and integral sums
+   * that overflow are accumulated as {@link BigDecimal}.
+   */
+  static class Sum extends Accumulator {
+    private long longSum;
+    private double doubleSum;
+    private BigDecimal decimalSum;
+    private boolean hasFloatingPoint;
+    private long count;
+
+    @Override
+    void add(final Object value) throws ODataApplicationException {
+      if (value == null) {
+        return;
+      }
+      if (!(value instanceof Number)) {
+        throw CompiledNode.badRequest("Only numeric values can be summed up.");
+      }
+      count++;
+      if (EvaluationValues.isIntegral(value)) {
+        addLong(((Number) value).longValue());
+      } else if (value instanceof Double || value instanceof Float) {
+        hasFloatingPoint = true;
+        doubleSum += ((Number) value).doubleValue();
+      } else {
+        addDecimal(EvaluationValues.toBigDecimal((Number) value));
+      }
+    }
+
+    private void addLong(final long value) {
+      try {
+        longSum = Math.addExact(longSum, value);
+      } catch (final ArithmeticException e) {
+        addDecimal(BigDecimal.valueOf(longSum).add(BigDecimal.valueOf(value)));
+        longSum = 0;
+      }
+    }
+
+    private void addDecimal(final BigDecimal value) {
+      decimalSum = decimalSum == null ? value : decimalSum.add(value);
+    }
+
+    @Override
+    void merge(final Accumulator other) {
+      final Sum sum = (Sum) other;
+      addLong(sum.longSum);
+      if (sum.decimalSum != null) {
+        addDecimal(sum.decimalSum);
+      }
+      doubleSum += sum.doubleSum;
+      hasFloatingPoint |= sum.hasFloatingPoint;
+      count += sum.count;
+    }
+
+    long getCount() {
+      return count;
+    }
+
+    /** Returns the exact sum, or <code>null</code> if floating-point values have been added. */
+    BigDecimal getDecimalSum() {
+      if (hasFloatingPoint) {
+        return null;
+      }
+      final BigDecimal sum = BigDecimal.valueOf(longSum);
+      return decimalSum == null ? sum : decimalSum.add(sum);
+    }
+
+    double getDoubleSum() {
+      return doubleSum + longSum + (decimalSum == null ? 0 : decimalSum.doubleValue());
+    }
+
+    @Override
+    Object getResult() {
+      final BigDecimal sum = getDecimalSum();
+      return sum == null ? toDecimal(getDoubleSum()) : sum;
+    }
+
+    static Object toDecimal(final double value) {
+      return Double.isNaN(value) || Double.isInfinite(value) ? (Object) value : BigDecimal.valueOf(value);
+    }
+  }
+
+  /** Computes the average of numeric values; <code>null</code> if there are no values. */
+  static final class Average extends Sum {
+
+    @Override
+    Object getResult() {
+      if (getCount() == 0) {
+        return null;
+      }
+      final BigDecimal sum = getDecimalSum();
+      return sum == null ?
+          toDecimal(getDoubleSum() / getCount()) :
+          sum.divide(BigDecimal.valueOf(getCount()), MathContext.DECIMAL128);
+    }
+  }
+
+  /** Determines the minimum or maximum of comparable values; <code>null</code> if there are no values. */
+  static final class Extremum extends Accumulator {
+    private final boolean maximum;
+    private Object value;
+
+    Extremum(final boolean maximum) {
+      this.maximum = maximum;
+    }
+
+    @Override
+    void add(final Object value) throws ODataApplicationException {
+      if (value != null) {
+        if (this.value == null) {
+          this.value = value;
+        } else {
+          final int result = EvaluationValues.compare(value, this.value);
+          if (maximum ? result > 0 : result < 0) {
+            this.value = value;
+          }
+        }
+      }
+    }
+
+    @Override
+    void merge(final Accumulator other) throws ODataApplicationException {
+      add(((Extremum) other).value);
+    }
+
+    @Override
+    Object getResult() {
+      return value;
+    }
+  }
+
+  /** Counts the distinct values. */
+  static final class CountDistinct extends Accumulator {
+    private final Set<Object> values = new HashSet<Object>();
+
+    @Override
+    void add(final Object value) {
+      if (value != null) {
+        values.add(EvaluationValues.toHashKey(value));
+      }
+    }
+
+    @Override
+    void merge(final Accumulator other) {
+      values.addAll(((CountDistinct) other).values);
+    }
+
+    @Override
+    Object getResult() {
+      return (long) values.size();
+    }
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.queryoption.expression.compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.commons.api.edm.EdmType;
+import org.apache.olingo.commons.api.edm.constants.EdmTypeKind;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceCount;
+import org.apache.olingo.server.api.uri.UriResourceProperty;
+import org.apache.olingo.server.api.uri.queryoption.ApplyItem;
+import org.apache.olingo.server.api.uri.queryoption.ApplyOption;
+import org.apache.olingo.server.api.uri.queryoption.apply.Aggregate;
+import org.apache.olingo.server.api.uri.queryoption.apply.AggregateExpression;
+import org.apache.olingo.server.api.uri.queryoption.apply.BottomTop;
+import org.apache.olingo.server.api.uri.queryoption.apply.Compute;
+import org.apache.olingo.server.api.uri.queryoption.apply.ComputeExpression;
+import org.apache.olingo.server.api.uri.queryoption.apply.Concat;
+import org.apache.olingo.server.api.uri.queryoption.apply.Filter;
+import org.apache.olingo.server.api.uri.queryoption.apply.GroupBy;
+import org.apache.olingo.server.api.uri.queryoption.apply.GroupByItem;
+import org.apache.olingo.server.api.uri.queryoption.apply.OrderBy;
+import org.apache.olingo.server.api.uri.queryoption.apply.Skip;
+import org.apache.olingo.server.api.uri.queryoption.apply.Top;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledExpression;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionCompiler;
+
+/**
+ * Compiles the transformations of an $apply system query option into pipeline stages.
+ * <p>Supported are aggregate (with the standard aggregation methods and $count), groupby
+ * (without rollup) with arbitrary nested transformations, filter, compute, orderby, top, skip,
+ * concat, identity, and the bottom/top transformations. Custom aggregates and aggregation methods,
+ * inline aggregates, <code>from</code>, search, expand, and custom functions are answered
+ * with status 501 (Not Implemented).</p>
+ */
+final class ApplyCompiler {
+
+  private final ExpressionCompiler compiler;
+  private final EdmStructuredType type;
+
+  /**
+   * @param compiler the compiler for the expressions within the transformations
+   * @param type the type of the $apply option with the dynamic properties of all aliases
+   */
+  ApplyCompiler(final ExpressionCompiler compiler, final EdmStructuredType type) {
+    this.compiler = compiler;
+    this.type = type;
+  }
+
+  CompiledApplyImpl compile(final ApplyOption applyOption) throws ODataApplicationException {
+    return new CompiledApplyImpl(compileStages(applyOption), type);
+  }
+
+  private CompiledApplyImpl compileNested(final ApplyOption applyOption) throws ODataApplicationException {
+    return new CompiledApplyImpl(compileStages(applyOption), null);
+  }
+
+  private List<ApplyStage> compileStages(final ApplyOption applyOption) throws ODataApplicationException {
+    final List<ApplyStage> stages = new ArrayList<ApplyStage>();
+    for (final ApplyItem item : applyOption.getApplyItems()) {
+      final ApplyStage stage = compileItem(item);
+      if (stage != null) {
+        stages.add(stage);
+      }
+    }
+    return stages;
+  }
+
+  private ApplyStage compileItem(final ApplyItem item) throws ODataApplicationException {
+    switch (item.getKind()) {
+    case AGGREGATE:
+      return new ApplyStage.Grouping(new ApplyStage.GroupingPath[0],
+          compileAggregations(((Aggregate) item).getExpressions()), null);
+    case GROUP_BY:
+      return compileGroupBy((GroupBy) item);
+    case COMPUTE:
+      return compileCompute((Compute) item);
+    case FILTER:
+      return new ApplyStage.Filter(compiler.compileFilter(((Filter) item).getFilterOption()));
+    case ORDERBY:
+      return new ApplyStage.OrderBy(compiler.compileOrderBy(((OrderBy) item).getOrderByOption()));
+    case TOP:
+      return new ApplyStage.Range(0, ((Top) item).getTopOption().getValue());
+    case SKIP:
+      return new ApplyStage.Range(((Skip) item).getSkipOption().getValue(), Integer.MAX_VALUE);
+    case CONCAT:
+      final List<ApplyOption> options = ((Concat) item).getApplyOptions();
+      final CompiledApplyImpl[] pipelines = new CompiledApplyImpl[options.size()];
+      for (int i = 0; i < pipelines.length; i++) {
+        pipelines[i] = compileNested(options.get(i));
+      }
+      return new ApplyStage.Concat(pipelines);
+    case BOTTOM_TOP:
+      return compileBottomTop((BottomTop) item);
+    case IDENTITY:
+      return null;
+    default:
+      throw CompiledNode.notImplemented("The transformation " + item.getKind() + " is not supported.");
+    }
+  }
+
+  private ApplyStage compileGroupBy(final GroupBy groupBy) throws ODataApplicationException {
+    final List<GroupByItem> items = groupBy.getGroupByItems();
+    final ApplyStage.GroupingPath[] paths = new ApplyStage.GroupingPath[items.size()];
+    for (int i = 0; i < paths.length; i++) {
+      if (items.get(i).getPath().isEmpty()) {
+        throw CompiledNode.notImplemented("Rollup is not supported.");
+      }
+      paths[i] = compileGroupingPath(items.get(i).getPath());
+    }
+    final ApplyOption nested = groupBy.getApplyOption();
+    if (nested == null) {
+      return new ApplyStage.Grouping(paths, new ApplyStage.Aggregation[0], null);
+    } else if (nested.getApplyItems().size() == 1
+        && nested.getApplyItems().get(0).getKind() == ApplyItem.Kind.AGGREGATE) {
+      // Aggregating the groups directly does not need to collect their entities.
+      return new ApplyStage.Grouping(paths,
+          compileAggregations(((Aggregate) nested.getApplyItems().get(0)).getExpressions()), null);
+    } else {
+      return new ApplyStage.Grouping(paths, new ApplyStage.Aggregation[0], compileNested(nested));
+    }
+  }
+
+  private ApplyStage.GroupingPath compileGroupingPath(final List<UriResource> path)
+      throws ODataApplicationException {
+    final String[] names = new String[path.size()];
+    final String[] typeNames = new String[path.size()];
+    EdmType propertyType = null;
+    for (int i = 0; i < names.length; i++) {
+      final UriResource part = path.get(i);
+      if (!(part instanceof UriResourceProperty) || ((UriResourceProperty) part).isCollection()) {
+        throw CompiledNode.notImplemented("Grouping by " + part.getSegmentValue() + " is not supported.");
+      }
+      final EdmProperty property = ((UriResourceProperty) part).getProperty();
+      propertyType = property.getType();
+      names[i] = property.getName();
+      typeNames[i] = propertyType.getFullQualifiedName().getFullQualifiedNameAsString();
+    }
+    if (propertyType.getKind() != EdmTypeKind.PRIMITIVE && propertyType.getKind() != EdmTypeKind.ENUM) {
+      throw CompiledNode.notImplemented("Grouping by complex properties is not supported.");
+    }
+    return new ApplyStage.GroupingPath(names, typeNames,
+        propertyType.getKind() == EdmTypeKind.ENUM ? ValueType.ENUM : ValueType.PRIMITIVE);
+  }
+
+  private ApplyStage.Aggregation[] compileAggregations(final List<AggregateExpression> expressions)
+      throws ODataApplicationException {
+    final ApplyStage.Aggregation[] aggregations = new ApplyStage.Aggregation[expressions.size()];
+    for (int i = 0; i < aggregations.length; i++) {
+      final AggregateExpression expression = expressions.get(i);
+      if (expression.getInlineAggregateExpression() != null || !expression.getFrom().isEmpty()) {
+        throw CompiledNode.notImplemented("Inline aggregates and aggregations with 'from' are not supported.");
+      } else if (expression.getExpression() == null) {
+        final List<UriResource> path = expression.getPath();
+        if (path.size() != 1 || !(path.get(0) instanceof UriResourceCount)) {
+          throw CompiledNode.notImplemented("Custom aggregates are not supported.");
+        }
+        aggregations[i] = new ApplyStage.Aggregation(null, null, getDynamicValue(expression.getAlias()));
+      } else if (expression.getStandardMethod() == null) {
+        throw CompiledNode.notImplemented("Custom aggregation methods are not supported.");
+      } else {
+        aggregations[i] = new ApplyStage.Aggregation(compiler.compile(expression.getExpression()),
+            expression.getStandardMethod(), getDynamicValue(expression.getAlias()));
+      }
+    }
+    return aggregations;
+  }
+
+  private ApplyStage compileCompute(final Compute compute) throws ODataApplicationException {
+    final List<ComputeExpression> items = compute.getExpressions();
+    final CompiledExpression[] expressions = new CompiledExpression[items.size()];
+    final ApplyStage.DynamicValue[] aliases = new ApplyStage.DynamicValue[items.size()];
+    for (int i = 0; i < expressions.length; i++) {
+      expressions[i] = compiler.compile(items.get(i).getExpression());
+      aliases[i] = getDynamicValue(items.get(i).getAlias());
+    }
+    return new ApplyStage.Compute(expressions, aliases);
+  }
+
+  private ApplyStage compileBottomTop(final BottomTop bottomTop) throws ODataApplicationException {
+    final Object number = compiler.compile(bottomTop.getNumber()).evaluate(new Entity());
+    if (!(number instanceof Number)) {
+      throw CompiledNode.badRequest("The first parameter of " + bottomTop.getMethod() + " must be a number.");
+    }
+    return new ApplyStage.BottomTopStage(bottomTop.getMethod(), number, compiler.compile(bottomTop.getValue()));
+  }
+
+  /** Determines the type of the dynamic property of an alias from the type of the $apply option. */
+  private ApplyStage.DynamicValue getDynamicValue(final String alias) {
+    final EdmProperty property = type == null ? null : type.getStructuralProperty(alias);
+    final EdmType propertyType = property == null ? null : property.getType();
+    return new ApplyStage.DynamicValue(alias,
+        propertyType == null ? null : propertyType.getFullQualifiedName().getFullQualifiedNameAsString(),
+        propertyType != null && propertyType.getKind() == EdmTypeKind.ENUM ? ValueType.ENUM : ValueType.PRIMITIVE);
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.queryoption.expression.compiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.olingo.commons.api.edm.EdmAnnotation;
+import org.apache.olingo.commons.api.edm.EdmElement;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmKeyPropertyRef;
+import org.apache.olingo.commons.api.edm.EdmNavigationProperty;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.commons.api.edm.EdmTerm;
+import org.apache.olingo.commons.api.edm.EdmType;
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.edm.constants.EdmTypeKind;
+
+/**
+ * Type of the result of an $apply pipeline.
+ * <p>It has the name of the type the transformations started with but only the structural
+ * properties that are present in the result, without navigation properties and without key;
+ * the entities of the result have no identity of their own.</p>
+ */
+final class ApplyResultType implements EdmEntityType {
+
+  private final EdmStructuredType type;
+  private final Map<String, EdmProperty> properties = new LinkedHashMap<String, EdmProperty>();
+
+  /**
+   * @param type the type of the $apply option, containing all dynamic properties
+   * @param propertyNames the names of the result properties or <code>null</code> for all properties of the type
+   */
+  ApplyResultType(final EdmStructuredType type, final List<String> propertyNames) {
+    this.type = type;
+    for (final String name : propertyNames == null ? type.getPropertyNames() : propertyNames) {
+      final EdmProperty property = type.getStructuralProperty(name);
+      if (property != null) {
+        properties.put(name, property);
+      }
+    }
+  }
+
+  @Override
+  public EdmElement getProperty(final String name) {
+    return properties.get(name);
+  }
+
+  @Override
+  public List<String> getPropertyNames() {
+    return Collections.unmodifiableList(new ArrayList<String>(properties.keySet()));
+  }
+
+  @Override
+  public EdmProperty getStructuralProperty(final String name) {
+    return properties.get(name);
+  }
+
+  @Override
+  public EdmNavigationProperty getNavigationProperty(final String name) {
+    return null;
+  }
+
+  @Override
+  public List<String> getNavigationPropertyNames() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<String> getKeyPredicateNames() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<EdmKeyPropertyRef> getKeyPropertyRefs() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public EdmKeyPropertyRef getKeyPropertyRef(final String keyPredicateName) {
+    return null;
+  }
+
+  @Override
+  public boolean hasStream() {
+    return false;
+  }
+
+  @Override
+  public EdmEntityType getBaseType() {
+    return null;
+  }
+
+  @Override
+  public boolean compatibleTo(final EdmType targetType) {
+    return this == targetType || type.compatibleTo(targetType);
+  }
+
+  @Override
+  public boolean isOpenType() {
+    return false;
+  }
+
+  @Override
+  public boolean isAbstract() {
+    return false;
+  }
+
+  @Override
+  public String getNamespace() {
+    return type.getNamespace();
+  }
+
+  @Override
+  public String getName() {
+    return type.getName();
+  }
+
+  @Override
+  public FullQualifiedName getFullQualifiedName() {
+    return type.getFullQualifiedName();
+  }
+
+  @Override
+  public EdmTypeKind getKind() {
+    return EdmTypeKind.ENTITY;
+  }
+
+  @Override
+  public EdmAnnotation getAnnotation(final EdmTerm term, final String qualifier) {
+    return null;
+  }
+
+  @Override
+  public List<EdmAnnotation> getAnnotations() {
+    return Collections.emptyList();
+  }
+}
@@ -0,0 +1,632 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.queryoption.expression.compiler;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.olingo.commons.api.data.ComplexValue;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.queryoption.apply.AggregateExpression.StandardMethod;
+import org.apache.olingo.server.api.uri.queryoption.apply.BottomTop;
+import org.apache.olingo.server.api.uri.queryoption.expression.BinaryOperatorKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledExpression;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledFilter;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledOrderBy;
+
+/**
+ * One transformation of a compiled $apply pipeline.
+ * <p>Stages are immutable and can be executed concurrently. They never modify the input entities;
+ * entities that get additional properties are copied first.</p>
+ */
+abstract class ApplyStage {
+
+  /**
+   * Transforms the entities.
+   * @param entities the input; the list is owned by the pipeline and may be modified and returned
+   * @param pool the pool for parallel execution or <code>null</code>
+   */
+  abstract List<Entity> apply(List<Entity> entities, ForkJoinPool pool) throws ODataApplicationException;
+
+  /**
+   * Transforms the entities of the iterator.
+   * By default the entities are collected in a list first;
+   * stages that look at each entity only once process them as they come.
+   */
+  List<Entity> apply(final Iterator<Entity> entities) throws ODataApplicationException {
+    final List<Entity> list = new ArrayList<Entity>();
+    while (entities.hasNext()) {
+      list.add(entities.next());
+    }
+    return apply(list, null);
+  }
+
+  /**
+   * Returns the names of the result properties.
+   * @param input the names of the input properties or <code>null</code> for all properties of the $apply type
+   * @return the names of the result properties or <code>null</code> for all properties of the $apply type
+   */
+  List<String> getPropertyNames(final List<String> input) {
+    return input;
+  }
+
+  static Entity copy(final Entity entity) {
+    final Entity copy = new Entity();
+    copy.setId(entity.getId());
+    copy.setType(entity.getType());
+    copy.setETag(entity.getETag());
+    copy.getProperties().addAll(entity.getProperties());
+    if (entity.hasNavigationLinks()) {
+      copy.getNavigationLinks().addAll(entity.getNavigationLinks());
+    }
+    return copy;
+  }
+
+  private static Property findProperty(final List<Property> properties, final String name) {
+    for (final Property property : properties) {
+      if (name.equals(property.getName())) {
+        return property;
+      }
+    }
+    return null;
+  }
+
+  /** Keeps the entities satisfying a filter expression. */
+  static final class Filter extends ApplyStage {
+    private final CompiledFilter filter;
+
+    Filter(final CompiledFilter filter) {
+      this.filter = filter;
+    }
+
+    @Override
+    List<Entity> apply(final List<Entity> entities, final ForkJoinPool pool) throws ODataApplicationException {
+      return apply(entities.iterator());
+    }
+
+    @Override
+    List<Entity> apply(final Iterator<Entity> entities) throws ODataApplicationException {
+      final List<Entity> result = new ArrayList<Entity>();
+      while (entities.hasNext()) {
+        final Entity entity = entities.next();
+        if (filter.matches(entity)) {
+          result.add(entity);
+        }
+      }
+      return result;
+    }
+  }
+
+  /** Adds properties with computed values. */
+  static final class Compute extends ApplyStage {
+    private final CompiledExpression[] expressions;
+    private final DynamicValue[] aliases;
+
+    Compute(final CompiledExpression[] expressions, final DynamicValue[] aliases) {
+      this.expressions = expressions;
+      this.aliases = aliases;
+    }
+
+    @Override
+    List<Entity> apply(final List<Entity> entities, final ForkJoinPool pool) throws ODataApplicationException {
+      return apply(entities.iterator());
+    }
+
+    @Override
+    List<Entity> apply(final Iterator<Entity> entities) throws ODataApplicationException {
+      final List<Entity> result = new ArrayList<Entity>();
+      while (entities.hasNext()) {
+        final Entity entity = entities.next();
+        final Entity computed = copy(entity);
+        for (int i = 0; i < expressions.length; i++) {
+          computed.addProperty(aliases[i].createProperty(expressions[i].evaluate(entity)));
+        }
+        result.add(computed);
+      }
+      return result;
+    }
+
+    @Override
+    List<String> getPropertyNames(final List<String> input) {
+      if (input == null) {
+        return null;
+      }
+      final List<String> names = new ArrayList<String>(input);
+      for (final DynamicValue alias : aliases) {
+        names.add(alias.name);
+      }
+      return names;
+    }
+  }
+
+  /** Sorts the entities. */
+  static final class OrderBy extends ApplyStage {
+    private final CompiledOrderBy orderBy;
+
+    OrderBy(final CompiledOrderBy orderBy) {
+      this.orderBy = orderBy;
+    }
+
+    @Override
+    List<Entity> apply(final List<Entity> entities, final ForkJoinPool pool) throws ODataApplicationException {
+      orderBy.sort(entities);
+      return entities;
+    }
+  }
+
+  /** Keeps a range of the entities; used for top and skip. */
+  static final class Range extends ApplyStage {
+    private final int skip;
+    private final int top;
+
+    Range(final int skip, final int top) {
+      this.skip = skip;
+      this.top = top;
+    }
+
+    @Override
+    List<Entity> apply(final List<Entity> entities, final ForkJoinPool pool) {
+      final int from = Math.min(skip, entities.size());
+      final int to = (int) Math.min((long) from + top, entities.size());
+      return new ArrayList<Entity>(entities.subList(from, to));
+    }
+  }
+
+  /** Concatenates the results of several pipelines applied to the same input. */
+  static final class Concat extends ApplyStage {
+    private final CompiledApplyImpl[] pipelines;
+
+    Concat(final CompiledApplyImpl[] pipelines) {
+      this.pipelines = pipelines;
+    }
+
+    @Override
+    List<Entity> apply(final List<Entity> entities, final ForkJoinPool pool) throws ODataApplicationException {
+      final List<Entity> result = new ArrayList<Entity>();
+      for (final CompiledApplyImpl pipeline : pipelines) {
+        result.addAll(pipeline.run(new ArrayList<Entity>(entities), pool));
+      }
+      return result;
+    }
+
+    @Override
+    List<String> getPropertyNames(final List<String> input) {
+      final List<String> names = new ArrayList<String>();
+      for (final CompiledApplyImpl pipeline : pipelines) {
+        final List<String> pipelineNames = pipeline.getPropertyNames(input);
+        if (pipelineNames == null) {
+          return null;
+        }
+        for (final String name : pipelineNames) {
+          if (!names.contains(name)) {
+            names.add(name);
+          }
+        }
+      }
+      return names;
+    }
+  }
+
+  /**
+   * Keeps the entities with the highest or lowest values, either a given number of them
+   * or as many as needed to reach a given sum or percentage of the total sum.
+   */
+  static final class BottomTopStage extends ApplyStage {
+    private final BottomTop.Method method;
+    private final Object number;
+    private final CompiledExpression value;
+
+    BottomTopStage(final BottomTop.Method method, final Object number, final CompiledExpression value) {
+      this.method = method;
+      this.number = number;
+      this.value = value;
+    }
+
+    @Override
+    List<Entity> apply(final List<Entity> entities, final ForkJoinPool pool) throws ODataApplicationException {
+      final boolean top = method == BottomTop.Method.TOP_COUNT
+          || method == BottomTop.Method.TOP_PERCENT
+          || method == BottomTop.Method.TOP_SUM;
+      final boolean percent = method == BottomTop.Method.TOP_PERCENT || method == BottomTop.Method.BOTTOM_PERCENT;
+      final ValuedEntity[] valued = new ValuedEntity[entities.size()];
+      final Accumulator.Sum total = new Accumulator.Sum();
+      for (int i = 0; i < valued.length; i++) {
+        final Entity entity = entities.get(i);
+        valued[i] = new ValuedEntity(entity, value.evaluate(entity));
+        if (percent) {
+          total.add(valued[i].value);
+        }
+      }
+      Arrays.sort(valued, top ? ValuedEntity.DESCENDING : ValuedEntity.ASCENDING);
+
+      final List<Entity> result = new ArrayList<Entity>();
+      if (method == BottomTop.Method.TOP_COUNT || method == BottomTop.Method.BOTTOM_COUNT) {
+        final long count = ((Number) number).longValue();
+        for (int i = 0; i < valued.length && i < count; i++) {
+          result.add(valued[i].entity);
+        }
+      } else {
+        final Object limit = percent ?
+            EvaluationValues.arithmetic(BinaryOperatorKind.DIV,
+                EvaluationValues.arithmetic(BinaryOperatorKind.MUL, total.getResult(), number),
+                BigDecimal.valueOf(100)) :
+            number;
+        final Accumulator.Sum sum = new Accumulator.Sum();
+        for (int i = 0; i < valued.length && EvaluationValues.compare(sum.getResult(), limit) < 0; i++) {
+          sum.add(valued[i].value);
+          result.add(valued[i].entity);
+        }
+      }
+      return result;
+    }
+  }
+
+  private static final class ValuedEntity {
+    private static final Comparator<ValuedEntity> ASCENDING = new Comparator<ValuedEntity>() {
+      @Override
+      public int compare(final ValuedEntity first, final ValuedEntity second) {
+        return EvaluationValues.compareForOrdering(first.value, second.value);
+      }
+    };
+    private static final Comparator<ValuedEntity> DESCENDING = new Comparator<ValuedEntity>() {
+      @Override
+      public int compare(final ValuedEntity first, final ValuedEntity second) {
+        return EvaluationValues.compareForOrdering(second.value, first.value);
+      }
+    };
+
+    private final Entity entity;
+    private final Object value;
+
+    private ValuedEntity(final Entity entity, final Object value) {
+      this.entity = entity;
+      this.value = value;
+    }
+  }
+
+  /**
+   * Groups the entities by the values of grouping properties using a hash map.
+   * <p>If the groups are only aggregated, each group keeps just one accumulator per aggregate,
+   * so that the input is never collected in memory, and large inputs can be aggregated in parallel
+   * in parts that are merged afterwards; without grouping properties all entities form one group.
+   * Otherwise the entities of each group are collected and passed to the nested transformations.
+   * The groups appear in the result in the order of their first entity.</p>
+   */
+  static final class Grouping extends ApplyStage {
+    /** Minimum number of entities for parallel aggregation. */
+    static final int PARALLEL_THRESHOLD = 8192;
+    private static final int MIN_PART_SIZE = 1024;
+
+    private final GroupingPath[] paths;
+    private final Aggregation[] aggregations;
+    private final CompiledApplyImpl nested;
+
+    /**
+     * @param paths the grouping properties
+     * @param aggregations the aggregates computed for each group; ignored if there are nested transformations
+     * @param nested the nested transformations for each group or <code>null</code>
+     */
+    Grouping(final GroupingPath[] paths, final Aggregation[] aggregations, final CompiledApplyImpl nested) {
+      this.paths = paths;
+      this.aggregations = aggregations;
+      this.nested = nested;
+    }
+
+    @Override
+    List<Entity> apply(final List<Entity> entities, final ForkJoinPool pool) throws ODataApplicationException {
+      if (nested != null) {
+        return applyNested(entities.iterator(), pool);
+      } else if (pool != null && entities.size() >= PARALLEL_THRESHOLD) {
+        final int partSize = Math.max(MIN_PART_SIZE, entities.size() / (4 * pool.getParallelism()));
+        try {
+          return toEntities(pool.invoke(new AggregationTask(entities, 0, entities.size(), partSize)));
+        } catch (final ParallelAggregationException e) {
+          throw (ODataApplicationException) e.getCause();
+        }
+      } else {
+        return toEntities(aggregate(entities.iterator()));
+      }
+    }
+
+    @Override
+    List<Entity> apply(final Iterator<Entity> entities) throws ODataApplicationException {
+      return nested == null ? toEntities(aggregate(entities)) : applyNested(entities, null);
+    }
+
+    @Override
+    List<String> getPropertyNames(final List<String> input) {
+      final List<String> names = new ArrayList<String>();
+      for (final GroupingPath path : paths) {
+        if (!names.contains(path.names[0])) {
+          names.add(path.names[0]);
+        }
+      }
+      if (nested == null) {
+        for (final Aggregation aggregation : aggregations) {
+          names.add(aggregation.alias.name);
+        }
+      } else {
+        final List<String> nestedNames = nested.getPropertyNames(input);
+        if (nestedNames == null) {
+          return null;
+        }
+        for (final String name : nestedNames) {
+          if (!names.contains(name)) {
+            names.add(name);
+          }
+        }
+      }
+      return names;
+    }
+
+    private GroupKey getKey(final Entity entity) {
+      final Object[] values = new Object[paths.length];
+      for (int i = 0; i < paths.length; i++) {
+        values[i] = paths[i].evaluate(entity);
+      }
+      return new GroupKey(values);
+    }
+
+    private Map<GroupKey, Accumulator[]> aggregate(final Iterator<Entity> entities)
+        throws ODataApplicationException {
+      final Map<GroupKey, Accumulator[]> groups = new LinkedHashMap<GroupKey, Accumulator[]>();
+      if (paths.length == 0) {
+        groups.put(new GroupKey(new Object[0]), createAccumulators());
+      }
+      while (entities.hasNext()) {
+        final Entity entity = entities.next();
+        final GroupKey key = getKey(entity);
+        Accumulator[] accumulators = groups.get(key);
+        if (accumulators == null) {
+          accumulators = createAccumulators();
+          groups.put(key, accumulators);
+        }
+        for (int i = 0; i < aggregations.length; i++) {
+          aggregations[i].accumulate(accumulators[i], entity);
+        }
+      }
+      return groups;
+    }
+
+    private Accumulator[] createAccumulators() {
+      final Accumulator[] accumulators = new Accumulator[aggregations.length];
+      for (int i = 0; i < aggregations.length; i++) {
+        accumulators[i] = Accumulator.create(aggregations[i].method);
+      }
+      return accumulators;
+    }
+
+    private static void merge(final Map<GroupKey, Accumulator[]> target, final Map<GroupKey, Accumulator[]> source)
+        throws ODataApplicationException {
+      for (final Map.Entry<GroupKey, Accumulator[]> entry : source.entrySet()) {
+        final Accumulator[] accumulators = target.get(entry.getKey());
+        if (accumulators == null) {
+          target.put(entry.getKey(), entry.getValue());
+        } else {
+          for (int i = 0; i < accumulators.length; i++) {
+            accumulators[i].merge(entry.getValue()[i]);
+          }
+        }
+      }
+    }
+
+    private List<Entity> toEntities(final Map<GroupKey, Accumulator[]> groups) {
+      final List<Entity> result = new ArrayList<Entity>(groups.size());
+      for (final Map.Entry<GroupKey, Accumulator[]> entry : groups.entrySet()) {
+        final Entity entity = new Entity();
+        addGroupingProperties(entity, entry.getKey());
+        for (int i = 0; i < aggregations.length; i++) {
+          entity.addProperty(aggregations[i].alias.createProperty(entry.getValue()[i].getResult()));
+        }
+        result.add(entity);
+      }
+      return result;
+    }
+
+    private void addGroupingProperties(final Entity entity, final GroupKey key) {
+      for (int i = 0; i < paths.length; i++) {
+        paths[i].addProperty(entity.getProperties(), key.values[i]);
+      }
+    }
+
+    private List<Entity> applyNested(final Iterator<Entity> entities, final ForkJoinPool pool)
+        throws ODataApplicationException {
+      final Map<GroupKey, List<Entity>> groups = new LinkedHashMap<GroupKey, List<Entity>>();
+      while (entities.hasNext()) {
+        final Entity entity = entities.next();
+        final GroupKey key = getKey(entity);
+        List<Entity> members = groups.get(key);
+        if (members == null) {
+          members = new ArrayList<Entity>();
+          groups.put(key, members);
+        }
+        members.add(entity);
+      }
+      final List<Entity> result = new ArrayList<Entity>();
+      for (final Map.Entry<GroupKey, List<Entity>> entry : groups.entrySet()) {
+        for (final Entity entity : nested.run(entry.getValue(), pool)) {
+          final Entity grouped = new Entity();
+          addGroupingProperties(grouped, entry.getKey());
+          for (final Property property : entity.getProperties()) {
+            if (findProperty(grouped.getProperties(), property.getName()) == null) {
+              grouped.addProperty(property);
+            }
+          }
+          result.add(grouped);
+        }
+      }
+      return result;
+    }
+
+    /** Aggregates a range of the input, splitting it recursively into parts of at most the given size. */
+    private final class AggregationTask extends RecursiveTask<Map<GroupKey, Accumulator[]>> {
+      private static final long serialVersionUID = 1L;
+      private final transient List<Entity> entities;
+      private final int from;
+      private final int to;
+      private final int partSize;
+
+      private AggregationTask(final List<Entity> entities, final int from, final int to, final int partSize) {
+        this.entities = entities;
+        this.from = from;
+        this.to = to;
+        this.partSize = partSize;
+      }
+
+      @Override
+      protected Map<GroupKey, Accumulator[]> compute() {
+        try {
+          if (to - from <= partSize) {
+            return aggregate(entities.subList(from, to).iterator());
+          }
+          final int middle = (from + to) >>> 1;
+          final AggregationTask left = new AggregationTask(entities, from, middle, partSize);
+          left.fork();
+          final Map<GroupKey, Accumulator[]> right =
+              new AggregationTask(entities, middle, to, partSize).compute();
+          // Merge the right part into the left part to keep the order of the groups.
+          final Map<GroupKey, Accumulator[]> result = left.join();
+          merge(result, right);
+          return result;
+        } catch (final ODataApplicationException e) {
+          throw new ParallelAggregationException(e);
+        }
+      }
+    }
+  }
+
+  /** Transports evaluation errors out of fork-join tasks; intentionally without public constructor. */
+  private static final class ParallelAggregationException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private ParallelAggregationException(final ODataApplicationException cause) {
+      super(cause);
+    }
+  }
+
+  /** Values of the grouping properties of a group, compared via their hash keys. */
+  static final class GroupKey {
+    private final Object[] values;
+    private final Object[] keys;
+    private final int hashCode;
+
+    GroupKey(final Object[] values) {
+      this.values = values;
+      keys = new Object[values.length];
+      for (int i = 0; i < values.length; i++) {
+        keys[i] = EvaluationValues.toHashKey(values[i]);
+      }
+      hashCode = Arrays.hashCode(keys);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      return other instanceof GroupKey && Arrays.equals(keys, ((GroupKey) other).keys);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  /** Path of a grouping property, consisting of complex properties and a final primitive property. */
+  static final class GroupingPath {
+    private final String[] names;
+    private final String[] typeNames;
+    private final ValueType valueType;
+
+    GroupingPath(final String[] names, final String[] typeNames, final ValueType valueType) {
+      this.names = names;
+      this.typeNames = typeNames;
+      this.valueType = valueType;
+    }
+
+    Object evaluate(final Entity entity) {
+      Property property = entity.getProperty(names[0]);
+      for (int i = 1; i < names.length && property != null; i++) {
+        property = property.isComplex() && property.getValue() != null ?
+            findProperty(property.asComplex().getValue(), names[i]) :
+            null;
+      }
+      return property == null ? null : property.getValue();
+    }
+
+    /** Adds the value as property, creating the complex properties along the path if needed. */
+    void addProperty(final List<Property> target, final Object value) {
+      List<Property> properties = target;
+      for (int i = 0; i < names.length - 1; i++) {
+        Property complex = findProperty(properties, names[i]);
+        if (complex == null) {
+          final ComplexValue complexValue = new ComplexValue();
+          complexValue.setTypeName(typeNames[i]);
+          complex = new Property(typeNames[i], names[i], ValueType.COMPLEX, complexValue);
+          properties.add(complex);
+        }
+        properties = complex.asComplex().getValue();
+      }
+      properties.add(new Property(typeNames[names.length - 1], names[names.length - 1], valueType, value));
+    }
+  }
+
+  /** Aggregate of a group: the aggregated expression (or <code>null</code> for $count) and the method. */
+  static final class Aggregation {
+    private final CompiledExpression expression;
+    private final StandardMethod method;
+    private final DynamicValue alias;
+
+    Aggregation(final CompiledExpression expression, final StandardMethod method, final DynamicValue alias) {
+      this.expression = expression;
+      this.method = method;
+      this.alias = alias;
+    }
+
+    void accumulate(final Accumulator accumulator, final Entity entity) throws ODataApplicationException {
+      accumulator.add(expression == null ? entity : expression.evaluate(entity));
+    }
+  }
+
+  /** Name and type of a dynamic property introduced by an alias. */
+  static final class DynamicValue {
+    private final String name;
+    private final String typeName;
+    private final ValueType valueType;
+
+    DynamicValue(final String name, final String typeName, final ValueType valueType) {
+      this.name = name;
+      this.typeName = typeName;
+      this.valueType = valueType;
+    }
+
+    Property createProperty(final Object value) {
+      return new Property(typeName, name, valueType, value);
+    }
+  }
+}
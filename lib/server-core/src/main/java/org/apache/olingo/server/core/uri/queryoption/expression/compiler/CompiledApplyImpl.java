@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.queryoption.expression.compiler;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledApply;
+
+/** Pipeline of compiled $apply transformations. */
+final class CompiledApplyImpl implements CompiledApply {
+
+  private final List<ApplyStage> stages;
+  private final EdmEntityType resultType;
+
+  /**
+   * @param stages the transformations
+   * @param type the type of the $apply option or <code>null</code> for nested pipelines
+   */
+  CompiledApplyImpl(final List<ApplyStage> stages, final EdmStructuredType type) {
+    this.stages = stages;
+    resultType = type == null ? null : new ApplyResultType(type, getPropertyNames(null));
+  }
+
+  @Override
+  public EntityCollection apply(final EntityCollection entityCollection) throws ODataApplicationException {
+    return toCollection(run(new ArrayList<Entity>(entityCollection.getEntities()), null));
+  }
+
+  @Override
+  public EntityCollection apply(final EntityIterator entityIterator) throws ODataApplicationException {
+    return toCollection(run(entityIterator));
+  }
+
+  @Override
+  public EntityCollection apply(final EntityCollection entityCollection, final ForkJoinPool pool)
+      throws ODataApplicationException {
+    return toCollection(run(new ArrayList<Entity>(entityCollection.getEntities()), pool));
+  }
+
+  @Override
+  public EdmEntityType getResultType() {
+    return resultType;
+  }
+
+  List<Entity> run(final List<Entity> entities, final ForkJoinPool pool) throws ODataApplicationException {
+    List<Entity> result = entities;
+    for (final ApplyStage stage : stages) {
+      result = stage.apply(result, pool);
+    }
+    return result;
+  }
+
+  private List<Entity> run(final Iterator<Entity> entities) throws ODataApplicationException {
+    if (stages.isEmpty()) {
+      final List<Entity> result = new ArrayList<Entity>();
+      while (entities.hasNext()) {
+        result.add(entities.next());
+      }
+      return result;
+    }
+    List<Entity> result = stages.get(0).apply(entities);
+    for (int i = 1; i < stages.size(); i++) {
+      result = stages.get(i).apply(result, null);
+    }
+    return result;
+  }
+
+  List<String> getPropertyNames(final List<String> input) {
+    List<String> names = input;
+    for (final ApplyStage stage : stages) {
+      names = stage.getPropertyNames(names);
+    }
+    return names;
+  }
+
+  private static EntityCollection toCollection(final List<Entity> entities) {
+    final EntityCollection entityCollection = new EntityCollection();
+    entityCollection.getEntities().addAll(entities);
+    return entityCollection;
+  }
+}
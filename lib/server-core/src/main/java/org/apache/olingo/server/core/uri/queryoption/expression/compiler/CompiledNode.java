@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.queryoption.expression.compiler;
+
+import java.util.Locale;
+
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataApplicationException;
+
+/**
+ * Node of a compiled expression tree.
+ * <p>Nodes are immutable; all state needed during evaluation is passed in as parameters.
+ * The current instance is the entity or complex value the expression is evaluated for,
+ * the variables array holds the current values of lambda variables and is <code>null</code>
+ * if the expression does not contain lambda expressions.</p>
+ */
+abstract class CompiledNode {
+
+  private final EdmPrimitiveTypeKind kind;
+
+  protected CompiledNode(final EdmPrimitiveTypeKind kind) {
+    this.kind = kind;
+  }
+
+  /**
+   * Returns the primitive type kind of the result if it is known at compile time.
+   * @return the type kind or <code>null</code>
+   */
+  EdmPrimitiveTypeKind getKind() {
+    return kind;
+  }
+
+  abstract Object evaluate(Object current, Object[] variables) throws ODataApplicationException;
+
+  static ODataApplicationException badRequest(final String message) {
+    return new ODataApplicationException(message, HttpStatusCode.BAD_REQUEST.getStatusCode(), Locale.ROOT);
+  }
+
+  static ODataApplicationException notImplemented(final String message) {
+    return new ODataApplicationException(message, HttpStatusCode.NOT_IMPLEMENTED.getStatusCode(), Locale.ROOT);
+  }
+
+  /** Node with a value that is computed at compile time. */
+  static final class Constant extends CompiledNode {
+
+    private final Object value;
+
+    Constant(final Object value, final EdmPrimitiveTypeKind kind) {
+      super(kind);
+      this.value = value;
+    }
+
+    @Override
+    Object evaluate(final Object current, final Object[] variables) {
+      return value;
+    }
+  }
+}
@@ -0,0 +1,302 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.queryoption.expression.compiler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.olingo.commons.api.Constants;
+import org.apache.olingo.commons.api.edm.EdmEnumType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.commons.api.edm.EdmType;
+import org.apache.olingo.commons.api.edm.EdmTypeDefinition;
+import org.apache.olingo.commons.api.edm.constants.EdmTypeKind;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceCount;
+import org.apache.olingo.server.api.uri.UriResourceIt;
+import org.apache.olingo.server.api.uri.UriResourceLambdaAll;
+import org.apache.olingo.server.api.uri.UriResourceLambdaAny;
+import org.apache.olingo.server.api.uri.UriResourceLambdaVariable;
+import org.apache.olingo.server.api.uri.UriResourceNavigation;
+import org.apache.olingo.server.api.uri.UriResourcePartTyped;
+import org.apache.olingo.server.api.uri.UriResourceProperty;
+import org.apache.olingo.server.api.uri.queryoption.AliasQueryOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.BinaryOperatorKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitor;
+import org.apache.olingo.server.api.uri.queryoption.expression.Literal;
+import org.apache.olingo.server.api.uri.queryoption.expression.Member;
+import org.apache.olingo.server.api.uri.queryoption.expression.MethodKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.UnaryOperatorKind;
+
+/**
+ * Visitor that translates an expression tree into a tree of {@link CompiledNode}s.
+ * <p>An instance holds the lambda-variable scope of a single compilation and must not be reused.</p>
+ */
+class CompilingVisitor implements ExpressionVisitor<CompiledNode> {
+
+  private final UriInfoResource uriInfo;
+  private final Map<String, Integer> lambdaVariables = new HashMap<String, Integer>();
+  private int variableCount = 0;
+
+  CompilingVisitor(final UriInfoResource uriInfo) {
+    this.uriInfo = uriInfo;
+  }
+
+  CompiledNode compile(final Expression expression) throws ODataApplicationException {
+    try {
+      return expression.accept(this);
+    } catch (final ExpressionVisitException e) {
+      throw CompiledNode.badRequest("Invalid expression: " + e.getMessage());
+    }
+  }
+
+  /** Returns the number of lambda-variable slots needed to evaluate the compiled expression. */
+  int getVariableCount() {
+    return variableCount;
+  }
+
+  @Override
+  public CompiledNode visitBinaryOperator(final BinaryOperatorKind operator, final CompiledNode left,
+      final CompiledNode right) throws ODataApplicationException {
+    return OperatorNodes.binary(operator, left, right);
+  }
+
+  @Override
+  public CompiledNode visitBinaryOperator(final BinaryOperatorKind operator, final CompiledNode left,
+      final List<CompiledNode> right) throws ODataApplicationException {
+    if (operator == BinaryOperatorKind.IN) {
+      return new OperatorNodes.In(left, right);
+    }
+    throw CompiledNode.notImplemented("Operator " + operator.toString() + " is not supported with a list.");
+  }
+
+  @Override
+  public CompiledNode visitUnaryOperator(final UnaryOperatorKind operator, final CompiledNode operand)
+      throws ODataApplicationException {
+    return operator == UnaryOperatorKind.NOT ? new OperatorNodes.Not(operand) : new OperatorNodes.Minus(operand);
+  }
+
+  @Override
+  public CompiledNode visitMethodCall(final MethodKind methodCall, final List<CompiledNode> parameters)
+      throws ODataApplicationException {
+    return MethodNode.create(methodCall, parameters);
+  }
+
+  @Override
+  public CompiledNode visitLambdaExpression(final String lambdaFunction, final String lambdaVariable,
+      final Expression expression) throws ODataApplicationException {
+    // Lambda expressions are part of member paths and handled in visitMember.
+    throw CompiledNode.notImplemented("Stand-alone lambda expressions are not supported.");
+  }
+
+  @Override
+  public CompiledNode visitLiteral(final Literal literal) throws ODataApplicationException {
+    final EdmType type = literal.getType();
+    if (type == null) {
+      if ("null".equals(literal.getText())) {
+        return new CompiledNode.Constant(null, null);
+      }
+      throw CompiledNode.notImplemented("Literals without type are not supported.");
+    }
+    if (!(type instanceof EdmPrimitiveType)) {
+      throw CompiledNode.notImplemented("Literals of type " + type.getFullQualifiedName() + " are not supported.");
+    }
+    final EdmPrimitiveType primitiveType = (EdmPrimitiveType) type;
+    final EdmPrimitiveTypeKind kind = getKind(type);
+    final Class<?> returnType = kind == null ? primitiveType.getDefaultType()
+        : EvaluationValues.getLiteralClass(kind, primitiveType.getDefaultType());
+    try {
+      // Literals are not restricted by facets; only Edm.Decimal needs a scale to accept fractional digits.
+      final Object value = primitiveType.valueOfString(primitiveType.fromUriLiteral(literal.getText()),
+          null, null, null, kind == EdmPrimitiveTypeKind.Decimal ? Constants.DEFAULT_SCALE : null, null, returnType);
+      return new CompiledNode.Constant(EvaluationValues.normalize(value, kind), kind);
+    } catch (final EdmPrimitiveTypeException e) {
+      throw CompiledNode.badRequest("Invalid literal '" + literal.getText() + "'.");
+    }
+  }
+
+  @Override
+  public CompiledNode visitMember(final Member member) throws ODataApplicationException {
+    final List<UriResource> parts = member.getResourcePath().getUriResourceParts();
+    int variable = -1;
+    int start = 0;
+    EdmPrimitiveTypeKind kind = null;
+    // Declaring type of the next property; only used to resolve property slots.
+    EdmType type = getResourceType();
+
+    final UriResource first = parts.get(0);
+    if (first instanceof UriResourceLambdaVariable) {
+      variable = getVariable(((UriResourceLambdaVariable) first).getVariableName());
+      type = ((UriResourceLambdaVariable) first).getType();
+      kind = getKind(type);
+      start = 1;
+    } else if (first instanceof UriResourceIt) {
+      type = ((UriResourceIt) first).getType();
+      kind = getKind(type);
+      start = 1;
+    }
+
+    final List<MemberNode.Step> steps = new ArrayList<MemberNode.Step>();
+    for (int i = start; i < parts.size(); i++) {
+      final UriResource part = parts.get(i);
+      if (part instanceof UriResourceProperty) {
+        final String name = ((UriResourceProperty) part).getProperty().getName();
+        steps.add(new MemberNode.PropertyStep(name, getSlot(type, name)));
+        type = ((UriResourceProperty) part).getType();
+        kind = getKind(type);
+      } else if (part instanceof UriResourceNavigation) {
+        final UriResourceNavigation navigation = (UriResourceNavigation) part;
+        if (!navigation.getKeyPredicates().isEmpty()) {
+          throw CompiledNode.notImplemented("Key predicates in member expressions are not supported.");
+        }
+        steps.add(new MemberNode.NavigationStep(navigation.getProperty().getName(), navigation.isCollection()));
+        type = navigation.getType();
+        kind = null;
+      } else if (part instanceof UriResourceLambdaAny) {
+        final UriResourceLambdaAny any = (UriResourceLambdaAny) part;
+        steps.add(compileLambda(false, any.getLambdaVariable(), any.getExpression()));
+        kind = EdmPrimitiveTypeKind.Boolean;
+      } else if (part instanceof UriResourceLambdaAll) {
+        final UriResourceLambdaAll all = (UriResourceLambdaAll) part;
+        steps.add(compileLambda(true, all.getLambdaVariable(), all.getExpression()));
+        kind = EdmPrimitiveTypeKind.Boolean;
+      } else if (part instanceof UriResourceCount) {
+        steps.add(new MemberNode.CountStep());
+        kind = EdmPrimitiveTypeKind.Int64;
+      } else {
+        throw CompiledNode.notImplemented("Resource part " + part.getSegmentValue()
+            + " is not supported in member expressions.");
+      }
+    }
+    return new MemberNode(variable, steps, kind);
+  }
+
+  /** Returns the type of the resource the expression is evaluated on, if known. */
+  private EdmType getResourceType() {
+    final List<UriResource> parts = uriInfo == null ? null : uriInfo.getUriResourceParts();
+    if (parts == null || parts.isEmpty()) {
+      return null;
+    }
+    final UriResource last = parts.get(parts.size() - 1);
+    return last instanceof UriResourcePartTyped ? ((UriResourcePartTyped) last).getType() : null;
+  }
+
+  /**
+   * Returns the position of a property in the declared property order of its type, or -1 if unknown.
+   * The slot is a hint only; the property name is still checked on evaluation.
+   */
+  private static int getSlot(final EdmType type, final String name) {
+    return type instanceof EdmStructuredType ? ((EdmStructuredType) type).getPropertyNames().indexOf(name) : -1;
+  }
+
+  private MemberNode.Step compileLambda(final boolean all, final String variableName, final Expression expression)
+      throws ODataApplicationException {
+    if (expression == null) {
+      return new MemberNode.LambdaStep(all, -1, null);
+    }
+    final int variable = variableCount++;
+    final Integer shadowed = lambdaVariables.put(variableName, variable);
+    try {
+      final CompiledNode predicate = expression.accept(this);
+      if (predicate.getKind() != null && predicate.getKind() != EdmPrimitiveTypeKind.Boolean) {
+        throw CompiledNode.badRequest("Lambda expressions must be Boolean expressions.");
+      }
+      return new MemberNode.LambdaStep(all, variable, predicate);
+    } catch (final ExpressionVisitException e) {
+      throw CompiledNode.badRequest("Invalid lambda expression: " + e.getMessage());
+    } finally {
+      if (shadowed == null) {
+        lambdaVariables.remove(variableName);
+      } else {
+        lambdaVariables.put(variableName, shadowed);
+      }
+    }
+  }
+
+  private int getVariable(final String name) throws ODataApplicationException {
+    final Integer variable = lambdaVariables.get(name);
+    if (variable == null) {
+      throw CompiledNode.badRequest("Unknown lambda variable '" + name + "'.");
+    }
+    return variable;
+  }
+
+  @Override
+  public CompiledNode visitAlias(final String aliasName) throws ODataApplicationException {
+    if (uriInfo instanceof UriInfo) {
+      for (final AliasQueryOption alias : ((UriInfo) uriInfo).getAliases()) {
+        if (aliasName.equals(alias.getName()) && alias.getValue() != null) {
+          return compile(alias.getValue());
+        }
+      }
+    }
+    throw CompiledNode.badRequest("Missing value for alias '" + aliasName + "'.");
+  }
+
+  @Override
+  public CompiledNode visitTypeLiteral(final EdmType type) throws ODataApplicationException {
+    throw CompiledNode.notImplemented("Type literals are not supported.");
+  }
+
+  @Override
+  public CompiledNode visitLambdaReference(final String variableName) throws ODataApplicationException {
+    return new MemberNode(getVariable(variableName), new ArrayList<MemberNode.Step>(), null);
+  }
+
+  @Override
+  public CompiledNode visitEnum(final EdmEnumType type, final List<String> enumValues)
+      throws ODataApplicationException {
+    Long result = null;
+    try {
+      for (final String enumValue : enumValues) {
+        final Long value = type.valueOfString(enumValue, null, null, null, null, null, Long.class);
+        result = result == null ? value : result | value;
+      }
+    } catch (final EdmPrimitiveTypeException e) {
+      throw CompiledNode.badRequest("Illegal enum value.");
+    }
+    return new CompiledNode.Constant(result, null);
+  }
+
+  static EdmPrimitiveTypeKind getKind(final EdmType type) {
+    if (type == null) {
+      return null;
+    } else if (type.getKind() == EdmTypeKind.PRIMITIVE) {
+      try {
+        return EdmPrimitiveTypeKind.valueOfFQN(type.getFullQualifiedName());
+      } catch (final IllegalArgumentException e) {
+        return null;
+      }
+    } else if (type.getKind() == EdmTypeKind.DEFINITION) {
+      return getKind(((EdmTypeDefinition) type).getUnderlyingType());
+    } else {
+      return null;
+    }
+  }
+}
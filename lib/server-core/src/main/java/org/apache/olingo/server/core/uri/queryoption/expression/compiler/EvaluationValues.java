@@ -0,0 +1,413 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.queryoption.expression.compiler;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.queryoption.expression.BinaryOperatorKind;
+
+/**
+ * Conversion, comparison, and arithmetic on the Java representations of primitive values.
+ * <p>Numbers are kept in the representation they are stored in; only temporal values are
+ * normalized (Edm.Date to {@link LocalDate}, Edm.TimeOfDay to {@link LocalTime},
+ * Edm.DateTimeOffset to {@link ZonedDateTime}, and Edm.Duration to {@link BigDecimal} seconds)
+ * so that values from entities and values from literals can be compared directly.</p>
+ */
+final class EvaluationValues {
+
+  static final ZoneId ZULU = ZoneId.of("Z");
+  private static final BigDecimal SECONDS_PER_DAY = BigDecimal.valueOf(24L * 60 * 60);
+  private static final BigDecimal NANOS_PER_SECOND = BigDecimal.valueOf(1000000000L);
+
+  private EvaluationValues() {
+    // Static helper methods only.
+  }
+
+  static boolean isTemporal(final EdmPrimitiveTypeKind kind) {
+    return kind == EdmPrimitiveTypeKind.Date
+        || kind == EdmPrimitiveTypeKind.TimeOfDay
+        || kind == EdmPrimitiveTypeKind.DateTimeOffset
+        || kind == EdmPrimitiveTypeKind.Duration;
+  }
+
+  /**
+   * Returns the Java class literals of the given type kind are parsed into.
+   */
+  static Class<?> getLiteralClass(final EdmPrimitiveTypeKind kind, final Class<?> defaultType) {
+    switch (kind) {
+    case Date:
+      return LocalDate.class;
+    case TimeOfDay:
+      return LocalTime.class;
+    case DateTimeOffset:
+      return ZonedDateTime.class;
+    default:
+      return defaultType;
+    }
+  }
+
+  static Object normalize(final Object value, final EdmPrimitiveTypeKind kind) throws ODataApplicationException {
+    if (value == null || kind == null) {
+      return value;
+    }
+    switch (kind) {
+    case Date:
+      return toLocalDate(value);
+    case TimeOfDay:
+      return toLocalTime(value);
+    case DateTimeOffset:
+      return toZonedDateTime(value);
+    case Duration:
+      return toDuration(value);
+    default:
+      return value;
+    }
+  }
+
+  private static LocalDate toLocalDate(final Object value) throws ODataApplicationException {
+    if (value instanceof LocalDate) {
+      return (LocalDate) value;
+    } else if (value instanceof java.sql.Date) {
+      return ((java.sql.Date) value).toLocalDate();
+    } else if (value instanceof GregorianCalendar) {
+      return ((GregorianCalendar) value).toZonedDateTime().toLocalDate();
+    } else if (value instanceof Calendar) {
+      final Calendar calendar = (Calendar) value;
+      return LocalDate.of(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1,
+          calendar.get(Calendar.DAY_OF_MONTH));
+    } else if (value instanceof ZonedDateTime) {
+      return ((ZonedDateTime) value).toLocalDate();
+    } else if (value instanceof java.util.Date) {
+      return Instant.ofEpochMilli(((java.util.Date) value).getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+    } else if (value instanceof Long) {
+      return Instant.ofEpochMilli((Long) value).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+    throw unsupportedValue(value);
+  }
+
+  private static LocalTime toLocalTime(final Object value) throws ODataApplicationException {
+    if (value instanceof LocalTime) {
+      return (LocalTime) value;
+    } else if (value instanceof java.sql.Time) {
+      return ((java.sql.Time) value).toLocalTime();
+    } else if (value instanceof GregorianCalendar) {
+      return ((GregorianCalendar) value).toZonedDateTime().toLocalTime();
+    } else if (value instanceof Calendar) {
+      final Calendar calendar = (Calendar) value;
+      return LocalTime.of(calendar.get(Calendar.HOUR_OF_DAY), calendar.get(Calendar.MINUTE),
+          calendar.get(Calendar.SECOND), calendar.get(Calendar.MILLISECOND) * 1000000);
+    } else if (value instanceof ZonedDateTime) {
+      return ((ZonedDateTime) value).toLocalTime();
+    } else if (value instanceof java.util.Date) {
+      return Instant.ofEpochMilli(((java.util.Date) value).getTime()).atZone(ZoneId.systemDefault()).toLocalTime();
+    } else if (value instanceof Long) {
+      return Instant.ofEpochMilli((Long) value).atZone(ZoneId.systemDefault()).toLocalTime();
+    }
+    throw unsupportedValue(value);
+  }
+
+  private static ZonedDateTime toZonedDateTime(final Object value) throws ODataApplicationException {
+    if (value instanceof ZonedDateTime) {
+      return (ZonedDateTime) value;
+    } else if (value instanceof Instant) {
+      return ((Instant) value).atZone(ZULU);
+    } else if (value instanceof GregorianCalendar) {
+      final GregorianCalendar calendar = (GregorianCalendar) value;
+      return calendar.toZonedDateTime().withZoneSameInstant(calendar.getTimeZone().toZoneId().normalized());
+    } else if (value instanceof java.sql.Timestamp) {
+      return ((java.sql.Timestamp) value).toInstant().atZone(ZULU);
+    } else if (value instanceof Calendar) {
+      return Instant.ofEpochMilli(((Calendar) value).getTimeInMillis()).atZone(ZULU);
+    } else if (value instanceof java.util.Date) {
+      return Instant.ofEpochMilli(((java.util.Date) value).getTime()).atZone(ZULU);
+    } else if (value instanceof Long) {
+      return Instant.ofEpochMilli((Long) value).atZone(ZULU);
+    }
+    throw unsupportedValue(value);
+  }
+
+  private static BigDecimal toDuration(final Object value) throws ODataApplicationException {
+    if (value instanceof BigDecimal) {
+      return (BigDecimal) value;
+    } else if (value instanceof Duration) {
+      final Duration duration = (Duration) value;
+      return BigDecimal.valueOf(duration.getSeconds())
+          .add(BigDecimal.valueOf(duration.getNano()).divide(NANOS_PER_SECOND));
+    } else if (value instanceof Number) {
+      return toBigDecimal((Number) value);
+    }
+    throw unsupportedValue(value);
+  }
+
+  private static ODataApplicationException unsupportedValue(final Object value) {
+    return CompiledNode.badRequest("The value type " + value.getClass().getName() + " is not supported.");
+  }
+
+  static boolean isIntegral(final Object value) {
+    return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+  }
+
+  private static boolean isFloatingPoint(final Object value) {
+    return value instanceof Double || value instanceof Float;
+  }
+
+  static BigDecimal toBigDecimal(final Number value) {
+    if (value instanceof BigDecimal) {
+      return (BigDecimal) value;
+    } else if (value instanceof BigInteger) {
+      return new BigDecimal((BigInteger) value);
+    } else if (isFloatingPoint(value)) {
+      return BigDecimal.valueOf(value.doubleValue());
+    } else {
+      return BigDecimal.valueOf(value.longValue());
+    }
+  }
+
+  /**
+   * Compares two non-null values.
+   * @throws ODataApplicationException if the values cannot be compared
+   */
+  @SuppressWarnings("unchecked")
+  static int compare(final Object left, final Object right) throws ODataApplicationException {
+    if (left instanceof Number && right instanceof Number) {
+      return compareNumbers((Number) left, (Number) right);
+    } else if (left instanceof ZonedDateTime && right instanceof ZonedDateTime) {
+      return compareInstants((ZonedDateTime) left, (ZonedDateTime) right);
+    } else if (left.getClass() == right.getClass() && left instanceof Comparable<?>) {
+      return ((Comparable<Object>) left).compareTo(right);
+    } else {
+      throw CompiledNode.badRequest("The values of type " + left.getClass().getName()
+          + " and " + right.getClass().getName() + " cannot be compared.");
+    }
+  }
+
+  /**
+   * Compares two values for sorting purposes; never throws an exception.
+   * <code>null</code> values sort before all other values; incompatible values are considered equal.
+   */
+  static int compareForOrdering(final Object left, final Object right) {
+    if (left == null || right == null) {
+      return left == null ? right == null ? 0 : -1 : 1;
+    }
+    try {
+      return compare(left, right);
+    } catch (final ODataApplicationException e) {
+      return 0;
+    }
+  }
+
+  static boolean isEqual(final Object left, final Object right) throws ODataApplicationException {
+    if (left == null || right == null) {
+      return left == right;
+    } else if (left instanceof byte[] && right instanceof byte[]) {
+      return Arrays.equals((byte[]) left, (byte[]) right);
+    } else if (left instanceof Number && right instanceof Number
+        || left instanceof ZonedDateTime && right instanceof ZonedDateTime) {
+      return compare(left, right) == 0;
+    } else if (left.getClass() == right.getClass()) {
+      return left.equals(right);
+    } else {
+      throw CompiledNode.badRequest("The values of type " + left.getClass().getName()
+          + " and " + right.getClass().getName() + " cannot be compared.");
+    }
+  }
+
+  /**
+   * Returns a representation of the value with <code>equals</code> and <code>hashCode</code>
+   * consistent with {@link #isEqual(Object, Object)} for values of the same property,
+   * to be used in hash-based grouping.
+   */
+  static Object toHashKey(final Object value) {
+    if (isIntegral(value)) {
+      return value instanceof Long ? value : Long.valueOf(((Number) value).longValue());
+    } else if (value instanceof Float) {
+      return ((Float) value).doubleValue();
+    } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+      final BigDecimal decimal = toBigDecimal((Number) value);
+      return decimal.signum() == 0 ? BigDecimal.ZERO : decimal.stripTrailingZeros();
+    } else if (value instanceof ZonedDateTime) {
+      return ((ZonedDateTime) value).toInstant();
+    } else if (value instanceof byte[]) {
+      return ByteBuffer.wrap((byte[]) value);
+    }
+    return value;
+  }
+
+  private static int compareNumbers(final Number left, final Number right) {
+    if (isIntegral(left) && isIntegral(right)) {
+      return Long.compare(left.longValue(), right.longValue());
+    } else if (isFloatingPoint(left) || isFloatingPoint(right)) {
+      return Double.compare(left.doubleValue(), right.doubleValue());
+    } else {
+      return toBigDecimal(left).compareTo(toBigDecimal(right));
+    }
+  }
+
+  private static int compareInstants(final ZonedDateTime left, final ZonedDateTime right) {
+    final int result = Long.compare(left.toEpochSecond(), right.toEpochSecond());
+    return result == 0 ? Integer.compare(left.getNano(), right.getNano()) : result;
+  }
+
+  static Object arithmetic(final BinaryOperatorKind operator, final Object left, final Object right)
+      throws ODataApplicationException {
+    if (left instanceof Number && right instanceof Number) {
+      return numericArithmetic(operator, (Number) left, (Number) right);
+    } else if (left instanceof ZonedDateTime) {
+      return dateTimeOffsetArithmetic(operator, (ZonedDateTime) left, right);
+    } else if (left instanceof LocalDate) {
+      return dateArithmetic(operator, (LocalDate) left, right);
+    }
+    throw CompiledNode.badRequest("Invalid operands for operator " + operator.toString() + ".");
+  }
+
+  private static Object numericArithmetic(final BinaryOperatorKind operator, final Number left, final Number right)
+      throws ODataApplicationException {
+    if (isIntegral(left) && isIntegral(right)) {
+      final long l = left.longValue();
+      final long r = right.longValue();
+      try {
+        switch (operator) {
+        case ADD:
+          return Math.addExact(l, r);
+        case SUB:
+          return Math.subtractExact(l, r);
+        case MUL:
+          return Math.multiplyExact(l, r);
+        case DIV:
+          if (l == Long.MIN_VALUE && r == -1) {
+            // The only integer division that overflows; continue with decimal arithmetic.
+            break;
+          }
+          return l / r;
+        case MOD:
+          return l % r;
+        default:
+          break;
+        }
+      } catch (final ArithmeticException e) {
+        if (r == 0) {
+          throw CompiledNode.badRequest("Division by zero.");
+        }
+        // Overflow; continue with decimal arithmetic.
+      }
+    } else if (isFloatingPoint(left) || isFloatingPoint(right)) {
+      final double l = left.doubleValue();
+      final double r = right.doubleValue();
+      switch (operator) {
+      case ADD:
+        return l + r;
+      case SUB:
+        return l - r;
+      case MUL:
+        return l * r;
+      case DIV:
+        return l / r;
+      case MOD:
+        return l % r;
+      default:
+        break;
+      }
+    }
+    final BigDecimal l = toBigDecimal(left);
+    final BigDecimal r = toBigDecimal(right);
+    try {
+      switch (operator) {
+      case ADD:
+        return l.add(r);
+      case SUB:
+        return l.subtract(r);
+      case MUL:
+        return l.multiply(r);
+      case DIV:
+        return l.divide(r, MathContext.DECIMAL128);
+      case MOD:
+        return l.remainder(r);
+      default:
+        throw CompiledNode.badRequest("Operator " + operator.toString() + " is not an arithmetic operator.");
+      }
+    } catch (final ArithmeticException e) {
+      throw CompiledNode.badRequest("Division by zero.");
+    }
+  }
+
+  private static Object dateTimeOffsetArithmetic(final BinaryOperatorKind operator, final ZonedDateTime left,
+      final Object right) throws ODataApplicationException {
+    if (right instanceof BigDecimal && (operator == BinaryOperatorKind.ADD || operator == BinaryOperatorKind.SUB)) {
+      final Duration duration = toJavaDuration((BigDecimal) right);
+      return operator == BinaryOperatorKind.ADD ? left.plus(duration) : left.minus(duration);
+    } else if (right instanceof ZonedDateTime && operator == BinaryOperatorKind.SUB) {
+      final Duration duration = Duration.between((ZonedDateTime) right, left);
+      return toDuration(duration);
+    }
+    throw CompiledNode.badRequest("Invalid operands for operator " + operator.toString() + ".");
+  }
+
+  private static Object dateArithmetic(final BinaryOperatorKind operator, final LocalDate left,
+      final Object right) throws ODataApplicationException {
+    if (right instanceof BigDecimal && (operator == BinaryOperatorKind.ADD || operator == BinaryOperatorKind.SUB)) {
+      // Only whole days are taken into account.
+      final long days = ((BigDecimal) right).divideToIntegralValue(SECONDS_PER_DAY).longValue();
+      return operator == BinaryOperatorKind.ADD ? left.plusDays(days) : left.minusDays(days);
+    } else if (right instanceof LocalDate && operator == BinaryOperatorKind.SUB) {
+      return BigDecimal.valueOf(left.toEpochDay() - ((LocalDate) right).toEpochDay()).multiply(SECONDS_PER_DAY);
+    }
+    throw CompiledNode.badRequest("Invalid operands for operator " + operator.toString() + ".");
+  }
+
+  private static Duration toJavaDuration(final BigDecimal seconds) {
+    final BigDecimal wholeSeconds = new BigDecimal(seconds.toBigInteger());
+    return Duration.ofSeconds(wholeSeconds.longValue(),
+        seconds.subtract(wholeSeconds).multiply(NANOS_PER_SECOND).longValue());
+  }
+
+  static Object negate(final Object value) throws ODataApplicationException {
+    if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      final long number = ((Number) value).longValue();
+      return number == Long.MIN_VALUE ? BigDecimal.valueOf(number).negate() : -number;
+    } else if (value instanceof Double || value instanceof Float) {
+      return -((Number) value).doubleValue();
+    } else if (value instanceof Number) {
+      return toBigDecimal((Number) value).negate();
+    }
+    throw CompiledNode.badRequest("The minus operator needs a numeric operand.");
+  }
+
+  static ZonedDateTime minDateTime() {
+    return ZonedDateTime.of(1, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+  }
+
+  static ZonedDateTime maxDateTime() {
+    return ZonedDateTime.of(9999, 12, 31, 23, 59, 59, 999999999, ZoneOffset.UTC);
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.queryoption.expression.compiler;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.queryoption.ApplyOption;
+import org.apache.olingo.server.api.uri.queryoption.FilterOption;
+import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledApply;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledExpression;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledFilter;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledOrderBy;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionCompiler;
+
+public class ExpressionCompilerImpl implements ExpressionCompiler {
+
+  private final UriInfoResource uriInfo;
+
+  public ExpressionCompilerImpl(final UriInfoResource uriInfo) {
+    this.uriInfo = uriInfo;
+  }
+
+  @Override
+  public CompiledExpression compile(final Expression expression) throws ODataApplicationException {
+    final CompilingVisitor visitor = new CompilingVisitor(uriInfo);
+    final CompiledNode root = visitor.compile(expression);
+    return new CompiledExpressionImpl(root, visitor.getVariableCount());
+  }
+
+  @Override
+  public CompiledFilter compileFilter(final FilterOption filterOption) throws ODataApplicationException {
+    final CompiledExpressionImpl expression = (CompiledExpressionImpl) compile(filterOption.getExpression());
+    if (expression.getTypeKind() != null && expression.getTypeKind() != EdmPrimitiveTypeKind.Boolean) {
+      throw CompiledNode.badRequest(
+          "Invalid filter expression. Filter expressions must return a value of type Edm.Boolean");
+    }
+    return new CompiledFilterImpl(expression);
+  }
+
+  @Override
+  public CompiledOrderBy compileOrderBy(final OrderByOption orderByOption) throws ODataApplicationException {
+    final List<OrderByItem> items = orderByOption.getOrders();
+    final CompiledExpressionImpl[] expressions = new CompiledExpressionImpl[items.size()];
+    final boolean[] descending = new boolean[items.size()];
+    for (int i = 0; i < items.size(); i++) {
+      expressions[i] = (CompiledExpressionImpl) compile(items.get(i).getExpression());
+      descending[i] = items.get(i).isDescending();
+    }
+    return new CompiledOrderByImpl(expressions, descending);
+  }
+
+  @Override
+  public CompiledApply compileApply(final ApplyOption applyOption) throws ODataApplicationException {
+    return new ApplyCompiler(this, applyOption.getEdmStructuredType()).compile(applyOption);
+  }
+
+  private static final class CompiledExpressionImpl implements CompiledExpression {
+    private final CompiledNode root;
+    private final int variableCount;
+
+    private CompiledExpressionImpl(final CompiledNode root, final int variableCount) {
+      this.root = root;
+      this.variableCount = variableCount;
+    }
+
+    @Override
+    public Object evaluate(final Entity entity) throws ODataApplicationException {
+      return root.evaluate(entity, variableCount == 0 ? null : new Object[variableCount]);
+    }
+
+    @Override
+    public EdmPrimitiveTypeKind getTypeKind() {
+      return root.getKind();
+    }
+  }
+
+  private static final class CompiledFilterImpl implements CompiledFilter {
+    private final CompiledExpressionImpl expression;
+
+    private CompiledFilterImpl(final CompiledExpressionImpl expression) {
+      this.expression = expression;
+    }
+
+    @Override
+    public boolean matches(final Entity entity) throws ODataApplicationException {
+      final Object result = expression.evaluate(entity);
+      if (result == null || result instanceof Boolean) {
+        return Boolean.TRUE.equals(result);
+      }
+      throw CompiledNode.badRequest(
+          "Invalid filter expression. Filter expressions must return a value of type Edm.Boolean");
+    }
+
+    @Override
+    public void apply(final EntityCollection entityCollection) throws ODataApplicationException {
+      final Iterator<Entity> iterator = entityCollection.getEntities().iterator();
+      while (iterator.hasNext()) {
+        if (!matches(iterator.next())) {
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  private static final class CompiledOrderByImpl implements CompiledOrderBy {
+    private final CompiledExpressionImpl[] expressions;
+    private final boolean[] descending;
+    private final Comparator<SortKey> keyComparator = new Comparator<SortKey>() {
+      @Override
+      public int compare(final SortKey key1, final SortKey key2) {
+        return compareValues(key1.values, key2.values);
+      }
+    };
+
+    private CompiledOrderByImpl(final CompiledExpressionImpl[] expressions, final boolean[] descending) {
+      this.expressions = expressions;
+      this.descending = descending;
+    }
+
+    @Override
+    public int compare(final Entity entity1, final Entity entity2) throws ODataApplicationException {
+      // Evaluate the next order item only if all previous ones have been equal.
+      for (int i = 0; i < expressions.length; i++) {
+        final int result = EvaluationValues.compareForOrdering(
+            expressions[i].evaluate(entity1), expressions[i].evaluate(entity2));
+        if (result != 0) {
+          return descending[i] ? -result : result;
+        }
+      }
+      return 0;
+    }
+
+    @Override
+    public void sort(final List<Entity> entities) throws ODataApplicationException {
+      if (entities.size() < 2) {
+        return;
+      }
+      final SortKey[] keys = new SortKey[entities.size()];
+      int index = 0;
+      for (final Entity entity : entities) {
+        final Object[] values = new Object[expressions.length];
+        for (int i = 0; i < expressions.length; i++) {
+          values[i] = expressions[i].evaluate(entity);
+        }
+        keys[index++] = new SortKey(entity, values);
+      }
+      Arrays.sort(keys, keyComparator);
+      for (int i = 0; i < keys.length; i++) {
+        entities.set(i, keys[i].entity);
+      }
+    }
+
+    private int compareValues(final Object[] values1, final Object[] values2) {
+      for (int i = 0; i < values1.length; i++) {
+        final int result = EvaluationValues.compareForOrdering(values1[i], values2[i]);
+        if (result != 0) {
+          return descending[i] ? -result : result;
+        }
+      }
+      return 0;
+    }
+  }
+
+  private static final class SortKey {
+    private final Entity entity;
+    private final Object[] values;
+
+    private SortKey(final Entity entity, final Object[] values) {
+      this.entity = entity;
+      this.values = values;
+    }
+  }
+}
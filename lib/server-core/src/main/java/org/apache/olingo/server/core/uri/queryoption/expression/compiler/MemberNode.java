@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.queryoption.expression.compiler;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.ComplexValue;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.Link;
+import org.apache.olingo.commons.api.data.Linked;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.PropertyLayout;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.server.api.ODataApplicationException;
+
+/**
+ * Compiled node for a member expression, i.e., a path of properties, navigation properties,
+ * lambda expressions, and <code>$count</code> segments.
+ * <p>The path is resolved into an array of steps at compile time; at evaluation time each step
+ * only looks up the value by its already known name.</p>
+ */
+final class MemberNode extends CompiledNode {
+
+  /** Index of the lambda variable the path starts with, or <code>-1</code> for the current instance. */
+  private final int variable;
+  private final Step[] steps;
+  private final boolean normalize;
+
+  MemberNode(final int variable, final List<Step> steps, final EdmPrimitiveTypeKind kind) {
+    super(kind);
+    this.variable = variable;
+    this.steps = steps.toArray(new Step[steps.size()]);
+    normalize = EvaluationValues.isTemporal(kind);
+  }
+
+  @Override
+  Object evaluate(final Object current, final Object[] variables) throws ODataApplicationException {
+    Object value = variable < 0 ? current : variables[variable];
+    for (final Step step : steps) {
+      if (value == null) {
+        return null;
+      }
+      value = step.apply(value, current, variables);
+    }
+    return normalize ? EvaluationValues.normalize(value, getKind()) : value;
+  }
+
+  /** A single segment of a member path. */
+  abstract static class Step {
+    abstract Object apply(Object value, Object current, Object[] variables) throws ODataApplicationException;
+  }
+
+  /**
+   * Access to a structural property of an entity or a complex value.
+   * <p>The slot of the property in its declaring type is resolved at compile time, so that property lists
+   * filled in declared order are accessed by position; other lists are scanned by name.</p>
+   */
+  static final class PropertyStep extends Step {
+    private final String name;
+    private final int slot;
+
+    PropertyStep(final String name, final int slot) {
+      this.name = name;
+      this.slot = slot;
+    }
+
+    @Override
+    Object apply(final Object value, final Object current, final Object[] variables) {
+      final Property property;
+      if (value instanceof Entity) {
+        property = PropertyLayout.findProperty(((Entity) value).getProperties(), name, slot);
+      } else if (value instanceof ComplexValue) {
+        property = PropertyLayout.findProperty(((ComplexValue) value).getValue(), name, slot);
+      } else {
+        property = null;
+      }
+      return property == null ? null : property.getValue();
+    }
+  }
+
+  /** Access to the inline content of a navigation property. */
+  static final class NavigationStep extends Step {
+    private final String name;
+    private final boolean collection;
+
+    NavigationStep(final String name, final boolean collection) {
+      this.name = name;
+      this.collection = collection;
+    }
+
+    @Override
+    Object apply(final Object value, final Object current, final Object[] variables) {
+      if (!(value instanceof Linked)) {
+        return null;
+      }
+      final Link link = ((Linked) value).getNavigationLink(name);
+      if (link == null) {
+        return null;
+      } else if (collection) {
+        final EntityCollection entitySet = link.getInlineEntitySet();
+        return entitySet == null ? null : entitySet.getEntities();
+      } else {
+        return link.getInlineEntity();
+      }
+    }
+  }
+
+  /** Lambda operator any or all over the elements of a collection. */
+  static final class LambdaStep extends Step {
+    private final boolean all;
+    private final int variable;
+    private final CompiledNode predicate;
+
+    LambdaStep(final boolean all, final int variable, final CompiledNode predicate) {
+      this.all = all;
+      this.variable = variable;
+      this.predicate = predicate;
+    }
+
+    @Override
+    Object apply(final Object value, final Object current, final Object[] variables)
+        throws ODataApplicationException {
+      if (!(value instanceof Collection<?>)) {
+        throw badRequest("Lambda expressions are only allowed on collections.");
+      }
+      if (predicate == null) {
+        // any() without parameters checks whether the collection is not empty.
+        return !((Collection<?>) value).isEmpty();
+      }
+      for (final Object element : (Collection<?>) value) {
+        variables[variable] = element;
+        final boolean satisfied = Boolean.TRUE.equals(predicate.evaluate(current, variables));
+        if (all != satisfied) {
+          return satisfied;
+        }
+      }
+      return all;
+    }
+  }
+
+  /** The number of elements of a collection. */
+  static final class CountStep extends Step {
+    @Override
+    Object apply(final Object value, final Object current, final Object[] variables)
+        throws ODataApplicationException {
+      if (value instanceof Collection<?>) {
+        return (long) ((Collection<?>) value).size();
+      }
+      throw badRequest("$count is only allowed on collections.");
+    }
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.queryoption.expression.compiler;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.queryoption.expression.MethodKind;
+
+/**
+ * Compiled node for built-in method calls.
+ * Methods without parameters (now, mindatetime, maxdatetime) are folded into constants by the compiler.
+ */
+final class MethodNode extends CompiledNode {
+
+  private static final BigDecimal NANOS_PER_SECOND = BigDecimal.valueOf(1000000000L);
+
+  private final MethodKind method;
+  private final CompiledNode[] parameters;
+
+  private MethodNode(final MethodKind method, final CompiledNode[] parameters) {
+    super(determineKind(method, parameters));
+    this.method = method;
+    this.parameters = parameters;
+  }
+
+  static CompiledNode create(final MethodKind method, final List<CompiledNode> parameters)
+      throws ODataApplicationException {
+    switch (method) {
+    case NOW:
+      return new Constant(ZonedDateTime.now(EvaluationValues.ZULU), EdmPrimitiveTypeKind.DateTimeOffset);
+    case MINDATETIME:
+      return new Constant(EvaluationValues.minDateTime(), EdmPrimitiveTypeKind.DateTimeOffset);
+    case MAXDATETIME:
+      return new Constant(EvaluationValues.maxDateTime(), EdmPrimitiveTypeKind.DateTimeOffset);
+    case GEODISTANCE:
+    case GEOLENGTH:
+    case GEOINTERSECTS:
+    case CAST:
+    case ISOF:
+      throw notImplemented("Method " + method.toString() + " is not supported.");
+    default:
+      return new MethodNode(method, parameters.toArray(new CompiledNode[parameters.size()]));
+    }
+  }
+
+  private static EdmPrimitiveTypeKind determineKind(final MethodKind method, final CompiledNode[] parameters) {
+    switch (method) {
+    case CONTAINS:
+    case STARTSWITH:
+    case ENDSWITH:
+    case SUBSTRINGOF:
+      return EdmPrimitiveTypeKind.Boolean;
+    case LENGTH:
+    case INDEXOF:
+    case YEAR:
+    case MONTH:
+    case DAY:
+    case HOUR:
+    case MINUTE:
+    case SECOND:
+    case TOTALOFFSETMINUTES:
+      return EdmPrimitiveTypeKind.Int32;
+    case SUBSTRING:
+    case TOLOWER:
+    case TOUPPER:
+    case TRIM:
+    case CONCAT:
+      return EdmPrimitiveTypeKind.String;
+    case FRACTIONALSECONDS:
+    case TOTALSECONDS:
+      return EdmPrimitiveTypeKind.Decimal;
+    case DATE:
+      return EdmPrimitiveTypeKind.Date;
+    case TIME:
+      return EdmPrimitiveTypeKind.TimeOfDay;
+    default:
+      // round, floor, and ceiling keep the type of their parameter.
+      return parameters.length == 0 ? null : parameters[0].getKind();
+    }
+  }
+
+  @Override
+  Object evaluate(final Object current, final Object[] variables) throws ODataApplicationException {
+    final Object first = parameters[0].evaluate(current, variables);
+    if (first == null) {
+      return null;
+    }
+    switch (method) {
+    case CONTAINS:
+    case STARTSWITH:
+    case ENDSWITH:
+    case INDEXOF:
+    case CONCAT:
+    case SUBSTRINGOF:
+      final Object second = parameters[1].evaluate(current, variables);
+      return second == null ? null : evaluateStrings(asString(first), asString(second));
+    case LENGTH:
+      return asString(first).length();
+    case SUBSTRING:
+      return substring(asString(first), current, variables);
+    case TOLOWER:
+      return asString(first).toLowerCase(Locale.ROOT);
+    case TOUPPER:
+      return asString(first).toUpperCase(Locale.ROOT);
+    case TRIM:
+      return asString(first).trim();
+    case YEAR:
+      return first instanceof LocalDate ? ((LocalDate) first).getYear() : asDateTime(first).getYear();
+    case MONTH:
+      return first instanceof LocalDate ? ((LocalDate) first).getMonthValue() : asDateTime(first).getMonthValue();
+    case DAY:
+      return first instanceof LocalDate ? ((LocalDate) first).getDayOfMonth() : asDateTime(first).getDayOfMonth();
+    case HOUR:
+      return first instanceof LocalTime ? ((LocalTime) first).getHour() : asDateTime(first).getHour();
+    case MINUTE:
+      return first instanceof LocalTime ? ((LocalTime) first).getMinute() : asDateTime(first).getMinute();
+    case SECOND:
+      return first instanceof LocalTime ? ((LocalTime) first).getSecond() : asDateTime(first).getSecond();
+    case FRACTIONALSECONDS:
+      final int nanos = first instanceof LocalTime ? ((LocalTime) first).getNano() : asDateTime(first).getNano();
+      return BigDecimal.valueOf(nanos).divide(NANOS_PER_SECOND);
+    case TOTALOFFSETMINUTES:
+      return asDateTime(first).getOffset().getTotalSeconds() / 60;
+    case TOTALSECONDS:
+      return asNumber(first);
+    case DATE:
+      return asDateTime(first).toLocalDate();
+    case TIME:
+      return asDateTime(first).toLocalTime();
+    case ROUND:
+      return round(asNumber(first), RoundingMode.HALF_UP);
+    case FLOOR:
+      return round(asNumber(first), RoundingMode.FLOOR);
+    case CEILING:
+      return round(asNumber(first), RoundingMode.CEILING);
+    default:
+      throw notImplemented("Method " + method.toString() + " is not supported.");
+    }
+  }
+
+  private Object evaluateStrings(final String first, final String second) {
+    switch (method) {
+    case CONTAINS:
+      return first.contains(second);
+    case STARTSWITH:
+      return first.startsWith(second);
+    case ENDSWITH:
+      return first.endsWith(second);
+    case INDEXOF:
+      return first.indexOf(second);
+    case CONCAT:
+      return first.concat(second);
+    default:
+      // substringof has its parameters in reverse order.
+      return second.contains(first);
+    }
+  }
+
+  private String substring(final String value, final Object current, final Object[] variables)
+      throws ODataApplicationException {
+    final Object start = parameters[1].evaluate(current, variables);
+    if (start == null) {
+      return null;
+    }
+    final int begin = Math.min(Math.max(asNumber(start).intValue(), 0), value.length());
+    if (parameters.length > 2) {
+      final Object length = parameters[2].evaluate(current, variables);
+      if (length == null) {
+        return null;
+      }
+      final int end = Math.min(begin + Math.max(asNumber(length).intValue(), 0), value.length());
+      return value.substring(begin, end);
+    } else {
+      return value.substring(begin);
+    }
+  }
+
+  private static Number round(final Number value, final RoundingMode mode) {
+    if (EvaluationValues.isIntegral(value)) {
+      return value;
+    } else if (value instanceof Double || value instanceof Float) {
+      final double number = value.doubleValue();
+      return mode == RoundingMode.FLOOR ? Math.floor(number)
+          : mode == RoundingMode.CEILING ? Math.ceil(number)
+          : Math.signum(number) * Math.floor(Math.abs(number) + 0.5);
+    } else {
+      return EvaluationValues.toBigDecimal(value).setScale(0, mode);
+    }
+  }
+
+  private static String asString(final Object value) throws ODataApplicationException {
+    if (value instanceof String) {
+      return (String) value;
+    }
+    throw badRequest("String value expected.");
+  }
+
+  private static Number asNumber(final Object value) throws ODataApplicationException {
+    if (value instanceof Number) {
+      return (Number) value;
+    }
+    throw badRequest("Numeric value expected.");
+  }
+
+  private static ZonedDateTime asDateTime(final Object value) throws ODataApplicationException {
+    if (value instanceof ZonedDateTime) {
+      return (ZonedDateTime) value;
+    }
+    throw badRequest("Date or time value expected.");
+  }
+}
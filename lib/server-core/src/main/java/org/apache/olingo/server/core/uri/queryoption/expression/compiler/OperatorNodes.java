@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.queryoption.expression.compiler;
+
+import java.util.List;
+
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.queryoption.expression.BinaryOperatorKind;
+
+/**
+ * Compiled nodes for unary and binary operators.
+ */
+final class OperatorNodes {
+
+  private OperatorNodes() {
+    // Holder for nested classes only.
+  }
+
+  static CompiledNode binary(final BinaryOperatorKind operator, final CompiledNode left, final CompiledNode right)
+      throws ODataApplicationException {
+    switch (operator) {
+    case AND:
+    case OR:
+      checkBoolean(left);
+      checkBoolean(right);
+      return new Logical(operator == BinaryOperatorKind.AND, left, right);
+    case EQ:
+    case NE:
+    case GT:
+    case GE:
+    case LT:
+    case LE:
+      return new Comparison(operator, left, right);
+    case ADD:
+    case SUB:
+    case MUL:
+    case DIV:
+    case MOD:
+      return new Arithmetic(operator, left, right);
+    case HAS:
+      return new Has(left, right);
+    default:
+      throw CompiledNode.notImplemented("Operator " + operator.toString() + " is not supported.");
+    }
+  }
+
+  private static void checkBoolean(final CompiledNode node) throws ODataApplicationException {
+    if (node.getKind() != null && node.getKind() != EdmPrimitiveTypeKind.Boolean) {
+      throw CompiledNode.badRequest("Logical operators need Boolean operands.");
+    }
+  }
+
+  /** Checks at evaluation time, since the type of an operand is not always known when it is compiled. */
+  private static Boolean toBoolean(final Object value) throws ODataApplicationException {
+    if (value == null || value instanceof Boolean) {
+      return (Boolean) value;
+    }
+    throw CompiledNode.badRequest("Logical operators need Boolean operands.");
+  }
+
+  /** Three-valued logical AND and OR with short-circuit evaluation. */
+  static final class Logical extends CompiledNode {
+    private final boolean and;
+    private final CompiledNode left;
+    private final CompiledNode right;
+
+    Logical(final boolean and, final CompiledNode left, final CompiledNode right) {
+      super(EdmPrimitiveTypeKind.Boolean);
+      this.and = and;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    Object evaluate(final Object current, final Object[] variables) throws ODataApplicationException {
+      final Boolean dominant = and ? Boolean.FALSE : Boolean.TRUE;
+      final Boolean leftValue = toBoolean(left.evaluate(current, variables));
+      if (dominant.equals(leftValue)) {
+        return dominant;
+      }
+      final Boolean rightValue = toBoolean(right.evaluate(current, variables));
+      if (dominant.equals(rightValue)) {
+        return dominant;
+      }
+      return leftValue == null || rightValue == null ? null : !dominant;
+    }
+  }
+
+  static final class Comparison extends CompiledNode {
+    private final BinaryOperatorKind operator;
+    private final CompiledNode left;
+    private final CompiledNode right;
+
+    Comparison(final BinaryOperatorKind operator, final CompiledNode left, final CompiledNode right) {
+      super(EdmPrimitiveTypeKind.Boolean);
+      this.operator = operator;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    Object evaluate(final Object current, final Object[] variables) throws ODataApplicationException {
+      final Object leftValue = left.evaluate(current, variables);
+      final Object rightValue = right.evaluate(current, variables);
+      switch (operator) {
+      case EQ:
+        return EvaluationValues.isEqual(leftValue, rightValue);
+      case NE:
+        return !EvaluationValues.isEqual(leftValue, rightValue);
+      default:
+        break;
+      }
+      if (leftValue == null || rightValue == null) {
+        // Ordering comparisons are only true for null operands if both are null and equality is included.
+        return leftValue == rightValue && (operator == BinaryOperatorKind.GE || operator == BinaryOperatorKind.LE);
+      }
+      final int result = EvaluationValues.compare(leftValue, rightValue);
+      switch (operator) {
+      case GT:
+        return result > 0;
+      case GE:
+        return result >= 0;
+      case LT:
+        return result < 0;
+      default:
+        return result <= 0;
+      }
+    }
+  }
+
+  static final class Arithmetic extends CompiledNode {
+    private final BinaryOperatorKind operator;
+    private final CompiledNode left;
+    private final CompiledNode right;
+
+    Arithmetic(final BinaryOperatorKind operator, final CompiledNode left, final CompiledNode right) {
+      super(determineKind(operator, left.getKind(), right.getKind()));
+      this.operator = operator;
+      this.left = left;
+      this.right = right;
+    }
+
+    private static EdmPrimitiveTypeKind determineKind(final BinaryOperatorKind operator,
+        final EdmPrimitiveTypeKind left, final EdmPrimitiveTypeKind right) {
+      if (left == EdmPrimitiveTypeKind.DateTimeOffset || left == EdmPrimitiveTypeKind.Date) {
+        return right == EdmPrimitiveTypeKind.Duration ? left : EdmPrimitiveTypeKind.Duration;
+      } else if (left == EdmPrimitiveTypeKind.Duration) {
+        return left;
+      } else {
+        // The exact numeric type depends on the values.
+        return null;
+      }
+    }
+
+    @Override
+    Object evaluate(final Object current, final Object[] variables) throws ODataApplicationException {
+      final Object leftValue = left.evaluate(current, variables);
+      if (leftValue == null) {
+        return null;
+      }
+      final Object rightValue = right.evaluate(current, variables);
+      return rightValue == null ? null : EvaluationValues.arithmetic(operator, leftValue, rightValue);
+    }
+  }
+
+  /** Checks whether all flags of the right operand are set in the left enumeration operand. */
+  static final class Has extends CompiledNode {
+    private final CompiledNode left;
+    private final CompiledNode right;
+
+    Has(final CompiledNode left, final CompiledNode right) {
+      super(EdmPrimitiveTypeKind.Boolean);
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    Object evaluate(final Object current, final Object[] variables) throws ODataApplicationException {
+      final Object leftValue = left.evaluate(current, variables);
+      final Object rightValue = right.evaluate(current, variables);
+      if (leftValue == null || rightValue == null) {
+        return null;
+      } else if (leftValue instanceof Number && rightValue instanceof Number) {
+        final long flags = ((Number) rightValue).longValue();
+        return (((Number) leftValue).longValue() & flags) == flags;
+      } else {
+        throw badRequest("The has operator needs enumeration operands.");
+      }
+    }
+  }
+
+  static final class In extends CompiledNode {
+    private final CompiledNode left;
+    private final CompiledNode[] values;
+
+    In(final CompiledNode left, final List<CompiledNode> values) {
+      super(EdmPrimitiveTypeKind.Boolean);
+      this.left = left;
+      this.values = values.toArray(new CompiledNode[values.size()]);
+    }
+
+    @Override
+    Object evaluate(final Object current, final Object[] variables) throws ODataApplicationException {
+      final Object leftValue = left.evaluate(current, variables);
+      for (final CompiledNode value : values) {
+        if (EvaluationValues.isEqual(leftValue, value.evaluate(current, variables))) {
+          return Boolean.TRUE;
+        }
+      }
+      return Boolean.FALSE;
+    }
+  }
+
+  static final class Not extends CompiledNode {
+    private final CompiledNode operand;
+
+    Not(final CompiledNode operand) throws ODataApplicationException {
+      super(EdmPrimitiveTypeKind.Boolean);
+      checkBoolean(operand);
+      this.operand = operand;
+    }
+
+    @Override
+    Object evaluate(final Object current, final Object[] variables) throws ODataApplicationException {
+      final Boolean value = toBoolean(operand.evaluate(current, variables));
+      return value == null ? null : !value;
+    }
+  }
+
+  static final class Minus extends CompiledNode {
+    private final CompiledNode operand;
+
+    Minus(final CompiledNode operand) {
+      super(operand.getKind() == EdmPrimitiveTypeKind.Duration ? EdmPrimitiveTypeKind.Duration : null);
+      this.operand = operand;
+    }
+
+    @Override
+    Object evaluate(final Object current, final Object[] variables) throws ODataApplicationException {
+      final Object value = operand.evaluate(current, variables);
+      return value == null ? null : EvaluationValues.negate(value);
+    }
+  }
+}
@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.async;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.async.AsyncRequestExecutor;
+import org.apache.olingo.server.api.async.AsyncRequestExecutorOptions;
+import org.apache.olingo.server.api.async.AsyncState;
+import org.apache.olingo.server.api.async.AsyncStatusMonitor;
+import org.apache.olingo.server.api.async.AsyncTask;
+import org.junit.Test;
+
+public class AsyncRequestExecutorImplTest {
+
+  private static final String BASE_URI = "http://localhost/status";
+  private static final OData odata = OData.newInstance();
+
+  @Test
+  public void completedResponse() throws Exception {
+    final AsyncRequestExecutor executor = odata.createAsyncRequestExecutor(AsyncRequestExecutorOptions.with().build());
+    try {
+      final AsyncStatusMonitor monitor = executor.submit(BASE_URI, createTask("{\"value\":1}"));
+      assertTrue(monitor.getLocation().matches("http://localhost/status/\\d+"));
+      assertSame(monitor, executor.getStatusMonitor(monitor.getLocation()));
+      waitFor(monitor, AsyncState.COMPLETED);
+
+      ODataResponse response = handle(executor, HttpMethod.GET, monitor.getLocation() + "?$format=json");
+      assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+      assertEquals(ContentType.APPLICATION_HTTP.toContentTypeString(), response.getHeader(HttpHeader.CONTENT_TYPE));
+      final String message = IOUtils.toString(response.getContent(), StandardCharsets.UTF_8);
+      assertThat(message, startsWith("HTTP/1.1 200 OK\r\n"));
+      assertThat(message, containsString("Content-Type: application/json\r\n\r\n{\"value\":1}"));
+
+      // The response is returned only once.
+      response = handle(executor, HttpMethod.GET, monitor.getLocation());
+      assertEquals(HttpStatusCode.NOT_FOUND.getStatusCode(), response.getStatusCode());
+      assertNull(executor.getStatusMonitor(monitor.getLocation()));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void errorResponse() throws Exception {
+    final AsyncRequestExecutor executor = odata.createAsyncRequestExecutor(AsyncRequestExecutorOptions.with().build());
+    try {
+      final AsyncStatusMonitor monitor = executor.submit(BASE_URI, new AsyncTask() {
+        @Override
+        public ODataResponse process() throws ODataApplicationException {
+          throw new ODataApplicationException("Entity not there.",
+              HttpStatusCode.NOT_FOUND.getStatusCode(), Locale.ROOT);
+        }
+      });
+      waitFor(monitor, AsyncState.COMPLETED);
+      final ODataResponse response = handle(executor, HttpMethod.GET, monitor.getLocation());
+      assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+      final String message = IOUtils.toString(response.getContent(), StandardCharsets.UTF_8);
+      assertThat(message, startsWith("HTTP/1.1 404 Not Found\r\n"));
+      assertThat(message, containsString("Entity not there."));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void cancel() throws Exception {
+    final AsyncRequestExecutor executor = odata.createAsyncRequestExecutor(AsyncRequestExecutorOptions.with().build());
+    try {
+      final CountDownLatch started = new CountDownLatch(1);
+      final CountDownLatch interrupted = new CountDownLatch(1);
+      final AsyncStatusMonitor monitor = executor.submit(BASE_URI, createBlockingTask(started, interrupted));
+      assertTrue(started.await(10, TimeUnit.SECONDS));
+
+      ODataResponse response = handle(executor, HttpMethod.GET, monitor.getLocation());
+      assertEquals(HttpStatusCode.ACCEPTED.getStatusCode(), response.getStatusCode());
+      assertEquals(monitor.getLocation(), response.getHeader(HttpHeader.LOCATION));
+      assertEquals(AsyncState.RUNNING, monitor.getState());
+
+      response = handle(executor, HttpMethod.DELETE, monitor.getLocation());
+      assertEquals(HttpStatusCode.NO_CONTENT.getStatusCode(), response.getStatusCode());
+      assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+      assertEquals(AsyncState.CANCELLED, monitor.getState());
+      assertFalse(monitor.cancel());
+
+      response = handle(executor, HttpMethod.GET, monitor.getLocation());
+      assertEquals(HttpStatusCode.NOT_FOUND.getStatusCode(), response.getStatusCode());
+      response = handle(executor, HttpMethod.PUT, monitor.getLocation());
+      assertEquals(HttpStatusCode.NOT_FOUND.getStatusCode(), response.getStatusCode());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void methodNotAllowed() throws Exception {
+    final AsyncRequestExecutor executor = odata.createAsyncRequestExecutor(AsyncRequestExecutorOptions.with().build());
+    try {
+      final AsyncStatusMonitor monitor = executor.submit(BASE_URI, createTask("{}"));
+      final ODataResponse response = handle(executor, HttpMethod.PUT, monitor.getLocation());
+      assertEquals(HttpStatusCode.METHOD_NOT_ALLOWED.getStatusCode(), response.getStatusCode());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void backPressure() throws Exception {
+    final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    final AsyncRequestExecutor executor = odata.createAsyncRequestExecutor(AsyncRequestExecutorOptions.with()
+        .executorService(executorService).maximumPendingRequests(2).build());
+    try {
+      final CountDownLatch started = new CountDownLatch(1);
+      final CountDownLatch interrupted = new CountDownLatch(1);
+      final AsyncStatusMonitor running = executor.submit(BASE_URI, createBlockingTask(started, interrupted));
+      final AsyncStatusMonitor queued = executor.submit(BASE_URI, createTask("{}"));
+      assertTrue(started.await(10, TimeUnit.SECONDS));
+      assertEquals(AsyncState.QUEUED, queued.getState());
+      try {
+        executor.submit(BASE_URI, createTask("{}"));
+        fail("Expected exception not thrown.");
+      } catch (final ODataApplicationException e) {
+        assertEquals(HttpStatusCode.SERVICE_UNAVAILABLE.getStatusCode(), e.getStatusCode());
+      }
+
+      // Cancelling a queued request frees its place.
+      assertTrue(queued.cancel());
+      final AsyncStatusMonitor next = executor.submit(BASE_URI, createTask("{}"));
+      assertTrue(running.cancel());
+      assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+      waitFor(next, AsyncState.COMPLETED);
+      assertEquals(1, executor.getStatusMonitors().size());
+    } finally {
+      executor.shutdown();
+      assertFalse(executorService.isShutdown());
+      executorService.shutdown();
+    }
+  }
+
+  @Test
+  public void spillToFile() throws Exception {
+    final File directory = createTempDirectory();
+    final AsyncRequestExecutor executor = odata.createAsyncRequestExecutor(AsyncRequestExecutorOptions.with()
+        .spillThreshold(100).spillDirectory(directory).build());
+    try {
+      char[] characters = new char[1000];
+      Arrays.fill(characters, 'x');
+      final String content = new String(characters);
+      final AsyncStatusMonitor small = executor.submit(BASE_URI, createTask("{}"));
+      final AsyncStatusMonitor large = executor.submit(BASE_URI, createTask(content));
+      waitFor(small, AsyncState.COMPLETED);
+      waitFor(large, AsyncState.COMPLETED);
+      assertEquals(1, directory.listFiles().length);
+
+      ODataResponse response = handle(executor, HttpMethod.GET, large.getLocation());
+      final String message = IOUtils.toString(response.getContent(), StandardCharsets.UTF_8);
+      assertThat(message, containsString("\r\n\r\n" + content));
+      response.getContent().close();
+      assertEquals(0, directory.listFiles().length);
+      assertThat(IOUtils.toString(handle(executor, HttpMethod.GET, small.getLocation()).getContent(),
+          StandardCharsets.UTF_8), containsString("\r\n\r\n{}"));
+    } finally {
+      executor.shutdown();
+      directory.delete();
+    }
+  }
+
+  @Test
+  public void timeToLive() throws Exception {
+    final File directory = createTempDirectory();
+    final AsyncRequestExecutor executor = odata.createAsyncRequestExecutor(AsyncRequestExecutorOptions.with()
+        .timeToLive(0, TimeUnit.MILLISECONDS).spillThreshold(0).spillDirectory(directory).build());
+    try {
+      final AsyncStatusMonitor monitor = executor.submit(BASE_URI, createTask("{}"));
+      waitFor(monitor, AsyncState.COMPLETED);
+      assertNull(executor.getStatusMonitor(monitor.getLocation()));
+      assertEquals(AsyncState.CANCELLED, monitor.getState());
+      assertEquals(0, directory.listFiles().length);
+    } finally {
+      executor.shutdown();
+      directory.delete();
+    }
+  }
+
+  @Test
+  public void concurrentTakeAndCancel() throws Exception {
+    final File directory = createTempDirectory();
+    final AsyncRequestExecutor executor = odata.createAsyncRequestExecutor(AsyncRequestExecutorOptions.with()
+        .spillThreshold(0).spillDirectory(directory).build());
+    final ExecutorService canceller = Executors.newSingleThreadExecutor();
+    try {
+      for (int i = 0; i < 200; i++) {
+        final AsyncStatusMonitor monitor = executor.submit(BASE_URI, createTask("{\"value\":" + i + "}"));
+        waitFor(monitor, AsyncState.COMPLETED);
+        final CountDownLatch start = new CountDownLatch(1);
+        canceller.submit(new Runnable() {
+          @Override
+          public void run() {
+            try {
+              start.await();
+            } catch (final InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            monitor.cancel();
+          }
+        });
+        start.countDown();
+        final ODataResponse response = handle(executor, HttpMethod.GET, monitor.getLocation());
+        if (response.getStatusCode() == HttpStatusCode.OK.getStatusCode()) {
+          // A response that has been handed out must stay readable.
+          assertThat(IOUtils.toString(response.getContent(), StandardCharsets.UTF_8),
+              containsString("{\"value\":" + i + "}"));
+          response.getContent().close();
+        } else {
+          assertEquals(HttpStatusCode.NOT_FOUND.getStatusCode(), response.getStatusCode());
+        }
+      }
+      canceller.shutdown();
+      assertTrue(canceller.awaitTermination(10, TimeUnit.SECONDS));
+      assertEquals(0, directory.listFiles().length);
+    } finally {
+      canceller.shutdownNow();
+      executor.shutdown();
+      directory.delete();
+    }
+  }
+
+  private static AsyncTask createTask(final String content) {
+    return new AsyncTask() {
+      @Override
+      public ODataResponse process() {
+        ODataResponse response = new ODataResponse();
+        response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+        response.setHeader(HttpHeader.CONTENT_TYPE, ContentType.APPLICATION_JSON.toContentTypeString());
+        response.setContent(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        return response;
+      }
+    };
+  }
+
+  private static AsyncTask createBlockingTask(final CountDownLatch started, final CountDownLatch interrupted) {
+    return new AsyncTask() {
+      @Override
+      public ODataResponse process() {
+        started.countDown();
+        try {
+          TimeUnit.MINUTES.sleep(1);
+        } catch (final InterruptedException e) {
+          interrupted.countDown();
+        }
+        return new ODataResponse();
+      }
+    };
+  }
+
+  private static ODataResponse handle(final AsyncRequestExecutor executor, final HttpMethod method,
+      final String uri) {
+    ODataRequest request = new ODataRequest();
+    request.setMethod(method);
+    request.setRawRequestUri(uri);
+    ODataResponse response = new ODataResponse();
+    executor.handleStatusMonitorRequest(request, response);
+    return response;
+  }
+
+  private static void waitFor(final AsyncStatusMonitor monitor, final AsyncState state) throws Exception {
+    final long end = System.currentTimeMillis() + 10000;
+    while (monitor.getState() != state && System.currentTimeMillis() < end) {
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+    assertEquals(state, monitor.getState());
+  }
+
+  private static File createTempDirectory() throws Exception {
+    final File directory = File.createTempFile("async", "");
+    assertTrue(directory.delete());
+    assertTrue(directory.mkdir());
+    return directory;
+  }
+}
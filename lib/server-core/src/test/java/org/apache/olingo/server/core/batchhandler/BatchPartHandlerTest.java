@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.batchhandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.batch.BatchFacade;
+import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestReader;
+import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
+import org.apache.olingo.server.api.processor.BatchProcessor;
+import org.apache.olingo.server.core.ODataHandlerImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class BatchPartHandlerTest {
+
+  private static final String CRLF = "\r\n";
+  private static final String BOUNDARY = "batch_12345";
+  private static final String BASE_URI = "http://localhost:8080/odata";
+
+  private ExecutorService executor;
+  private ODataHandlerImpl oDataHandler;
+  private BatchProcessor batchProcessor;
+
+  @Before
+  public void setup() {
+    executor = Executors.newFixedThreadPool(2);
+    oDataHandler = mock(ODataHandlerImpl.class);
+    when(oDataHandler.getBatchExecutionSupport())
+        .thenReturn(OData.newInstance().createBatchExecutionSupport(executor));
+    when(oDataHandler.createConcurrentHandler()).thenReturn(oDataHandler);
+    batchProcessor = mock(BatchProcessor.class);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void queriesRunInParallelAndKeepTheirOrder() throws Exception {
+    final CountDownLatch secondQueryStarted = new CountDownLatch(1);
+    final AtomicInteger finishedQueries = new AtomicInteger();
+    final AtomicBoolean changeSetAfterQueries = new AtomicBoolean();
+    when(oDataHandler.process(any(ODataRequest.class))).then(new Answer<ODataResponse>() {
+      @Override
+      public ODataResponse answer(final InvocationOnMock invocation) throws Throwable {
+        final ODataRequest request = (ODataRequest) invocation.getArguments()[0];
+        if (request.getRawODataPath().equals("/ESAllPrim")) {
+          // Finishes only if the second query runs at the same time.
+          assertTrue(secondQueryStarted.await(10, TimeUnit.SECONDS));
+        } else if (request.getRawODataPath().equals("/ESTwoPrim")) {
+          secondQueryStarted.countDown();
+        }
+        finishedQueries.incrementAndGet();
+        final ODataResponse response = createResponse(HttpStatusCode.OK);
+        response.setHeader(HttpHeader.LOCATION, request.getRawODataPath());
+        return response;
+      }
+    });
+    when(batchProcessor.processChangeSet(any(BatchFacade.class), anyListOf(ODataRequest.class)))
+        .then(new Answer<ODataResponsePart>() {
+          @Override
+          public ODataResponsePart answer(final InvocationOnMock invocation) throws Throwable {
+            changeSetAfterQueries.set(finishedQueries.get() == 2);
+            return new ODataResponsePart(createResponse(HttpStatusCode.CREATED), true);
+          }
+        });
+
+    final List<ODataResponsePart> responseParts = new BatchFacadeImpl(oDataHandler, batchProcessor, true)
+        .handleBatchRequests(createReader(get("ESAllPrim", "1") + get("ESTwoPrim", "2") + changeSet()
+            + get("ESMixPrimCollComp", "3")), false);
+
+    assertTrue(changeSetAfterQueries.get());
+    assertEquals(4, responseParts.size());
+    assertEquals("/ESAllPrim", responseParts.get(0).getResponses().get(0).getHeader(HttpHeader.LOCATION));
+    assertEquals("/ESTwoPrim", responseParts.get(1).getResponses().get(0).getHeader(HttpHeader.LOCATION));
+    assertTrue(responseParts.get(2).isChangeSet());
+    assertEquals("/ESMixPrimCollComp", responseParts.get(3).getResponses().get(0).getHeader(HttpHeader.LOCATION));
+  }
+
+  @Test
+  public void processingStopsAfterFailedQuery() throws Exception {
+    final AtomicBoolean changeSetProcessed = new AtomicBoolean();
+    when(oDataHandler.process(any(ODataRequest.class))).then(new Answer<ODataResponse>() {
+      @Override
+      public ODataResponse answer(final InvocationOnMock invocation) throws Throwable {
+        final ODataRequest request = (ODataRequest) invocation.getArguments()[0];
+        return createResponse(request.getRawODataPath().equals("/ESAllPrim") ?
+            HttpStatusCode.NOT_FOUND : HttpStatusCode.OK);
+      }
+    });
+    when(batchProcessor.processChangeSet(any(BatchFacade.class), anyListOf(ODataRequest.class)))
+        .then(new Answer<ODataResponsePart>() {
+          @Override
+          public ODataResponsePart answer(final InvocationOnMock invocation) throws Throwable {
+            changeSetProcessed.set(true);
+            return new ODataResponsePart(createResponse(HttpStatusCode.CREATED), true);
+          }
+        });
+
+    final List<ODataResponsePart> responseParts = new BatchFacadeImpl(oDataHandler, batchProcessor, true)
+        .handleBatchRequests(createReader(get("ESAllPrim", "1") + get("ESTwoPrim", "2") + changeSet()), false);
+
+    assertFalse(changeSetProcessed.get());
+    assertEquals(1, responseParts.size());
+    assertEquals(HttpStatusCode.NOT_FOUND.getStatusCode(),
+        responseParts.get(0).getResponses().get(0).getStatusCode());
+  }
+
+  @Test
+  public void queriesRunInlineIfExecutorRejectsThem() throws Exception {
+    executor.shutdown();
+    when(oDataHandler.process(any(ODataRequest.class))).then(new Answer<ODataResponse>() {
+      @Override
+      public ODataResponse answer(final InvocationOnMock invocation) throws Throwable {
+        final ODataRequest request = (ODataRequest) invocation.getArguments()[0];
+        final ODataResponse response = createResponse(HttpStatusCode.OK);
+        response.setHeader(HttpHeader.LOCATION, request.getRawODataPath());
+        return response;
+      }
+    });
+
+    final List<ODataResponsePart> responseParts = new BatchFacadeImpl(oDataHandler, batchProcessor, true)
+        .handleBatchRequests(createReader(get("ESAllPrim", "1") + get("ESTwoPrim", "2")), false);
+
+    assertEquals(2, responseParts.size());
+    assertEquals("/ESAllPrim", responseParts.get(0).getResponses().get(0).getHeader(HttpHeader.LOCATION));
+    assertEquals("/ESTwoPrim", responseParts.get(1).getResponses().get(0).getHeader(HttpHeader.LOCATION));
+  }
+
+  private ODataResponse createResponse(final HttpStatusCode statusCode) {
+    final ODataResponse response = new ODataResponse();
+    response.setStatusCode(statusCode.getStatusCode());
+    return response;
+  }
+
+  private BatchRequestReader createReader(final String parts) throws Exception {
+    final String content = parts + "--" + BOUNDARY + "--";
+    return OData.newInstance().createFixedFormatDeserializer().parseBatchRequestStreamed(
+        new ByteArrayInputStream(content.getBytes(StandardCharsets.ISO_8859_1)), BOUNDARY,
+        BatchOptions.with().isStrict(true).rawBaseUri(BASE_URI).build());
+  }
+
+  private String get(final String resource, final String contentId) {
+    return "--" + BOUNDARY + CRLF
+        + "Content-Type: application/http" + CRLF
+        + "Content-Transfer-Encoding: binary" + CRLF
+        + "Content-Id: " + contentId + CRLF
+        + CRLF
+        + "GET " + resource + " HTTP/1.1" + CRLF
+        + CRLF
+        + CRLF;
+  }
+
+  private String changeSet() {
+    return "--" + BOUNDARY + CRLF
+        + "Content-Type: multipart/mixed; boundary=changeset_12345" + CRLF
+        + CRLF
+        + "--changeset_12345" + CRLF
+        + "Content-Type: application/http" + CRLF
+        + "Content-Transfer-Encoding: binary" + CRLF
+        + "Content-Id: 4" + CRLF
+        + CRLF
+        + "POST ESAllPrim HTTP/1.1" + CRLF
+        + "Content-Type: application/json" + CRLF
+        + CRLF
+        + CRLF
+        + "--changeset_12345--" + CRLF;
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.batch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
+import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException.MessageKeys;
+import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchRequestReaderTest {
+
+  private static final String SERVICE_ROOT = "http://localhost/odata";
+  private static final String CRLF = "\r\n";
+  private static final String BOUNDARY = "batch_8194-cf13-1f56";
+  private static final String CHANGESET_BOUNDARY = "changeset_f980-1cb6-94dd";
+  private static final Charset CS_ISO_8859_1 = Charset.forName("ISO-8859-1");
+  private static final String MIME_HEADERS = HttpHeader.CONTENT_TYPE + ": application/http" + CRLF
+      + BatchParserCommon.CONTENT_TRANSFER_ENCODING + ": binary" + CRLF;
+  private static final String GET_REQUEST = MIME_HEADERS
+      + CRLF
+      + HttpMethod.GET + " ESAllPrim HTTP/1.1" + CRLF
+      + CRLF
+      + CRLF;
+
+  @Test
+  public void partIsAvailableBeforeRestOfRequest() throws Exception {
+    final byte[] media = createBinaryContent();
+    final InputStream firstPart = new SequenceInputStream(
+        toStream("--" + BOUNDARY + CRLF
+            + MIME_HEADERS
+            + CRLF
+            + HttpMethod.PUT + " ESMedia(1)/$value HTTP/1.1" + CRLF
+            + HttpHeader.CONTENT_TYPE + ": application/octet-stream" + CRLF
+            + CRLF),
+        new SequenceInputStream(new ByteArrayInputStream(media),
+            toStream(CRLF + "--" + BOUNDARY + CRLF)));
+    final InputStream notYetReceived = new InputStream() {
+      @Override
+      public int read() throws IOException {
+        throw new IOException("The rest of the batch request has not been received yet.");
+      }
+    };
+
+    final BatchRequestReader reader = createReader(new SequenceInputStream(firstPart, notYetReceived));
+    final BatchRequestPart part = reader.next();
+
+    Assert.assertFalse(part.isChangeSet());
+    final ODataRequest request = part.getRequests().get(0);
+    Assert.assertEquals(HttpMethod.PUT, request.getMethod());
+    Assert.assertEquals("/ESMedia(1)/$value", request.getRawODataPath());
+    Assert.assertArrayEquals(media, IOUtils.toByteArray(request.getBody()));
+  }
+
+  @Test
+  public void unreadBodyIsSkipped() throws Exception {
+    final byte[] media = createBinaryContent();
+    final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    batch.write(("--" + BOUNDARY + CRLF
+        + MIME_HEADERS
+        + CRLF
+        + HttpMethod.PUT + " ESMedia(1)/$value HTTP/1.1" + CRLF
+        + HttpHeader.CONTENT_TYPE + ": application/octet-stream" + CRLF
+        + CRLF).getBytes(CS_ISO_8859_1));
+    batch.write(media);
+    batch.write((CRLF
+        + "--" + BOUNDARY + CRLF
+        + GET_REQUEST
+        + "--" + BOUNDARY + "--").getBytes(CS_ISO_8859_1));
+
+    final BatchRequestReader reader = createReader(new ByteArrayInputStream(batch.toByteArray()));
+    final BatchRequestPart first = reader.next();
+    Assert.assertEquals(0, first.getRequests().get(0).getBody().read());
+
+    final BatchRequestPart second = reader.next();
+    Assert.assertEquals(HttpMethod.GET, second.getRequests().get(0).getMethod());
+    Assert.assertEquals("/ESAllPrim", second.getRequests().get(0).getRawODataPath());
+    Assert.assertNull(reader.next());
+    Assert.assertNull(reader.next());
+  }
+
+  @Test
+  public void changeSetBodiesAreBuffered() throws Exception {
+    final String batch = "--" + BOUNDARY + CRLF
+        + HttpHeader.CONTENT_TYPE + ": multipart/mixed; boundary=" + CHANGESET_BOUNDARY + CRLF
+        + CRLF
+        + "--" + CHANGESET_BOUNDARY + CRLF
+        + MIME_HEADERS
+        + HttpHeader.CONTENT_ID + ": 1" + CRLF
+        + CRLF
+        + HttpMethod.PATCH + " ESAllPrim(32767) HTTP/1.1" + CRLF
+        + HttpHeader.CONTENT_TYPE + ": application/json" + CRLF
+        + CRLF
+        + "{\"PropertyString\":\"first\"}" + CRLF
+        + "--" + CHANGESET_BOUNDARY + CRLF
+        + MIME_HEADERS
+        + HttpHeader.CONTENT_ID + ": 2" + CRLF
+        + CRLF
+        + HttpMethod.PATCH + " ESAllPrim(0) HTTP/1.1" + CRLF
+        + HttpHeader.CONTENT_TYPE + ": application/json" + CRLF
+        + CRLF
+        + "{\"PropertyString\":\"second\"}" + CRLF
+        + "--" + CHANGESET_BOUNDARY + "--" + CRLF
+        + CRLF
+        + "--" + BOUNDARY + CRLF
+        + GET_REQUEST
+        + "--" + BOUNDARY + "--";
+
+    final BatchRequestReader reader = createReader(toStream(batch));
+    final BatchRequestPart changeSet = reader.next();
+    final BatchRequestPart query = reader.next();
+    Assert.assertNull(reader.next());
+
+    Assert.assertTrue(changeSet.isChangeSet());
+    Assert.assertEquals(2, changeSet.getRequests().size());
+    Assert.assertEquals("1", changeSet.getRequests().get(0).getHeader(HttpHeader.CONTENT_ID));
+    Assert.assertEquals("{\"PropertyString\":\"first\"}", IOUtils.toString(changeSet.getRequests().get(0).getBody()));
+    Assert.assertEquals("{\"PropertyString\":\"second\"}",
+        IOUtils.toString(changeSet.getRequests().get(1).getBody()));
+    Assert.assertFalse(query.isChangeSet());
+  }
+
+  @Test
+  public void missingCloseDelimiterAfterStreamedBody() throws Exception {
+    final String batch = "--" + BOUNDARY + CRLF
+        + MIME_HEADERS
+        + CRLF
+        + HttpMethod.POST + " ESAllPrim HTTP/1.1" + CRLF
+        + HttpHeader.CONTENT_TYPE + ": application/json" + CRLF
+        + CRLF
+        + "{\"PropertyInt16\":1}" + CRLF;
+
+    final BatchRequestReader reader = createReader(toStream(batch));
+    Assert.assertNotNull(reader.next());
+    try {
+      reader.next();
+      Assert.fail("Expected exception not thrown.");
+    } catch (final BatchDeserializerException e) {
+      Assert.assertEquals(MessageKeys.MISSING_CLOSE_DELIMITER, e.getMessageKey());
+    }
+  }
+
+  private BatchRequestReader createReader(final InputStream in) {
+    return new BatchRequestReaderImpl(in, BOUNDARY, BatchOptions.with().rawBaseUri(SERVICE_ROOT).build());
+  }
+
+  private InputStream toStream(final String content) {
+    return new ByteArrayInputStream(content.getBytes(CS_ISO_8859_1));
+  }
+
+  private byte[] createBinaryContent() {
+    final byte[] content = new byte[20000];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) i;
+    }
+    return content;
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.olingo.server.api.metrics.LatencyStatistics;
+import org.apache.olingo.server.api.metrics.ProcessingStage;
+import org.apache.olingo.server.api.uri.UriInfoKind;
+import org.junit.Test;
+
+public class LatencyStatisticsImplTest {
+
+  @Test
+  public void buckets() {
+    for (long duration = 0; duration < 100000; duration++) {
+      final int bucket = LatencyStatisticsImpl.getBucket(duration);
+      assertTrue(duration <= LatencyStatisticsImpl.getUpperBound(bucket));
+      assertTrue(bucket == 0 || duration > LatencyStatisticsImpl.getUpperBound(bucket - 1));
+    }
+    assertEquals(Long.MAX_VALUE,
+        LatencyStatisticsImpl.getUpperBound(LatencyStatisticsImpl.getBucket(Long.MAX_VALUE)));
+  }
+
+  @Test
+  public void statistics() {
+    final LatencyStatistics statistics = new LatencyStatisticsImpl();
+    for (long duration = 1; duration <= 1000; duration++) {
+      statistics.record(ProcessingStage.REQUEST, UriInfoKind.resource, duration * 1000);
+    }
+    statistics.record(ProcessingStage.URI_PARSING, null, 42);
+
+    assertEquals(1000, statistics.getCount(ProcessingStage.REQUEST, UriInfoKind.resource));
+    assertEquals(500500000, statistics.getTotalNanos(ProcessingStage.REQUEST, UriInfoKind.resource));
+    assertEquals(1000000, statistics.getMaxNanos(ProcessingStage.REQUEST, UriInfoKind.resource));
+    final long median = statistics.getPercentileNanos(ProcessingStage.REQUEST, UriInfoKind.resource, 50);
+    assertTrue(median >= 500000 && median <= 625000);
+    final long p99 = statistics.getPercentileNanos(ProcessingStage.REQUEST, UriInfoKind.resource, 99);
+    assertTrue(p99 >= 990000 && p99 <= 1000000);
+    assertEquals(1000000, statistics.getPercentileNanos(ProcessingStage.REQUEST, UriInfoKind.resource, 100));
+
+    assertEquals(0, statistics.getCount(ProcessingStage.REQUEST, UriInfoKind.metadata));
+    assertEquals(0, statistics.getPercentileNanos(ProcessingStage.REQUEST, UriInfoKind.metadata, 50));
+    assertEquals(1, statistics.getCount(ProcessingStage.URI_PARSING, null));
+    assertEquals(42, statistics.getPercentileNanos(ProcessingStage.URI_PARSING, null, 50));
+
+    statistics.reset();
+    assertEquals(0, statistics.getCount(ProcessingStage.REQUEST, UriInfoKind.resource));
+    assertEquals(0, statistics.getMaxNanos(ProcessingStage.REQUEST, UriInfoKind.resource));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidPercentile() {
+    new LatencyStatisticsImpl().getPercentileNanos(ProcessingStage.REQUEST, UriInfoKind.resource, 101);
+  }
+}
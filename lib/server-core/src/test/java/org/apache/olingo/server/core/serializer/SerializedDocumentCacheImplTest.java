@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.serializer.RepresentationType;
+import org.apache.olingo.server.api.serializer.SerializedDocumentCache;
+import org.junit.Test;
+
+public class SerializedDocumentCacheImplTest {
+
+  private static final byte[] DOCUMENT = "<edmx:Edmx Version=\"4.0\"/>".getBytes(StandardCharsets.UTF_8);
+
+  @Test
+  public void cachePerTypeAndContentType() throws Exception {
+    final SerializedDocumentCache cache = new SerializedDocumentCacheImpl();
+    assertNull(cache.get(RepresentationType.METADATA, ContentType.APPLICATION_XML, null, null));
+
+    cache.put(RepresentationType.METADATA, ContentType.APPLICATION_XML, null, DOCUMENT);
+    assertSame(DOCUMENT, cache.get(RepresentationType.METADATA, ContentType.APPLICATION_XML, null, null));
+    assertNull(cache.get(RepresentationType.METADATA, ContentType.APPLICATION_JSON, null, null));
+    assertNull(cache.get(RepresentationType.SERVICE, ContentType.APPLICATION_XML, null, null));
+
+    cache.clear();
+    assertNull(cache.get(RepresentationType.METADATA, ContentType.APPLICATION_XML, null, null));
+  }
+
+  @Test
+  public void changedETagDiscardsDocument() throws Exception {
+    final SerializedDocumentCache cache = new SerializedDocumentCacheImpl();
+    cache.put(RepresentationType.SERVICE, ContentType.JSON, "W/\"1\"", DOCUMENT);
+    assertSame(DOCUMENT, cache.get(RepresentationType.SERVICE, ContentType.JSON, "W/\"1\"", null));
+    assertNull(cache.get(RepresentationType.SERVICE, ContentType.JSON, "W/\"2\"", null));
+    assertNull(cache.get(RepresentationType.SERVICE, ContentType.JSON, "W/\"1\"", null));
+  }
+
+  @Test
+  public void compressedDocuments() throws Exception {
+    final SerializedDocumentCache cache = new SerializedDocumentCacheImpl();
+    cache.put(RepresentationType.METADATA, ContentType.APPLICATION_XML, null, DOCUMENT);
+
+    final byte[] gzip = cache.get(RepresentationType.METADATA, ContentType.APPLICATION_XML, null,
+        SerializedDocumentCache.GZIP);
+    assertSame(gzip, cache.get(RepresentationType.METADATA, ContentType.APPLICATION_XML, null,
+        SerializedDocumentCache.GZIP));
+    assertArrayEquals(DOCUMENT, read(new GZIPInputStream(new ByteArrayInputStream(gzip))));
+
+    final byte[] deflate = cache.get(RepresentationType.METADATA, ContentType.APPLICATION_XML, null,
+        SerializedDocumentCache.DEFLATE);
+    assertArrayEquals(DOCUMENT, read(new InflaterInputStream(new ByteArrayInputStream(deflate))));
+  }
+
+  private byte[] read(final InputStream input) throws Exception {
+    return IOUtils.toByteArray(input);
+  }
+}
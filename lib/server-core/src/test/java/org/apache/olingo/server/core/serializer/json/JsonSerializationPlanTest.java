@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.server.api.uri.queryoption.SelectOption;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class JsonSerializationPlanTest {
+
+  private final EdmStructuredType type = Mockito.mock(EdmStructuredType.class);
+
+  @Test
+  public void cacheEvictsLeastRecentlyUsed() {
+    final JsonSerializationPlan.Cache cache = new JsonSerializationPlan.Cache(2);
+    final JsonSerializationPlan.Key firstKey = key();
+    final JsonSerializationPlan.Key secondKey = key();
+    final JsonSerializationPlan.Key thirdKey = key();
+    final JsonSerializationPlan first = plan();
+    cache.put(firstKey, first);
+    cache.put(secondKey, plan());
+    assertSame(first, cache.get(firstKey));
+    cache.put(thirdKey, plan());
+
+    assertEquals(2, cache.size());
+    assertSame(first, cache.get(firstKey));
+    assertNull(cache.get(secondKey));
+  }
+
+  @Test
+  public void cacheKeepsFirstPlanForKey() {
+    final JsonSerializationPlan.Cache cache = new JsonSerializationPlan.Cache(2);
+    final JsonSerializationPlan.Key key = key();
+    final JsonSerializationPlan first = plan();
+    cache.put(key, first);
+    cache.put(key, plan());
+
+    assertEquals(1, cache.size());
+    assertSame(first, cache.get(key));
+  }
+
+  private JsonSerializationPlan.Key key() {
+    // Options are compared by identity, so each select option makes a new key.
+    return new JsonSerializationPlan.Key(type, Mockito.mock(SelectOption.class), null);
+  }
+
+  private JsonSerializationPlan plan() {
+    return new JsonSerializationPlan(Collections.<JsonSerializationPlan.PropertyPlan> emptyList(), null, true);
+  }
+}
@@ -20,6 +20,8 @@ package org.apache.olingo.server.core.serializer.utils;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -268,6 +270,54 @@ public class CircleStreamBufferTest {
     write.write("Test".getBytes(DEFAULT_CHARSET), 0, 4);
   }
 
+  @Test
+  public void testWriteToMoreThenBufferSize() throws Exception {
+    CircleStreamBuffer csb = new CircleStreamBuffer(128);
+    String testData = createTestString(10000);
+    csb.getOutputStream().write(testData.getBytes(DEFAULT_CHARSET));
+    csb.closeWrite();
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    csb.writeTo(output);
+
+    assertEquals(testData, new String(output.toByteArray(), DEFAULT_CHARSET));
+    assertEquals(-1, csb.getInputStream().read());
+  }
+
+  @Test
+  public void testCopyAfterPartialRead() throws Exception {
+    CircleStreamBuffer csb = new CircleStreamBuffer(128);
+    String testData = createTestString(1024);
+    csb.getOutputStream().write(testData.getBytes(DEFAULT_CHARSET));
+
+    InputStream inStream = csb.getInputStream();
+    byte[] buffer = new byte[100];
+    assertEquals(100, inStream.read(buffer));
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    CircleStreamBuffer.copy(inStream, output);
+
+    assertEquals(testData.substring(100), new String(output.toByteArray(), DEFAULT_CHARSET));
+  }
+
+  @Test
+  public void testCopyOtherStream() throws Exception {
+    String testData = createTestString(20000);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    CircleStreamBuffer.copy(new ByteArrayInputStream(testData.getBytes(DEFAULT_CHARSET)), output);
+
+    assertEquals(testData, new String(output.toByteArray(), DEFAULT_CHARSET));
+  }
+
+  @Test(expected = IOException.class)
+  public void testCopyClosesInputStream() throws Exception {
+    CircleStreamBuffer csb = new CircleStreamBuffer();
+    csb.getOutputStream().write("Test".getBytes(DEFAULT_CHARSET));
+
+    CircleStreamBuffer.copy(csb.getInputStream(), new ByteArrayOutputStream());
+    csb.getInputStream().read();
+  }
+
   // ###################################################
   // #
   // # Below here are test helper methods
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriInfoCache;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class UriInfoCacheImplTest {
+
+  private static final String BASE_URI = "http://localhost/odata";
+
+  private final Edm edm = Mockito.mock(Edm.class);
+
+  @Test
+  public void hitsAndMisses() {
+    final UriInfoCache cache = new UriInfoCacheImpl(10);
+    final UriInfo uriInfo = new UriInfoImpl();
+    assertNull(cache.get(edm, "ESAllPrim", "$top=1", BASE_URI));
+    cache.put(edm, "ESAllPrim", "$top=1", BASE_URI, uriInfo);
+
+    assertSame(uriInfo, cache.get(edm, "ESAllPrim", "$top=1", BASE_URI));
+    assertNull(cache.get(edm, "ESAllPrim", "$top=2", BASE_URI));
+    assertNull(cache.get(edm, "ESAllPrim", null, BASE_URI));
+    assertNull(cache.get(edm, "ESAllPrim", "$top=1", "http://otherhost/odata"));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(4, cache.getMissCount());
+
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void scopedToEdm() {
+    final UriInfoCache cache = new UriInfoCacheImpl(10);
+    cache.put(edm, "ESAllPrim", null, BASE_URI, new UriInfoImpl());
+    assertNull(cache.get(Mockito.mock(Edm.class), "ESAllPrim", null, BASE_URI));
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsed() {
+    final UriInfoCache cache = new UriInfoCacheImpl(2);
+    final UriInfo first = new UriInfoImpl();
+    cache.put(edm, "first", null, BASE_URI, first);
+    cache.put(edm, "second", null, BASE_URI, new UriInfoImpl());
+    cache.get(edm, "first", null, BASE_URI);
+    cache.put(edm, "third", null, BASE_URI, new UriInfoImpl());
+
+    assertEquals(2, cache.size());
+    assertSame(first, cache.get(edm, "first", null, BASE_URI));
+    assertNull(cache.get(edm, "second", null, BASE_URI));
+  }
+
+  @Test
+  public void staysBoundedUnderConcurrentAccess() throws Exception {
+    final UriInfoCache cache = new UriInfoCacheImpl(50);
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+      for (int thread = 0; thread < 4; thread++) {
+        final int offset = thread;
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() {
+            for (int i = 0; i < 10000; i++) {
+              final String path = "path" + (i * 4 + offset) % 200;
+              if (cache.get(edm, path, null, BASE_URI) == null) {
+                cache.put(edm, path, null, BASE_URI, new UriInfoImpl());
+              }
+            }
+            return null;
+          }
+        }));
+      }
+      for (final Future<Void> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertTrue(cache.size() <= 50);
+    assertEquals(40000, cache.getHitCount() + cache.getMissCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidSize() {
+    new UriInfoCacheImpl(0);
+  }
+}
@@ -108,6 +108,30 @@ public class UriTokenizerTest {
     assertTrue(tokenizer.next(TokenKind.EOF));
   }
 
+  @Test
+  public void repeatedIdentifierScans() {
+    UriTokenizer tokenizer = new UriTokenizer("Namespace.Name eq \u00c4b_1");
+    assertFalse(tokenizer.next(TokenKind.EnumValue));
+    assertTrue(tokenizer.next(TokenKind.ODataIdentifier));
+    assertEquals("Namespace", tokenizer.getText());
+    tokenizer = new UriTokenizer("Namespace.Name eq \u00c4b_1");
+    assertFalse(tokenizer.next(TokenKind.EnumValue));
+    assertTrue(tokenizer.next(TokenKind.QualifiedName));
+    assertEquals("Namespace.Name", tokenizer.getText());
+    assertFalse(tokenizer.next(TokenKind.ODataIdentifier));
+    assertTrue(tokenizer.next(TokenKind.EqualsOperator));
+    assertTrue(tokenizer.next(TokenKind.ODataIdentifier));
+    assertEquals("\u00c4b_1", tokenizer.getText());
+    assertTrue(tokenizer.next(TokenKind.EOF));
+
+    tokenizer = new UriTokenizer("a1 TRU");
+    assertTrue(tokenizer.next(TokenKind.ODataIdentifier));
+    assertTrue(tokenizer.nextWhitespace());
+    assertFalse(tokenizer.next(TokenKind.BooleanValue));
+    assertTrue(tokenizer.next(TokenKind.ODataIdentifier));
+    assertEquals("TRU", tokenizer.getText());
+  }
+
   @Test
   public void systemQueryOptions() {
     UriTokenizer tokenizer = new UriTokenizer("$expand=*;$filter=true;$levels=max;$orderby=false");
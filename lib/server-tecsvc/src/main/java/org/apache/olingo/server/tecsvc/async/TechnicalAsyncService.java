@@ -19,17 +19,20 @@
 package org.apache.olingo.server.tecsvc.async;
 
 import org.apache.olingo.commons.api.ex.ODataRuntimeException;
-import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.api.format.PreferenceName;
 import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.async.AsyncRequestExecutor;
+import org.apache.olingo.server.api.async.AsyncRequestExecutorOptions;
+import org.apache.olingo.server.api.async.AsyncStatusMonitor;
+import org.apache.olingo.server.api.async.AsyncTask;
 import org.apache.olingo.server.api.processor.Processor;
-import org.apache.olingo.server.api.serializer.SerializerException;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -43,13 +46,10 @@ import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -82,10 +82,8 @@ public class TechnicalAsyncService {
   public static final String TEC_ASYNC_SLEEP = "tec.sleep";
   public static final String STATUS_MONITOR_TOKEN = "status";
 
-  private static final Map<String, AsyncRunner> LOCATION_2_ASYNC_RUNNER =
-      Collections.synchronizedMap(new HashMap<String, AsyncRunner>());
-  private static final ExecutorService ASYNC_REQUEST_EXECUTOR = Executors.newFixedThreadPool(10);
-  private static final AtomicInteger ID_GENERATOR = new AtomicInteger();
+  private final AsyncRequestExecutor executor = OData.newInstance().createAsyncRequestExecutor(
+      AsyncRequestExecutorOptions.with().threads(10).maximumPendingRequests(100).build());
 
   public <T extends Processor> AsyncProcessor<T> register(T processor, Class<T> processorInterface) {
     return new AsyncProcessor<T>(processor, processorInterface, this);
@@ -111,7 +109,7 @@ public class TechnicalAsyncService {
   }
 
   public void shutdownThreadPool() {
-    ASYNC_REQUEST_EXECUTOR.shutdown();
+    executor.shutdown();
   }
 
   public boolean isStatusMonitorResource(HttpServletRequest request) {
@@ -120,45 +118,45 @@ public class TechnicalAsyncService {
 
   String processAsynchronous(AsyncProcessor<?> dispatchedProcessor)
       throws ODataApplicationException, ODataLibraryException {
-    // use executor thread pool
-    String location = createNewAsyncLocation(dispatchedProcessor.getRequest());
-    dispatchedProcessor.setLocation(location);
-    AsyncRunner run = new AsyncRunner(dispatchedProcessor);
-    LOCATION_2_ASYNC_RUNNER.put(location, run);
-    ASYNC_REQUEST_EXECUTOR.execute(run);
-    //
-    return location;
+    final AsyncStatusMonitor monitor = executor.submit(
+        createStatusMonitorBaseUri(dispatchedProcessor.getRequest()), new AsyncRunner(dispatchedProcessor));
+    dispatchedProcessor.setLocation(monitor.getLocation());
+    return monitor.getLocation();
   }
 
-  public void handle(HttpServletRequest request, HttpServletResponse response) throws SerializerException, IOException {
-    String location = getAsyncLocation(request);
-    AsyncRunner runner = LOCATION_2_ASYNC_RUNNER.get(location);
-
-    if (runner == null) {
-      response.setStatus(HttpStatusCode.NOT_FOUND.getStatusCode());
-    } else {
-      if (runner.isFinished()) {
-        ODataResponse wrapResult = runner.getDispatched().getProcessResponse();
-        wrapToAsyncHttpResponse(wrapResult, response);
-        LOCATION_2_ASYNC_RUNNER.remove(location);
-      } else {
-        response.setStatus(HttpStatusCode.ACCEPTED.getStatusCode());
-        response.setHeader(HttpHeader.LOCATION, location);
+  public void handle(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    HttpMethod method;
+    try {
+      method = HttpMethod.valueOf(request.getMethod());
+    } catch (final IllegalArgumentException e) {
+      response.setStatus(HttpStatusCode.METHOD_NOT_ALLOWED.getStatusCode());
+      return;
+    }
+    ODataRequest statusRequest = new ODataRequest();
+    statusRequest.setMethod(method);
+    statusRequest.setRawRequestUri(request.getRequestURL().toString());
+    ODataResponse statusResponse = new ODataResponse();
+    executor.handleStatusMonitorRequest(statusRequest, statusResponse);
+
+    response.setStatus(statusResponse.getStatusCode());
+    for (final Map.Entry<String, List<String>> header : statusResponse.getAllHeaders().entrySet()) {
+      for (final String value : header.getValue()) {
+        response.addHeader(header.getKey(), value);
       }
     }
+    if (statusResponse.getContent() != null) {
+      copy(statusResponse.getContent(), response.getOutputStream());
+    }
   }
 
   public void listQueue(HttpServletResponse response) {
     StringBuilder sb = new StringBuilder();
     sb.append("<html><header/><body><h1>Queued requests</h1><ul>");
-    for (Map.Entry<String, AsyncRunner> entry : LOCATION_2_ASYNC_RUNNER.entrySet()) {
-      AsyncProcessor<?> asyncProcessor = entry.getValue().getDispatched();
-      sb.append("<li><b>ID: </b>").append(entry.getKey()).append("<br/>")
-          .append("<b>Location: </b><a href=\"")
-          .append(asyncProcessor.getLocation()).append("\">")
-          .append(asyncProcessor.getLocation()).append("</a><br/>")
-          .append("<b>Processor: </b>").append(asyncProcessor.getProcessorClass().getSimpleName()).append("<br/>")
-          .append("<b>Finished: </b>").append(entry.getValue().isFinished()).append("<br/>")
+    for (final AsyncStatusMonitor monitor : executor.getStatusMonitors()) {
+      sb.append("<li><b>Location: </b><a href=\"")
+          .append(monitor.getLocation()).append("\">")
+          .append(monitor.getLocation()).append("</a><br/>")
+          .append("<b>State: </b>").append(monitor.getState()).append("<br/>")
           .append("</li>");
     }
     sb.append("</ul></body></html>");
@@ -166,11 +164,6 @@ public class TechnicalAsyncService {
     writeToResponse(response, sb.toString());
   }
 
-
-  private static void writeToResponse(HttpServletResponse response, InputStream input) throws IOException {
-    copy(input, response.getOutputStream());
-  }
-
   private void writeToResponse(HttpServletResponse response, String content) {
     writeToResponse(response, content.getBytes());
   }
@@ -187,18 +180,6 @@ public class TechnicalAsyncService {
     }
   }
 
-  static void wrapToAsyncHttpResponse(final ODataResponse odResponse, final HttpServletResponse response)
-      throws SerializerException, IOException {
-    OData odata = OData.newInstance();
-    InputStream odResponseStream = odata.createFixedFormatSerializer().asyncResponse(odResponse);
-
-    response.setHeader(HttpHeader.CONTENT_TYPE, ContentType.APPLICATION_HTTP.toContentTypeString());
-    response.setHeader(HttpHeader.CONTENT_ENCODING, "binary");
-    response.setStatus(HttpStatusCode.OK.getStatusCode());
-
-    writeToResponse(response, odResponseStream);
-  }
-
   static void copy(final InputStream input, final OutputStream output) {
     if (output == null || input == null) {
       return;
@@ -231,24 +212,18 @@ public class TechnicalAsyncService {
     }
   }
 
-  private String createNewAsyncLocation(ODataRequest request) {
+  private String createStatusMonitorBaseUri(ODataRequest request) {
     int pos = request.getRawBaseUri().lastIndexOf("/") + 1;
-    return request.getRawBaseUri().substring(0, pos) + STATUS_MONITOR_TOKEN + "/" + ID_GENERATOR.incrementAndGet();
-  }
-
-  private String getAsyncLocation(HttpServletRequest request) {
-    return request.getRequestURL().toString();
+    return request.getRawBaseUri().substring(0, pos) + STATUS_MONITOR_TOKEN;
   }
 
   /**
-   * Runnable for the AsyncProcessor.
+   * Asynchronous task for the AsyncProcessor.
    */
-  static class AsyncRunner implements Runnable {
+  static class AsyncRunner implements AsyncTask {
     private static final Pattern PATTERN = Pattern.compile("(" + TEC_ASYNC_SLEEP + "=)(\\d*)");
     private final AsyncProcessor<? extends Processor> dispatched;
     private int defaultSleepTimeInSeconds = 0;
-    private Exception exception;
-    boolean finished = false;
 
     public AsyncRunner(AsyncProcessor<? extends Processor> wrap) {
       this(wrap, 0);
@@ -262,19 +237,26 @@ public class TechnicalAsyncService {
     }
 
     @Override
-    public void run() {
+    public ODataResponse process() throws ODataApplicationException, ODataLibraryException {
       try {
         int sleep = getSleepTime(dispatched);
         TimeUnit.SECONDS.sleep(sleep);
         dispatched.process();
       } catch (final InterruptedException e) {
-        exception = e;
+        Thread.currentThread().interrupt();
+        throw new ODataApplicationException("Asynchronous processing has been interrupted.",
+            HttpStatusCode.SERVICE_UNAVAILABLE.getStatusCode(), Locale.ROOT, e);
       } catch (final InvocationTargetException e) {
-        exception = e;
+        if (e.getCause() instanceof ODataApplicationException) {
+          throw (ODataApplicationException) e.getCause();
+        } else if (e.getCause() instanceof ODataLibraryException) {
+          throw (ODataLibraryException) e.getCause();
+        }
+        throw new ODataRuntimeException(e);
       } catch (final IllegalAccessException e) {
-        exception = e;
+        throw new ODataRuntimeException(e);
       }
-      finished = true;
+      return dispatched.getProcessResponse();
     }
 
     private int getSleepTime(AsyncProcessor<? extends Processor> wrap) {
@@ -287,14 +269,6 @@ public class TechnicalAsyncService {
       return defaultSleepTimeInSeconds;
     }
 
-    public Exception getException() {
-      return exception;
-    }
-
-    public boolean isFinished() {
-      return finished;
-    }
-
     public AsyncProcessor<? extends Processor> getDispatched() {
       return dispatched;
     }
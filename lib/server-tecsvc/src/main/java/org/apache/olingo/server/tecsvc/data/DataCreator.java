@@ -43,6 +43,7 @@ import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.data.Link;
 import org.apache.olingo.commons.api.data.Operation;
 import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.PropertyLayout;
 import org.apache.olingo.commons.api.data.ValueType;
 import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.EdmEntitySet;
@@ -1092,8 +1093,10 @@ public class DataCreator {
   }
 
   private void setEntityType(EntityCollection entityCollection, final EdmEntityType type) {
+    final PropertyLayout propertyLayout = PropertyLayout.of(type);
     for (Entity entity : entityCollection.getEntities()) {
       entity.setType(type.getFullQualifiedName().getFullQualifiedNameAsString());
+      entity.setPropertyLayout(propertyLayout);
     }
   }
 
@@ -20,13 +20,14 @@ package org.apache.olingo.server.tecsvc.data;
 
 import java.net.URI;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -41,17 +42,15 @@ import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.data.Link;
 import org.apache.olingo.commons.api.data.Parameter;
 import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.PropertyLayout;
 import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
 import org.apache.olingo.commons.api.edm.EdmEntitySet;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.edm.EdmEnumType;
 import org.apache.olingo.commons.api.edm.EdmFunction;
-import org.apache.olingo.commons.api.edm.EdmKeyPropertyRef;
 import org.apache.olingo.commons.api.edm.EdmNavigationProperty;
 import org.apache.olingo.commons.api.edm.EdmParameter;
-import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
-import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
 import org.apache.olingo.commons.api.edm.EdmProperty;
 import org.apache.olingo.commons.api.edm.EdmSingleton;
@@ -81,6 +80,14 @@ public class DataProvider {
   private Map<String, EntityCollection> data;
   private final OData odata;
   private final Edm edm;
+  /** Key indexes of the collections in {@link #data}, built on first access by key. */
+  private final Map<EntityCollection, EntityKeyIndex> keyIndexes =
+      new IdentityHashMap<EntityCollection, EntityKeyIndex>();
+  /**
+   * Reverse navigation index: for each target entity the entities with a navigation link to it.
+   * It is built on first use and may contain sources whose links have since been removed.
+   */
+  private Map<Entity, Set<Entity>> referrers;
 
   public DataProvider(final OData odata, final Edm edm) {
     this.odata = odata;
@@ -98,97 +105,118 @@ public class DataProvider {
   }
 
   public Entity read(final EdmEntitySet edmEntitySet, final List<UriParameter> keys) throws DataProviderException {
-    final EntityCollection entitySet = readAll(edmEntitySet);
-    return entitySet == null ? null : read(edmEntitySet.getEntityType(), entitySet, keys);
+    return getKeyIndex(edmEntitySet.getEntityType(), readAll(edmEntitySet)).read(keys);
   }
-  
-  private Object findPropertyRefValue(Entity entity, EdmKeyPropertyRef refType) {
-    final int INDEX_ERROR_CODE = -1;
-    final String propertyPath = refType.getName();
-    String tmpPropertyName;
-    int lastIndex;
-    int index = propertyPath.indexOf('/');
-    if (index == INDEX_ERROR_CODE) {
-        index  = propertyPath.length();
-    }
-    tmpPropertyName = propertyPath.substring(0, index);
-    //get first property
-    Property prop = entity.getProperty(tmpPropertyName);
-    //get following properties
-    while (index < propertyPath.length()) {
-        lastIndex = ++index;
-        index = propertyPath.indexOf('/', index+1);
-        if (index == INDEX_ERROR_CODE) {
-            index = propertyPath.length();
-        }
-        tmpPropertyName = propertyPath.substring(lastIndex, index);
-        prop = findProperty(tmpPropertyName, prop.asComplex().getValue());
-     }
-    return prop.getValue();
+
+  private EntityKeyIndex getKeyIndex(final EdmEntityType edmEntityType, final EntityCollection entityCollection) {
+    synchronized (keyIndexes) {
+      EntityKeyIndex index = keyIndexes.get(entityCollection);
+      if (index == null) {
+        index = new EntityKeyIndex(edmEntityType, entityCollection);
+        keyIndexes.put(entityCollection, index);
+      }
+      return index;
+    }
+  }
+
+  private EntityKeyIndex findKeyIndex(final EntityCollection entityCollection) {
+    synchronized (keyIndexes) {
+      return keyIndexes.get(entityCollection);
+    }
   }
   
   public Entity read(final EdmEntityType edmEntityType, final EntityCollection entitySet,
       final List<UriParameter> keys) throws DataProviderException {
-    try {
-      for (final Entity entity : entitySet.getEntities()) {
-        boolean found = true;
-        for (final UriParameter key : keys) {
-          EdmKeyPropertyRef refType = edmEntityType.getKeyPropertyRef(key.getName());
-          Object value =  findPropertyRefValue(entity, refType);
-          
-          final EdmProperty property = refType.getProperty();
-          final EdmPrimitiveType type = (EdmPrimitiveType) property.getType();
-          
-          if (key.getExpression() != null && !(key.getExpression() instanceof Literal)) {
-            throw new DataProviderException("Expression in key value is not supported yet!",
-                HttpStatusCode.NOT_IMPLEMENTED);
-          }
-          Object keyValue = null;
-          final String text = key.getAlias() == null ? key.getText() : ((Literal) key.getExpression()).getText();
-          if (Calendar.class.isAssignableFrom(value.getClass())) {
-            keyValue = type.valueOfString(type.fromUriLiteral(text),
-                property.isNullable(), property.getMaxLength(), property.getPrecision(), property.getScale(),
-                property.isUnicode(), Calendar.class);
-          } else {
-            keyValue = type.valueOfString(type.fromUriLiteral(text),
-                property.isNullable(), property.getMaxLength(), property.getPrecision(), property.getScale(),
-                property.isUnicode(), value.getClass());
+    final EntityKeyIndex index = findKeyIndex(entitySet);
+    return index == null ? EntityKeyIndex.scan(edmEntityType, entitySet.getEntities(), keys) : index.read(keys);
+  }
+
+  public void delete(final EdmEntitySet edmEntitySet, final Entity entity) throws DataProviderException {
+    deleteLinksTo(entity);
+    final EntityCollection entityCollection = readAll(edmEntitySet);
+    if (entityCollection.getEntities().remove(entity)) {
+      final EntityKeyIndex index = findKeyIndex(entityCollection);
+      if (index != null) {
+        index.remove(entity);
+      }
+      removeReferrer(entity);
+    }
+  }
+
+  public void deleteLinksTo(final Entity to) throws DataProviderException {
+    for (final Entity entity : getReferrers(to)) {
+      for (Iterator<Link> linkIterator = entity.getNavigationLinks().iterator(); linkIterator.hasNext();) {
+        final Link link = linkIterator.next();
+        if (to.equals(link.getInlineEntity())) {
+          linkIterator.remove();
+        } else if (link.getInlineEntitySet() != null) {
+          for (Iterator<Entity> iterator = link.getInlineEntitySet().getEntities().iterator(); iterator.hasNext();) {
+            if (to.equals(iterator.next())) {
+              iterator.remove();
+            }
           }
-          if (!value.equals(keyValue)) {
-            found = false;
-            break;
+          if (link.getInlineEntitySet().getEntities().isEmpty()) {
+            linkIterator.remove();
           }
         }
-        if (found) {
-          return entity;
+      }
+    }
+  }
+
+  /** Returns a snapshot of the entities which may have a navigation link to the given entity. */
+  private List<Entity> getReferrers(final Entity target) {
+    synchronized (keyIndexes) {
+      if (referrers == null) {
+        referrers = new IdentityHashMap<Entity, Set<Entity>>();
+        for (final EntityCollection entityCollection : data.values()) {
+          for (final Entity entity : entityCollection.getEntities()) {
+            for (final Link link : entity.getNavigationLinks()) {
+              addReferrer(entity, link);
+            }
+          }
         }
       }
-      return null;
-    } catch (final EdmPrimitiveTypeException e) {
-      throw new DataProviderException("Wrong key!", HttpStatusCode.BAD_REQUEST, e);
+      final Set<Entity> sources = referrers.get(target);
+      return sources == null ? Collections.<Entity> emptyList() : new ArrayList<Entity>(sources);
     }
   }
 
-  public void delete(final EdmEntitySet edmEntitySet, final Entity entity) throws DataProviderException {
-    deleteLinksTo(entity);
-    readAll(edmEntitySet).getEntities().remove(entity);
+  private void addReferrer(final Entity source, final Link link) {
+    if (link.getInlineEntity() != null) {
+      addReferrer(source, link.getInlineEntity());
+    }
+    if (link.getInlineEntitySet() != null) {
+      for (final Entity target : link.getInlineEntitySet().getEntities()) {
+        addReferrer(source, target);
+      }
+    }
   }
 
-  public void deleteLinksTo(final Entity to) throws DataProviderException {
-    for (final String entitySetName : data.keySet()) {
-      for (final Entity entity : data.get(entitySetName).getEntities()) {
-        for (Iterator<Link> linkIterator = entity.getNavigationLinks().iterator(); linkIterator.hasNext();) {
-          final Link link = linkIterator.next();
-          if (to.equals(link.getInlineEntity())) {
-            linkIterator.remove();
-          } else if (link.getInlineEntitySet() != null) {
-            for (Iterator<Entity> iterator = link.getInlineEntitySet().getEntities().iterator(); iterator.hasNext();) {
-              if (to.equals(iterator.next())) {
-                iterator.remove();
-              }
-            }
-            if (link.getInlineEntitySet().getEntities().isEmpty()) {
-              linkIterator.remove();
+  private void addReferrer(final Entity source, final Entity target) {
+    synchronized (keyIndexes) {
+      if (referrers != null) {
+        Set<Entity> sources = referrers.get(target);
+        if (sources == null) {
+          sources = Collections.newSetFromMap(new IdentityHashMap<Entity, Boolean>());
+          referrers.put(target, sources);
+        }
+        sources.add(source);
+      }
+    }
+  }
+
+  /** Removes a deleted entity from the reverse navigation index, both as target and as source. */
+  private void removeReferrer(final Entity entity) {
+    synchronized (keyIndexes) {
+      if (referrers != null) {
+        referrers.remove(entity);
+        for (final Link link : entity.getNavigationLinks()) {
+          if (link.getInlineEntity() != null) {
+            removeReferrer(entity, link.getInlineEntity());
+          }
+          if (link.getInlineEntitySet() != null) {
+            for (final Entity target : link.getInlineEntitySet().getEntities()) {
+              removeReferrer(entity, target);
             }
           }
         }
@@ -196,13 +224,34 @@ public class DataProvider {
     }
   }
 
+  /**
+   * Discards the reverse navigation index so that it is rebuilt on next use;
+   * needed after navigation links have been changed directly on the data.
+   */
+  private void invalidateReferrers() {
+    synchronized (keyIndexes) {
+      referrers = null;
+    }
+  }
+
+  private void removeReferrer(final Entity source, final Entity target) {
+    final Set<Entity> sources = referrers.get(target);
+    if (sources != null) {
+      sources.remove(source);
+      if (sources.isEmpty()) {
+        referrers.remove(target);
+      }
+    }
+  }
+
   public Entity create(final EdmEntitySet edmEntitySet) throws DataProviderException {
     final EdmEntityType edmEntityType = edmEntitySet.getEntityType();
     EntityCollection entitySet = readAll(edmEntitySet);
     final List<Entity> entities = entitySet.getEntities();
-    final Map<String, Object> newKey = findFreeComposedKey(entities, edmEntityType);
+    final Map<String, Object> newKey = findFreeComposedKey(entitySet, edmEntityType);
     Entity newEntity = new Entity();
     newEntity.setType(edmEntityType.getFullQualifiedName().getFullQualifiedNameAsString());
+    newEntity.setPropertyLayout(getPropertyLayout(edmEntityType, entities));
     for (final String keyName : edmEntityType.getKeyPredicateNames()) {
       newEntity.addProperty(DataCreator.createPrimitive(keyName, newKey.get(keyName)));
     }
@@ -214,11 +263,21 @@ public class DataProvider {
       throw new DataProviderException("Unable to set entity ID!", HttpStatusCode.INTERNAL_SERVER_ERROR, e);
     }
     entities.add(newEntity);
+    getKeyIndex(edmEntityType, entitySet).add(newEntity);
 
     return newEntity;
   }
 
-  private Map<String, Object> findFreeComposedKey(final List<Entity> entities, final EdmEntityType entityType)
+  /** Returns the property layout of the given type, shared with the first entity of the list if possible. */
+  private PropertyLayout getPropertyLayout(final EdmEntityType edmEntityType, final List<Entity> entities) {
+    final Entity first = entities.isEmpty() ? null : entities.get(0);
+    return first != null && first.getPropertyLayout() != null
+        && edmEntityType.getFullQualifiedName().getFullQualifiedNameAsString().equals(first.getType()) ?
+        first.getPropertyLayout() :
+        PropertyLayout.of(edmEntityType);
+  }
+
+  private Map<String, Object> findFreeComposedKey(final EntityCollection entities, final EdmEntityType entityType)
       throws DataProviderException {
     // Weak key construction
     final HashMap<String, Object> keys = new HashMap<String, Object>();
@@ -234,27 +293,27 @@ public class DataProvider {
       if (EdmPrimitiveTypeKind.Int16.getFullQualifiedName().equals(typeName)) {
         newValue = (short) KEY_INT_16.incrementAndGet();
 
-        while (!isFree(newValue, keyName, entities)) {
+        while (!isFree(newValue, keyName, entities, entityType)) {
           newValue = (short) KEY_INT_16.incrementAndGet();
         }
       } else if (EdmPrimitiveTypeKind.Int32.getFullQualifiedName().equals(typeName)) {
         newValue = KEY_INT_32.incrementAndGet();
 
-        while (!isFree(newValue, keyName, entities)) {
+        while (!isFree(newValue, keyName, entities, entityType)) {
           newValue = KEY_INT_32.incrementAndGet();
         }
       } else if (EdmPrimitiveTypeKind.Int64.getFullQualifiedName().equals(typeName)) {
         // Integer keys
         newValue = KEY_INT_64.incrementAndGet();
 
-        while (!isFree(newValue, keyName, entities)) {
+        while (!isFree(newValue, keyName, entities, entityType)) {
           newValue = KEY_INT_64.incrementAndGet();
         }
       } else if (EdmPrimitiveTypeKind.String.getFullQualifiedName().equals(typeName)) {
         // String keys
         newValue = String.valueOf(KEY_STRING.incrementAndGet());
 
-        while (!isFree(newValue, keyName, entities)) {
+        while (!isFree(newValue, keyName, entities, entityType)) {
           newValue = String.valueOf(KEY_STRING.incrementAndGet());
         }
       } else if (type instanceof EdmEnumType) {
@@ -273,8 +332,12 @@ public class DataProvider {
     return keys;
   }
 
-  private boolean isFree(final Object value, final String keyPropertyName, final List<Entity> entities) {
-    for (final Entity entity : entities) {
+  private boolean isFree(final Object value, final String keyPropertyName, final EntityCollection entities,
+      final EdmEntityType entityType) {
+    if (entityType.getKeyPredicateNames().size() == 1) {
+      return !getKeyIndex(entityType, entities).contains(value);
+    }
+    for (final Entity entity : entities.getEntities()) {
       if (value != null && value.equals(entity.getProperty(keyPropertyName).getValue())) {
         return false;
       }
@@ -474,6 +537,7 @@ public class DataProvider {
     } else {
       DataCreator.setLink(srcEntity, navigationProperty.getName(), targetEntity);
     }
+    addReferrer(srcEntity, targetEntity);
   }
 
   @SuppressWarnings("unchecked")
@@ -721,7 +785,11 @@ public class DataProvider {
   public EntityActionResult processBoundActionEntity(final String name, final Map<String, Parameter> actionParameters, 
       List<UriParameter> keyList, EdmEntitySet edmEntitySet)
       throws DataProviderException {
-    return ActionData.entityBoundAction(name, actionParameters, data, odata, edm, keyList, edmEntitySet);
+    // The action adds navigation links directly to the data.
+    final EntityActionResult result =
+        ActionData.entityBoundAction(name, actionParameters, data, odata, edm, keyList, edmEntitySet);
+    invalidateReferrers();
+    return result;
   }
   
   public EntityActionResult processBoundActionWithNavigationEntity(final String name, 
@@ -883,9 +951,11 @@ public class DataProvider {
     List<Entity> rootEntity = data.get(edmEntitySet.getName()).getEntities();
     EntityCollection entitySet = data.get(edmEntityType.getName());
     entitySet.getEntities().add(newEntity);
-    
-    
-    
+    final EntityKeyIndex index = findKeyIndex(entitySet);
+    if (index != null) {
+      index.add(newEntity);
+    }
+
     for (Entity entity : rootEntity) {
       if (isRootEntity(entity, keys)){
         String id = entity.getId().toASCIIString() + "/" + navPropertyName + 
@@ -909,6 +979,7 @@ public class DataProvider {
           collection.getEntities().add(newEntity);
           link.setInlineEntitySet(collection);
         }
+        addReferrer(entity, newEntity);
       }
     }
     
@@ -947,45 +1018,6 @@ public class DataProvider {
   
   public Entity readDataFromEntity(final EdmEntityType edmEntityType,
       final List<UriParameter> keys) throws DataProviderException {
-    EntityCollection coll = data.get(edmEntityType.getName());
-    List<Entity> entities = coll.getEntities();
-    try {
-      for (final Entity entity : entities) {
-        boolean found = true;
-        for (final UriParameter key : keys) {
-          EdmKeyPropertyRef refType = edmEntityType.getKeyPropertyRef(key.getName());
-          Object value =  findPropertyRefValue(entity, refType);
-          
-          final EdmProperty property = refType.getProperty();
-          final EdmPrimitiveType type = (EdmPrimitiveType) property.getType();
-          
-          if (key.getExpression() != null && !(key.getExpression() instanceof Literal)) {
-            throw new DataProviderException("Expression in key value is not supported yet!",
-                HttpStatusCode.NOT_IMPLEMENTED);
-          }
-          final String text = key.getAlias() == null ? key.getText() : ((Literal) key.getExpression()).getText();
-          Object keyValue = null;
-          if (Calendar.class.isAssignableFrom(value.getClass())) {
-            keyValue = type.valueOfString(type.fromUriLiteral(text),
-                property.isNullable(), property.getMaxLength(), property.getPrecision(), property.getScale(),
-                property.isUnicode(), Calendar.class);
-          } else {
-            keyValue = type.valueOfString(type.fromUriLiteral(text),
-                property.isNullable(), property.getMaxLength(), property.getPrecision(), property.getScale(),
-                property.isUnicode(), value.getClass());
-          }
-          if (!value.equals(keyValue)) {
-            found = false;
-            break;
-          }
-        }
-        if (found) {
-          return entity;
-        }
-      }
-      return null;
-    } catch (final EdmPrimitiveTypeException e) {
-      throw new DataProviderException("Wrong key!", HttpStatusCode.BAD_REQUEST, e);
-    }
+    return getKeyIndex(edmEntityType, data.get(edmEntityType.getName())).read(keys);
   }
 }
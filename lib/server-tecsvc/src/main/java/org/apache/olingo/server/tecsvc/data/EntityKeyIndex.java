@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.tecsvc.data;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmKeyPropertyRef;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.uri.UriParameter;
+import org.apache.olingo.server.api.uri.queryoption.expression.Literal;
+import org.apache.olingo.server.tecsvc.data.DataProvider.DataProviderException;
+
+/**
+ * Hash index of the entities of one entity collection, keyed by the values of their
+ * (possibly composite and complex-path) key properties.
+ * <p>
+ * The index is maintained by the {@link DataProvider} on create and delete.
+ * It remembers the number of entities it has been built for, so that modifications
+ * of the collection bypassing the data provider are detected and lead to a rebuild.
+ * Entities which cannot be indexed unambiguously (missing key values, duplicate keys,
+ * or key values of differing Java types) are still found by a linear scan.
+ */
+final class EntityKeyIndex {
+
+  private final EdmEntityType entityType;
+  private final EntityCollection entityCollection;
+  private final List<String> keyNames;
+  private final EdmKeyPropertyRef[] keyRefs;
+  private final String[][] keyPaths;
+  private final Class<?>[] valueClasses;
+  private final Map<Object, Entity> entities = new HashMap<Object, Entity>();
+  private int indexedSize;
+  private boolean complete;
+
+  EntityKeyIndex(final EdmEntityType entityType, final EntityCollection entityCollection) {
+    this.entityType = entityType;
+    this.entityCollection = entityCollection;
+    keyNames = entityType.getKeyPredicateNames();
+    keyRefs = new EdmKeyPropertyRef[keyNames.size()];
+    keyPaths = new String[keyNames.size()][];
+    for (int i = 0; i < keyRefs.length; i++) {
+      keyRefs[i] = entityType.getKeyPropertyRef(keyNames.get(i));
+      keyPaths[i] = keyRefs[i].getName().split("/");
+    }
+    valueClasses = new Class<?>[keyRefs.length];
+    rebuild();
+  }
+
+  /**
+   * Finds the entity with the given key predicates.
+   * @return the entity or <code>null</code> if there is no entity with that key
+   */
+  synchronized Entity read(final List<UriParameter> keys) throws DataProviderException {
+    if (keys.size() != keyNames.size()) {
+      return scan(entityType, entityCollection.getEntities(), keys);
+    }
+    if (entityCollection.getEntities().size() != indexedSize) {
+      rebuild();
+    }
+    if (entities.isEmpty()) {
+      return complete ? null : scan(entityType, entityCollection.getEntities(), keys);
+    }
+    final Object[] values = new Object[keyRefs.length];
+    for (final UriParameter key : keys) {
+      final int position = keyNames.indexOf(key.getName());
+      if (position < 0) {
+        return scan(entityType, entityCollection.getEntities(), keys);
+      }
+      values[position] = parseKey(keyRefs[position], key, valueClasses[position]);
+    }
+    final Object indexKey = toIndexKey(values);
+    Entity entity = entities.get(indexKey);
+    if (entity != null && !indexKey.equals(toIndexKey(getKeyValues(entity)))) {
+      // The key properties of the entity have been changed in place.
+      rebuild();
+      entity = entities.get(indexKey);
+    }
+    return entity == null && !complete ? scan(entityType, entityCollection.getEntities(), keys) : entity;
+  }
+
+  /** Returns whether an entity with the given values for the key predicates, in key order, exists. */
+  synchronized boolean contains(final Object... values) {
+    if (entityCollection.getEntities().size() != indexedSize) {
+      rebuild();
+    }
+    if (entities.containsKey(toIndexKey(values))) {
+      return true;
+    }
+    if (!complete) {
+      for (final Entity entity : entityCollection.getEntities()) {
+        if (Arrays.equals(values, getKeyValues(entity))) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /** Adds an entity which has just been added to the indexed collection. */
+  synchronized void add(final Entity entity) {
+    if (entityCollection.getEntities().size() == indexedSize + 1) {
+      index(entity);
+      indexedSize++;
+    } else {
+      rebuild();
+    }
+  }
+
+  /** Removes an entity which has just been removed from the indexed collection. */
+  synchronized void remove(final Entity entity) {
+    final Object indexKey = toIndexKey(getKeyValues(entity));
+    if (entityCollection.getEntities().size() == indexedSize - 1 && entities.get(indexKey) == entity) {
+      entities.remove(indexKey);
+      indexedSize--;
+    } else {
+      rebuild();
+    }
+  }
+
+  private void rebuild() {
+    entities.clear();
+    Arrays.fill(valueClasses, null);
+    complete = true;
+    for (final Entity entity : entityCollection.getEntities()) {
+      index(entity);
+    }
+    indexedSize = entityCollection.getEntities().size();
+  }
+
+  private void index(final Entity entity) {
+    final Object[] values = getKeyValues(entity);
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == null) {
+        complete = false;
+        return;
+      }
+      final Class<?> valueClass = getValueClass(values[i]);
+      if (valueClasses[i] == null) {
+        valueClasses[i] = valueClass;
+      } else if (valueClasses[i] != valueClass) {
+        complete = false;
+        return;
+      }
+    }
+    final Object indexKey = toIndexKey(values);
+    if (entities.containsKey(indexKey)) {
+      complete = false;
+    } else {
+      entities.put(indexKey, entity);
+    }
+  }
+
+  private Object[] getKeyValues(final Entity entity) {
+    Object[] values = new Object[keyPaths.length];
+    for (int i = 0; i < keyPaths.length; i++) {
+      values[i] = getValue(entity, keyPaths[i]);
+    }
+    return values;
+  }
+
+  private static Object toIndexKey(final Object[] values) {
+    return values.length == 1 ? values[0] : Arrays.asList(values);
+  }
+
+  /**
+   * Finds the first entity of the collection matching the given key predicates by a linear scan.
+   * Each key literal is parsed once per distinct Java type of the compared key values.
+   */
+  static Entity scan(final EdmEntityType entityType, final List<Entity> candidates, final List<UriParameter> keys)
+      throws DataProviderException {
+    final int size = keys.size();
+    final EdmKeyPropertyRef[] refs = new EdmKeyPropertyRef[size];
+    final String[][] paths = new String[size][];
+    for (int i = 0; i < size; i++) {
+      refs[i] = entityType.getKeyPropertyRef(keys.get(i).getName());
+      paths[i] = refs[i].getName().split("/");
+    }
+    final Class<?>[] parsedClasses = new Class<?>[size];
+    final Object[] parsedValues = new Object[size];
+    for (final Entity entity : candidates) {
+      boolean found = true;
+      for (int i = 0; i < size && found; i++) {
+        final Object value = getValue(entity, paths[i]);
+        if (value == null) {
+          found = false;
+        } else {
+          final Class<?> valueClass = getValueClass(value);
+          if (parsedClasses[i] != valueClass) {
+            parsedValues[i] = parseKey(refs[i], keys.get(i), valueClass);
+            parsedClasses[i] = valueClass;
+          }
+          found = value.equals(parsedValues[i]);
+        }
+      }
+      if (found) {
+        return entity;
+      }
+    }
+    return null;
+  }
+
+  private static Object parseKey(final EdmKeyPropertyRef ref, final UriParameter key, final Class<?> valueClass)
+      throws DataProviderException {
+    if (key.getExpression() != null && !(key.getExpression() instanceof Literal)) {
+      throw new DataProviderException("Expression in key value is not supported yet!",
+          HttpStatusCode.NOT_IMPLEMENTED);
+    }
+    final String text = key.getAlias() == null ? key.getText() : ((Literal) key.getExpression()).getText();
+    final EdmProperty property = ref.getProperty();
+    final EdmPrimitiveType type = (EdmPrimitiveType) property.getType();
+    try {
+      return type.valueOfString(type.fromUriLiteral(text),
+          property.isNullable(), property.getMaxLength(), property.getPrecision(), property.getScale(),
+          property.isUnicode(), valueClass);
+    } catch (final EdmPrimitiveTypeException e) {
+      throw new DataProviderException("Wrong key!", HttpStatusCode.BAD_REQUEST, e);
+    }
+  }
+
+  private static Class<?> getValueClass(final Object value) {
+    return value instanceof Calendar ? Calendar.class : value.getClass();
+  }
+
+  private static Object getValue(final Entity entity, final String[] path) {
+    Property property = entity.getProperty(path[0]);
+    for (int i = 1; i < path.length && property != null; i++) {
+      property = property.isComplex() ? findProperty(path[i], property.asComplex().getValue()) : null;
+    }
+    return property == null ? null : property.getValue();
+  }
+
+  private static Property findProperty(final String name, final List<Property> properties) {
+    for (final Property property : properties) {
+      if (name.equals(property.getName())) {
+        return property;
+      }
+    }
+    return null;
+  }
+}
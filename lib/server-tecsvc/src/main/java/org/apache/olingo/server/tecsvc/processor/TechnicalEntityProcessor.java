@@ -78,6 +78,8 @@ import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
 import org.apache.olingo.server.api.uri.queryoption.IdOption;
 import org.apache.olingo.server.api.uri.queryoption.SelectOption;
 import org.apache.olingo.server.api.uri.queryoption.SystemQueryOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledApply;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionCompiler;
 import org.apache.olingo.server.tecsvc.async.AsyncProcessor;
 import org.apache.olingo.server.tecsvc.async.TechnicalAsyncService;
 import org.apache.olingo.server.tecsvc.data.DataProvider;
@@ -109,9 +111,12 @@ public class TechnicalEntityProcessor extends TechnicalProcessor
   @Override
   public void readEntityCollection(final ODataRequest request, final ODataResponse response, final UriInfo uriInfo,
       final ContentType requestedContentType) throws ODataApplicationException, ODataLibraryException {
-    validateOptions(uriInfo.asUriInfoResource());
-
-    readEntityCollection(request, response, uriInfo, requestedContentType, false);
+    if (uriInfo.getApplyOption() == null) {
+      validateOptions(uriInfo.asUriInfoResource());
+      readEntityCollection(request, response, uriInfo, requestedContentType, false);
+    } else {
+      readAppliedEntityCollection(request, response, uriInfo, requestedContentType);
+    }
   }
 
   @Override
@@ -724,6 +729,55 @@ public class TechnicalEntityProcessor extends TechnicalProcessor
       response.setHeader(HttpHeader.ODATA_VERSION,request.getHeaders(HttpHeader.ODATA_MAX_VERSION).get(0));
     }
   }
+
+  /**
+   * Reads an entity collection with $apply; all other system query options
+   * are applied to the result of the transformations.
+   */
+  private void readAppliedEntityCollection(final ODataRequest request, final ODataResponse response,
+      final UriInfo uriInfo, final ContentType requestedContentType)
+      throws ODataApplicationException, ODataLibraryException {
+    final EdmEntitySet edmEntitySet = getEdmEntitySet(uriInfo.asUriInfoResource());
+    if (edmEntitySet == null || checkIfContNavigation(uriInfo)
+        || uriInfo.getExpandOption() != null || uriInfo.getSelectOption() != null
+        || uriInfo.getSearchOption() != null || uriInfo.getSkipTokenOption() != null) {
+      throw new ODataApplicationException("Not all of the specified options are supported.",
+          HttpStatusCode.NOT_IMPLEMENTED.getStatusCode(), Locale.ROOT);
+    }
+    final ExpressionCompiler compiler = odata.createExpressionCompiler(uriInfo);
+    final CompiledApply apply = compiler.compileApply(uriInfo.getApplyOption());
+    final EntityCollection entitySetInitial = readEntityCollection(uriInfo);
+    // The transformations do not modify their input, so there is no need to copy the "database".
+    final EntityCollection entitySet = apply.apply(
+        entitySetInitial == null ? new EntityCollection() : entitySetInitial);
+
+    if (uriInfo.getFilterOption() != null) {
+      compiler.compileFilter(uriInfo.getFilterOption()).apply(entitySet);
+    }
+    CountHandler.applyCountSystemQueryOption(uriInfo.getCountOption(), entitySet);
+    if (uriInfo.getOrderByOption() != null) {
+      compiler.compileOrderBy(uriInfo.getOrderByOption()).sort(entitySet.getEntities());
+    }
+    SkipHandler.applySkipSystemQueryHandler(uriInfo.getSkipOption(), entitySet);
+    TopHandler.applyTopSystemQueryOption(uriInfo.getTopOption(), entitySet);
+
+    final EdmEntityType resultType = apply.getResultType();
+    final SerializerResult serializerResult =
+        odata.createSerializer(requestedContentType, request.getHeaders(HttpHeader.ODATA_VERSION))
+            .entityCollection(serviceMetadata, resultType, entitySet,
+                EntityCollectionSerializerOptions.with()
+                    .contextURL(isODataMetadataNone(requestedContentType) ? null :
+                        ContextURL.with().oDataPath(request.getRawODataPath()).entitySet(edmEntitySet)
+                            .selectList(String.join(",", resultType.getPropertyNames()))
+                            .build())
+                    .count(uriInfo.getCountOption())
+                    .id(request.getRawBaseUri() + edmEntitySet.getName())
+                    .build());
+    response.setContent(serializerResult.getContent());
+    response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    response.setHeader(HttpHeader.CONTENT_TYPE, requestedContentType.toContentTypeString());
+  }
+
   private List<Entity> readNavigationEntities(final UriInfo uriInfo) {   
 
     final List<UriResource> resourcePaths = uriInfo.getUriResourceParts();
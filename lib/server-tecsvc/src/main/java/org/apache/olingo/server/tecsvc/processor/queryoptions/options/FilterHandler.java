@@ -31,6 +31,7 @@ import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.uri.UriInfoResource;
 import org.apache.olingo.server.api.uri.queryoption.FilterOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledFilter;
 import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.ExpressionVisitorImpl;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.TypedOperand;
@@ -38,8 +39,9 @@ import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand
 
 public class FilterHandler {
 
+  protected static final OData odata = OData.newInstance();
   protected static final EdmPrimitiveType primBoolean =
-      OData.newInstance().createPrimitiveTypeInstance(EdmPrimitiveTypeKind.Boolean);
+      odata.createPrimitiveTypeInstance(EdmPrimitiveTypeKind.Boolean);
 
   public static void applyFilterSystemQuery(final FilterOption filterOption, final EntityCollection entitySet,
       final UriInfoResource uriInfo, final Edm edm) throws ODataApplicationException {
@@ -48,6 +50,14 @@ public class FilterHandler {
       return;
     }
 
+    // Expressions the compiler supports are compiled once and then evaluated for every entity;
+    // all others are interpreted per entity.
+    final CompiledFilter compiledFilter = compile(filterOption, uriInfo);
+    if (compiledFilter != null) {
+      compiledFilter.apply(entitySet);
+      return;
+    }
+
     try {
       final Iterator<Entity> iter = entitySet.getEntities().iterator();
 
@@ -72,4 +82,16 @@ public class FilterHandler {
           HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode(), Locale.ROOT);
     }
   }
+
+  private static CompiledFilter compile(final FilterOption filterOption, final UriInfoResource uriInfo)
+      throws ODataApplicationException {
+    try {
+      return odata.createExpressionCompiler(uriInfo).compileFilter(filterOption);
+    } catch (final ODataApplicationException e) {
+      if (e.getStatusCode() == HttpStatusCode.NOT_IMPLEMENTED.getStatusCode()) {
+        return null;
+      }
+      throw e;
+    }
+  }
 }
@@ -26,15 +26,20 @@ import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.uri.UriInfoResource;
 import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
 import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledOrderBy;
 import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.ExpressionVisitorImpl;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.TypedOperand;
 
 public class OrderByHandler {
+
+  private static final OData odata = OData.newInstance();
+
   public static void applyOrderByOption(final OrderByOption orderByOption, final EntityCollection entitySet,
       final UriInfoResource uriInfo, final Edm edm) throws ODataApplicationException {
 
@@ -42,6 +47,14 @@ public class OrderByHandler {
       return;
     }
 
+    // Expressions the compiler supports are compiled once and evaluated once per entity before sorting;
+    // all others are interpreted on every comparison.
+    final CompiledOrderBy compiledOrderBy = compile(orderByOption, uriInfo);
+    if (compiledOrderBy != null) {
+      compiledOrderBy.sort(entitySet.getEntities());
+      return;
+    }
+
     try {
       applyOrderByOptionInternal(orderByOption, entitySet, uriInfo, edm);
     } catch (SystemQueryOptionsRuntimeException e) {
@@ -55,6 +68,18 @@ public class OrderByHandler {
     }
   }
 
+  private static CompiledOrderBy compile(final OrderByOption orderByOption, final UriInfoResource uriInfo)
+      throws ODataApplicationException {
+    try {
+      return odata.createExpressionCompiler(uriInfo).compileOrderBy(orderByOption);
+    } catch (final ODataApplicationException e) {
+      if (e.getStatusCode() == HttpStatusCode.NOT_IMPLEMENTED.getStatusCode()) {
+        return null;
+      }
+      throw e;
+    }
+  }
+
   private static void applyOrderByOptionInternal(final OrderByOption orderByOption, final EntityCollection entitySet,
       final UriInfoResource uriInfo, final Edm edm) throws ODataApplicationException {
     Collections.sort(entitySet.getEntities(), new Comparator<Entity>() {
@@ -19,15 +19,14 @@
 package org.apache.olingo.server.tecsvc.processor.queryoptions.options;
 
 import java.net.URI;
-import java.net.URISyntaxException;
 import java.util.Locale;
 
 import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.edm.EdmEntitySet;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.paging.SkipTokenLinks;
 import org.apache.olingo.server.api.uri.queryoption.SkipTokenOption;
-import org.apache.olingo.server.api.uri.queryoption.SystemQueryOptionKind;
 
 public class ServerSidePagingHandler {
   private static final int MAX_PAGE_SIZE = 10;
@@ -76,25 +75,8 @@ public class ServerSidePagingHandler {
 
   private static URI createNextLink(final String rawRequestUri, final int page, final int pageSize)
       throws ODataApplicationException {
-    // Remove a maybe existing skiptoken, making sure that the query part is not empty.
-    String nextlink = rawRequestUri.contains("?") ?
-        rawRequestUri.replaceAll("(\\$|%24)skiptoken=.+&?", "").replaceAll("(\\?|&)$", "") :
-        rawRequestUri;
-
-    // Add a question mark or an ampersand, depending on the current query part.
-    nextlink += nextlink.contains("?") ? '&' : '?';
-
-    // Append the new skiptoken.
-    nextlink += SystemQueryOptionKind.SKIPTOKEN.toString().replace("$", "%24")  // poor man's percent encoding
-        + '='
-        + page + "%2A" + pageSize;  // "%2A" is a percent-encoded asterisk
-
-    try {
-      return new URI(nextlink);
-    } catch (final URISyntaxException e) {
-      throw new ODataApplicationException("Exception while constructing next link",
-          HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode(), Locale.ROOT, e);
-    }
+    // Replaces a maybe existing skiptoken; the asterisk is percent-encoded.
+    return SkipTokenLinks.createNextLink(rawRequestUri, page + "*" + pageSize);
   }
 
   private static boolean shouldApplyServerSidePaging(final EdmEntitySet edmEntitySet) {
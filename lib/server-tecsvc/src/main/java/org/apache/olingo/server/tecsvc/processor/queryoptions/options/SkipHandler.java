@@ -18,7 +18,7 @@
  */
 package org.apache.olingo.server.tecsvc.processor.queryoptions.options;
 
-import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 
 import org.apache.olingo.commons.api.data.Entity;
@@ -42,13 +42,8 @@ public class SkipHandler {
   }
 
   static void popAtMost(final EntityCollection entitySet, final int n) {
-    final Iterator<Entity> iter = entitySet.getEntities().iterator();
-    int i = 0;
-
-    while (iter.hasNext() && i < n) {
-      iter.next();
-      iter.remove();
-      i++;
-    }
+    final List<Entity> entities = entitySet.getEntities();
+    // Removing the range at once shifts the remaining entities only once.
+    entities.subList(0, Math.min(n, entities.size())).clear();
   }
 }
@@ -25,6 +25,8 @@ import java.util.List;
 import org.apache.olingo.commons.api.data.ComplexValue;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.Link;
+import org.apache.olingo.commons.api.data.Parameter;
 import org.apache.olingo.commons.api.data.Property;
 import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.EdmEntityContainer;
@@ -51,6 +53,9 @@ public class DataProviderTest {
   private final EdmEntitySet esCollAllPrim = entityContainer.getEntitySet("ESCollAllPrim");
   private final EdmEntitySet esMixPrimCollComp = entityContainer.getEntitySet("ESMixPrimCollComp");
   private final EdmEntitySet esMedia = entityContainer.getEntitySet("ESMedia");
+  private final EdmEntitySet esTwoPrim = entityContainer.getEntitySet("ESTwoPrim");
+  private final EdmEntitySet esTwoKeyNav = entityContainer.getEntitySet("ESTwoKeyNav");
+  private final EdmEntitySet esFourKeyAlias = entityContainer.getEntitySet("ESFourKeyAlias");
 
   @Test
   public void esAllPrimEntity() throws Exception {
@@ -174,6 +179,95 @@ public class DataProviderTest {
     Assert.assertEquals("x/y", entity.getMediaContentType());
   }
 
+  @Test
+  public void esFourKeyAliasEntity() throws Exception {
+    final DataProvider dataProvider = new DataProvider(oData, edm);
+    final Entity entity = dataProvider.readAll(esFourKeyAlias).getEntities().get(0);
+
+    Assert.assertEquals(entity, dataProvider.read(esFourKeyAlias, Arrays.asList(
+        mockParameter("PropertyInt16", "1"),
+        mockParameter("KeyAlias1", "11"),
+        mockParameter("KeyAlias2", "'Num11'"),
+        mockParameter("KeyAlias3", "'Num111'"))));
+    Assert.assertNull(dataProvider.read(esFourKeyAlias, Arrays.asList(
+        mockParameter("PropertyInt16", "1"),
+        mockParameter("KeyAlias1", "11"),
+        mockParameter("KeyAlias2", "'Num11'"),
+        mockParameter("KeyAlias3", "'Num112'"))));
+  }
+
+  @Test
+  public void readAfterCreateAndDelete() throws Exception {
+    final DataProvider dataProvider = new DataProvider(oData, edm);
+    final List<UriParameter> existingKey = Arrays.asList(
+        mockParameter("PropertyInt16", "1"), mockParameter("PropertyString", "'1'"));
+    Assert.assertNotNull(dataProvider.read(esTwoKeyNav, existingKey));
+
+    final Entity entity = dataProvider.create(esTwoKeyNav);
+    final List<UriParameter> newKey = Arrays.asList(
+        mockParameter("PropertyInt16", entity.getProperty("PropertyInt16").getValue().toString()),
+        mockParameter("PropertyString", "'" + entity.getProperty("PropertyString").getValue() + "'"));
+    Assert.assertSame(entity, dataProvider.read(esTwoKeyNav, newKey));
+
+    dataProvider.delete(esTwoKeyNav, entity);
+    Assert.assertNull(dataProvider.read(esTwoKeyNav, newKey));
+    Assert.assertNotNull(dataProvider.read(esTwoKeyNav, existingKey));
+
+    // Modifications bypassing the data provider must be visible, too.
+    final Entity removed = dataProvider.read(esTwoKeyNav, existingKey);
+    dataProvider.readAll(esTwoKeyNav).getEntities().remove(removed);
+    Assert.assertNull(dataProvider.read(esTwoKeyNav, existingKey));
+  }
+
+  @Test
+  public void deleteLinksTo() throws Exception {
+    final DataProvider dataProvider = new DataProvider(oData, edm);
+    final List<Entity> sources = dataProvider.readAll(esAllPrim).getEntities();
+    final Entity target = dataProvider.readAll(esTwoPrim).getEntities().get(3);
+    Assert.assertSame(target, sources.get(0).getNavigationLink("NavPropertyETTwoPrimOne").getInlineEntity());
+    Assert.assertEquals(3,
+        sources.get(2).getNavigationLink("NavPropertyETTwoPrimMany").getInlineEntitySet().getEntities().size());
+
+    dataProvider.delete(esTwoPrim, target);
+    Assert.assertNull(sources.get(0).getNavigationLink("NavPropertyETTwoPrimOne"));
+    Assert.assertEquals(2,
+        sources.get(2).getNavigationLink("NavPropertyETTwoPrimMany").getInlineEntitySet().getEntities().size());
+
+    // Links created after the first deletion must be found, too.
+    final Entity newTarget = dataProvider.readAll(esTwoPrim).getEntities().get(0);
+    dataProvider.setLink(esAllPrim.getEntityType().getNavigationProperty("NavPropertyETTwoPrimOne"),
+        sources.get(1), newTarget);
+    dataProvider.delete(esTwoPrim, newTarget);
+    Assert.assertNull(sources.get(1).getNavigationLink("NavPropertyETTwoPrimOne"));
+    Assert.assertEquals(1,
+        sources.get(2).getNavigationLink("NavPropertyETTwoPrimMany").getInlineEntitySet().getEntities().size());
+  }
+
+  @Test
+  public void deleteLinksToActionResult() throws Exception {
+    final DataProvider dataProvider = new DataProvider(oData, edm);
+    final EdmEntitySet esKeyNav = entityContainer.getEntitySet("ESKeyNav");
+    final List<UriParameter> keys = Arrays.asList(mockParameter("PropertyInt16", "1"));
+    // Builds the reverse navigation index before the action adds its link.
+    dataProvider.deleteLinksTo(new Entity());
+
+    final Entity target = dataProvider.processBoundActionEntity("BA_RTETTwoKeyNav",
+        Collections.<String, Parameter> emptyMap(), keys, esKeyNav).getEntity();
+    final Entity source = dataProvider.read(esKeyNav, keys);
+    Assert.assertTrue(hasLinkTo(source, target));
+    dataProvider.deleteLinksTo(target);
+    Assert.assertFalse(hasLinkTo(source, target));
+  }
+
+  private static boolean hasLinkTo(final Entity source, final Entity target) {
+    for (final Link link : source.getNavigationLinks()) {
+      if (link.getInlineEntity() == target) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private static UriParameter mockParameter(final String name, final String text) {
     UriParameter parameter = Mockito.mock(UriParameter.class);
     Mockito.when(parameter.getName()).thenReturn(name);
@@ -19,9 +19,12 @@
 package org.apache.olingo.netty.server.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -34,20 +37,34 @@ import org.apache.olingo.commons.api.edmx.EdmxReference;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.netty.server.api.ODataNetty;
 import org.apache.olingo.netty.server.api.ODataNettyHandler;
+import org.apache.olingo.netty.server.api.ODataNettyRequestBody;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.processor.EntityProcessor;
 import org.apache.olingo.server.api.processor.MetadataProcessor;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.processor.TechnicalEntityProcessor;
 import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
 import org.junit.Test;
 
 import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
 
 public class ODataNettyHandlerImplTest {
 
@@ -153,4 +170,77 @@ public class ODataNettyHandlerImplTest {
     nettyResponse.status();
     assertEquals(HttpStatusCode.CREATED.getStatusCode(), HttpResponseStatus.CREATED.code());
   }
+
+  private static ODataNettyHandler createTechnicalHandler() {
+    final ODataNetty odata = ODataNetty.newInstance();
+    final ServiceMetadata metadata = odata.createServiceMetadata(
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    ODataNettyHandler handler = odata.createNettyHandler(metadata);
+    handler.register(new TechnicalEntityProcessor(new DataProvider(odata, metadata.getEdm()), metadata));
+    return handler;
+  }
+
+  private static ChannelHandlerContext context(final EmbeddedChannel channel) {
+    channel.pipeline().addLast(new ChannelInboundHandlerAdapter());
+    return channel.pipeline().lastContext();
+  }
+
+  /** Reads the response written to the channel; the content is returned as a string. */
+  private static String readResponse(final EmbeddedChannel channel, final HttpResponse[] head) {
+    head[0] = channel.readOutbound();
+    StringBuilder content = new StringBuilder();
+    Object message;
+    while ((message = channel.readOutbound()) != null) {
+      content.append(((HttpContent) message).content().toString(StandardCharsets.UTF_8));
+      ((HttpContent) message).release();
+      if (message instanceof LastHttpContent) {
+        break;
+      }
+    }
+    return content.toString();
+  }
+
+  @Test
+  public void testNettyStreamedResponse() {
+    final EmbeddedChannel channel = new EmbeddedChannel();
+    Map<String, String> requestParams = new HashMap<String, String>();
+    requestParams.put("contextPath", "/odata.svc");
+    HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1,
+        io.netty.handler.codec.http.HttpMethod.GET, "/odata.svc/ESAllPrim");
+
+    assertTrue(createTechnicalHandler().processNettyRequest(request, new ByteArrayInputStream(new byte[0]),
+        context(channel), requestParams).isSuccess());
+
+    HttpResponse[] head = new HttpResponse[1];
+    String content = readResponse(channel, head);
+    assertEquals(HttpResponseStatus.OK, head[0].status());
+    assertTrue(HttpUtil.isTransferEncodingChunked(head[0]));
+    assertTrue(content.startsWith("{\"@odata.context\":\"$metadata#ESAllPrim\""));
+    assertTrue(content.contains("\"PropertyInt16\":32767"));
+    channel.finish();
+  }
+
+  @Test
+  public void testNettyStreamedRequest() {
+    final EmbeddedChannel channel = new EmbeddedChannel();
+    Map<String, String> requestParams = new HashMap<String, String>();
+    requestParams.put("contextPath", "/odata.svc");
+    HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1,
+        io.netty.handler.codec.http.HttpMethod.POST, "/odata.svc/ESTwoPrim");
+    request.headers().set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON);
+    HttpUtil.setTransferEncodingChunked(request, true);
+
+    ODataNettyRequestBody body = new ODataNettyRequestBody(channel);
+    body.offer(new DefaultHttpContent(Unpooled.copiedBuffer("{\"PropertyInt16\": 42,", StandardCharsets.UTF_8)));
+    body.offer(new DefaultLastHttpContent(
+        Unpooled.copiedBuffer("\"PropertyString\": \"streamed\"}", StandardCharsets.UTF_8)));
+
+    createTechnicalHandler().processNettyRequest(request, body, context(channel), requestParams);
+
+    HttpResponse[] head = new HttpResponse[1];
+    String content = readResponse(channel, head);
+    assertEquals(HttpResponseStatus.CREATED, head[0].status());
+    assertTrue(content.contains("\"PropertyString\":\"streamed\""));
+    channel.finish();
+  }
 }
@@ -22,6 +22,7 @@ import static org.hamcrest.CoreMatchers.containsString;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
@@ -39,6 +40,8 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
@@ -58,6 +61,9 @@ import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.batch.BatchFacade;
+import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
+import org.apache.olingo.server.api.metrics.LatencyStatistics;
+import org.apache.olingo.server.api.metrics.ProcessingStage;
 import org.apache.olingo.server.api.processor.ActionComplexCollectionProcessor;
 import org.apache.olingo.server.api.processor.ActionComplexProcessor;
 import org.apache.olingo.server.api.processor.ActionEntityCollectionProcessor;
@@ -84,11 +90,18 @@ import org.apache.olingo.server.api.processor.ReferenceCollectionProcessor;
 import org.apache.olingo.server.api.processor.ReferenceProcessor;
 import org.apache.olingo.server.api.processor.ServiceDocumentProcessor;
 import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriInfoCache;
+import org.apache.olingo.server.api.uri.UriInfoKind;
 import org.apache.olingo.server.core.debug.ServerCoreDebugger;
+import org.apache.olingo.server.tecsvc.MetadataETagSupport;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
 import org.apache.olingo.server.tecsvc.processor.TechnicalActionProcessor;
+import org.apache.olingo.server.tecsvc.processor.TechnicalBatchProcessor;
+import org.apache.olingo.server.tecsvc.processor.TechnicalEntityProcessor;
 import org.apache.olingo.server.tecsvc.provider.ContainerProvider;
 import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class ODataHandlerImplTest {
 
@@ -200,6 +213,34 @@ public class ODataHandlerImplTest {
     assertNull(response2.getContent());
   }
 
+  @Test
+  public void metadataCompressed() throws Exception {
+    final MetadataETagSupport eTagSupport = new MetadataETagSupport("W/\"metadataETag\"");
+    final ODataResponse response = dispatch(HttpMethod.GET, "$metadata", null,
+        HttpHeader.ACCEPT_ENCODING, "deflate;q=0.5, gzip", null, eTagSupport);
+    assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+    assertEquals("gzip", response.getHeader(HttpHeader.CONTENT_ENCODING));
+    assertEquals(HttpHeader.ACCEPT_ENCODING, response.getHeader(HttpHeader.VARY));
+    assertThat(IOUtils.toString(new GZIPInputStream(response.getContent())),
+        containsString("<edmx:Edmx Version=\"4.0\""));
+
+    final ODataResponse response2 = dispatch(HttpMethod.GET, "$metadata", null,
+        HttpHeader.ACCEPT_ENCODING, "gzip;q=0, deflate", null, eTagSupport);
+    assertEquals("deflate", response2.getHeader(HttpHeader.CONTENT_ENCODING));
+    assertThat(IOUtils.toString(new InflaterInputStream(response2.getContent())),
+        containsString("<edmx:Edmx Version=\"4.0\""));
+
+    final ODataResponse response3 = dispatch(HttpMethod.GET, "$metadata", null,
+        HttpHeader.ACCEPT_ENCODING, "identity", null, eTagSupport);
+    assertNull(response3.getHeader(HttpHeader.CONTENT_ENCODING));
+
+    // Without an ETag the document is neither cached nor compressed.
+    final ODataResponse response4 = dispatch(HttpMethod.GET, "$metadata", null,
+        HttpHeader.ACCEPT_ENCODING, "gzip", null);
+    assertNull(response4.getHeader(HttpHeader.CONTENT_ENCODING));
+    assertThat(IOUtils.toString(response4.getContent()), containsString("<edmx:Edmx Version=\"4.0\""));
+  }
+
   @Test
   public void maxVersionNone() {
     final ODataResponse response = dispatch(HttpMethod.GET, "$metadata", null);
@@ -1117,6 +1158,12 @@ public class ODataHandlerImplTest {
 
   private ODataResponse dispatch(final HttpMethod method, final String path, final String query,
       final String headerName, final String headerValue, final Processor processor) {
+    return dispatch(method, path, query, headerName, headerValue, processor, null);
+  }
+
+  private ODataResponse dispatch(final HttpMethod method, final String path, final String query,
+      final String headerName, final String headerValue, final Processor processor,
+      final ServiceMetadataETagSupport eTagSupport) {
     ODataRequest request = new ODataRequest();
     request.setMethod(method);
     request.setRawBaseUri(BASE_URI);
@@ -1137,7 +1184,7 @@ public class ODataHandlerImplTest {
 
     final OData odata = OData.newInstance();
     final ServiceMetadata metadata = odata.createServiceMetadata(
-        new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList(), eTagSupport);
 
     ODataHandlerImpl handler = new ODataHandlerImpl(odata, metadata, new ServerCoreDebugger(odata));
 
@@ -1150,6 +1197,132 @@ public class ODataHandlerImplTest {
     return response;
   }
 
+  @Test
+  public void uriInfoCache() throws Exception {
+    final OData odata = OData.newInstance();
+    final ServiceMetadata metadata = odata.createServiceMetadata(
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    final UriInfoCache cache = odata.createUriInfoCache(10);
+    final EntityCollectionProcessor processor = mock(EntityCollectionProcessor.class);
+    final ArgumentCaptor<UriInfo> uriInfoCaptor = ArgumentCaptor.forClass(UriInfo.class);
+
+    for (int i = 0; i < 2; i++) {
+      ODataRequest request = new ODataRequest();
+      request.setMethod(HttpMethod.GET);
+      request.setRawBaseUri(BASE_URI);
+      request.setRawODataPath("ESAllPrim");
+      request.setRawQueryPath("$filter=PropertyInt16%20eq%201");
+      ODataHandlerImpl handler = new ODataHandlerImpl(odata, metadata, new ServerCoreDebugger(odata));
+      handler.register(processor);
+      handler.register(cache);
+      handler.process(request);
+    }
+
+    verify(processor, times(2)).readEntityCollection(
+        any(ODataRequest.class), any(ODataResponse.class), uriInfoCaptor.capture(), any(ContentType.class));
+    assertSame(uriInfoCaptor.getAllValues().get(0), uriInfoCaptor.getAllValues().get(1));
+    assertEquals(1, cache.size());
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+
+    ODataRequest request = new ODataRequest();
+    request.setMethod(HttpMethod.GET);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath("ESNotExisting");
+    ODataHandlerImpl handler = new ODataHandlerImpl(odata, metadata, new ServerCoreDebugger(odata));
+    handler.register(cache);
+    assertEquals(HttpStatusCode.NOT_FOUND.getStatusCode(), handler.process(request).getStatusCode());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void requestMetrics() throws Exception {
+    final OData odata = OData.newInstance();
+    final ServiceMetadata metadata = odata.createServiceMetadata(
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    final LatencyStatistics statistics = odata.createLatencyStatistics();
+    ODataHandlerImpl handler = new ODataHandlerImpl(odata, metadata, new ServerCoreDebugger(odata));
+    handler.register(mock(EntityCollectionProcessor.class));
+    handler.register(statistics);
+
+    ODataRequest request = new ODataRequest();
+    request.setMethod(HttpMethod.GET);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath("ESAllPrim");
+    handler.process(request);
+
+    request = new ODataRequest();
+    request.setMethod(HttpMethod.GET);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath("ESNotExisting");
+    assertEquals(HttpStatusCode.NOT_FOUND.getStatusCode(), handler.process(request).getStatusCode());
+
+    for (final ProcessingStage stage : new ProcessingStage[] {
+        ProcessingStage.REQUEST, ProcessingStage.URI_PARSING, ProcessingStage.URI_VALIDATION,
+        ProcessingStage.DISPATCH }) {
+      assertEquals(1, statistics.getCount(stage, UriInfoKind.resource));
+    }
+    assertEquals(0, statistics.getCount(ProcessingStage.ERROR_HANDLING, UriInfoKind.resource));
+    assertEquals(1, statistics.getCount(ProcessingStage.REQUEST, null));
+    assertEquals(1, statistics.getCount(ProcessingStage.URI_PARSING, null));
+    assertEquals(1, statistics.getCount(ProcessingStage.ERROR_HANDLING, null));
+    assertEquals(0, statistics.getCount(ProcessingStage.DISPATCH, null));
+  }
+
+  @Test
+  public void requestMetricsOfDispatchStages() throws Exception {
+    final OData odata = OData.newInstance();
+    final ServiceMetadata metadata = odata.createServiceMetadata(
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    final DataProvider dataProvider = new DataProvider(odata, metadata.getEdm());
+    final LatencyStatistics statistics = odata.createLatencyStatistics();
+    ODataHandlerImpl handler = new ODataHandlerImpl(odata, metadata, new ServerCoreDebugger(odata));
+    handler.register(new TechnicalEntityProcessor(dataProvider, metadata));
+    handler.register(new TechnicalBatchProcessor(dataProvider));
+    handler.register(statistics);
+
+    ODataRequest request = new ODataRequest();
+    request.setMethod(HttpMethod.GET);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath("ESAllPrim");
+    assertEquals(HttpStatusCode.OK.getStatusCode(), handler.process(request).getStatusCode());
+    assertEquals(1, statistics.getCount(ProcessingStage.CONTENT_NEGOTIATION, UriInfoKind.resource));
+    assertEquals(1, statistics.getCount(ProcessingStage.SERIALIZATION, UriInfoKind.resource));
+
+    final String batch = "--b1\r\n"
+        + "Content-Type: application/http\r\n"
+        + "Content-Transfer-Encoding: binary\r\n"
+        + "\r\n"
+        + "GET ESAllPrim HTTP/1.1\r\n"
+        + "\r\n"
+        + "\r\n"
+        + "--b1\r\n"
+        + "Content-Type: application/http\r\n"
+        + "Content-Transfer-Encoding: binary\r\n"
+        + "\r\n"
+        + "GET ESTwoPrim HTTP/1.1\r\n"
+        + "\r\n"
+        + "\r\n"
+        + "--b1--";
+    request = new ODataRequest();
+    request.setMethod(HttpMethod.POST);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath("$batch");
+    request.addHeader(HttpHeader.CONTENT_TYPE, ContentType.MULTIPART_MIXED + ";boundary=b1");
+    request.setBody(new ByteArrayInputStream(batch.getBytes(Charset.forName("ISO-8859-1"))));
+    assertEquals(HttpStatusCode.OK.getStatusCode(), handler.process(request).getStatusCode());
+
+    assertEquals(1, statistics.getCount(ProcessingStage.BATCH, UriInfoKind.batch));
+    assertEquals(1, statistics.getCount(ProcessingStage.DISPATCH, UriInfoKind.batch));
+    assertEquals(1, statistics.getCount(ProcessingStage.REQUEST, UriInfoKind.batch));
+    assertEquals(2, statistics.getCount(ProcessingStage.BATCH_PART, UriInfoKind.resource));
+    assertEquals(3, statistics.getCount(ProcessingStage.REQUEST, UriInfoKind.resource));
+    assertEquals(3, statistics.getCount(ProcessingStage.CONTENT_NEGOTIATION, UriInfoKind.resource));
+    assertEquals(3, statistics.getCount(ProcessingStage.SERIALIZATION, UriInfoKind.resource));
+    assertTrue(statistics.getTotalNanos(ProcessingStage.BATCH, UriInfoKind.batch)
+        >= statistics.getTotalNanos(ProcessingStage.BATCH_PART, UriInfoKind.resource));
+  }
+
   @Test
   public void dispatchEmptyContentWithoutContentType() {
     final String path = "ESAllPrim";
@@ -204,6 +204,29 @@ public class ODataDeserializerDeepInsertTest extends AbstractODataDeserializerTe
         DeserializerException.MessageKeys.INVALID_VALUE_FOR_NAVIGATION_PROPERTY);
   }
 
+  @Test
+  public void expandedToManyInvalidContent() throws Exception {
+    ODataJsonDeserializerEntityTest.expectException(
+        "{\"PropertyInt16\":32767,"
+            + "\"NavPropertyETTwoPrimMany\":[{\"PropertyInt16\":1},[]]"
+            + "}",
+        "ETAllPrim",
+        DeserializerException.MessageKeys.INVALID_ENTITY);
+    ODataJsonDeserializerEntityTest.expectException(
+        "{\"PropertyInt16\":32767,"
+            + "\"NavPropertyETTwoPrimMany\":[{\"PropertyInt16\":1,\"Unknown\":1}]"
+            + "}",
+        "ETAllPrim",
+        DeserializerException.MessageKeys.UNKNOWN_CONTENT);
+    ODataJsonDeserializerEntityTest.expectException(
+        "{\"PropertyInt16\":32767,"
+            + "\"NavPropertyETTwoPrimMany\":[],"
+            + "\"NavPropertyETTwoPrimMany\":[]"
+            + "}",
+        "ETAllPrim",
+        DeserializerException.MessageKeys.DUPLICATE_PROPERTY);
+  }
+
   private Entity deserialize(final String resourceName) throws IOException, DeserializerException {
     return ODataJsonDeserializerEntityTest.deserialize(getFileAsStream(resourceName),
         "ETAllPrim", ContentType.JSON);
@@ -19,6 +19,7 @@
 package org.apache.olingo.server.core.deserializer.json;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -27,14 +28,17 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.data.Property;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
+import org.apache.olingo.server.api.deserializer.StreamedEntityIterator;
 import org.apache.olingo.server.core.deserializer.AbstractODataDeserializerTest;
 import org.junit.Test;
 
@@ -163,6 +167,125 @@ public class ODataDeserializerEntityCollectionTest extends AbstractODataDeserial
         DeserializerException.MessageKeys.NOT_IMPLEMENTED);
   }
 
+  @Test
+  public void esAllPrimStreamed() throws Exception {
+    final StreamedEntityIterator iterator = deserializeStreamed(getFileAsStream("ESAllPrim.json"), "ETAllPrim");
+    assertTrue(iterator.hasNext());
+    Entity entity = iterator.next();
+    assertEquals(16, entity.getProperties().size());
+    assertEquals(new Short((short) 32767), entity.getProperty("PropertyInt16").getValue());
+    assertEquals("First Resource - positive values", entity.getProperty("PropertyString").getValue());
+    assertTrue(iterator.hasNext());
+    assertEquals(new Short((short) -32768), iterator.next().getProperty("PropertyInt16").getValue());
+    assertTrue(iterator.hasNext());
+    assertEquals(new Short((short) 0), iterator.next().getProperty("PropertyInt16").getValue());
+    assertFalse(iterator.hasNext());
+    try {
+      iterator.next();
+      fail("Expected exception not thrown.");
+    } catch (final NoSuchElementException e) {
+      assertNotNull(e);
+    }
+  }
+
+  @Test
+  public void streamedWithControlInformation() throws Exception {
+    final StreamedEntityIterator iterator = deserializeStreamed(
+        "{\"@odata.context\":\"$metadata#ESTwoPrim\",\"@odata.count\":2,"
+            + "\"value\":[{\"PropertyInt16\":1},{\"PropertyInt16\":2}],"
+            + "\"@odata.nextLink\":\"ESTwoPrim?$skiptoken=2\"}",
+        "ETTwoPrim");
+    int count = 0;
+    while (iterator.hasNext()) {
+      assertEquals((short) ++count, iterator.next().getProperty("PropertyInt16").getValue());
+    }
+    assertEquals(2, count);
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  public void streamedClosedEarly() throws Exception {
+    final CloseTrackingInputStream stream = new CloseTrackingInputStream(
+        "{\"value\":[{\"PropertyInt16\":1},{\"PropertyInt16\":2}]}");
+    final StreamedEntityIterator iterator = deserializeStreamed(stream, "ETTwoPrim");
+    assertTrue(iterator.hasNext());
+    iterator.next();
+    assertFalse(stream.closed);
+    iterator.close();
+    assertTrue(stream.closed);
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  public void streamedEmptyCollection() throws Exception {
+    assertFalse(deserializeStreamed("{\"value\":[]}", "ETAllPrim").hasNext());
+  }
+
+  @Test
+  public void streamedWithoutValueArray() throws Exception {
+    expectStreamedException("{\"@odata.count\":0}", "ETAllPrim",
+        DeserializerException.MessageKeys.VALUE_ARRAY_NOT_PRESENT);
+    expectStreamedException("{\"value\":{}}", "ETAllPrim",
+        DeserializerException.MessageKeys.VALUE_TAG_MUST_BE_AN_ARRAY);
+    expectStreamedException("{\"unknown\":null,\"value\":[]}", "ETAllPrim",
+        DeserializerException.MessageKeys.UNKNOWN_CONTENT);
+  }
+
+  @Test
+  public void streamedInvalidContent() throws Exception {
+    expectStreamedException("{\"value\":[[]]}", "ETAllPrim", DeserializerException.MessageKeys.INVALID_ENTITY);
+    expectStreamedException("{\"value\":[{\"Unknown\":1}]}", "ETTwoPrim",
+        DeserializerException.MessageKeys.UNKNOWN_CONTENT);
+    expectStreamedException("{\"value\":[],\"unknown\":null}", "ETAllPrim",
+        DeserializerException.MessageKeys.UNKNOWN_CONTENT);
+    expectStreamedException("{\"value\":[{\"PropertyInt16\":1,\"PropertyInt16\":2}]}", "ETTwoPrim",
+        DeserializerException.MessageKeys.DUPLICATE_PROPERTY);
+    expectStreamedException("{\"value\":[{\"PropertyInt16\":1}", "ETTwoPrim",
+        DeserializerException.MessageKeys.JSON_SYNTAX_EXCEPTION);
+  }
+
+  private StreamedEntityIterator deserializeStreamed(final InputStream stream, final String entityTypeName)
+      throws DeserializerException {
+    return OData.newInstance().createDeserializer(ContentType.JSON, metadata)
+        .entityCollectionStreamed(stream, edm.getEntityType(new FullQualifiedName(NAMESPACE, entityTypeName)));
+  }
+
+  private StreamedEntityIterator deserializeStreamed(final String input, final String entityTypeName)
+      throws DeserializerException {
+    return deserializeStreamed(new ByteArrayInputStream(input.getBytes()), entityTypeName);
+  }
+
+  private void expectStreamedException(final String input, final String entityTypeName,
+      final DeserializerException.MessageKeys messageKey) {
+    final CloseTrackingInputStream stream = new CloseTrackingInputStream(input);
+    try {
+      final StreamedEntityIterator iterator = deserializeStreamed(stream, entityTypeName);
+      while (iterator.hasNext()) {
+        iterator.next();
+      }
+      fail("Expected exception not thrown.");
+    } catch (final DeserializerException e) {
+      assertEquals(messageKey, e.getMessageKey());
+    } catch (final ODataRuntimeException e) {
+      assertTrue(e.getCause() instanceof DeserializerException);
+      assertEquals(messageKey, ((DeserializerException) e.getCause()).getMessageKey());
+    }
+    assertTrue(stream.closed);
+  }
+
+  private static class CloseTrackingInputStream extends ByteArrayInputStream {
+    private boolean closed;
+
+    private CloseTrackingInputStream(final String content) {
+      super(content.getBytes());
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
   private EntityCollection deserialize(final InputStream stream, final String entityTypeName)
       throws DeserializerException {
     return OData.newInstance().createDeserializer(ContentType.JSON, metadata)
@@ -19,6 +19,7 @@
 package org.apache.olingo.server.core.deserializer.xml;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -42,8 +43,11 @@ import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
 import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.deserializer.ODataDeserializer;
+import org.apache.olingo.server.api.deserializer.StreamedEntityIterator;
 import org.apache.olingo.server.core.deserializer.AbstractODataDeserializerTest;
 import org.custommonkey.xmlunit.XMLUnit;
 import org.junit.Assert;
@@ -984,6 +988,40 @@ public class ODataXmlDeserializerTest extends AbstractODataDeserializerTest {
     Assert.assertEquals("http://host/service/Orders(10643)", result.get(0).toASCIIString());
   }
 
+  @Test
+  public void entityCollectionStreamed() throws Exception {
+    final String feed = "<feed xmlns=\"http://www.w3.org/2005/Atom\"\n"
+        + "  xmlns:m=\"http://docs.oasis-open.org/odata/ns/metadata\"\n"
+        + "  xmlns:d=\"http://docs.oasis-open.org/odata/ns/data\">\n"
+        + "  <entry><content type=\"application/xml\"><m:properties>\n"
+        + "    <d:PropertyInt16>1</d:PropertyInt16><d:PropertyString>first</d:PropertyString>\n"
+        + "  </m:properties></content></entry>\n"
+        + "  <entry><content type=\"application/xml\"><m:properties>\n"
+        + "    <d:PropertyInt16>2</d:PropertyInt16><d:PropertyString>second</d:PropertyString>\n"
+        + "  </m:properties></content></entry>\n"
+        + "</feed>";
+    final EdmEntityType entityType = entityContainer.getEntitySet("ESTwoPrim").getEntityType();
+
+    StreamedEntityIterator iterator =
+        deserializer.entityCollectionStreamed(new ByteArrayInputStream(feed.getBytes()), entityType);
+    assertTrue(iterator.hasNext());
+    assertEquals((short) 1, iterator.next().getProperty("PropertyInt16").asPrimitive());
+    assertEquals("second", iterator.next().getProperty("PropertyString").asPrimitive());
+    assertFalse(iterator.hasNext());
+
+    // Entries are read only when requested, so a broken second entry does not affect the first one.
+    final String truncated = feed.substring(0, feed.indexOf("second"));
+    iterator = deserializer.entityCollectionStreamed(new ByteArrayInputStream(truncated.getBytes()), entityType);
+    assertEquals("first", iterator.next().getProperty("PropertyString").asPrimitive());
+    try {
+      iterator.hasNext();
+      Assert.fail("Expected exception not thrown.");
+    } catch (final ODataRuntimeException e) {
+      assertTrue(e.getCause() instanceof DeserializerException);
+    }
+    assertFalse(iterator.hasNext());
+  }
+
   @Test
   public void entityReferences() throws Exception {
     String payload = "<feed xmlns=\"http://www.w3.org/2005/Atom\"\n" + 
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.paging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityIterator;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.paging.KeysetPaging;
+import org.apache.olingo.server.api.paging.PageCursor;
+import org.apache.olingo.server.api.paging.SkipTokenCodec;
+import org.apache.olingo.server.api.paging.SkipTokenLinks;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+/** Tests of keyset paging with skip tokens. */
+public class KeysetPagingTest {
+
+  private static final OData odata = OData.newInstance();
+  private static final ServiceMetadata metadata = odata.createServiceMetadata(
+      new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+  private static final Edm edm = metadata.getEdm();
+
+  @Test
+  public void orderingProperties() throws Exception {
+    KeysetPaging paging = createPaging("ESCompAllPrim", "$orderby=PropertyComp/PropertyString desc");
+    assertEquals(Arrays.asList("PropertyComp/PropertyString", "PropertyInt16"), paging.getPropertyPaths());
+    assertTrue(paging.isDescending(0));
+    assertFalse(paging.isDescending(1));
+
+    // Key properties are not repeated.
+    paging = createPaging("ESTwoKeyNav", "$orderby=PropertyString,PropertyInt16 desc");
+    assertEquals(Arrays.asList("PropertyString", "PropertyInt16"), paging.getPropertyPaths());
+    assertTrue(paging.isDescending(1));
+
+    paging = createPaging("ESAllPrim", null);
+    assertEquals(Collections.singletonList("PropertyInt16"), paging.getPropertyPaths());
+  }
+
+  @Test
+  public void unsupportedOrderBy() throws Exception {
+    try {
+      createPaging("ESAllPrim", "$orderby=PropertyInt16 add 1");
+      fail("Expected exception not thrown.");
+    } catch (final ODataApplicationException e) {
+      assertEquals(HttpStatusCode.NOT_IMPLEMENTED.getStatusCode(), e.getStatusCode());
+    }
+  }
+
+  @Test
+  public void pageThroughCollection() throws Exception {
+    assertPages("ESServerSidePaging", "$orderby=PropertyString desc", 10, 51);
+    assertPages("ESAllPrim", "$orderby=PropertyBoolean", 1, 4);
+    assertPages("ESCompAllPrim", "$orderby=PropertyComp/PropertyDateTimeOffset desc", 2, 2);
+    assertPages("ESTwoKeyNav", "$orderby=PropertyComp/PropertyComp/PropertyString desc", 3, 2);
+    assertPages("ESAllNullable", "$orderby=PropertyString", 5, 1);
+  }
+
+  @Test
+  public void cursorValues() throws Exception {
+    final KeysetPaging paging = createPaging("ESServerSidePaging", "$orderby=PropertyString");
+    final List<Entity> entities = read("ESServerSidePaging");
+    Collections.sort(entities, paging.getComparator());
+    final Entity last = entities.get(9);
+    final PageCursor cursor = paging.readSkipToken(paging.createSkipToken(last, 10));
+    assertEquals(Arrays.asList("'" + last.getProperty("PropertyString").getValue() + "'",
+        last.getProperty("PropertyInt16").getValue().toString()), cursor.getValues());
+    assertEquals(10, cursor.getPageSize());
+    assertEquals(Arrays.<Object> asList(last.getProperty("PropertyString").getValue(),
+        last.getProperty("PropertyInt16").getValue()), paging.getValues(cursor));
+    assertEquals(0, paging.compare(last, cursor));
+    assertTrue(paging.compare(entities.get(0), cursor) < 0);
+    assertTrue(paging.compare(entities.get(10), cursor) > 0);
+    assertEquals(10, paging.seek(entities, cursor));
+    assertEquals(0, paging.seek(entities, null));
+  }
+
+  @Test
+  public void codec() throws Exception {
+    final SkipTokenCodec codec = odata.createSkipTokenCodec();
+    final PageCursor cursor = new PageCursor(Arrays.asList("'a:b''c'", "null", "", "'ä€'", "42"), 7);
+    final String token = codec.encode(cursor);
+    for (final char character : token.toCharArray()) {
+      assertTrue(Character.isLetterOrDigit(character) || character == '-' || character == '_');
+    }
+    assertEquals(cursor, codec.decode(token));
+    assertEquals(new PageCursor(Collections.<String> emptyList(), 3),
+        codec.decode(codec.encode(new PageCursor(Collections.<String> emptyList(), 3))));
+  }
+
+  @Test
+  public void invalidSkipToken() throws Exception {
+    final SkipTokenCodec codec = odata.createSkipTokenCodec();
+    final KeysetPaging paging = createPaging("ESServerSidePaging", "$orderby=PropertyString");
+    for (final String token : Arrays.asList("", "1*10", "%%%",
+        codec.encode(new PageCursor(Collections.singletonList("1"), 10)),
+        codec.encode(new PageCursor(Arrays.asList("'a'", "1"), 0)),
+        codec.encode(new PageCursor(Arrays.asList("'a'", "'b'"), 10)),
+        codec.encode(new PageCursor(Arrays.asList("'a'", "1"), 10)).substring(1))) {
+      try {
+        paging.readSkipToken(token);
+        fail("Expected exception not thrown for token " + token + ".");
+      } catch (final ODataApplicationException e) {
+        assertEquals(HttpStatusCode.BAD_REQUEST.getStatusCode(), e.getStatusCode());
+      }
+    }
+  }
+
+  @Test
+  public void nextLink() throws Exception {
+    assertEquals("http://host/svc/ES?%24skiptoken=1%2A10",
+        SkipTokenLinks.createNextLink("http://host/svc/ES", "1*10").toString());
+    assertEquals("ES?$format=json&%24skiptoken=2%2A10",
+        SkipTokenLinks.createNextLink("ES?$format=json", "2*10").toString());
+    assertEquals("ES?$format=xml&$top=5&%24skiptoken=2%2A10",
+        SkipTokenLinks.createNextLink("ES?$format=xml&%24skiptoken=1%2A10&$top=5", "2*10").toString());
+    assertEquals("ES?$count=true&%24skiptoken=a%20b%26c#fragment",
+        SkipTokenLinks.createNextLink("ES?$skiptoken=x&$count=true#fragment", "a b&c").toString());
+    assertEquals("ES?%24skiptoken=abc",
+        SkipTokenLinks.createNextLink("ES?$skiptoken=x", "abc").toString());
+  }
+
+  private void assertPages(final String entitySetName, final String orderBy, final int pageSize,
+      final int expectedPages) throws Exception {
+    final KeysetPaging paging = createPaging(entitySetName, orderBy);
+    final List<Entity> entities = read(entitySetName);
+    Collections.sort(entities, paging.getComparator());
+    final String rawRequestUri = entitySetName + "?" + orderBy.replace(" ", "%20");
+
+    List<Entity> result = new ArrayList<Entity>();
+    int pages = 0;
+    PageCursor cursor = null;
+    do {
+      final int start = paging.seek(entities, cursor);
+      final EntityIterator page = paging.page(entities.listIterator(start), pageSize, rawRequestUri);
+      int size = 0;
+      while (page.hasNext()) {
+        result.add(page.next());
+        size++;
+      }
+      assertTrue(size > 0 && size <= pageSize);
+      pages++;
+      final URI next = page.getNext();
+      cursor = next == null ? null : paging.readSkipToken(getSkipToken(next));
+    } while (cursor != null);
+
+    assertEquals(expectedPages, pages);
+    assertEquals(entities.size(), result.size());
+    for (int index = 0; index < entities.size(); index++) {
+      assertSame(entities.get(index), result.get(index));
+    }
+  }
+
+  private static String getSkipToken(final URI nextLink) throws Exception {
+    final String link = nextLink.getRawQuery();
+    assertNotNull(link);
+    final int start = link.indexOf("%24skiptoken=");
+    assertTrue(start >= 0);
+    assertNull(nextLink.getFragment());
+    return URLDecoder.decode(link.substring(start + "%24skiptoken=".length()), "UTF-8");
+  }
+
+  private KeysetPaging createPaging(final String entitySetName, final String orderBy) throws Exception {
+    final EdmEntitySet entitySet = edm.getEntityContainer().getEntitySet(entitySetName);
+    return odata.createKeysetPaging(entitySet.getEntityType(),
+        new Parser(edm, odata).parseUri(entitySetName, orderBy, null, null).getOrderByOption(),
+        odata.createSkipTokenCodec());
+  }
+
+  private List<Entity> read(final String entitySetName) throws Exception {
+    return new ArrayList<Entity>(new DataProvider(odata, edm).readAll(
+        edm.getEntityContainer().getEntitySet(entitySetName)).getEntities());
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.query.QueryPlan;
+import org.apache.olingo.server.api.query.SqlQuery;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.apache.olingo.server.tecsvc.provider.EntityTypeProvider;
+import org.junit.Test;
+
+public class SqlQueryTranslatorTest {
+
+  private static final OData odata = OData.newInstance();
+  private static final Edm edm = odata.createServiceMetadata(
+      new EdmTechProvider(), Collections.<EdmxReference> emptyList()).getEdm();
+  private static final EdmEntityType ET_ALL_PRIM = edm.getEntityType(EntityTypeProvider.nameETAllPrim);
+
+  @Test
+  public void plan() throws Exception {
+    final QueryPlan plan = plan("$filter=PropertyInt16 gt 1&$orderby=PropertyString desc"
+        + "&$skip=2&$top=3&$count=true&$select=PropertyString");
+    assertEquals(ET_ALL_PRIM, plan.getEntityType());
+    assertEquals(1, plan.getOrderBy().size());
+    assertEquals(Integer.valueOf(2), plan.getSkip());
+    assertEquals(Integer.valueOf(3), plan.getTop());
+    assertTrue(plan.isCount());
+    assertEquals(Arrays.asList("PropertyInt16", "PropertyString"), plan.getSelectedProperties());
+
+    assertTrue(plan("$select=*").getSelectedProperties().isEmpty());
+    assertNull(plan(null).getFilter());
+  }
+
+  @Test
+  public void selectAll() throws Exception {
+    final SqlQuery query = translate(null);
+    assertEquals("SELECT * FROM ALL_PRIM", query.getStatement());
+    assertTrue(query.getParameters().isEmpty());
+    assertNull(query.getCountStatement());
+  }
+
+  @Test
+  public void filterOrderByAndPaging() throws Exception {
+    final SqlQuery query = translate("$filter=PropertyInt16 gt 1 and PropertyString ne null"
+        + "&$orderby=PropertyString desc,PropertyInt16&$skip=2&$top=3&$count=true&$select=PropertyString");
+    assertEquals("SELECT \"ID\", \"PropertyString\" FROM ALL_PRIM"
+        + " WHERE (\"ID\" > ? AND \"PropertyString\" IS NOT NULL)"
+        + " ORDER BY \"PropertyString\" DESC, \"ID\" ASC OFFSET ? ROWS FETCH NEXT ? ROWS ONLY",
+        query.getStatement());
+    assertEquals(Arrays.<Object> asList((byte) 1, 2, 3), query.getParameters());
+    assertEquals("SELECT COUNT(*) FROM ALL_PRIM WHERE (\"ID\" > ? AND \"PropertyString\" IS NOT NULL)",
+        query.getCountStatement());
+    assertEquals(Arrays.<Object> asList((byte) 1), query.getCountParameters());
+
+    assertEquals("SELECT * FROM ALL_PRIM ORDER BY \"ID\" ASC FETCH FIRST ? ROWS ONLY",
+        translate("$top=5").getStatement());
+    assertEquals("SELECT * FROM ALL_PRIM ORDER BY \"PropertyString\" ASC, \"ID\" ASC OFFSET ? ROWS",
+        translate("$orderby=PropertyString&$skip=5").getStatement());
+    assertEquals("SELECT * FROM ALL_PRIM ORDER BY \"PropertyString\" ASC",
+        translate("$orderby=PropertyString").getStatement());
+  }
+
+  @Test
+  public void expressions() throws Exception {
+    assertEquals(" WHERE ((\"ID\" + ?) <> ? AND MOD(\"PropertyInt32\", ?) = ?)",
+        where("not (PropertyInt16 add 1 eq 2 or PropertyInt32 mod 2 ne 0)"));
+    assertEquals(" WHERE (\"PropertyInt32\" <> ? OR \"PropertyInt32\" IS NULL)", where("PropertyInt32 ne 5"));
+    assertEquals(" WHERE (\"PropertyInt32\" <= ? OR \"PropertyInt32\" IS NULL)",
+        where("not (PropertyInt32 gt 5)"));
+    assertEquals(" WHERE \"ID\" NOT IN (?, ?)", where("not (PropertyInt16 in (1, 2))"));
+    assertEquals(" WHERE (NOT \"PropertyString\" LIKE ? ESCAPE '\\')", where("not startswith(PropertyString,'a')"));
+    assertEquals(" WHERE \"ID\" IN (?, ?)", where("PropertyInt16 in (1, 2)"));
+    assertEquals(" WHERE CHAR_LENGTH(LOWER(\"PropertyString\")) >= ?", where("length(tolower(PropertyString)) ge 3"));
+    assertEquals(" WHERE EXTRACT(YEAR FROM \"PropertyDate\") = ?",
+        where("year(PropertyDate) eq 2012"));
+    assertEquals(" WHERE \"PropertyDecimal\" < ?", where("PropertyDecimal lt 34.5"));
+    assertEquals(new BigDecimal("34.5"), translate("$filter=PropertyDecimal lt 34.5").getParameters().get(0));
+    assertEquals(java.sql.Date.valueOf("2012-12-03"),
+        translate("$filter=PropertyDate eq 2012-12-03").getParameters().get(0));
+    assertEquals(" WHERE \"PropertyString\" = ?", where("PropertyString eq @a&@a='x'"));
+    assertEquals(" WHERE (\"PropertyInt32\" <> \"PropertyInt64\""
+        + " OR (\"PropertyInt32\" IS NULL AND \"PropertyInt64\" IS NOT NULL)"
+        + " OR (\"PropertyInt32\" IS NOT NULL AND \"PropertyInt64\" IS NULL))",
+        where("PropertyInt32 ne PropertyInt64"));
+  }
+
+  @Test
+  public void nullSemanticsOnDatabase() throws Exception {
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:")) {
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("CREATE TABLE ALL_PRIM (ID SMALLINT PRIMARY KEY, \"PropertyString\" VARCHAR(10),"
+            + " \"PropertyInt32\" INT, \"PropertyInt64\" BIGINT)");
+        statement.execute("INSERT INTO ALL_PRIM VALUES (1, 'a', 5, 5), (2, NULL, NULL, NULL),"
+            + " (3, 'b', 10, 1), (4, NULL, 7, NULL)");
+      }
+      assertEquals(Arrays.asList(1), execute(connection, "$filter=PropertyInt32 eq 5"));
+      assertEquals(Arrays.asList(2, 3, 4), execute(connection, "$filter=PropertyInt32 ne 5"));
+      assertEquals(Arrays.asList(2, 3, 4), execute(connection, "$filter=not (PropertyInt32 eq 5)"));
+      assertEquals(Arrays.asList(2), execute(connection, "$filter=PropertyInt32 eq null"));
+      assertEquals(Arrays.asList(1, 2), execute(connection, "$filter=not (PropertyInt32 gt 5)"));
+      assertEquals(Arrays.asList(1, 2), execute(connection, "$filter=PropertyInt32 eq PropertyInt64"));
+      assertEquals(Arrays.asList(3, 4), execute(connection, "$filter=PropertyInt32 ne PropertyInt64"));
+      assertEquals(Arrays.asList(2, 4), execute(connection, "$filter=not (PropertyInt32 in (5, 10))"));
+      assertEquals(Arrays.asList(3), execute(connection, "$filter=not contains(PropertyString,'a')"));
+      assertEquals(Arrays.asList(1, 2, 4),
+          execute(connection, "$filter=not (PropertyInt32 ge 7 and PropertyString eq 'b')"));
+      assertEquals(Arrays.asList(2),
+          execute(connection, "$filter=not (PropertyInt32 le 7 or PropertyString ne null)"));
+      assertEquals(Arrays.asList(4, 1), execute(connection, "$orderby=PropertyString&$skip=1&$top=2"));
+    }
+  }
+
+  private List<Integer> execute(final Connection connection, final String query) throws Exception {
+    final SqlQuery sqlQuery = translate(query);
+    try (PreparedStatement statement = connection.prepareStatement(sqlQuery.getStatement())) {
+      for (int i = 0; i < sqlQuery.getParameters().size(); i++) {
+        statement.setObject(i + 1, sqlQuery.getParameters().get(i));
+      }
+      List<Integer> ids = new ArrayList<>();
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          ids.add(resultSet.getInt("ID"));
+        }
+      }
+      if (sqlQuery.getStatement().indexOf(" ORDER BY ") < 0) {
+        Collections.sort(ids);
+      }
+      return ids;
+    }
+  }
+
+  @Test
+  public void like() throws Exception {
+    final SqlQuery query = translate("$filter=contains(PropertyString,'10%25_off')");
+    assertEquals("SELECT * FROM ALL_PRIM WHERE \"PropertyString\" LIKE ? ESCAPE '\\'", query.getStatement());
+    assertEquals(Collections.<Object> singletonList("%10\\%\\_off%"), query.getParameters());
+    assertEquals(Collections.<Object> singletonList("abc%"),
+        translate("$filter=startswith(PropertyString,'abc')").getParameters());
+    assertEquals(Collections.<Object> singletonList("%abc"),
+        translate("$filter=endswith(PropertyString,'abc')").getParameters());
+  }
+
+  @Test
+  public void notSupported() throws Exception {
+    expectNotImplemented("$filter=contains(PropertyString,PropertyString)");
+    expectNotImplemented("$filter=substring(PropertyString,1) eq 'a'");
+    expectNotImplemented("$filter=PropertyDuration eq duration'PT6S'");
+  }
+
+  private void expectNotImplemented(final String query) throws Exception {
+    try {
+      translate(query);
+      fail("Expected an exception.");
+    } catch (final ODataApplicationException e) {
+      assertEquals(HttpStatusCode.NOT_IMPLEMENTED.getStatusCode(), e.getStatusCode());
+    }
+  }
+
+  private String where(final String filter) throws Exception {
+    final String statement = translate("$filter=" + filter).getStatement();
+    return statement.substring("SELECT * FROM ALL_PRIM".length());
+  }
+
+  private SqlQuery translate(final String query) throws Exception {
+    return odata.createSqlQueryTranslator("ALL_PRIM", Collections.singletonMap("PropertyInt16", "ID"))
+        .translate(plan(query));
+  }
+
+  private QueryPlan plan(final String query) throws Exception {
+    final UriInfo uriInfo = new Parser(edm, odata).parseUri("ESAllPrim", query, null, null);
+    return odata.createQueryPlan(uriInfo, ET_ALL_PRIM);
+  }
+}
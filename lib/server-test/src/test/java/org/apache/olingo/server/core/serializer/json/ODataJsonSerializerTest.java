@@ -28,13 +28,17 @@ import java.nio.channels.WritableByteChannel;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
+import org.apache.commons.codec.DecoderException;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.output.ByteArrayOutputStream;
+import org.apache.olingo.commons.api.constants.Constantsv00;
 import org.apache.olingo.commons.api.constants.Constantsv01;
 import org.apache.olingo.commons.api.data.ComplexValue;
 import org.apache.olingo.commons.api.data.ContextURL;
@@ -43,6 +47,7 @@ import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.data.EntityIterator;
 import org.apache.olingo.commons.api.data.Link;
+import org.apache.olingo.commons.api.data.Linked;
 import org.apache.olingo.commons.api.data.Operation;
 import org.apache.olingo.commons.api.data.Property;
 import org.apache.olingo.commons.api.data.ValueType;
@@ -96,6 +101,9 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+
 public class ODataJsonSerializerTest {
   private static final OData odata = OData.newInstance();
   private static final ServiceMetadata metadata = odata.createServiceMetadata(
@@ -183,6 +191,31 @@ public class ODataJsonSerializerTest {
 	  Assert.assertEquals(expectedResult, resultString);
   }
   
+  @Test
+  public void entityWithOverriddenWriteProperty() throws Exception {
+    final List<String> writtenProperties = new ArrayList<>();
+    final ODataSerializer subclassSerializer = new ODataJsonSerializer(ContentType.JSON) {
+      @Override
+      protected void writeProperty(final ServiceMetadata metadata, final EdmProperty edmProperty,
+          final Property property, final Set<List<String>> selectedPaths, final JsonGenerator json,
+          final Set<List<String>> expandedPaths, final Linked linked, final ExpandOption expand)
+          throws IOException, SerializerException, DecoderException {
+        writtenProperties.add(edmProperty.getName());
+        super.writeProperty(metadata, edmProperty, property, selectedPaths, json, expandedPaths, linked, expand);
+      }
+    };
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESTwoPrim");
+    final Entity entity = data.readAll(edmEntitySet).getEntities().get(0);
+    final String resultString = IOUtils.toString(subclassSerializer.entity(metadata, edmEntitySet.getEntityType(),
+        entity,
+        EntitySerializerOptions.with()
+            .contextURL(ContextURL.with().entitySet(edmEntitySet).suffix(Suffix.ENTITY).build())
+            .build()).getContent());
+
+    Assert.assertEquals(Arrays.asList("PropertyInt16", "PropertyString"), writtenProperties);
+    Assert.assertThat(resultString, CoreMatchers.containsString("\"PropertyInt16\":32766"));
+  }
+
   @Test
   public void entitySimpleMetadataFull() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
@@ -528,6 +561,75 @@ public class ODataJsonSerializerTest {
     Assert.assertEquals(4, count);
   }
 
+  @Test
+  public void entityCollectionStreamedWithCountAndNextLink() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
+    final Iterator<Entity> innerIterator = data.readAll(edmEntitySet).iterator();
+    final EntityIterator entityIterator = new EntityIterator() {
+      @Override
+      public boolean hasNext() {
+        if (innerIterator.hasNext()) {
+          return true;
+        }
+        setNext(URI.create("/next"));
+        return false;
+      }
+
+      @Override
+      public Entity next() {
+        return innerIterator.next();
+      }
+    };
+    entityIterator.setCount(4);
+    CountOption countOption = Mockito.mock(CountOption.class);
+    Mockito.when(countOption.getValue()).thenReturn(true);
+
+    ODataContent result = serializer.entityCollectionStreamed(
+        metadata, edmEntitySet.getEntityType(), entityIterator,
+        EntityCollectionSerializerOptions.with()
+            .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+            .count(countOption)
+            .build()).getODataContent();
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    result.write(bout);
+    final String resultString = new String(bout.toByteArray(), "UTF-8");
+
+    Assert.assertThat(resultString, CoreMatchers.containsString("\"@odata.count\":4,\"value\":[{"));
+    Assert.assertThat(resultString, CoreMatchers.endsWith(
+        "\"PropertyTimeOfDay\":\"00:01:01\"}],\"@odata.nextLink\":\"/next\"}"));
+  }
+
+  @Test
+  public void expandedNavigationCollectionFromIterator() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrimDerived");
+    final ExpandOption expand = ExpandSelectMock.mockExpandOption(Collections.singletonList(
+        ExpandSelectMock.mockExpandItem(edmEntitySet, "NavPropertyETTwoPrimMany")));
+    final EntitySerializerOptions options = EntitySerializerOptions.with()
+        .contextURL(ContextURL.with().entitySet(edmEntitySet).suffix(Suffix.ENTITY).build())
+        .expand(expand)
+        .build();
+    final Entity entity = data.readAll(edmEntitySet).getEntities().get(2);
+    final String expected = IOUtils.toString(
+        serializer.entity(metadata, edmEntitySet.getEntityType(), entity, options).getContent());
+
+    final Link link = entity.getNavigationLink("NavPropertyETTwoPrimMany");
+    final Iterator<Entity> innerIterator = link.getInlineEntitySet().iterator();
+    link.setInlineEntitySet(null);
+    link.setInlineEntityIterator(new EntityIterator() {
+      @Override
+      public boolean hasNext() {
+        return innerIterator.hasNext();
+      }
+
+      @Override
+      public Entity next() {
+        return innerIterator.next();
+      }
+    });
+    Assert.assertEquals(expected,
+        IOUtils.toString(serializer.entity(metadata, edmEntitySet.getEntityType(), entity, options).getContent()));
+  }
+
   @Test
   public void entityCollectionStreamedWithError() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
@@ -582,6 +684,60 @@ public class ODataJsonSerializerTest {
   }
 
 
+  @Test
+  public void entityCollectionWrittenDirectly() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
+    final EntityCollectionSerializerOptions options = EntityCollectionSerializerOptions.with()
+        .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+        .writeDirectly(true)
+        .build();
+    final String expected = IOUtils.toString(serializer.entityCollection(metadata, edmEntitySet.getEntityType(),
+        data.readAll(edmEntitySet), EntityCollectionSerializerOptions.with()
+            .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+            .build()).getContent());
+
+    // The collection is serialized only when the content is written.
+    final EntityCollection entitySet = data.readAll(edmEntitySet);
+    final Entity removed = entitySet.getEntities().remove(0);
+    final ODataContent content = serializer.entityCollection(metadata, edmEntitySet.getEntityType(), entitySet,
+        options).getODataContent();
+    entitySet.getEntities().add(0, removed);
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    content.write(bout);
+    Assert.assertEquals(expected, new String(bout.toByteArray(), "UTF-8"));
+
+    Assert.assertEquals(expected, IOUtils.toString(serializer.entityCollection(metadata,
+        edmEntitySet.getEntityType(), data.readAll(edmEntitySet), options).getContent()));
+  }
+
+  @Test
+  public void entityCollectionWrittenDirectlyWithError() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
+    final EntityCollection entitySet = new EntityCollection();
+    entitySet.getEntities().add(new Entity());
+    ODataContentWriteErrorCallback errorCallback = new ODataContentWriteErrorCallback() {
+      @Override
+      public void handleError(ODataContentWriteErrorContext context, WritableByteChannel channel) {
+        try {
+          channel.write(ByteBuffer.wrap(("ERROR: " + context.getODataLibraryException().getMessageKey().getKey())
+              .getBytes("UTF-8")));
+        } catch (IOException e) {
+          throw new RuntimeException("Error in error.");
+        }
+      }
+    };
+
+    ODataContent result = serializer.entityCollection(metadata, edmEntitySet.getEntityType(), entitySet,
+        EntityCollectionSerializerOptions.with()
+            .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+            .writeContentErrorCallback(errorCallback)
+            .writeDirectly(true)
+            .build()).getODataContent();
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    result.write(bout);
+    Assert.assertEquals("ERROR: MISSING_PROPERTY", new String(bout.toByteArray(), "UTF-8"));
+  }
+
   @Test
   public void entityCollAllPrim() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESCollAllPrim");
@@ -1213,6 +1369,32 @@ public class ODataJsonSerializerTest {
     Assert.assertEquals(expectedResult, resultString);
   }
 
+  @Test
+  public void selectWithReusedSerializer() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
+    final EdmEntityType entityType = edmEntitySet.getEntityType();
+    final EntityCollection entitySet = new EntityCollection();
+    entitySet.getEntities().addAll(data.readAll(edmEntitySet).getEntities().subList(0, 2));
+    final SelectOption selectBoolean = ExpandSelectMock.mockSelectOption(Collections.singletonList(
+        ExpandSelectMock.mockSelectItem(edmEntitySet, "PropertyBoolean")));
+    final SelectOption selectDate = ExpandSelectMock.mockSelectOption(Collections.singletonList(
+        ExpandSelectMock.mockSelectItem(edmEntitySet, "PropertyDate")));
+    final ODataSerializer reusedSerializer = new ODataJsonSerializer(ContentType.JSON_NO_METADATA);
+
+    for (int i = 0; i < 2; i++) {
+      Assert.assertEquals("{\"value\":["
+          + "{\"PropertyInt16\":32767,\"PropertyBoolean\":true},"
+          + "{\"PropertyInt16\":-32768,\"PropertyBoolean\":false}]}",
+          IOUtils.toString(reusedSerializer.entityCollection(metadata, entityType, entitySet,
+              EntityCollectionSerializerOptions.with().select(selectBoolean).build()).getContent()));
+      Assert.assertEquals("{\"value\":["
+          + "{\"PropertyInt16\":32767,\"PropertyDate\":\"2012-12-03\"},"
+          + "{\"PropertyInt16\":-32768,\"PropertyDate\":\"2015-11-05\"}]}",
+          IOUtils.toString(reusedSerializer.entityCollection(metadata, entityType, entitySet,
+              EntityCollectionSerializerOptions.with().select(selectDate).build()).getContent()));
+    }
+  }
+
   @Test
   public void selectAll() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESTwoPrim");
@@ -1728,6 +1910,18 @@ public class ODataJsonSerializerTest {
         .primitive(metadata, (EdmPrimitiveType) edmProperty.getType(), property, null).getContent());
     Assert.assertEquals("{\"value\":\"First Resource - positive values\"}", resultString);
   }
+
+  @Test
+  public void primitivePropertyWithConfiguredFactory() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
+    final EdmProperty edmProperty = (EdmProperty) edmEntitySet.getEntityType().getProperty("PropertyString");
+    final Property property = new Property(null, edmProperty.getName(), ValueType.PRIMITIVE, "\u00C4rger");
+    final ODataSerializer escapingSerializer = new ODataJsonSerializer(ContentType.JSON_NO_METADATA,
+        new Constantsv00(), JsonFactoryProvider.builder().enable(JsonWriteFeature.ESCAPE_NON_ASCII).build());
+    final String resultString = IOUtils.toString(escapingSerializer
+        .primitive(metadata, (EdmPrimitiveType) edmProperty.getType(), property, null).getContent());
+    Assert.assertEquals("{\"value\":\"\\u00C4rger\"}", resultString);
+  }
   
   @Test
   public void primitivePropertyWithMetadataFull() throws Exception {
@@ -2906,4 +3100,25 @@ public class ODataJsonSerializerTest {
             + "\"PropertyComp\":{\"PropertyInt16\":333,\"PropertyString\":\"TEST123\"}}}";
     Assert.assertEquals(expectedResult, resultString);
   }
+
+  @Test
+  public void overriddenWritePropertyIsUsed() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESTwoPrim");
+    final Entity entity = data.readAll(edmEntitySet).getEntities().get(0);
+    final List<String> written = new ArrayList<>();
+    final ODataSerializer subclassSerializer = new ODataJsonSerializer(ContentType.JSON_NO_METADATA) {
+      @Override
+      protected void writeProperty(final ServiceMetadata metadata, final EdmProperty edmProperty,
+          final Property property, final Set<List<String>> selectedPaths, final JsonGenerator json,
+          final Set<List<String>> expandedPaths, final Linked linked, final ExpandOption expand)
+          throws IOException, SerializerException, DecoderException {
+        written.add(edmProperty.getName());
+        super.writeProperty(metadata, edmProperty, property, selectedPaths, json, expandedPaths, linked, expand);
+      }
+    };
+    final String resultString = IOUtils.toString(subclassSerializer.entity(metadata, edmEntitySet.getEntityType(),
+        entity, EntitySerializerOptions.with().build()).getContent());
+    Assert.assertEquals("{\"PropertyInt16\":32766,\"PropertyString\":\"Test String1\"}", resultString);
+    Assert.assertEquals(Arrays.asList("PropertyInt16", "PropertyString"), written);
+  }
 }
@@ -18,6 +18,7 @@
  */
 package org.apache.olingo.server.core.serializer.xml;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -26,6 +27,7 @@ import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.Constants;
@@ -34,6 +36,7 @@ import org.apache.olingo.commons.api.data.ContextURL;
 import org.apache.olingo.commons.api.data.ContextURL.Suffix;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
 import org.apache.olingo.commons.api.data.Property;
 import org.apache.olingo.commons.api.data.ValueType;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
@@ -46,6 +49,7 @@ import org.apache.olingo.commons.api.edm.FullQualifiedName;
 import org.apache.olingo.commons.api.edmx.EdmxReference;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.serializer.ComplexSerializerOptions;
 import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions;
@@ -494,6 +498,89 @@ public class ODataXmlSerializerTest {
     Assert.assertTrue(resultString.startsWith(prefix));
   }
 
+  @Test
+  public void entitySetStreamedWithCountAndNextLink() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESCompAllPrim");
+    final Iterator<Entity> innerIterator = data.readAll(edmEntitySet).iterator();
+    final EntityIterator entityIterator = new EntityIterator() {
+      {
+        setCount(4);
+      }
+
+      @Override
+      public boolean hasNext() {
+        if (innerIterator.hasNext()) {
+          return true;
+        }
+        setNext(URI.create("/next"));
+        return false;
+      }
+
+      @Override
+      public Entity next() {
+        return innerIterator.next();
+      }
+    };
+    final String resultString = serializeStreamedWithCount(edmEntitySet, entityIterator);
+
+    Assert.assertThat(resultString, CoreMatchers.startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+        + "<a:feed xmlns:a=\"http://www.w3.org/2005/Atom\" "
+        + "xmlns:m=\"http://docs.oasis-open.org/odata/ns/metadata\" "
+        + "xmlns:d=\"http://docs.oasis-open.org/odata/ns/data\" "
+        + "m:context=\"http://host:port$metadata#ESCompAllPrim\" "
+        + "m:metadata-etag=\"metadataETag\">"
+        + "<m:count>4</m:count>"
+        + "<a:entry m:etag=\"W/&quot;32767&quot;\">"));
+    Assert.assertThat(resultString, CoreMatchers.endsWith("</a:entry>"
+        + "<a:link rel=\"next\" href=\"/next\"></a:link>"
+        + "</a:feed>"));
+  }
+
+  @Test
+  public void entitySetStreamedWithCountAfterIteration() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESCompAllPrim");
+    final Iterator<Entity> innerIterator = data.readAll(edmEntitySet).iterator();
+    final EntityIterator entityIterator = new EntityIterator() {
+      private int read = 0;
+
+      @Override
+      public boolean hasNext() {
+        if (innerIterator.hasNext()) {
+          return true;
+        }
+        setCount(read);
+        return false;
+      }
+
+      @Override
+      public Entity next() {
+        read++;
+        return innerIterator.next();
+      }
+    };
+    final String resultString = serializeStreamedWithCount(edmEntitySet, entityIterator);
+
+    // A count that is known only after the entries is not written.
+    Assert.assertThat(resultString, CoreMatchers.not(CoreMatchers.containsString("m:count")));
+    Assert.assertThat(resultString, CoreMatchers.endsWith("</a:entry></a:feed>"));
+  }
+
+  private String serializeStreamedWithCount(final EdmEntitySet edmEntitySet, final EntityIterator entityIterator)
+      throws Exception {
+    CountOption countOption = Mockito.mock(CountOption.class);
+    Mockito.when(countOption.getValue()).thenReturn(true);
+    ODataContent result = serializer.entityCollectionStreamed(metadata, edmEntitySet.getEntityType(),
+        entityIterator,
+        EntityCollectionSerializerOptions.with()
+            .contextURL(ContextURL.with().serviceRoot(new URI("http://host:port"))
+                .entitySet(edmEntitySet).build())
+            .count(countOption)
+            .build()).getODataContent();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    result.write(out);
+    return new String(out.toByteArray(), "UTF-8");
+  }
+
   @Test
   public void entityCollAllPrim() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESCollAllPrim");
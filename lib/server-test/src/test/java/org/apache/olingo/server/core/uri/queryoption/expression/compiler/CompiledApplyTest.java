@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.queryoption.expression.compiler;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.ODataHandler;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledApply;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.processor.TechnicalEntityProcessor;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+/** Tests of the compiled execution of $apply transformations. */
+public class CompiledApplyTest {
+
+  private static final OData odata = OData.newInstance();
+  private static final ServiceMetadata metadata = odata.createServiceMetadata(
+      new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+  private static final Edm edm = metadata.getEdm();
+
+  @Test
+  public void aggregate() throws Exception {
+    final List<Entity> result = apply("ESAllPrim",
+        "aggregate(PropertyInt16 with sum as Total,$count as Count,PropertyDecimal with average as Average,"
+            + "PropertyInt32 with min as Minimum,PropertyInt32 with countdistinct as Distinct)");
+    assertEquals(1, result.size());
+    assertEquals(BigDecimal.valueOf(9), result.get(0).getProperty("Total").getValue());
+    assertEquals("Edm.Decimal", result.get(0).getProperty("Total").getType());
+    assertEquals(4L, result.get(0).getProperty("Count").getValue());
+    assertEquals(0, BigDecimal.ZERO.compareTo((BigDecimal) result.get(0).getProperty("Average").getValue()));
+    assertEquals(Integer.MIN_VALUE, result.get(0).getProperty("Minimum").getValue());
+    assertEquals(3L, result.get(0).getProperty("Distinct").getValue());
+    assertEquals(5, result.get(0).getProperties().size());
+
+    // Aggregating no entities still has a result.
+    final List<Entity> empty = apply("ESAllPrim", "filter(PropertyInt16 eq 1)/aggregate($count as Count)");
+    assertEquals(1, empty.size());
+    assertEquals(0L, empty.get(0).getProperty("Count").getValue());
+  }
+
+  @Test
+  public void groupBy() throws Exception {
+    List<Entity> result = apply("ESAllPrim",
+        "groupby((PropertyBoolean),aggregate(PropertyInt16 with max as Maximum,$count as Count))");
+    assertEquals(2, result.size());
+    assertEquals(true, result.get(0).getProperty("PropertyBoolean").getValue());
+    assertEquals(Short.MAX_VALUE, result.get(0).getProperty("Maximum").getValue());
+    assertEquals(1L, result.get(0).getProperty("Count").getValue());
+    assertEquals(false, result.get(1).getProperty("PropertyBoolean").getValue());
+    assertEquals((short) 10, result.get(1).getProperty("Maximum").getValue());
+    assertEquals(3L, result.get(1).getProperty("Count").getValue());
+
+    result = apply("ESAllPrim", "groupby((PropertyBoolean,PropertyInt32))");
+    assertEquals(3, result.size());
+    assertEquals(2, result.get(2).getProperties().size());
+
+    result = apply("ESAllPrim", "groupby((PropertyBoolean),filter(PropertyInt16 ge 0)/aggregate($count as Count))");
+    assertEquals(2, result.size());
+    assertEquals(1L, result.get(0).getProperty("Count").getValue());
+    assertEquals(2L, result.get(1).getProperty("Count").getValue());
+    assertEquals(false, result.get(1).getProperty("PropertyBoolean").getValue());
+
+    result = apply("ESCompAllPrim", "groupby((PropertyComp/PropertyBoolean),aggregate($count as Count))");
+    final Property complex = result.get(0).getProperty("PropertyComp");
+    assertEquals(ValueType.COMPLEX, complex.getValueType());
+    assertEquals("PropertyBoolean", complex.asComplex().getValue().get(0).getName());
+  }
+
+  @Test
+  public void pipeline() throws Exception {
+    final EntityCollection input = read("ESAllPrim");
+    final UriInfo uriInfo = parse("ESAllPrim", "$apply=filter(PropertyInt16 ge 0)"
+        + "/compute(PropertyInt16 mul 2 as Twice)/orderby(Twice desc)/skip(1)/top(1)");
+    final List<Entity> result = odata.createExpressionCompiler(uriInfo).compileApply(uriInfo.getApplyOption())
+        .apply(input).getEntities();
+    assertEquals(1, result.size());
+    assertEquals(20L, result.get(0).getProperty("Twice").getValue());
+    assertEquals((short) 10, result.get(0).getProperty("PropertyInt16").getValue());
+    // The input is not modified.
+    assertEquals(4, input.getEntities().size());
+    assertNull(input.getEntities().get(3).getProperty("Twice"));
+
+    assertEquals(5, apply("ESAllPrim", "concat(aggregate($count as Count),identity)").size());
+    assertEquals(Short.MAX_VALUE,
+        apply("ESAllPrim", "topcount(1,PropertyInt16)").get(0).getProperty("PropertyInt16").getValue());
+    assertEquals(2, apply("ESAllPrim", "topsum(32770,PropertyInt16)").size());
+    assertEquals(Short.MIN_VALUE,
+        apply("ESAllPrim", "bottomcount(2,PropertyInt16)").get(0).getProperty("PropertyInt16").getValue());
+  }
+
+  @Test
+  public void iterator() throws Exception {
+    final UriInfo uriInfo = parse("ESAllPrim", "$apply=groupby((PropertyBoolean),aggregate($count as Count))");
+    final Iterator<Entity> entities = read("ESAllPrim").iterator();
+    final List<Entity> result = odata.createExpressionCompiler(uriInfo).compileApply(uriInfo.getApplyOption())
+        .apply(new EntityIterator() {
+          @Override
+          public boolean hasNext() {
+            return entities.hasNext();
+          }
+
+          @Override
+          public Entity next() {
+            return entities.next();
+          }
+        }).getEntities();
+    assertEquals(2, result.size());
+    assertEquals(3L, result.get(1).getProperty("Count").getValue());
+  }
+
+  @Test
+  public void parallel() throws Exception {
+    final EntityCollection input = new EntityCollection();
+    for (int i = 0; i < 3 * 8192; i++) {
+      input.getEntities().add(new Entity()
+          .addProperty(new Property(null, "PropertyInt16", ValueType.PRIMITIVE, (short) (i % 7)))
+          .addProperty(new Property(null, "PropertyInt64", ValueType.PRIMITIVE, (long) i))
+          .addProperty(new Property(null, "PropertyString", ValueType.PRIMITIVE, "s" + (i % 100))));
+    }
+    final UriInfo uriInfo = parse("ESAllPrim", "$apply=groupby((PropertyInt16),aggregate("
+        + "PropertyInt64 with sum as Total,PropertyInt64 with max as Maximum,"
+        + "PropertyString with countdistinct as Distinct,$count as Count))");
+    final CompiledApply apply = odata.createExpressionCompiler(uriInfo).compileApply(uriInfo.getApplyOption());
+    final List<Entity> expected = apply.apply(input).getEntities();
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      final List<Entity> result = apply.apply(input, pool).getEntities();
+      assertEquals(7, result.size());
+      assertEquals(expected, result);
+      assertEquals((short) 0, result.get(0).getProperty("PropertyInt16").getValue());
+      assertEquals(100L, result.get(0).getProperty("Distinct").getValue());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void resultType() throws Exception {
+    final UriInfo uriInfo = parse("ESAllPrim",
+        "$apply=groupby((PropertyBoolean),aggregate(PropertyInt16 with sum as Total))");
+    final CompiledApply apply = odata.createExpressionCompiler(uriInfo).compileApply(uriInfo.getApplyOption());
+    assertEquals(Arrays.asList("PropertyBoolean", "Total"), apply.getResultType().getPropertyNames());
+    assertEquals("Edm.Decimal",
+        apply.getResultType().getStructuralProperty("Total").getType().getFullQualifiedName()
+            .getFullQualifiedNameAsString());
+    assertEquals(Collections.emptyList(), apply.getResultType().getKeyPredicateNames());
+
+    final UriInfo computeInfo = parse("ESAllPrim", "$apply=compute(PropertyInt16 add 1 as Next)");
+    final List<String> names = odata.createExpressionCompiler(computeInfo)
+        .compileApply(computeInfo.getApplyOption()).getResultType().getPropertyNames();
+    assertEquals("Next", names.get(names.size() - 1));
+  }
+
+  @Test
+  public void notImplemented() throws Exception {
+    try {
+      apply("ESAllPrim", "aggregate(PropertyInt16 with Custom.Method as Result)");
+      fail("Expected an exception.");
+    } catch (final ODataApplicationException e) {
+      assertEquals(HttpStatusCode.NOT_IMPLEMENTED.getStatusCode(), e.getStatusCode());
+    }
+  }
+
+  @Test
+  public void technicalService() throws Exception {
+    final ODataHandler handler = odata.createRawHandler(metadata);
+    handler.register(new TechnicalEntityProcessor(new DataProvider(odata, edm), metadata));
+    final ODataRequest request = new ODataRequest();
+    request.setMethod(HttpMethod.GET);
+    request.setRawBaseUri("http://localhost/odata/");
+    request.setRawODataPath("ESAllPrim");
+    request.setRawQueryPath("$apply=groupby((PropertyBoolean),aggregate(PropertyInt16 with sum as Total))"
+        + "&$filter=Total gt 0&$format=json");
+    final ODataResponse response = handler.process(request);
+    assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+    final String content = IOUtils.toString(response.getContent());
+    assertThat(content, containsString("$metadata#ESAllPrim(PropertyBoolean,Total)"));
+    assertThat(content, containsString("\"value\":[{\"PropertyBoolean\":true,\"Total\":32767}]"));
+  }
+
+  private List<Entity> apply(final String entitySetName, final String apply) throws Exception {
+    final UriInfo uriInfo = parse(entitySetName, "$apply=" + apply);
+    return odata.createExpressionCompiler(uriInfo).compileApply(uriInfo.getApplyOption())
+        .apply(read(entitySetName)).getEntities();
+  }
+
+  private UriInfo parse(final String entitySetName, final String query) throws Exception {
+    return new Parser(edm, odata).parseUri(entitySetName, query, null, null);
+  }
+
+  private EntityCollection read(final String entitySetName) throws Exception {
+    return new DataProvider(odata, edm).readAll(edm.getEntityContainer().getEntitySet(entitySetName));
+  }
+}
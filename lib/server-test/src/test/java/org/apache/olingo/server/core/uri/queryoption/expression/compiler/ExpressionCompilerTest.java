@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.queryoption.expression.compiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledExpression;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledFilter;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledOrderBy;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.options.FilterHandler;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.options.OrderByHandler;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+/** Tests of the compiled evaluation of $filter and $orderby expressions. */
+public class ExpressionCompilerTest {
+
+  private static final OData odata = OData.newInstance();
+  private static final Edm edm = odata.createServiceMetadata(
+      new EdmTechProvider(), Collections.<EdmxReference> emptyList()).getEdm();
+
+  @Test
+  public void comparisons() throws Exception {
+    assertEquals(2, filter("ESAllPrim", "PropertyInt16 gt 0").size());
+    assertEquals(1, filter("ESAllPrim", "PropertyInt16 eq 32767").size());
+    assertEquals(3, filter("ESAllPrim", "PropertyInt16 ne 32767").size());
+    assertEquals(3, filter("ESAllPrim", "PropertyInt64 le 0").size());
+    assertEquals(1, filter("ESAllPrim", "PropertyDecimal ge 34 and PropertyBoolean eq true").size());
+    assertEquals(3, filter("ESAllPrim", "PropertyDouble lt -1000.5 or PropertyString eq ''").size());
+    assertEquals(1, filter("ESAllPrim", "PropertyGuid eq 01234567-89ab-cdef-0123-456789abcdef").size());
+  }
+
+  @Test
+  public void temporal() throws Exception {
+    assertEquals(1, filter("ESAllPrim", "PropertyDate eq 2012-12-03").size());
+    assertEquals(2, filter("ESAllPrim", "PropertyDate gt 2012-01-01").size());
+    assertEquals(1, filter("ESAllPrim", "PropertyDateTimeOffset eq 2012-12-03T07:16:23Z").size());
+    assertEquals(1, filter("ESAllPrim", "PropertyDateTimeOffset eq 2012-12-03T08:16:23+01:00").size());
+    assertEquals(1, filter("ESAllPrim", "PropertyTimeOfDay eq 03:26:05").size());
+    assertEquals(1, filter("ESAllPrim", "PropertyDuration eq duration'PT6S'").size());
+    assertEquals(1, filter("ESAllPrim", "year(PropertyDateTimeOffset) eq 2012").size());
+    assertEquals(1, filter("ESAllPrim", "month(PropertyDate) eq 11 and day(PropertyDate) eq 5").size());
+    assertEquals(1, filter("ESAllPrim", "hour(PropertyTimeOfDay) eq 23").size());
+    assertEquals(1,
+        filter("ESAllPrim", "PropertyDateTimeOffset add duration'P1D' eq 2012-12-04T07:16:23Z").size());
+  }
+
+  @Test
+  public void arithmetic() throws Exception {
+    assertEquals(1, filter("ESAllPrim", "PropertyInt16 add 1 eq 11").size());
+    assertEquals(2, filter("ESAllPrim", "PropertyInt32 mul 2 eq 0").size());
+    assertEquals(3, filter("ESAllPrim", "PropertyInt16 mod 2 eq 0 and PropertyInt16 div 5 le 2").size());
+    assertEquals(1, filter("ESAllPrim", "-PropertyInt16 eq -10").size());
+    assertEquals(1, filter("ESAllPrim", "PropertyInt64 add 1 lt 0").size());
+    assertEquals(1, filter("ESAllPrim", "PropertyInt64 div -1 gt 0").size());
+
+    try {
+      filter("ESAllPrim", "PropertyInt16 div 0 eq 1");
+      fail("Expected an exception.");
+    } catch (final ODataApplicationException e) {
+      assertEquals(HttpStatusCode.BAD_REQUEST.getStatusCode(), e.getStatusCode());
+    }
+  }
+
+  @Test
+  public void methods() throws Exception {
+    assertEquals(1, filter("ESAllPrim", "startswith(PropertyString,'First')").size());
+    assertEquals(1, filter("ESAllPrim", "endswith(PropertyString,'negative values')").size());
+    assertEquals(2, filter("ESAllPrim", "contains(tolower(PropertyString),'resource')").size());
+    assertEquals(1, filter("ESAllPrim", "length(PropertyString) eq 0").size());
+    assertEquals(1, filter("ESAllPrim", "substring(PropertyString,7) eq 'Resource - negative values'").size());
+    assertEquals(1, filter("ESAllPrim", "indexof(PropertyString,'Resource') eq 6").size());
+    assertEquals(1, filter("ESAllPrim", "concat(PropertyString,'!') eq '!'").size());
+    assertEquals(1, filter("ESAllPrim", "round(PropertyDecimal) eq 34").size());
+  }
+
+  @Test
+  public void nullValues() throws Exception {
+    assertEquals(0, filter("ESAllPrim", "PropertyString eq null").size());
+    assertEquals(4, filter("ESAllPrim", "PropertyString ne null").size());
+
+    final Entity entity = new Entity();
+    final CompiledExpression expression = compile("ESAllPrim", "PropertyInt16 gt 5 or PropertyString eq 'x'");
+    assertEquals(EdmPrimitiveTypeKind.Boolean, expression.getTypeKind());
+    assertFalse((Boolean) expression.evaluate(entity));
+    assertNull(compile("ESAllPrim", "not PropertyBoolean").evaluate(entity));
+    assertNull(compile("ESAllPrim", "PropertyBoolean and PropertyInt32 eq 1 or PropertyBoolean").evaluate(entity));
+  }
+
+  @Test
+  public void nonBooleanOperand() throws Exception {
+    final Entity entity = new Entity();
+    entity.addProperty(new Property(null, "PropertyBoolean", ValueType.PRIMITIVE, "true"));
+    for (final String filter : new String[] { "not PropertyBoolean", "PropertyBoolean or false" }) {
+      try {
+        compile("ESAllPrim", filter).evaluate(entity);
+        fail("Expected an exception.");
+      } catch (final ODataApplicationException e) {
+        assertEquals(HttpStatusCode.BAD_REQUEST.getStatusCode(), e.getStatusCode());
+      }
+    }
+  }
+
+  @Test
+  public void lambda() throws Exception {
+    assertEquals(3, filter("ESCollAllPrim", "CollPropertyString/any(d:d eq 'Employee1@company.example')").size());
+    assertEquals(0, filter("ESCollAllPrim", "CollPropertyInt16/all(d:d lt 30000)").size());
+    assertEquals(3, filter("ESCollAllPrim", "CollPropertyInt16/any(d:d eq 30112)").size());
+    assertEquals(1, filter("ESCollAllPrim", "PropertyInt16 eq 2 and CollPropertyInt16/all(d:d gt 999)").size());
+    assertEquals(3, filter("ESCollAllPrim", "CollPropertyString/$count eq 3").size());
+  }
+
+  @Test
+  public void orderBy() throws Exception {
+    List<Entity> entities = orderBy("ESAllPrim", "PropertyInt16 desc");
+    assertEquals(Short.MAX_VALUE, entities.get(0).getProperty("PropertyInt16").getValue());
+    assertEquals(Short.MIN_VALUE, entities.get(3).getProperty("PropertyInt16").getValue());
+
+    entities = orderBy("ESAllPrim", "PropertyBoolean,PropertyDate desc");
+    assertEquals(Short.MIN_VALUE, entities.get(0).getProperty("PropertyInt16").getValue());
+    assertEquals((short) 0, entities.get(1).getProperty("PropertyInt16").getValue());
+    assertEquals((short) 10, entities.get(2).getProperty("PropertyInt16").getValue());
+    assertEquals(Short.MAX_VALUE, entities.get(3).getProperty("PropertyInt16").getValue());
+
+    final UriInfo uriInfo = parse("ESAllPrim", "$orderby=PropertyString");
+    final CompiledOrderBy compiled = odata.createExpressionCompiler(uriInfo).compileOrderBy(uriInfo.getOrderByOption());
+    final Entity withoutValue = new Entity();
+    entities = new ArrayList<Entity>(read("ESAllPrim").getEntities());
+    entities.add(withoutValue);
+    compiled.sort(entities);
+    assertEquals(withoutValue, entities.get(0));
+    assertTrue(compiled.compare(entities.get(1), entities.get(2)) < 0);
+  }
+
+  @Test
+  public void propertySlots() throws Exception {
+    assertEquals(1, filter("ESCompAllPrim", "PropertyComp/PropertyString eq 'First Resource - first'").size());
+
+    // Properties that are not in declared order are still found by name.
+    final CompiledExpression expression = compile("ESAllPrim", "PropertyString eq 'x'");
+    final Entity entity = new Entity();
+    entity.addProperty(new Property(null, "PropertyString", ValueType.PRIMITIVE, "x"));
+    entity.addProperty(new Property(null, "PropertyInt16", ValueType.PRIMITIVE, (short) 1));
+    assertEquals(true, expression.evaluate(entity));
+  }
+
+  @Test
+  public void serviceHandlers() throws Exception {
+    final UriInfo uriInfo = parse("ESAllPrim", "$filter=PropertyInt16 gt 0&$orderby=PropertyInt16 desc");
+    final EntityCollection entityCollection = read("ESAllPrim");
+    FilterHandler.applyFilterSystemQuery(uriInfo.getFilterOption(), entityCollection, uriInfo, edm);
+    OrderByHandler.applyOrderByOption(uriInfo.getOrderByOption(), entityCollection, uriInfo, edm);
+    assertEquals(2, entityCollection.getEntities().size());
+    assertEquals(Short.MAX_VALUE, entityCollection.getEntities().get(0).getProperty("PropertyInt16").getValue());
+    assertEquals((short) 10, entityCollection.getEntities().get(1).getProperty("PropertyInt16").getValue());
+  }
+
+  @Test
+  public void alias() throws Exception {
+    final UriInfo uriInfo = parse("ESAllPrim", "$filter=PropertyInt16 eq @p&@p=10");
+    final CompiledFilter filter = odata.createExpressionCompiler(uriInfo).compileFilter(uriInfo.getFilterOption());
+    final EntityCollection entityCollection = read("ESAllPrim");
+    filter.apply(entityCollection);
+    assertEquals(1, entityCollection.getEntities().size());
+  }
+
+  @Test
+  public void nonBooleanFilter() throws Exception {
+    final UriInfo uriInfo = parse("ESAllPrim", "$orderby=PropertyString");
+    final CompiledExpression expression = odata.createExpressionCompiler(uriInfo)
+        .compile(uriInfo.getOrderByOption().getOrders().get(0).getExpression());
+    assertEquals(EdmPrimitiveTypeKind.String, expression.getTypeKind());
+    assertEquals("First Resource - positive values", expression.evaluate(read("ESAllPrim").getEntities().get(0)));
+  }
+
+  private List<Entity> filter(final String entitySetName, final String filter) throws Exception {
+    final UriInfo uriInfo = parse(entitySetName, "$filter=" + filter);
+    final CompiledFilter compiled = odata.createExpressionCompiler(uriInfo).compileFilter(uriInfo.getFilterOption());
+    final List<Entity> result = new ArrayList<Entity>();
+    for (final Entity entity : read(entitySetName)) {
+      if (compiled.matches(entity)) {
+        result.add(entity);
+      }
+    }
+    return result;
+  }
+
+  private List<Entity> orderBy(final String entitySetName, final String orderBy) throws Exception {
+    final UriInfo uriInfo = parse(entitySetName, "$orderby=" + orderBy);
+    final List<Entity> entities = new ArrayList<Entity>(read(entitySetName).getEntities());
+    odata.createExpressionCompiler(uriInfo).compileOrderBy(uriInfo.getOrderByOption()).sort(entities);
+    return entities;
+  }
+
+  private CompiledExpression compile(final String entitySetName, final String filter) throws Exception {
+    final UriInfo uriInfo = parse(entitySetName, "$filter=" + filter);
+    return odata.createExpressionCompiler(uriInfo).compile(uriInfo.getFilterOption().getExpression());
+  }
+
+  private UriInfo parse(final String entitySetName, final String query) throws Exception {
+    return new Parser(edm, odata).parseUri(entitySetName, query, null, null);
+  }
+
+  private EntityCollection read(final String entitySetName) throws Exception {
+    return new DataProvider(odata, edm).readAll(edm.getEntityContainer().getEntitySet(entitySetName));
+  }
+}